@@ -1,6 +1,9 @@
 package com.selfxdsd.api;
 
 import javax.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Comments related to a particular Provider resource (e.g Issue).
@@ -19,10 +22,52 @@ public interface Comments extends Iterable<Comment> {
      */
     Comment post(final String body);
 
+    /**
+     * Post more messages as one comment, one paragraph each.
+     * @param messages Bodies of the messages.
+     * @return Created Comment.
+     * @throws IllegalStateException if Comment was not created.
+     */
+    default Comment post(final List<String> messages) {
+        return this.post(String.join("\n\n", messages));
+    }
+
+    /**
+     * Post a new comment, without blocking the calling thread.
+     * @param body Body of the comment.
+     * @return Future Comment.
+     */
+    default CompletableFuture<Comment> postAsync(final String body) {
+        return CompletableFuture.supplyAsync(
+            () -> this.post(body), Runnable::run
+        );
+    }
+
     /**
      * A comment in JSON format received from the Provider.
      * @param comment Comment in JSON format.
      * @return Comment.
      */
     Comment received(final JsonObject comment);
+
+    /**
+     * The comments posted after the given one.
+     * By default, all the comments are read and the ones up to the given
+     * comment are skipped, implementations should override this method
+     * if the Provider can filter them.
+     * @param last Last known comment. If it is not found (e.g. it was
+     *  deleted), all the comments are returned.
+     * @return Comments posted after the given one.
+     */
+    default Iterable<Comment> since(final Comment last) {
+        final List<Comment> all = new ArrayList<>();
+        int after = 0;
+        for(final Comment comment : this) {
+            all.add(comment);
+            if(comment.commentId().equals(last.commentId())) {
+                after = all.size();
+            }
+        }
+        return all.subList(after, all.size());
+    }
 }
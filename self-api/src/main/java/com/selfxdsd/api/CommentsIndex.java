@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api;
+
+import javax.json.JsonObject;
+
+/**
+ * Index of the comments which are known to exist on the Providers'
+ * Issues. It maps the hash of a comment's body to the comment, so we can
+ * tell whether a comment was already posted without reading all the
+ * comments of the Issue.<br><br>
+ *
+ * The index doesn't have to keep the bodies of the comments, only their
+ * hashes and the JSON of each comment. It also remembers
+ * the last indexed comment of each Issue, so that, on a miss, we only
+ * have to read the comments posted after it.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public interface CommentsIndex {
+
+    /**
+     * Find an indexed comment.
+     * @param issue Key of the Issue (provider, repo and issue id).
+     * @param hash Hash of the comment's body.
+     * @return Comment in JSON format, possibly without
+     *  the body, or null if
+     *  there is no comment with this hash.
+     */
+    JsonObject find(final String issue, final String hash);
+
+    /**
+     * Index a comment. The added comment becomes the last known comment
+     * of the Issue.
+     * @param issue Key of the Issue (provider, repo and issue id).
+     * @param hash Hash of the comment's body.
+     * @param comment Comment in JSON format, as returned by the
+     *  Provider's API. Implementations don't have to keep its body.
+     */
+    void add(final String issue, final String hash, final JsonObject comment);
+
+    /**
+     * The last indexed comment of an Issue.
+     * @param issue Key of the Issue (provider, repo and issue id).
+     * @return Comment in JSON format, possibly without
+     *  the body, or null if
+     *  no comment of this Issue is indexed.
+     */
+    JsonObject last(final String issue);
+}
@@ -62,6 +62,20 @@ public interface Event {
      */
     Project project();
 
+    /**
+     * ID of the delivery which brought this Event (e.g. the
+     * X-GitHub-Delivery header of a Github webhook or the
+     * X-Gitlab-Event-UUID header of a Gitlab one). It is the same when
+     * the Provider redelivers the Event, so it can be used to recognize
+     * duplicates. Only the application which receives the webhooks
+     * knows it, so it should override this method on the Events it
+     * builds from them.
+     * @return String or null if it's not known.
+     */
+    default String deliveryId() {
+        return null;
+    }
+
     /**
      * Event types.
      */
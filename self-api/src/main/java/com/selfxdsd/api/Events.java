@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api;
+
+/**
+ * Pipeline of the Events received from the Providers (e.g. via
+ * webhooks). The submitted Events are resolved asynchronously, by their
+ * Projects (see {@link Project#resolve(Event)}), so the receiver does not
+ * wait for the Provider calls made while resolving them. The Events of
+ * the same Project are resolved in the order in which they were
+ * submitted.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public interface Events extends AutoCloseable {
+
+    /**
+     * Submit an Event, to be resolved asynchronously.
+     * @param event Event.
+     * @return True if the Event was accepted, false if it was rejected
+     *  because the pipeline is full (or closed). A rejected Event should
+     *  be redelivered later (e.g. by answering the webhook with an error
+     *  status, so the Provider retries it).
+     */
+    boolean submit(final Event event);
+
+    /**
+     * How many Events are waiting to be resolved.
+     * @return Integer.
+     */
+    int pending();
+
+    /**
+     * Stop accepting Events and wait for the pending ones to be resolved.
+     */
+    @Override
+    void close();
+}
@@ -23,6 +23,7 @@
 package com.selfxdsd.api;
 
 import javax.json.JsonObject;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Issue in a repository.
@@ -88,6 +89,28 @@ public interface Issue {
      */
     boolean unassign(final String username);
 
+    /**
+     * Assign this Issue to someone, without blocking the calling thread.
+     * @param username Assignee's username.
+     * @return Future which tells whether the operation succeeded.
+     */
+    default CompletableFuture<Boolean> assignAsync(final String username) {
+        return CompletableFuture.supplyAsync(
+            () -> this.assign(username), Runnable::run
+        );
+    }
+
+    /**
+     * Unassign this Issue from someone, without blocking the calling thread.
+     * @param username Assignee's username.
+     * @return Future which tells whether the operation succeeded.
+     */
+    default CompletableFuture<Boolean> unassignAsync(final String username) {
+        return CompletableFuture.supplyAsync(
+            () -> this.unassign(username), Runnable::run
+        );
+    }
+
     /**
      * The Issue in JSON format as returned by the provider's API.
      * @return JsonObject.
@@ -23,6 +23,11 @@
 package com.selfxdsd.api;
 
 import javax.json.JsonObject;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Issues in a repository.
@@ -39,6 +44,59 @@ public interface Issues extends Iterable<Issue> {
      */
     Issue getById(final String issueId);
 
+    /**
+     * Get an Issue, without blocking the calling thread.
+     * @param issueId Issue's ID.
+     * @return Future Issue, completed with null if it's not found.
+     */
+    default CompletableFuture<Issue> getByIdAsync(final String issueId) {
+        return CompletableFuture.supplyAsync(
+            () -> this.getById(issueId), Runnable::run
+        );
+    }
+
+    /**
+     * Get more Issues at once.
+     * By default, the Issues are fetched one by one, implementations
+     * should override this method if they can fetch them in bulk.
+     * @param issueIds IDs of the Issues.
+     * @return Map of Issue ID to Issue. The Issues which are not found
+     *  are missing from the Map.
+     */
+    default Map<String, Issue> getByIds(final Collection<String> issueIds) {
+        final Map<String, Issue> issues = new LinkedHashMap<>();
+        for(final String issueId : issueIds) {
+            final Issue issue = this.getById(issueId);
+            if(issue != null) {
+                issues.put(issueId, issue);
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Get the closed Issues among the given ones.
+     * By default, all the given Issues are fetched. Implementations
+     * should override this method if they can list only the Issues
+     * closed since a given time, so the open ones are not fetched at all.
+     * @param issueIds IDs of the Issues.
+     * @param since None of the given Issues was closed before this time.
+     * @return Map of Issue ID to closed Issue.
+     */
+    default Map<String, Issue> closedSince(
+        final Collection<String> issueIds,
+        final LocalDateTime since
+    ) {
+        final Map<String, Issue> closed = new LinkedHashMap<>();
+        for(final Map.Entry<String, Issue> issue
+            : this.getByIds(issueIds).entrySet()) {
+            if(issue.getValue().isClosed()) {
+                closed.put(issue.getKey(), issue.getValue());
+            }
+        }
+        return closed;
+    }
+
     /**
      * Get an Issue from an existing JsonObject which
      * Self may receive as part of an event sent
@@ -62,7 +120,8 @@ public interface Issues extends Iterable<Issue> {
     );
 
     /**
-     * Search some issues after text and labels.
+     * Search some issues after text and labels. The found Issues may be
+     * read lazily, page by page, as they are iterated.
      * @param text Search text.
      * @param labels Labels that the issue should have.
      * @return Issues.
@@ -22,6 +22,8 @@
  */
 package com.selfxdsd.api;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Labels for Provider Repo resource (Issue, Milestone etc...).
  * @author criske
@@ -43,4 +45,26 @@ public interface Labels extends Iterable<Label> {
      * @return True if successfully removed.
      */
     boolean remove(final String name);
+
+    /**
+     * Add labels to a resource, without blocking the calling thread.
+     * @param names Array of names.
+     * @return Future which tells whether the labels were added.
+     */
+    default CompletableFuture<Boolean> addAsync(final String... names) {
+        return CompletableFuture.supplyAsync(
+            () -> this.add(names), Runnable::run
+        );
+    }
+
+    /**
+     * Remove a label, without blocking the calling thread.
+     * @param name Label to be removed.
+     * @return Future which tells whether the label was removed.
+     */
+    default CompletableFuture<Boolean> removeAsync(final String name) {
+        return CompletableFuture.supplyAsync(
+            () -> this.remove(name), Runnable::run
+        );
+    }
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api;
+
+import java.time.Duration;
+
+/**
+ * Metrics of the calls which Self makes to other systems (e.g. the
+ * Providers' APIs). Each series of calls has a name, such as
+ * {@code GET /repos/{o}/{r}/issues/{n}/labels}; for each series we record
+ * the number of calls, the number of failed calls, the transferred bytes
+ * and the latency.<br><br>
+ *
+ * Implementations may keep the metrics in memory or push them to
+ * a monitoring system.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public interface Metrics {
+
+    /**
+     * Record a call.
+     * @param name Name of the series (e.g. method and URI template).
+     * @param latency How long the call took.
+     * @param bytes How many bytes were received.
+     * @param failed Did the call fail?
+     */
+    void record(
+        final String name,
+        final Duration latency,
+        final long bytes,
+        final boolean failed
+    );
+
+    /**
+     * Snapshot of a series.
+     * @param name Name of the series.
+     * @return Snapshot, empty if nothing was recorded under this name.
+     */
+    Snapshot snapshot(final String name);
+
+    /**
+     * Snapshots of all the series, the most expensive ones (by total
+     * latency) first.
+     * @return Iterable of Snapshot.
+     */
+    Iterable<Snapshot> snapshots();
+
+    /**
+     * Snapshot of the metrics of a series, at a point in time.
+     */
+    interface Snapshot {
+
+        /**
+         * Name of the series.
+         * @return String.
+         */
+        String name();
+
+        /**
+         * Number of calls.
+         * @return Long.
+         */
+        long count();
+
+        /**
+         * Number of failed calls.
+         * @return Long.
+         */
+        long errors();
+
+        /**
+         * Total number of received bytes.
+         * @return Long.
+         */
+        long bytes();
+
+        /**
+         * Total latency of all the calls.
+         * @return Duration.
+         */
+        Duration total();
+
+        /**
+         * Latency percentile. The value is approximate: it is the upper
+         * bound of the histogram bucket holding the percentile.
+         * @param percentile Percentile, between 0 and 100 (e.g. 99.9).
+         * @return Duration, zero if there were no calls.
+         */
+        Duration latency(final double percentile);
+
+        /**
+         * Received bytes percentile (approximate, like the latency one).
+         * @param percentile Percentile, between 0 and 100.
+         * @return Bytes, zero if there were no calls.
+         */
+        long size(final double percentile);
+    }
+}
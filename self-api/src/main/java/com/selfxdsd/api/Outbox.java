@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.api;
+
+/**
+ * Comments which are waiting to be posted on the Providers' Issues.
+ * The PMs' replies are added here first and posted later, in the
+ * background, so they are not lost if the application restarts before
+ * posting them. A message is removed once it is posted.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public interface Outbox {
+
+    /**
+     * Add a message.
+     * @param provider Provider of the Issue.
+     * @param repoFullName Full name of the Issue's repo.
+     * @param issueId ID of the Issue.
+     * @param body Body of the comment.
+     * @return Added Message.
+     */
+    Message add(
+        final String provider,
+        final String repoFullName,
+        final String issueId,
+        final String body
+    );
+
+    /**
+     * Remove a message (e.g. after it was posted).
+     * @param message Message.
+     */
+    void remove(final Message message);
+
+    /**
+     * The messages which were not posted yet, oldest first.
+     * @return Iterable of Message.
+     */
+    Iterable<Message> pending();
+
+    /**
+     * Comment waiting to be posted.
+     */
+    interface Message {
+
+        /**
+         * Provider of the Issue.
+         * @return String.
+         */
+        String provider();
+
+        /**
+         * Full name of the Issue's repo.
+         * @return String.
+         */
+        String repoFullName();
+
+        /**
+         * ID of the Issue.
+         * @return String.
+         */
+        String issueId();
+
+        /**
+         * Body of the comment.
+         * @return String.
+         */
+        String body();
+    }
+}
@@ -39,6 +39,14 @@ public interface Self extends AutoCloseable {
      */
     User login(final Login login);
 
+    /**
+     * Start the background work of Self, e.g. posting the comments which
+     * were left pending before a restart. It should be called once, when
+     * the application starts.
+     */
+    default void start() {
+    }
+
     /**
      * Project managers working for Self.
      * @return ProjectManagers.
@@ -57,4 +65,21 @@ public interface Self extends AutoCloseable {
      */
     Contributors contributors();
 
+    /**
+     * Pipeline of the Events, which are resolved asynchronously.
+     * Closing Self waits for the pending Events to be resolved.
+     * @return Events or null if they are resolved synchronously.
+     */
+    default Events events() {
+        return null;
+    }
+
+    /**
+     * Metrics of Self (e.g. how long the Events take to be resolved).
+     * @return Metrics or null if they are not recorded.
+     */
+    default Metrics metrics() {
+        return null;
+    }
+
 }
@@ -111,4 +111,35 @@ public interface Task {
      * @return Integer estimation in minutes.
      */
     int estimation();
+
+    /**
+     * Was the given notice posted on this Task's Issue, since the Task
+     * was assigned?
+     * @param notice Notice (see {@link Notices}).
+     * @return True or false.
+     */
+    boolean isNotified(final String notice);
+
+    /**
+     * Remember that the given notice was posted on this Task's Issue.
+     * @param notice Notice (see {@link Notices}).
+     * @return The notified Task.
+     */
+    Task notified(final String notice);
+
+    /**
+     * Notices which the PM posts about an assigned Task.
+     */
+    class Notices {
+
+        /**
+         * Hidden ctor.
+         */
+        private Notices(){ }
+
+        /**
+         * The assignee was reminded of the deadline.
+         */
+        public static final String REMINDER = "REMINDER";
+    }
 }
@@ -66,6 +66,15 @@ public interface Tasks extends Iterable<Task> {
      */
     Task unassign(Task task);
 
+    /**
+     * Remember that a notice was posted on the Task's Issue. The notice
+     * is stored next to the Task, until the Task is unassigned.
+     * @param task Assigned Task.
+     * @param notice Notice (see {@link Task.Notices}).
+     * @return Task which is notified.
+     */
+    Task notified(final Task task, final String notice);
+
     /**
      * Get the tasks of a given Project.
      * @param repoFullName Full name of the Repo that the Project represents.
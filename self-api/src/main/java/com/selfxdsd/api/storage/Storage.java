@@ -103,4 +103,20 @@ public interface Storage extends AutoCloseable {
      * @return PaymentMethods.
      */
     PaymentMethods paymentMethods();
+
+    /**
+     * Get the index of the comments posted on the Providers' Issues.
+     * @return CommentsIndex or null if it is not supported.
+     */
+    default CommentsIndex commentsIndex() {
+        return null;
+    }
+
+    /**
+     * Get the outbox of the comments which the PMs will post.
+     * @return Outbox or null if the comments should be posted right away.
+     */
+    default Outbox outbox() {
+        return null;
+    }
 }
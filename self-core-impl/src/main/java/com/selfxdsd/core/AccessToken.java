@@ -1,5 +1,10 @@
 package com.selfxdsd.core;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
 /**
  * Representation of an access token in a http request header.
  * This is used by {@link JsonResources} to execute authenticated requests.
@@ -24,6 +29,32 @@ public interface AccessToken {
      */
     String value();
 
+    /**
+     * SHA-256 hash of the header and value of this token, in hex. It is
+     * used instead of the token where it would be kept for long (e.g. in
+     * cache keys), so the secret does not stay in memory.
+     * @return String.
+     */
+    default String digest() {
+        try {
+            return String.format(
+                "%064x",
+                new BigInteger(
+                    1,
+                    MessageDigest.getInstance("SHA-256").digest(
+                        (this.header() + ": " + this.value()).getBytes(
+                            StandardCharsets.UTF_8
+                        )
+                    )
+                )
+            );
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(
+                "SHA-256 is not available.", ex
+            );
+        }
+    }
+
     /**
      * A Github access token.
      */
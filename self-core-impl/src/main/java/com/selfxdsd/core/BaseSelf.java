@@ -25,6 +25,8 @@ package com.selfxdsd.core;
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.storage.Storage;
 
+import java.time.Duration;
+
 /**
  * Base Self implementation.
  * @author Mihai Andronache (amihaiemil@gmail.com)
@@ -39,11 +41,78 @@ abstract class BaseSelf implements Self {
     private final Storage storage;
 
     /**
-     * Constructor.
+     * Pipeline of the Events.
+     */
+    private final Events events;
+
+    /**
+     * Metrics of Self.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Posts the PMs' comments from the Outbox of the Storage.
+     */
+    private final CommentsOutbox outbox;
+
+    /**
+     * Constructor. The Events are partitioned by the number of
+     * available processors, with 1000 waiting Events per partition,
+     * and the duplicate Events are dropped.
      * @param storage Storage for Self.
      */
     BaseSelf(final Storage storage) {
+        this(storage, new InMemoryMetrics());
+    }
+
+    /**
+     * Constructor. The metrics are kept in memory.
+     * @param storage Storage for Self.
+     * @param events Pipeline of the Events.
+     */
+    BaseSelf(final Storage storage, final Events events) {
+        this(storage, events, new InMemoryMetrics());
+    }
+
+    /**
+     * Constructor. The Events are partitioned by the number of
+     * available processors, with 1000 waiting Events per partition,
+     * and the duplicate Events are dropped.
+     * @param storage Storage for Self.
+     * @param metrics Metrics of Self, where the resolved Events are
+     *  recorded.
+     */
+    private BaseSelf(final Storage storage, final Metrics metrics) {
+        this(
+            storage,
+            new IdempotentEvents(
+                new PartitionedEvents(
+                    Runtime.getRuntime().availableProcessors(), 1000, metrics
+                )
+            ),
+            metrics
+        );
+    }
+
+    /**
+     * Constructor. The comments waiting in the Outbox of the Storage are
+     * posted every 10 seconds, at least 500 millis apart, with 3 attempts
+     * each.
+     * @param storage Storage for Self.
+     * @param events Pipeline of the Events.
+     * @param metrics Metrics of Self.
+     */
+    BaseSelf(
+        final Storage storage,
+        final Events events,
+        final Metrics metrics
+    ) {
         this.storage = storage;
+        this.events = events;
+        this.metrics = metrics;
+        this.outbox = new CommentsOutbox(
+            storage, Duration.ofSeconds(10), Duration.ofMillis(500), 3
+        );
     }
 
     /**
@@ -68,6 +137,11 @@ abstract class BaseSelf implements Self {
         return signedUp;
     }
 
+    @Override
+    public void start() {
+        this.outbox.start();
+    }
+
     @Override
     public ProjectManagers projectManagers() {
         return this.storage.projectManagers();
@@ -84,9 +158,25 @@ abstract class BaseSelf implements Self {
         return this.storage.contributors();
     }
 
+    @Override
+    public Events events() {
+        return this.events;
+    }
+
+    @Override
+    public Metrics metrics() {
+        return this.metrics;
+    }
+
     @Override
     public void close() throws Exception {
-        this.storage.close();
+        try {
+            this.events.close();
+            this.outbox.flush(Duration.ofSeconds(30));
+        } finally {
+            this.outbox.close();
+            this.storage.close();
+        }
     }
     /**
      * User authenticated with an access token from the provider.
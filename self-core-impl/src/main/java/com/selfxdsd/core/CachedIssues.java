@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Issues;
+
+import javax.json.JsonObject;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Issues which are served from {@link IssueSnapshots}, if possible.
+ * Issues fetched from the Provider, opened or received (via webhook) are
+ * stored as snapshots, so the next {@link #getById(String)} of the same
+ * Issue does not go to the Provider. The bulk fetch always goes to the
+ * Provider. A snapshot is turned into an Issue
+ * by the original Issues, so it works with their access token.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+final class CachedIssues implements Issues {
+
+    /**
+     * Original Issues.
+     */
+    private final Issues origin;
+
+    /**
+     * Snapshots of Issues.
+     */
+    private final IssueSnapshots snapshots;
+
+    /**
+     * Provider.
+     */
+    private final String provider;
+
+    /**
+     * Full name of the Repo.
+     */
+    private final String repo;
+
+    /**
+     * Ctor.
+     * @param origin Original Issues.
+     * @param snapshots Snapshots of Issues.
+     * @param provider Provider.
+     * @param repo Full name of the Repo.
+     */
+    CachedIssues(
+        final Issues origin,
+        final IssueSnapshots snapshots,
+        final String provider,
+        final String repo
+    ) {
+        this.origin = origin;
+        this.snapshots = snapshots;
+        this.provider = provider;
+        this.repo = repo;
+    }
+
+    @Override
+    public Issue getById(final String issueId) {
+        Issue issue = this.cached(issueId);
+        if(issue == null) {
+            issue = this.origin.getById(issueId);
+            if(issue != null) {
+                this.snapshots.store(this.provider, this.repo, issue);
+            }
+        }
+        return issue;
+    }
+
+    @Override
+    public CompletableFuture<Issue> getByIdAsync(final String issueId) {
+        final Issue cached = this.cached(issueId);
+        final CompletableFuture<Issue> issue;
+        if(cached == null) {
+            issue = this.origin.getByIdAsync(issueId).thenApply(
+                fetched -> {
+                    if(fetched != null) {
+                        this.snapshots.store(this.provider, this.repo, fetched);
+                    }
+                    return fetched;
+                }
+            );
+        } else {
+            issue = CompletableFuture.completedFuture(cached);
+        }
+        return issue;
+    }
+
+    /**
+     * Get more Issues at once, always from the Provider. The bulk fetch
+     * is used by the sweeps, which check the state and the assignee of
+     * the Issues, so it does not use the snapshots (they may be minutes
+     * old). It refreshes them instead.
+     * @param issueIds IDs of the Issues.
+     * @return Map of Issue ID to Issue.
+     */
+    @Override
+    public Map<String, Issue> getByIds(final Collection<String> issueIds) {
+        final Map<String, Issue> issues = this.origin.getByIds(issueIds);
+        for(final String issueId : issueIds) {
+            final Issue fetched = issues.get(issueId);
+            if(fetched == null) {
+                this.snapshots.invalidate(this.provider, this.repo, issueId);
+            } else {
+                this.snapshots.store(this.provider, this.repo, fetched);
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Get the closed Issues among the given ones, always from the
+     * Provider, refreshing their snapshots.
+     * @param issueIds IDs of the Issues.
+     * @param since None of the given Issues was closed before this time.
+     * @return Map of Issue ID to closed Issue.
+     */
+    @Override
+    public Map<String, Issue> closedSince(
+        final Collection<String> issueIds,
+        final LocalDateTime since
+    ) {
+        final Map<String, Issue> closed = this.origin.closedSince(
+            issueIds, since
+        );
+        for(final Issue issue : closed.values()) {
+            this.snapshots.store(this.provider, this.repo, issue);
+        }
+        return closed;
+    }
+
+    @Override
+    public Issue received(final JsonObject issue) {
+        final Issue received = this.origin.received(issue);
+        this.snapshots.received(this.provider, this.repo, received);
+        return received;
+    }
+
+    @Override
+    public Issue open(
+        final String title,
+        final String body,
+        final String... labels
+    ) {
+        final Issue opened = this.origin.open(title, body, labels);
+        if(opened != null) {
+            this.snapshots.store(this.provider, this.repo, opened);
+        }
+        return opened;
+    }
+
+    @Override
+    public Issues search(final String text, final String... labels) {
+        return this.origin.search(text, labels);
+    }
+
+    @Override
+    public Iterator<Issue> iterator() {
+        return this.origin.iterator();
+    }
+
+    /**
+     * The Issue built from its snapshot.
+     * @param issueId Issue id.
+     * @return Issue or null if there is no fresh snapshot.
+     */
+    private Issue cached(final String issueId) {
+        final JsonObject json = this.snapshots.lookup(
+            this.provider, this.repo, issueId
+        );
+        Issue issue = null;
+        if(json != null) {
+            issue = this.origin.received(json);
+        }
+        return issue;
+    }
+}
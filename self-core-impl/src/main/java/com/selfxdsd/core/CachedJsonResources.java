@@ -0,0 +1,493 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JsonResources decorator which caches the GET responses having an
+ * ETag or a Last-Modified header. The next GETs of the same URI
+ * (made with the same access token and headers) are conditional
+ * (If-None-Match, If-Modified-Since). If the Provider answers with
+ * 304 Not Modified, the cached Resource is returned.<br><br>
+ *
+ * Github does not count the 304 responses against the rate limit, so
+ * this saves both bandwidth and rate limit.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CachedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * The cached Responses.
+     */
+    private final Responses responses;
+
+    /**
+     * Digest of the access token used for the requests, part of the
+     * cache key.
+     */
+    private final String token;
+
+    /**
+     * Ctor. The Responses are cached only for this instance and the ones
+     * returned by {@link #authenticated(AccessToken)}.
+     * @param origin Original JsonResources.
+     */
+    public CachedJsonResources(final JsonResources origin) {
+        this(origin, new Responses());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param responses Cached Responses.
+     */
+    public CachedJsonResources(
+        final JsonResources origin,
+        final Responses responses
+    ) {
+        this(origin, responses, "");
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param responses Cached Responses.
+     * @param token Digest of the access token used for the requests.
+     */
+    private CachedJsonResources(
+        final JsonResources origin,
+        final Responses responses,
+        final String token
+    ) {
+        this.origin = origin;
+        this.responses = responses;
+        this.token = token;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new CachedJsonResources(
+            this.origin.authenticated(accessToken),
+            this.responses,
+            accessToken.digest()
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.get(uri, Map.of());
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        final String key = this.key(uri, headers);
+        final Responses.Entry cached = this.responses.lookup(key);
+        return this.fresh(
+            key, cached, this.origin.get(uri, this.conditional(cached, headers))
+        );
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.origin.post(uri, body);
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.origin.patch(uri, body);
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.origin.put(uri, body);
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.origin.delete(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.getAsync(uri, Map.of());
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        final String key = this.key(uri, headers);
+        final Responses.Entry cached = this.responses.lookup(key);
+        return this.origin.getAsync(
+            uri, this.conditional(cached, headers)
+        ).thenApply(resource -> this.fresh(key, cached, resource));
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.postAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.patchAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.putAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.deleteAsync(uri, body);
+    }
+
+    /**
+     * Cache key of a GET: the access token's digest, the URI and the request
+     * headers (e.g. a different Accept header means a different Resource).
+     * @param uri URI.
+     * @param headers Request headers.
+     * @return String.
+     */
+    private String key(final URI uri, final Map<String, String> headers) {
+        final StringBuilder key = new StringBuilder(this.token)
+            .append(' ')
+            .append(uri);
+        final Map<String, String> sorted = new TreeMap<>(
+            String.CASE_INSENSITIVE_ORDER
+        );
+        sorted.putAll(headers);
+        for(final Map.Entry<String, String> header : sorted.entrySet()) {
+            key.append(' ')
+                .append(header.getKey().toLowerCase(Locale.ENGLISH))
+                .append(": ")
+                .append(header.getValue());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Add the conditional headers, if the Resource is cached.
+     * @param cached Cached entry, null if there is none.
+     * @param headers Request headers.
+     * @return Request headers.
+     */
+    private Map<String, String> conditional(
+        final Responses.Entry cached,
+        final Map<String, String> headers
+    ) {
+        final Map<String, String> conditional = new HashMap<>(headers);
+        if(cached != null) {
+            if(cached.etag != null) {
+                conditional.put("If-None-Match", cached.etag);
+            }
+            if(cached.lastModified != null) {
+                conditional.put("If-Modified-Since", cached.lastModified);
+            }
+        }
+        return conditional;
+    }
+
+    /**
+     * Get the fresh Resource: the cached one if the Provider answered with
+     * 304 Not Modified, or the received one, which is also cached.
+     * @param key Cache key.
+     * @param cached Cached entry, null if there is none.
+     * @param received Resource received from the Provider.
+     * @return Resource.
+     */
+    private Resource fresh(
+        final String key,
+        final Responses.Entry cached,
+        final Resource received
+    ) {
+        final Resource resource;
+        if(cached != null && received.statusCode()
+            == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            this.responses.hit();
+            resource = cached.resource;
+        } else {
+            this.responses.missed();
+            this.responses.store(key, received);
+            resource = received;
+        }
+        return resource;
+    }
+
+    /**
+     * Cached Responses, bounded in number of entries and total body size.
+     * When a bound is exceeded, the least recently used entries are evicted.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    public static final class Responses {
+
+        /**
+         * Entries, in access order (the eldest is least recently used).
+         */
+        private final LinkedHashMap<String, Entry> entries;
+
+        /**
+         * Maximum number of entries.
+         */
+        private final int maxEntries;
+
+        /**
+         * Maximum total size of the cached bodies (in bytes).
+         */
+        private final long maxSize;
+
+        /**
+         * Current total size of the cached bodies (in bytes).
+         */
+        private long size;
+
+        /**
+         * Cache hits (the Provider answered with 304 Not Modified).
+         */
+        private final AtomicLong hits;
+
+        /**
+         * Cache misses.
+         */
+        private final AtomicLong misses;
+
+        /**
+         * Ctor. At most 5000 entries and 64 MB of bodies.
+         */
+        public Responses() {
+            this(5000, 64L * 1024 * 1024);
+        }
+
+        /**
+         * Ctor.
+         * @param maxEntries Maximum number of entries.
+         * @param maxSize Maximum total size of the cached bodies
+         *  (in bytes).
+         */
+        public Responses(final int maxEntries, final long maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75F, true);
+            this.maxEntries = maxEntries;
+            this.maxSize = maxSize;
+            this.hits = new AtomicLong();
+            this.misses = new AtomicLong();
+        }
+
+        /**
+         * Number of cache hits.
+         * @return Long.
+         */
+        public long hits() {
+            return this.hits.get();
+        }
+
+        /**
+         * Number of cache misses.
+         * @return Long.
+         */
+        public long misses() {
+            return this.misses.get();
+        }
+
+        /**
+         * Number of cached entries.
+         * @return Integer.
+         */
+        public synchronized int entries() {
+            return this.entries.size();
+        }
+
+        /**
+         * Total size of the cached bodies (in bytes).
+         * @return Long.
+         */
+        public synchronized long size() {
+            return this.size;
+        }
+
+        /**
+         * Look up an entry. It becomes the most recently used one.
+         * @param key Key.
+         * @return Entry or null if it's not cached.
+         */
+        synchronized Entry lookup(final String key) {
+            return this.entries.get(key);
+        }
+
+        /**
+         * Store the Resource if it's a 200 OK having an ETag or
+         * a Last-Modified header. Otherwise, any previous entry is removed.
+         * @param key Key.
+         * @param resource Resource received from the Provider.
+         */
+        synchronized void store(final String key, final Resource resource) {
+            final Entry previous = this.entries.remove(key);
+            if(previous != null) {
+                this.size = this.size - previous.size;
+            }
+            if(resource.statusCode() == HttpURLConnection.HTTP_OK) {
+                final String etag = Responses.header(resource, "ETag");
+                final String modified = Responses.header(
+                    resource, "Last-Modified"
+                );
+                if(etag != null || modified != null) {
+                    final Entry entry = new Entry(resource, etag, modified);
+                    if(entry.size <= this.maxSize) {
+                        this.entries.put(key, entry);
+                        this.size = this.size + entry.size;
+                    }
+                    this.evict();
+                }
+            }
+        }
+
+        /**
+         * Count a hit.
+         */
+        void hit() {
+            this.hits.incrementAndGet();
+        }
+
+        /**
+         * Count a miss.
+         */
+        void missed() {
+            this.misses.incrementAndGet();
+        }
+
+        /**
+         * Evict the least recently used entries, while the bounds
+         * are exceeded.
+         */
+        private void evict() {
+            final Iterator<Map.Entry<String, Entry>> eldest = this.entries
+                .entrySet()
+                .iterator();
+            while(eldest.hasNext() && (this.entries.size() > this.maxEntries
+                || this.size > this.maxSize)) {
+                this.size = this.size - eldest.next().getValue().size;
+                eldest.remove();
+            }
+        }
+
+        /**
+         * Value of a header from the Resource.
+         * @param resource Resource.
+         * @param name Header name.
+         * @return First value of the header or null if it's missing.
+         */
+        private static String header(
+            final Resource resource,
+            final String name
+        ) {
+            final List<String> values = resource.headers().get(name);
+            final String value;
+            if(values == null || values.isEmpty()) {
+                value = null;
+            } else {
+                value = values.get(0);
+            }
+            return value;
+        }
+
+        /**
+         * Cached Resource with its validators.
+         * @author Mihai Andronache (amihaiemil@gmail.com)
+         * @version $Id$
+         * @since 0.0.42
+         */
+        static final class Entry {
+
+            /**
+             * Cached Resource.
+             */
+            private final Resource resource;
+
+            /**
+             * ETag header.
+             */
+            private final String etag;
+
+            /**
+             * Last-Modified header.
+             */
+            private final String lastModified;
+
+            /**
+             * Size of the body (in bytes).
+             */
+            private final long size;
+
+            /**
+             * Ctor.
+             * @param resource Cached resource.
+             * @param etag ETag header.
+             * @param lastModified Last-Modified header.
+             */
+            Entry(
+                final Resource resource,
+                final String etag,
+                final String lastModified
+            ) {
+                this.resource = resource;
+                this.etag = etag;
+                this.lastModified = lastModified;
+                this.size = resource.size();
+            }
+        }
+    }
+}
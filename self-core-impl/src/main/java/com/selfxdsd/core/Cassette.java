@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cassette with HTTP interactions (request and response), recorded on
+ * disk by {@link RecordingJsonResources} and played back by
+ * {@link ReplayedJsonResources}.<br><br>
+ *
+ * The file has one JSON object per line, with the method, the URI and
+ * the body of the request, followed by the status, the headers, the body
+ * and the latency of the response. The access tokens are not recorded.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class Cassette {
+
+    /**
+     * File where the interactions are recorded.
+     */
+    private final Path path;
+
+    /**
+     * Interactions left to play, by method and URI. Null until
+     * the cassette is played for the first time.
+     */
+    private Map<String, Deque<Interaction>> tape;
+
+    /**
+     * Ctor.
+     * @param path File where the interactions are recorded.
+     */
+    public Cassette(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Record an interaction at the end of the cassette.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param request Request body, may be null.
+     * @param response Response.
+     * @param latency How long it took to receive the response.
+     */
+    public void record(
+        final String method,
+        final URI uri,
+        final JsonValue request,
+        final Resource response,
+        final Duration latency
+    ) {
+        final JsonObjectBuilder headers = Json.createObjectBuilder();
+        for(final Map.Entry<String, List<String>> header
+            : response.headers().entrySet()) {
+            final JsonArrayBuilder values = Json.createArrayBuilder();
+            header.getValue().forEach(values::add);
+            headers.add(header.getKey(), values);
+        }
+        final JsonObjectBuilder line = Json.createObjectBuilder()
+            .add("method", method)
+            .add("uri", uri.toString());
+        if(request != null) {
+            line.add("request", request);
+        }
+        this.append(
+            line.add("status", response.statusCode())
+                .add("headers", headers)
+                .add("body", response.body())
+                .add("millis", latency.toMillis())
+                .build()
+        );
+    }
+
+    /**
+     * Play the next interaction with the given method and URI. The
+     * interactions with the same method and URI are played in the order
+     * in which they were recorded; after the last one, the last one is
+     * played again.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return Interaction.
+     * @throws IllegalStateException If no such interaction was recorded
+     *  or if the cassette cannot be read.
+     */
+    public synchronized Interaction play(final String method, final URI uri) {
+        if(this.tape == null) {
+            this.tape = this.load();
+        }
+        final Deque<Interaction> recorded = this.tape.get(
+            Cassette.key(method, uri)
+        );
+        if(recorded == null) {
+            throw new IllegalStateException(
+                "No interaction recorded for " + method + " " + uri
+                + " in " + this.path
+            );
+        }
+        final Interaction interaction;
+        if(recorded.size() > 1) {
+            interaction = recorded.poll();
+        } else {
+            interaction = recorded.peek();
+        }
+        return interaction;
+    }
+
+    /**
+     * Append a line to the cassette file.
+     * @param line Interaction as JSON.
+     * @throws IllegalStateException If the file cannot be written.
+     */
+    private synchronized void append(final JsonObject line) {
+        try {
+            Files.writeString(
+                this.path,
+                line.toString() + "\n",
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "Could not record interaction in " + this.path, ex
+            );
+        }
+    }
+
+    /**
+     * Read all the recorded interactions.
+     * @return Interactions, by method and URI, in the recorded order.
+     * @throws IllegalStateException If the file cannot be read.
+     */
+    private Map<String, Deque<Interaction>> load() {
+        final List<String> lines;
+        try {
+            lines = Files.readAllLines(this.path, StandardCharsets.UTF_8);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(
+                "Could not read cassette " + this.path, ex
+            );
+        }
+        final Map<String, Deque<Interaction>> loaded = new HashMap<>();
+        for(final String line : lines) {
+            if(!line.isBlank()) {
+                final Interaction interaction = new Interaction(
+                    Json.createReader(new StringReader(line)).readObject()
+                );
+                loaded.computeIfAbsent(
+                    interaction.key(), key -> new ArrayDeque<>()
+                ).add(interaction);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Key of an interaction.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return String.
+     */
+    private static String key(final String method, final URI uri) {
+        return method + " " + uri;
+    }
+
+    /**
+     * A recorded interaction.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    public static final class Interaction {
+
+        /**
+         * Interaction as JSON, as recorded.
+         */
+        private final JsonObject json;
+
+        /**
+         * Ctor.
+         * @param json Interaction as JSON.
+         */
+        Interaction(final JsonObject json) {
+            this.json = json;
+        }
+
+        /**
+         * The recorded response.
+         * @return Resource.
+         */
+        public Resource response() {
+            final Map<String, List<String>> headers = new HashMap<>();
+            final JsonObject recorded = this.json.getJsonObject("headers");
+            for(final String name : recorded.keySet()) {
+                final List<String> values = new ArrayList<>();
+                recorded.getJsonArray(name).getValuesAs(JsonString.class)
+                    .forEach(value -> values.add(value.getString()));
+                headers.put(name, values);
+            }
+            return new JsonResources.JsonResponse(
+                this.json.getInt("status"),
+                this.json.getString("body"),
+                headers
+            );
+        }
+
+        /**
+         * How long it took to receive the response.
+         * @return Duration.
+         */
+        public Duration latency() {
+            return Duration.ofMillis(
+                this.json.getJsonNumber("millis").longValue()
+            );
+        }
+
+        /**
+         * Key of this interaction (method and URI).
+         * @return String.
+         */
+        String key() {
+            return Cassette.key(
+                this.json.getString("method"),
+                URI.create(this.json.getString("uri"))
+            );
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JsonResources decorator which coalesces identical GET requests which
+ * are in flight at the same time: if a thread asks for a URI which is
+ * already being fetched (with the same access token and headers), it does
+ * not make another request, it waits for the one in flight and gets
+ * the same Resource.<br><br>
+ *
+ * Only GET requests are coalesced, the other methods go straight
+ * to the origin.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CoalescedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Requests in flight.
+     */
+    private final Flights flights;
+
+    /**
+     * Digest of the access token used for the requests, part of the
+     * flight key.
+     */
+    private final String token;
+
+    /**
+     * Ctor. The requests in flight are shared only with the instances
+     * returned by {@link #authenticated(AccessToken)}.
+     * @param origin Original JsonResources.
+     */
+    public CoalescedJsonResources(final JsonResources origin) {
+        this(origin, new Flights());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param flights Requests in flight.
+     */
+    public CoalescedJsonResources(
+        final JsonResources origin,
+        final Flights flights
+    ) {
+        this(origin, flights, "");
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param flights Requests in flight.
+     * @param token Digest of the access token used for the requests.
+     */
+    private CoalescedJsonResources(
+        final JsonResources origin,
+        final Flights flights,
+        final String token
+    ) {
+        this.origin = origin;
+        this.flights = flights;
+        this.token = token;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new CoalescedJsonResources(
+            this.origin.authenticated(accessToken),
+            this.flights,
+            accessToken.digest()
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.get(uri, Map.of());
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        final String key = this.key(uri, headers);
+        final CompletableFuture<Resource> mine = new CompletableFuture<>();
+        final CompletableFuture<Resource> flight = this.flights.board(
+            key, mine
+        );
+        final Resource resource;
+        if(flight == mine) {
+            try {
+                resource = this.origin.get(uri, headers);
+                mine.complete(resource);
+            } catch (final RuntimeException ex) {
+                mine.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                this.flights.land(key, mine);
+                CoalescedJsonResources.crashed(uri, mine);
+            }
+        } else {
+            try {
+                resource = flight.join();
+            } catch (final CompletionException ex) {
+                if(ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        return resource;
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.origin.post(uri, body);
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.origin.patch(uri, body);
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.origin.put(uri, body);
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.origin.delete(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.getAsync(uri, Map.of());
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        final String key = this.key(uri, headers);
+        final CompletableFuture<Resource> mine = new CompletableFuture<>();
+        final CompletableFuture<Resource> flight = this.flights.board(
+            key, mine
+        );
+        if(flight == mine) {
+            CompletableFuture<Resource> sent = null;
+            try {
+                sent = this.origin.getAsync(uri, headers);
+            } catch (final RuntimeException ex) {
+                sent = CompletableFuture.failedFuture(ex);
+            } finally {
+                if(sent == null) {
+                    this.flights.land(key, mine);
+                    CoalescedJsonResources.crashed(uri, mine);
+                }
+            }
+            sent.whenComplete(
+                (resource, error) -> {
+                    this.flights.land(key, mine);
+                    if(error == null) {
+                        mine.complete(resource);
+                    } else {
+                        mine.completeExceptionally(error);
+                    }
+                }
+            );
+        }
+        return flight.thenApply(resource -> resource);
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.postAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.patchAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.putAsync(uri, body);
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.origin.deleteAsync(uri, body);
+    }
+
+    /**
+     * Fail the flight, if the request ended without completing it
+     * (e.g. because of an Error), so the passengers are not left waiting.
+     * @param uri URI of the request.
+     * @param flight Flight.
+     */
+    private static void crashed(
+        final URI uri,
+        final CompletableFuture<Resource> flight
+    ) {
+        if(!flight.isDone()) {
+            flight.completeExceptionally(
+                new IllegalStateException("GET [" + uri + "] did not end.")
+            );
+        }
+    }
+
+    /**
+     * Key of a GET request: the access token, the URI and the headers.
+     * @param uri URI.
+     * @param headers Headers.
+     * @return String.
+     */
+    private String key(final URI uri, final Map<String, String> headers) {
+        final String key;
+        if(headers.isEmpty()) {
+            key = this.token + " " + uri;
+        } else {
+            key = this.token + " " + uri + " " + new TreeMap<>(headers);
+        }
+        return key;
+    }
+
+    /**
+     * GET requests which are in flight.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    public static final class Flights {
+
+        /**
+         * Requests in flight, by key.
+         */
+        private final Map<String, CompletableFuture<Resource>> inFlight;
+
+        /**
+         * How many requests did not go to the origin because they joined
+         * a request in flight.
+         */
+        private final AtomicLong coalesced;
+
+        /**
+         * Ctor.
+         */
+        public Flights() {
+            this.inFlight = new ConcurrentHashMap<>();
+            this.coalesced = new AtomicLong();
+        }
+
+        /**
+         * Number of requests which joined a request in flight instead
+         * of going to the origin.
+         * @return Long.
+         */
+        public long coalesced() {
+            return this.coalesced.get();
+        }
+
+        /**
+         * Number of requests in flight now.
+         * @return Integer.
+         */
+        public int inFlight() {
+            return this.inFlight.size();
+        }
+
+        /**
+         * Board the flight with the given key. If there is no such flight,
+         * the given one takes off and the caller has to make the request.
+         * @param key Key.
+         * @param flight Flight to take off if there is none in the air.
+         * @return The flight in the air: the given one or another one.
+         */
+        CompletableFuture<Resource> board(
+            final String key,
+            final CompletableFuture<Resource> flight
+        ) {
+            CompletableFuture<Resource> boarded = this.inFlight.putIfAbsent(
+                key, flight
+            );
+            if(boarded == null) {
+                boarded = flight;
+            } else {
+                this.coalesced.incrementAndGet();
+            }
+            return boarded;
+        }
+
+        /**
+         * The flight landed (the request completed), so later requests
+         * with the same key will go to the origin again.
+         * @param key Key.
+         * @param flight Flight.
+         */
+        void land(final String key, final CompletableFuture<Resource> flight) {
+            this.inFlight.remove(key, flight);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Comments;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Outbox;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.storage.Storage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Posts the PMs' comments in the background, from the {@link Outbox}
+ * of the Storage. The PMs only add their comments to the Outbox (see
+ * {@link #post(Issue, String, Storage)}); every window, the comments
+ * waiting in the Outbox are posted, the ones for the same Issue merged
+ * into one comment (see {@link Comments#post(List)}, each message is
+ * still checked for repetition on its own). The comments are posted one
+ * by one, at least some time apart, as background work (see
+ * {@link RateLimits}), so they don't use up the rate limits needed by
+ * the webhooks. The Issues are read with the token of their Project's
+ * PM.<br><br>
+ *
+ * If the Storage has no Outbox, the comments are posted right away.
+ * A comment which cannot be posted is retried a few times, then dropped.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CommentsOutbox implements AutoCloseable {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        CommentsOutbox.class
+    );
+
+    /**
+     * Storage whose Outbox is posted.
+     */
+    private final Storage storage;
+
+    /**
+     * How often the Outbox is posted, in millis.
+     */
+    private final long window;
+
+    /**
+     * Minimum time between two posted comments, in millis.
+     */
+    private final long spacing;
+
+    /**
+     * How many times to try posting a comment.
+     */
+    private final int attempts;
+
+    /**
+     * Thread which posts the comments.
+     */
+    private final ScheduledExecutorService sender;
+
+    /**
+     * How many times the comments of each Issue failed to be posted,
+     * only used by the sender thread.
+     */
+    private final Map<String, Integer> failures;
+
+    /**
+     * When the last comment was posted (System.nanoTime()), only
+     * used by the sender thread.
+     */
+    private long last;
+
+    /**
+     * Ctor.
+     * @param storage Storage whose Outbox is posted.
+     * @param window How often the Outbox is posted.
+     * @param spacing Minimum time between two posted comments.
+     * @param attempts How many times to try posting a comment.
+     */
+    public CommentsOutbox(
+        final Storage storage,
+        final Duration window,
+        final Duration spacing,
+        final int attempts
+    ) {
+        this.storage = storage;
+        this.window = Math.max(1L, window.toMillis());
+        this.spacing = spacing.toMillis();
+        this.attempts = attempts;
+        this.sender = new ScheduledThreadPoolExecutor(
+            1,
+            work -> {
+                final Thread thread = new Thread(work, "self-outbox");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.failures = new HashMap<>();
+        this.last = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(
+            this.spacing
+        );
+    }
+
+    /**
+     * Post a comment on an Issue, through the Outbox of the Storage.
+     * @param issue Issue.
+     * @param body Body of the comment.
+     * @param storage Storage, may be null. If it is null or it has no
+     *  Outbox, the comment is posted right away.
+     */
+    public static void post(
+        final Issue issue,
+        final String body,
+        final Storage storage
+    ) {
+        Outbox outbox = null;
+        if(storage != null) {
+            outbox = storage.outbox();
+        }
+        if(outbox == null) {
+            issue.comments().post(body);
+        } else {
+            outbox.add(
+                issue.provider(),
+                issue.repoFullName(),
+                issue.issueId(),
+                body
+            );
+        }
+    }
+
+    /**
+     * Start posting the Outbox every window, in the background. The first
+     * round posts the comments which were left in the Outbox (e.g. before
+     * a restart).
+     */
+    public void start() {
+        this.sender.scheduleWithFixedDelay(
+            this::relay, 0L, this.window, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Post all the comments waiting in the Outbox now and wait for them
+     * (e.g. before the application stops).
+     * @param timeout How long to wait.
+     */
+    public void flush(final Duration timeout) {
+        try {
+            this.sender.submit(this::relay).get(
+                timeout.toMillis(), TimeUnit.MILLISECONDS
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException ex) {
+            LOG.error("Could not flush the comments outbox.", ex);
+        }
+    }
+
+    /**
+     * Stop posting. The comments still waiting stay in the Outbox.
+     */
+    @Override
+    public void close() {
+        this.sender.shutdownNow();
+    }
+
+    /**
+     * Post the comments waiting in the Outbox, one comment per Issue.
+     * Runs on the sender thread.
+     */
+    private void relay() {
+        final Outbox outbox = this.storage.outbox();
+        if(outbox != null) {
+            final Map<String, List<Outbox.Message>> batches =
+                new LinkedHashMap<>();
+            for(final Outbox.Message message : outbox.pending()) {
+                batches.computeIfAbsent(
+                    message.provider() + "/" + message.repoFullName()
+                    + "#" + message.issueId(),
+                    key -> new ArrayList<>()
+                ).add(message);
+            }
+            for(final Map.Entry<String, List<Outbox.Message>> batch
+                : batches.entrySet()) {
+                this.post(outbox, batch.getKey(), batch.getValue());
+            }
+        }
+    }
+
+    /**
+     * Post the messages of an Issue as one comment. Runs on the sender
+     * thread.
+     * @param outbox Outbox where the messages are stored.
+     * @param key Key of the Issue.
+     * @param messages Messages, oldest first.
+     */
+    private void post(
+        final Outbox outbox,
+        final String key,
+        final List<Outbox.Message> messages
+    ) {
+        try {
+            final Issue issue = this.issue(messages.get(0));
+            if(issue == null) {
+                LOG.warn(
+                    "Issue " + key + " not found, dropping its comments."
+                );
+            } else {
+                final List<String> bodies = new ArrayList<>();
+                for(final Outbox.Message message : messages) {
+                    bodies.add(message.body());
+                }
+                this.pace();
+                this.last = System.nanoTime();
+                RateLimits.background(() -> issue.comments().post(bodies));
+            }
+            this.failures.remove(key);
+            for(final Outbox.Message message : messages) {
+                outbox.remove(message);
+            }
+        } catch (final RuntimeException ex) {
+            this.failed(outbox, key, messages, ex);
+        }
+    }
+
+    /**
+     * The messages of an Issue could not be posted: leave them in the
+     * Outbox for the next round or, if there were too many attempts,
+     * drop them. Runs on the sender thread.
+     * @param outbox Outbox where the messages are stored.
+     * @param key Key of the Issue.
+     * @param messages Messages.
+     * @param error Error.
+     */
+    private void failed(
+        final Outbox outbox,
+        final String key,
+        final List<Outbox.Message> messages,
+        final RuntimeException error
+    ) {
+        final int failed = this.failures.getOrDefault(key, 0) + 1;
+        if(failed < this.attempts) {
+            LOG.warn("Could not post the comments of " + key + ", retrying.");
+            this.failures.put(key, failed);
+        } else {
+            LOG.error(
+                "Could not post the comments of " + key + ", dropping them.",
+                error
+            );
+            this.failures.remove(key);
+            for(final Outbox.Message message : messages) {
+                outbox.remove(message);
+            }
+        }
+    }
+
+    /**
+     * Wait until the spacing since the last posted comment has passed.
+     * Runs on the sender thread.
+     */
+    private void pace() {
+        final long wait = TimeUnit.NANOSECONDS.toMillis(
+            this.last + TimeUnit.MILLISECONDS.toNanos(this.spacing)
+            - System.nanoTime()
+        );
+        if(wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Read the Issue of a message, with the token of its Project's PM.
+     * @param message Message.
+     * @return Issue or null if it is not found.
+     */
+    private Issue issue(final Outbox.Message message) {
+        final Project project = this.storage.projects().getProjectById(
+            message.repoFullName(), message.provider()
+        );
+        Issue issue = null;
+        if(project != null) {
+            final String repoFullName = project.repoFullName();
+            issue = project
+                .projectManager()
+                .provider()
+                .repo(
+                    repoFullName.substring(0, repoFullName.indexOf("/")),
+                    repoFullName.substring(repoFullName.indexOf("/") + 1)
+                ).issues()
+                .getById(message.issueId());
+        }
+        return issue;
+    }
+}
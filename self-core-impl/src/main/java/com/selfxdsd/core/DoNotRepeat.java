@@ -24,13 +24,36 @@ package com.selfxdsd.core;
 
 import com.selfxdsd.api.Comment;
 import com.selfxdsd.api.Comments;
+import com.selfxdsd.api.CommentsIndex;
 
+import javax.json.Json;
 import javax.json.JsonObject;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Comments decorator which makes sure a comment is not posted
- * if it already exists.
+ * if it already exists.<br><br>
+ *
+ * The known comments are kept in a {@link CommentsIndex}, by the hash of
+ * their body, so most checks don't read anything from the Provider. If
+ * the body is not indexed, we only read the comments posted after the
+ * last indexed one. After posting, the comments posted since the last
+ * indexed one (ours and the ones of others, which we haven't seen yet)
+ * are indexed, so none of them is skipped.<br><br>
+ *
+ * When more messages are posted as one comment, each message is checked
+ * and indexed on its own, so a message is not repeated, whether it was
+ * posted alone or together with others.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.8
@@ -43,24 +66,95 @@ final class DoNotRepeat implements Comments {
     private final Comments origin;
 
     /**
-     * Ctor.
+     * Index of the known comments.
+     */
+    private final CommentsIndex index;
+
+    /**
+     * Key of the Issue in the index.
+     */
+    private final String issue;
+
+    /**
+     * Ctor. Nothing is indexed, all the comments are read before
+     * each post.
      * @param origin Original comments.
      */
     DoNotRepeat(final Comments origin) {
+        this(origin, new Unindexed(), "");
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original comments.
+     * @param index Index of the known comments.
+     * @param issue Key of the Issue in the index.
+     */
+    DoNotRepeat(
+        final Comments origin,
+        final CommentsIndex index,
+        final String issue
+    ) {
         this.origin = origin;
+        this.index = index;
+        this.issue = issue;
     }
 
     @Override
     public Comment post(final String body) {
+        Comment posted = this.existing(body);
+        if(posted == null) {
+            final JsonObject previous = this.index.last(this.issue);
+            posted = this.origin.post(body);
+            this.caughtUp(previous, posted);
+        }
+        return posted;
+    }
+
+    /**
+     * Post the messages which were not posted yet, as one comment. Each
+     * message is indexed on its own, pointing to the posted comment.
+     * @param messages Bodies of the messages.
+     * @return Posted Comment or, if all the messages were already
+     *  posted, the existing comment of the last message.
+     */
+    @Override
+    public Comment post(final List<String> messages) {
+        final Map<String, String> fresh = new LinkedHashMap<>();
         Comment posted = null;
-        for(final Comment comment : this.origin) {
-            if(comment.body().equalsIgnoreCase(body)) {
-                posted = comment;
-                break;
+        for(final String message : messages) {
+            final Comment existing = this.existing(message);
+            if(existing == null) {
+                fresh.putIfAbsent(DoNotRepeat.hash(message), message);
+            } else {
+                posted = existing;
             }
         }
-        if(posted == null) {
-            posted = this.origin.post(body);
+        if(!fresh.isEmpty()) {
+            final JsonObject previous = this.index.last(this.issue);
+            posted = this.origin.post(new ArrayList<>(fresh.values()));
+            this.caughtUp(previous, posted);
+            for(final String hash : fresh.keySet()) {
+                this.index.add(this.issue, hash, posted.json());
+            }
+        }
+        return posted;
+    }
+
+    @Override
+    public CompletableFuture<Comment> postAsync(final String body) {
+        final Comment existing = this.existing(body);
+        final CompletableFuture<Comment> posted;
+        if(existing == null) {
+            final JsonObject previous = this.index.last(this.issue);
+            posted = this.origin.postAsync(body).thenApply(
+                comment -> {
+                    this.caughtUp(previous, comment);
+                    return comment;
+                }
+            );
+        } else {
+            posted = CompletableFuture.completedFuture(existing);
         }
         return posted;
     }
@@ -70,8 +164,163 @@ final class DoNotRepeat implements Comments {
         return this.origin.received(comment);
     }
 
+    @Override
+    public Iterable<Comment> since(final Comment last) {
+        return this.origin.since(last);
+    }
+
     @Override
     public Iterator<Comment> iterator() {
         return this.origin.iterator();
     }
+
+    /**
+     * Find an existing Comment with the same body.
+     * @param body Body of the Comment.
+     * @return Comment or null if there is none.
+     */
+    private Comment existing(final String body) {
+        final JsonObject indexed = this.index.find(
+            this.issue, DoNotRepeat.hash(body)
+        );
+        Comment existing = null;
+        if(indexed == null) {
+            for(final Comment comment : this.unknown()) {
+                this.indexed(comment);
+                if(DoNotRepeat.repeats(comment.body(), body)) {
+                    existing = comment;
+                    break;
+                }
+            }
+        } else {
+            existing = this.origin.received(
+                Json.createObjectBuilder(indexed).add("body", body).build()
+            );
+        }
+        return existing;
+    }
+
+    /**
+     * The comments posted after the last indexed one.
+     * @return Iterable of Comment.
+     */
+    private Iterable<Comment> unknown() {
+        return this.since(this.index.last(this.issue));
+    }
+
+    /**
+     * The comments posted after the given one.
+     * @param last Comment in JSON format, null if there is none.
+     * @return Iterable of Comment.
+     */
+    private Iterable<Comment> since(final JsonObject last) {
+        final Iterable<Comment> since;
+        if(last == null) {
+            since = this.origin;
+        } else {
+            since = this.origin.since(this.origin.received(last));
+        }
+        return since;
+    }
+
+    /**
+     * We posted a Comment: index it, together with the comments which
+     * others posted after the last indexed one, before ours. Otherwise,
+     * ours would become the last indexed comment and theirs would never
+     * be read.
+     * @param previous Last indexed comment before posting, null if
+     *  there was none.
+     * @param posted Posted Comment.
+     */
+    private void caughtUp(final JsonObject previous, final Comment posted) {
+        boolean found = false;
+        if(!(this.index instanceof Unindexed)) {
+            for(final Comment comment : this.since(previous)) {
+                this.indexed(comment);
+                found = found
+                    || comment.commentId().equals(posted.commentId());
+            }
+        }
+        if(!found) {
+            this.indexed(posted);
+        }
+    }
+
+    /**
+     * Add a Comment to the index.
+     * @param comment Comment.
+     */
+    private void indexed(final Comment comment) {
+        this.index.add(
+            this.issue, DoNotRepeat.hash(comment.body()), comment.json()
+        );
+    }
+
+    /**
+     * Does the comment repeat the given body? It does if it has the same
+     * body or if the body is one of the messages merged into it (one
+     * paragraph each). Case is ignored.
+     * @param comment Body of the comment.
+     * @param body Body to look for.
+     * @return True or false.
+     */
+    private static boolean repeats(final String comment, final String body) {
+        return ("\n\n" + comment.toLowerCase(Locale.ROOT) + "\n\n").contains(
+            "\n\n" + body.toLowerCase(Locale.ROOT) + "\n\n"
+        );
+    }
+
+    /**
+     * Hash of a comment's body. Comments which differ only by case have
+     * the same hash.
+     * @param body Body of the comment.
+     * @return SHA-256 hash, in hex.
+     */
+    private static String hash(final String body) {
+        try {
+            return String.format(
+                "%064x",
+                new BigInteger(
+                    1,
+                    MessageDigest.getInstance("SHA-256").digest(
+                        body.toLowerCase(Locale.ROOT).getBytes(
+                            StandardCharsets.UTF_8
+                        )
+                    )
+                )
+            );
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(
+                "SHA-256 is not available.", ex
+            );
+        }
+    }
+
+    /**
+     * Index which keeps nothing.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Unindexed implements CommentsIndex {
+
+        @Override
+        public JsonObject find(final String issue, final String hash) {
+            return null;
+        }
+
+        @Override
+        public void add(
+            final String issue,
+            final String hash,
+            final JsonObject comment
+        ) {
+            //nothing to index.
+        }
+
+        @Override
+        public JsonObject last(final String issue) {
+            return null;
+        }
+    }
 }
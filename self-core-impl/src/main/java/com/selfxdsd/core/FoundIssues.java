@@ -26,12 +26,12 @@ import com.selfxdsd.api.Issue;
 import com.selfxdsd.api.Issues;
 
 import javax.json.JsonObject;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
 
 /**
- * Some Issues found after search.
+ * Some Issues found after search. The found Issues may be a lazy view
+ * (e.g. the pages of a search API, fetched as the iteration advances), so
+ * they are not copied: each iteration goes over them again.
  * @author Mihai Andronache (amihaiemil@gmail.com)
  * @version $Id$
  * @since 0.0.28
@@ -46,17 +46,16 @@ final class FoundIssues implements Issues {
     /**
      * Issues found.
      */
-    private final List<Issue> found;
+    private final Iterable<Issue> found;
 
     /**
      * Ctor.
      * @param original Original Issues, where the search was performed.
      * @param found Found issues.
      */
-    FoundIssues(final Issues original, final List<Issue> found) {
+    FoundIssues(final Issues original, final Iterable<Issue> found) {
         this.original = original;
-        this.found = new ArrayList<>();
-        this.found.addAll(found);
+        this.found = found;
     }
 
     @Override
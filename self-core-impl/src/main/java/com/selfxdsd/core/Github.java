@@ -26,6 +26,8 @@ import com.selfxdsd.api.*;
 import com.selfxdsd.api.storage.Storage;
 
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 
 /**
  * Github as a Provider.
@@ -55,13 +57,35 @@ public final class Github implements Provider {
      */
     private final Storage storage;
 
+    /**
+     * Labels known to exist in the repos of this Github.
+     */
+    private final KnownLabels labels;
+
+    /**
+     * Snapshots of the Issues of this Github.
+     */
+    private final IssueSnapshots snapshots;
+
     /**
      * Constructor.
      * @param user Authenticated user.
      * @param storage Storage where we might save some stuff.
      */
     public Github(final User user, final Storage storage) {
-        this(user, storage, new JsonResources.JdkHttp());
+        this(
+            user,
+            storage,
+            new CoalescedJsonResources(
+                new CachedJsonResources(
+                    new ResilientJsonResources(
+                        new RateLimitedJsonResources(
+                            new JsonResources.JdkHttp()
+                        )
+                    )
+                )
+            )
+        );
     }
 
     /**
@@ -74,7 +98,14 @@ public final class Github implements Provider {
         final User user, final Storage storage,
         final JsonResources resources
     ) {
-        this(user, storage, resources, "");
+        this(
+            user,
+            storage,
+            resources,
+            "",
+            new KnownLabels(Duration.ofHours(1), Clock.systemUTC()),
+            new IssueSnapshots()
+        );
     }
 
     /**
@@ -84,15 +115,22 @@ public final class Github implements Provider {
      * @param storage Self Storage
      * @param resources Github's JSON Resources.
      * @param accessToken Access token.
+     * @param labels Labels known to exist in the repos.
+     * @param snapshots Snapshots of the Issues.
+     * @checkstyle ParameterNumber (10 lines)
      */
     private Github(
         final User user,
         final Storage storage,
         final JsonResources resources,
-        final String accessToken
+        final String accessToken,
+        final KnownLabels labels,
+        final IssueSnapshots snapshots
     ) {
         this.user = user;
         this.storage = storage;
+        this.labels = labels;
+        this.snapshots = snapshots;
         if (accessToken == null || accessToken.isBlank()) {
             this.resources = resources;
         } else {
@@ -112,7 +150,12 @@ public final class Github implements Provider {
             this.uri.toString() + "/repos/" + owner + "/" + name
         );
         return new GithubRepo(
-            this.resources, repo, this.user, this.storage
+            this.resources,
+            repo,
+            this.user,
+            this.storage,
+            this.labels,
+            this.snapshots
         );
     }
 
@@ -142,7 +185,9 @@ public final class Github implements Provider {
             new BaseSelf.Authenticated(this.user, accessToken),
             this.storage,
             this.resources,
-            accessToken
+            accessToken,
+            this.labels,
+            this.snapshots
         );
     }
 
@@ -32,6 +32,8 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * An Issue in a Github repository.
@@ -69,7 +71,24 @@ final class GithubIssue implements Issue {
     private final JsonResources resources;
 
     /**
-     * Ctor.
+     * Were labels added or removed since the JSON was received? If so,
+     * the labels from the JSON are stale.
+     */
+    private final AtomicBoolean relabeled;
+
+    /**
+     * Labels known to exist in the repos.
+     */
+    private final KnownLabels labels;
+
+    /**
+     * Snapshots of the Issues, invalidated when this Issue changes.
+     */
+    private final IssueSnapshots snapshots;
+
+    /**
+     * Ctor. No labels are known to exist in the Issue's repo and there
+     * are no snapshots to invalidate.
      * @param issueUri Issues base URI.
      * @param json Json Issue as returned by Github's API.
      * @param storage Storage.
@@ -80,11 +99,38 @@ final class GithubIssue implements Issue {
         final JsonObject json,
         final Storage storage,
         final JsonResources resources
+    ) {
+        this(
+            issueUri, json, storage, resources,
+            KnownLabels.NONE, new IssueSnapshots()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param issueUri Issues base URI.
+     * @param json Json Issue as returned by Github's API.
+     * @param storage Storage.
+     * @param resources Github's JSON Resources.
+     * @param labels Labels known to exist in the repos.
+     * @param snapshots Snapshots of the Issues.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    GithubIssue(
+        final URI issueUri,
+        final JsonObject json,
+        final Storage storage,
+        final JsonResources resources,
+        final KnownLabels labels,
+        final IssueSnapshots snapshots
     ) {
         this.issueUri = issueUri;
         this.json = json;
         this.storage = storage;
         this.resources = resources;
+        this.relabeled = new AtomicBoolean();
+        this.labels = labels;
+        this.snapshots = snapshots;
     }
 
     @Override
@@ -140,62 +186,56 @@ final class GithubIssue implements Issue {
 
     @Override
     public boolean assign(final String username) {
-        final boolean assigned;
         LOG.debug(
             "Assigning user " + username + " to Issue ["
             + this.issueUri.toString() + "]..."
         );
-        final Resource resource = this.resources.post(
-            URI.create(this.issueUri + "/assignees"),
-            Json.createObjectBuilder()
-                .add(
-                    "assignees",
-                    Json.createArrayBuilder()
-                        .add(username)
-                        .build()
-                ).build()
+        return this.assigned(
+            username,
+            this.resources.post(
+                URI.create(this.issueUri + "/assignees"),
+                this.assignees(username)
+            )
         );
-        if (resource.statusCode() == HttpURLConnection.HTTP_CREATED) {
-            LOG.debug("User " + username + " assigned successfully!");
-            assigned = true;
-        } else {
-            LOG.debug(
-                "Problem while assigning user " + username + ". "
-                + "Expected 201 CREATED, but got " + resource.statusCode()
-            );
-            assigned = false;
-        }
-        return assigned;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> assignAsync(final String username) {
+        LOG.debug(
+            "Assigning user " + username + " to Issue ["
+            + this.issueUri.toString() + "] (async)..."
+        );
+        return this.resources.postAsync(
+            URI.create(this.issueUri + "/assignees"),
+            this.assignees(username)
+        ).thenApply(resource -> this.assigned(username, resource));
     }
 
     @Override
     public boolean unassign(final String username) {
-        final boolean unassigned;
         LOG.debug(
             "Unassigning user " + username + " from Issue ["
             + this.issueUri.toString() + "]..."
         );
-        final Resource resource = this.resources.delete(
-            URI.create(this.issueUri + "/assignees"),
-            Json.createObjectBuilder()
-                .add(
-                    "assignees",
-                    Json.createArrayBuilder()
-                        .add(username)
-                        .build()
-                ).build()
+        return this.unassigned(
+            username,
+            this.resources.delete(
+                URI.create(this.issueUri + "/assignees"),
+                this.assignees(username)
+            )
         );
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            LOG.debug("User " + username + " unassigned successfully!");
-            unassigned = true;
-        } else {
-            LOG.debug(
-                "Problem while unassigning user " + username + ". "
-                + "Expected 200 OK, but got " + resource.statusCode()
-            );
-            unassigned = false;
-        }
-        return unassigned;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unassignAsync(final String username) {
+        LOG.debug(
+            "Unassigning user " + username + " from Issue ["
+            + this.issueUri.toString() + "] (async)..."
+        );
+        return this.resources.deleteAsync(
+            URI.create(this.issueUri + "/assignees"),
+            this.assignees(username)
+        ).thenApply(resource -> this.unassigned(username, resource));
     }
 
     @Override
@@ -205,9 +245,21 @@ final class GithubIssue implements Issue {
 
     @Override
     public Comments comments() {
-        return new DoNotRepeat(
-            new GithubIssueComments(this.issueUri, this.resources)
+        final Comments comments = new GithubIssueComments(
+            this.issueUri, this.resources
         );
+        final CommentsIndex index = this.storage.commentsIndex();
+        final Comments doNotRepeat;
+        if(index == null) {
+            doNotRepeat = new DoNotRepeat(comments);
+        } else {
+            doNotRepeat = new DoNotRepeat(
+                comments,
+                index,
+                Provider.Names.GITHUB + this.issueUri.getPath()
+            );
+        }
+        return doNotRepeat;
     }
 
     @Override
@@ -221,6 +273,7 @@ final class GithubIssue implements Issue {
                 .add("state", "closed")
                 .build()
         );
+        this.changed();
         if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
             LOG.debug(
                 "Issue [" + this.issueUri.toString() + "] "
@@ -245,6 +298,7 @@ final class GithubIssue implements Issue {
                 .add("state", "open")
                 .build()
         );
+        this.changed();
         if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
             LOG.debug(
                 "Issue [" + this.issueUri.toString() + "] "
@@ -276,9 +330,90 @@ final class GithubIssue implements Issue {
 
     @Override
     public Labels labels() {
+        JsonObject issue = this.json;
+        if(this.relabeled.get()) {
+            issue = JsonObject.EMPTY_JSON_OBJECT;
+        }
         return new GithubIssueLabels(
             URI.create(this.issueUri.toString() + "/labels"),
-            this.resources
+            this.resources,
+            issue,
+            this.labels,
+            () -> {
+                this.relabeled.set(true);
+                this.changed();
+            }
         );
     }
+
+    /**
+     * This Issue was changed on the Provider, so its snapshot is stale.
+     */
+    private void changed() {
+        this.snapshots.invalidate(
+            this.provider(), this.repoFullName(), this.issueId()
+        );
+    }
+
+    /**
+     * Body of the assign/unassign requests.
+     * @param username Assignee's username.
+     * @return JsonObject.
+     */
+    private JsonObject assignees(final String username) {
+        return Json.createObjectBuilder()
+            .add(
+                "assignees",
+                Json.createArrayBuilder()
+                    .add(username)
+                    .build()
+            ).build();
+    }
+
+    /**
+     * Was the user assigned?
+     * @param username Assignee's username.
+     * @param resource Response of the assign request.
+     * @return True or false.
+     */
+    private boolean assigned(final String username, final Resource resource) {
+        this.changed();
+        final boolean assigned;
+        if (resource.statusCode() == HttpURLConnection.HTTP_CREATED) {
+            LOG.debug("User " + username + " assigned successfully!");
+            assigned = true;
+        } else {
+            LOG.debug(
+                "Problem while assigning user " + username + ". "
+                + "Expected 201 CREATED, but got " + resource.statusCode()
+            );
+            assigned = false;
+        }
+        return assigned;
+    }
+
+    /**
+     * Was the user unassigned?
+     * @param username Assignee's username.
+     * @param resource Response of the unassign request.
+     * @return True or false.
+     */
+    private boolean unassigned(
+        final String username,
+        final Resource resource
+    ) {
+        this.changed();
+        final boolean unassigned;
+        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
+            LOG.debug("User " + username + " unassigned successfully!");
+            unassigned = true;
+        } else {
+            LOG.debug(
+                "Problem while unassigning user " + username + ". "
+                + "Expected 200 OK, but got " + resource.statusCode()
+            );
+            unassigned = false;
+        }
+        return unassigned;
+    }
 }
@@ -9,9 +9,10 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Github Issue Comments.
@@ -19,9 +20,6 @@ import java.util.stream.Collectors;
  * @author criske
  * @version $Id$
  * @since 0.0.8
- * @todo #100:30min Provide a pagination solution in iterator() using
- *  Github response headers, when {@link Resource} API has access to http
- *  response headers (issue #241).
  */
 final class GithubIssueComments implements Comments {
 
@@ -64,22 +62,21 @@ final class GithubIssueComments implements Comments {
     @Override
     public Comment post(final String body) {
         LOG.debug("Posting Comment to: [" + this.commentsUri + "].");
-        final Resource resource = resources.post(
+        return this.created(
+            this.resources.post(
+                this.commentsUri,
+                Json.createObjectBuilder().add("body", body).build()
+            )
+        );
+    }
+
+    @Override
+    public CompletableFuture<Comment> postAsync(final String body) {
+        LOG.debug("Posting Comment to: [" + this.commentsUri + "] (async).");
+        return this.resources.postAsync(
             this.commentsUri,
             Json.createObjectBuilder().add("body", body).build()
-        );
-        if (resource.statusCode() == HttpURLConnection.HTTP_CREATED) {
-            return new GithubComment(resource.asJsonObject());
-        } else {
-            LOG.error(
-                "Expected status 201 CREATED, but got: ["
-                + resource.statusCode() + "]."
-            );
-            throw new IllegalStateException(
-                "Github Issue Comment was not created. Status is "
-              + resource.statusCode()
-            );
-        }
+        ).thenApply(this::created);
     }
 
     @Override
@@ -89,17 +86,63 @@ final class GithubIssueComments implements Comments {
 
     @Override
     public Iterator<Comment> iterator() {
-        final Resource resource = resources.get(this.commentsUri);
-        final List<Comment> comments;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            comments = resource.asJsonArray()
+        return new JsonPages(this.resources, this.commentsUri)
+            .stream()
+            .map(json -> (Comment) new GithubComment((JsonObject) json))
+            .iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br/>
+     * Github can filter the comments with the
+     * <a href="https://docs.github.com/en/rest/issues/comments">since</a>
+     * parameter, so we only read the comments updated after the given
+     * one was created.
+     */
+    @Override
+    public Iterable<Comment> since(final Comment last) {
+        final JsonObject json = last.json();
+        final Iterable<Comment> since;
+        if(json.containsKey("created_at")) {
+            final URI uri = URI.create(
+                this.commentsUri + "?since=" + URLEncoder.encode(
+                    json.getString("created_at"), StandardCharsets.UTF_8
+                )
+            );
+            since = () -> new JsonPages(this.resources, uri)
                 .stream()
-                .map(JsonObject.class::cast)
-                .map(GithubComment::new)
-                .collect(Collectors.toList());
+                .map(comment -> (Comment) new GithubComment(
+                    (JsonObject) comment
+                ))
+                .filter(
+                    comment -> !comment.commentId().equals(last.commentId())
+                )
+                .iterator();
         } else {
-            comments = List.of();
+            since = Comments.super.since(last);
+        }
+        return since;
+    }
+
+    /**
+     * The Comment created by a POST request.
+     * @param resource Response of the POST request.
+     * @return Comment.
+     * @throws IllegalStateException If the Comment was not created.
+     */
+    private Comment created(final Resource resource) {
+        if (resource.statusCode() == HttpURLConnection.HTTP_CREATED) {
+            return new GithubComment(resource.asJsonObject());
+        } else {
+            LOG.error(
+                "Expected status 201 CREATED, but got: ["
+                + resource.statusCode() + "]."
+            );
+            throw new IllegalStateException(
+                "Github Issue Comment was not created. Status is "
+              + resource.statusCode()
+            );
         }
-        return comments.iterator();
     }
 }
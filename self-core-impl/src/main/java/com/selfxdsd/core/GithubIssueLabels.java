@@ -29,15 +29,23 @@ import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.Iterator;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
- * A Github Issue Labels.
+ * A Github Issue Labels.<br><br>
+ *
+ * If the Issue's JSON is available and it contains the labels array,
+ * the labels are read from it, without another HTTP call. Otherwise,
+ * or once labels were added or removed, they are fetched from the
+ * Issue Labels endpoint.
  * @author criske
  * @version $Id$
  * @since 0.0.30
@@ -61,46 +69,198 @@ final class GithubIssueLabels implements Labels {
      */
     private final JsonResources resources;
 
+    /**
+     * The Issue in JSON, as received from Github.
+     */
+    private final JsonObject issue;
+
+    /**
+     * Labels known to exist in the Issue's repo.
+     */
+    private final KnownLabels known;
+
+    /**
+     * Called after labels were added or removed.
+     */
+    private final Runnable relabeled;
+
+    /**
+     * Were labels added or removed through this object? If so, the
+     * labels from the Issue's JSON are stale.
+     */
+    private final AtomicBoolean stale;
+
     /**
      * Ctor.
      * @param uri Issue Labels URI.
      * @param resources Resources.
      */
     GithubIssueLabels(final URI uri, final JsonResources resources) {
+        this(uri, resources, JsonObject.EMPTY_JSON_OBJECT);
+    }
+
+    /**
+     * Ctor.
+     * @param uri Issue Labels URI.
+     * @param resources Resources.
+     * @param issue The Issue in JSON, as received from Github.
+     */
+    GithubIssueLabels(
+        final URI uri,
+        final JsonResources resources,
+        final JsonObject issue
+    ) {
+        this(uri, resources, issue, KnownLabels.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param uri Issue Labels URI.
+     * @param resources Resources.
+     * @param issue The Issue in JSON, as received from Github.
+     * @param known Labels known to exist in the Issue's repo.
+     */
+    GithubIssueLabels(
+        final URI uri,
+        final JsonResources resources,
+        final JsonObject issue,
+        final KnownLabels known
+    ) {
+        this(uri, resources, issue, known, () -> { });
+    }
+
+    /**
+     * Ctor.
+     * @param uri Issue Labels URI.
+     * @param resources Resources.
+     * @param issue The Issue in JSON, as received from Github.
+     * @param known Labels known to exist in the Issue's repo.
+     * @param relabeled Called after labels were added or removed.
+     */
+    GithubIssueLabels(
+        final URI uri,
+        final JsonResources resources,
+        final JsonObject issue,
+        final KnownLabels known,
+        final Runnable relabeled
+    ) {
         this.resources = resources;
         this.uri = uri;
+        this.issue = issue;
+        this.known = known;
+        this.relabeled = relabeled;
+        this.stale = new AtomicBoolean();
     }
 
     @Override
     public boolean add(final String... names) {
-        final GithubRepoLabels repoLabels = new GithubRepoLabels(
+        this.repoLabels().add(names);
+        final Resource resource;
+        try {
+            resource = this.resources.post(this.uri, this.labels(names));
+        } finally {
+            this.relabeled();
+        }
+        return resource.statusCode() == HttpURLConnection.HTTP_OK;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addAsync(final String... names) {
+        return this.repoLabels().addAsync(names).thenCompose(
+            added -> this.resources.postAsync(this.uri, this.labels(names))
+        ).whenComplete(
+            (resource, error) -> this.relabeled()
+        ).thenApply(
+            resource -> resource.statusCode() == HttpURLConnection.HTTP_OK
+        );
+    }
+
+    @Override
+    public boolean remove(final String name) {
+        final URI labelUri = URI.create(this.uri.toString() + "/" + name);
+        LOG.debug("Removing Issue Label [" + labelUri + "]...");
+        final Resource resource;
+        try {
+            resource = this.resources.delete(
+                labelUri,
+                Json.createObjectBuilder().build()
+            );
+        } finally {
+            this.relabeled();
+        }
+        return this.removed(resource);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(final String name) {
+        final URI labelUri = URI.create(this.uri.toString() + "/" + name);
+        LOG.debug("Removing Issue Label [" + labelUri + "] (async)...");
+        return this.resources.deleteAsync(
+            labelUri,
+            Json.createObjectBuilder().build()
+        ).whenComplete(
+            (resource, error) -> this.relabeled()
+        ).thenApply(this::removed);
+    }
+
+    @Override
+    public Iterator<Label> iterator() {
+        final JsonValue embedded = this.issue.get("labels");
+        final Stream<JsonValue> labels;
+        if(embedded instanceof JsonArray && !this.stale.get()) {
+            labels = ((JsonArray) embedded).stream();
+        } else {
+            labels = new JsonPages(this.resources, this.uri).stream();
+        }
+        return labels
+            .map(json -> (Label) new GithubLabel((JsonObject) json))
+            .iterator();
+    }
+
+    /**
+     * Labels were added or removed: the embedded ones are stale.
+     */
+    private void relabeled() {
+        this.stale.set(true);
+        this.relabeled.run();
+    }
+
+    /**
+     * Labels of the Repo to which the Issue belongs.
+     * @return Labels.
+     */
+    private Labels repoLabels() {
+        return new GithubRepoLabels(
             URI.create(
                 this.uri.toString()
                     .replaceAll("/issues/[0-9]+", "")
             ),
-            this.resources
+            this.resources,
+            this.known
         );
-        repoLabels.add(names);
+    }
+
+    /**
+     * Body of the request which adds labels to the Issue.
+     * @param names Names of the labels.
+     * @return JsonObject.
+     */
+    private JsonObject labels(final String... names) {
         final JsonArrayBuilder labels = Json.createArrayBuilder();
         for (final String name : names) {
             labels.add(name);
         }
-        final Resource resource = this.resources.post(this.uri, Json
-            .createObjectBuilder()
+        return Json.createObjectBuilder()
             .add("labels", labels.build())
-            .build()
-        );
-        return resource.statusCode() == HttpURLConnection.HTTP_OK;
+            .build();
     }
 
-    @Override
-    public boolean remove(final String name) {
-        final URI labelUri = URI.create(this.uri.toString() + "/" + name);
-        LOG.debug("Removing Issue Label [" + labelUri + "]...");
-        final Resource resource = this.resources.delete(
-            labelUri,
-            Json.createObjectBuilder().build()
-        );
+    /**
+     * Was the label removed?
+     * @param resource Response of the DELETE request.
+     * @return True or false.
+     */
+    private boolean removed(final Resource resource) {
         final int status = resource.statusCode();
         final boolean result;
         if(status == HttpURLConnection.HTTP_OK) {
@@ -117,20 +277,4 @@ final class GithubIssueLabels implements Labels {
         }
         return result;
     }
-
-    @Override
-    public Iterator<Label> iterator() {
-        final Resource resource = this.resources.get(this.uri);
-        final List<Label> labels;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            labels = resource.asJsonArray()
-                .stream()
-                .map(JsonObject.class::cast)
-                .map(GithubLabel::new)
-                .collect(Collectors.toList());
-        } else {
-            labels = List.of();
-        }
-        return labels.iterator();
-    }
 }
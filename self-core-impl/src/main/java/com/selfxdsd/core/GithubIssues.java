@@ -32,9 +32,19 @@ import org.slf4j.LoggerFactory;
 import javax.json.*;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * Issues in a Github repository.
@@ -52,6 +62,29 @@ final class GithubIssues implements Issues {
         GithubIssues.class
     );
 
+    /**
+     * How many Issues are fetched with one GraphQL query.
+     */
+    private static final int BULK = 50;
+
+    /**
+     * Attributes of the Issues fetched with GraphQL.
+     */
+    private static final String FIELDS = " number url title body state"
+        + " updatedAt author { login } assignees(first: 10) { nodes { login } }"
+        + " labels(first: 100) { nodes { name color } } ";
+
+    /**
+     * Format of the "since" parameter, in UTC.
+     */
+    private static final DateTimeFormatter SINCE = DateTimeFormatter
+        .ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
+    /**
+     * Issue number.
+     */
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
     /**
      * Github repo Issues base uri.
      */
@@ -73,7 +106,18 @@ final class GithubIssues implements Issues {
     private final Storage storage;
 
     /**
-     * Ctor.
+     * Labels known to exist in the repos.
+     */
+    private final KnownLabels labels;
+
+    /**
+     * Snapshots of the Issues.
+     */
+    private final IssueSnapshots snapshots;
+
+    /**
+     * Ctor. No labels are known to exist in the repo and the snapshots
+     * of the Issues are kept only by these Issues.
      *
      * @param resources Github's JSON Resources.
      * @param issuesUri Issues base URI.
@@ -85,11 +129,38 @@ final class GithubIssues implements Issues {
         final URI issuesUri,
         final Repo repo,
         final Storage storage
+    ) {
+        this(
+            resources, issuesUri, repo, storage,
+            KnownLabels.NONE, new IssueSnapshots()
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param resources Github's JSON Resources.
+     * @param issuesUri Issues base URI.
+     * @param repo Parent Repo.
+     * @param storage Storage.
+     * @param labels Labels known to exist in the repos.
+     * @param snapshots Snapshots of the Issues.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    GithubIssues(
+        final JsonResources resources,
+        final URI issuesUri,
+        final Repo repo,
+        final Storage storage,
+        final KnownLabels labels,
+        final IssueSnapshots snapshots
     ) {
         this.resources = resources;
         this.issuesUri = issuesUri;
         this.repo = repo;
         this.storage = storage;
+        this.labels = labels;
+        this.snapshots = snapshots;
     }
 
     @Override
@@ -97,34 +168,79 @@ final class GithubIssues implements Issues {
         final URI issueUri = URI.create(
             this.issuesUri.toString() + "/" + issueId
         );
-        final Resource resource = this.resources.get(issueUri);
-        JsonObject jsonObject;
-        switch (resource.statusCode()) {
-            case HttpURLConnection.HTTP_OK:
-                jsonObject = resource.asJsonObject();
-                break;
-            case HttpURLConnection.HTTP_NOT_FOUND:
-            case HttpURLConnection.HTTP_NO_CONTENT:
-                jsonObject = null;
-                break;
-            default:
-                throw new IllegalStateException(
-                    "Could not get the issue " + issueId + ". "
-                  + "Received status code: " + resource.statusCode()
-                );
+        return this.issue(issueId, issueUri, this.resources.get(issueUri));
+    }
+
+    @Override
+    public CompletableFuture<Issue> getByIdAsync(final String issueId) {
+        final URI issueUri = URI.create(
+            this.issuesUri.toString() + "/" + issueId
+        );
+        return this.resources.getAsync(issueUri).thenApply(
+            resource -> this.issue(issueId, issueUri, resource)
+        );
+    }
+
+    @Override
+    public Map<String, Issue> getByIds(final Collection<String> issueIds) {
+        final List<String> ids = new ArrayList<>(
+            new LinkedHashSet<>(issueIds)
+        );
+        final Map<String, Issue> issues = new LinkedHashMap<>();
+        for(int start = 0; start < ids.size(); start = start + BULK) {
+            final List<String> chunk = ids.subList(
+                start, Math.min(start + BULK, ids.size())
+            );
+            issues.putAll(this.fetched(chunk));
         }
-        Issue issue = null;
-        if(jsonObject != null){
-            issue = new WithContributorLabel(
-                new GithubIssue(
-                    issueUri,
-                    jsonObject,
-                    this.storage,
-                    this.resources
-                )
+        return issues;
+    }
+
+    /**
+     * Get the closed Issues among the given ones, by listing the Issues
+     * which were closed and updated since the given time. The listing
+     * stops as soon as all the given Issues are found.
+     * @param issueIds IDs of the Issues.
+     * @param since None of the given Issues was closed before this
+     *  time (UTC).
+     * @return Map of Issue ID to closed Issue.
+     */
+    @Override
+    public Map<String, Issue> closedSince(
+        final Collection<String> issueIds,
+        final LocalDateTime since
+    ) {
+        final Set<String> ids = new HashSet<>(issueIds);
+        final Map<String, Issue> closed = new LinkedHashMap<>();
+        if(!ids.isEmpty()) {
+            final URI uri = URI.create(
+                this.issuesUri + "?state=closed&since="
+                + SINCE.format(since)
             );
+            LOG.debug("Listing the closed Github Issues at " + uri);
+            final JsonPages pages = new JsonPages(
+                this.resources,
+                uri,
+                resource -> {
+                    throw new IllegalStateException(
+                        "Could not list the closed Issues at " + uri
+                        + ". Received status code: " + resource.statusCode()
+                    );
+                }
+            );
+            for(final JsonValue json : pages) {
+                final String issueId = String.valueOf(
+                    ((JsonObject) json).getInt("number")
+                );
+                if(ids.contains(issueId)) {
+                    closed.put(issueId, this.received((JsonObject) json));
+                    if(closed.size() == ids.size()) {
+                        break;
+                    }
+                }
+            }
         }
-        return issue;
+        return closed;
     }
 
     @Override
@@ -136,7 +252,9 @@ final class GithubIssues implements Issues {
                 ),
                 issue,
                 this.storage,
-                this.resources
+                this.resources,
+                this.labels,
+                this.snapshots
             )
         );
     }
@@ -183,7 +301,9 @@ final class GithubIssues implements Issues {
                     ),
                     jsonObject,
                     this.storage,
-                    this.resources
+                    this.resources,
+                    this.labels,
+                    this.snapshots
                 )
             );
         }
@@ -213,37 +333,217 @@ final class GithubIssues implements Issues {
             );
 
         LOG.debug("Searching for Github Issues at: " + search);
-        final Resource resource = this.resources.get(search);
+        final JsonPages pages = new JsonPages(
+            this.resources,
+            search,
+            resource -> LOG.error(
+                "Search returned status: " + resource.statusCode() + ". "
+                + "Was expecting 200 OK! No more issues found at " + search
+            ),
+            resource -> resource.asJsonObject().getJsonArray("items").stream()
+        );
+        return new FoundIssues(
+            this,
+            () -> pages.stream()
+                .map(issue -> this.received((JsonObject) issue))
+                .iterator()
+        );
+    }
 
-        JsonArray results;
+    @Override
+    public Iterator<Issue> iterator() {
+        throw new IllegalStateException(
+            "You cannot iterate over all the issues in a repo."
+        );
+    }
+
+
+    /**
+     * The Issue read from the response of a GET request.
+     * @param issueId Issue's ID.
+     * @param issueUri Issue's URI.
+     * @param resource Response of the GET request.
+     * @return Issue or null if it's not found.
+     * @throws IllegalStateException If the response is unexpected.
+     */
+    private Issue issue(
+        final String issueId,
+        final URI issueUri,
+        final Resource resource
+    ) {
+        JsonObject jsonObject;
         switch (resource.statusCode()) {
             case HttpURLConnection.HTTP_OK:
-                LOG.debug("Search returned status 200 OK.");
-                results = resource.asJsonObject().getJsonArray("items");
+                jsonObject = resource.asJsonObject();
+                break;
+            case HttpURLConnection.HTTP_NOT_FOUND:
+            case HttpURLConnection.HTTP_NO_CONTENT:
+                jsonObject = null;
                 break;
             default:
-                LOG.error(
-                    "Search returned status: " + resource.statusCode() + ". "
-                    + "Was expecting 200 OK! Returning 0 found issues..."
+                throw new IllegalStateException(
+                    "Could not get the issue " + issueId + ". "
+                  + "Received status code: " + resource.statusCode()
                 );
-                results = Json.createArrayBuilder().build();
-                break;
         }
+        Issue issue = null;
+        if(jsonObject != null){
+            issue = new WithContributorLabel(
+                new GithubIssue(
+                    issueUri,
+                    jsonObject,
+                    this.storage,
+                    this.resources,
+                    this.labels,
+                    this.snapshots
+                )
+            );
+        }
+        return issue;
+    }
 
-        final List<Issue> found = new ArrayList<>();
-        for(final JsonValue issue : results) {
-            found.add(
-                this.received((JsonObject) issue)
+    /**
+     * Fetch some Issues with one GraphQL query. If the query fails,
+     * the Issues are fetched one by one.
+     * @param issueIds IDs of the Issues (at most {@link #BULK}).
+     * @return Map of Issue ID to Issue.
+     */
+    private Map<String, Issue> fetched(final List<String> issueIds) {
+        final Map<String, Issue> issues = new LinkedHashMap<>();
+        final JsonObject repository = this.repository(issueIds);
+        if(repository == null) {
+            LOG.warn(
+                "Could not fetch Issues in bulk from " + this.issuesUri
+                + ", fetching them one by one."
             );
+            for(final String issueId : issueIds) {
+                final Issue issue = this.getById(issueId);
+                if(issue != null) {
+                    issues.put(issueId, issue);
+                }
+            }
+        } else {
+            for(int idx = 0; idx < issueIds.size(); ++idx) {
+                final JsonValue node = repository.get("i" + idx);
+                if(node instanceof JsonObject) {
+                    issues.put(
+                        issueIds.get(idx),
+                        this.received(this.restJson((JsonObject) node))
+                    );
+                }
+            }
         }
-        return new FoundIssues(this, found);
+        return issues;
     }
 
-    @Override
-    public Iterator<Issue> iterator() {
-        throw new IllegalStateException(
-            "You cannot iterate over all the issues in a repo."
-        );
+    /**
+     * Run the GraphQL query fetching the given Issues.
+     * @param issueIds IDs of the Issues.
+     * @return The "repository" object from the response or null if
+     *  the IDs are not numbers or the query failed.
+     */
+    private JsonObject repository(final List<String> issueIds) {
+        JsonObject repository = null;
+        final boolean numeric = issueIds.stream()
+            .allMatch(id -> NUMBER.matcher(id).matches());
+        if(numeric) {
+            LOG.debug(
+                "Fetching " + issueIds.size() + " Issues from "
+                + this.issuesUri + " with GraphQL..."
+            );
+            final Resource resource = this.resources.post(
+                URI.create(
+                    this.issuesUri.getScheme() + "://"
+                    + this.issuesUri.getAuthority() + "/graphql"
+                ),
+                Json.createObjectBuilder()
+                    .add("query", this.query(issueIds))
+                    .build()
+            );
+            if(resource.statusCode() == HttpURLConnection.HTTP_OK) {
+                final JsonValue data = resource.asJsonObject().get("data");
+                if(data instanceof JsonObject
+                    && ((JsonObject) data).get("repository")
+                        instanceof JsonObject) {
+                    repository = ((JsonObject) data)
+                        .getJsonObject("repository");
+                }
+            }
+        }
+        return repository;
     }
 
+    /**
+     * GraphQL query fetching the given Issues (or PRs), aliased
+     * i0, i1, i2 etc, in the given order.
+     * @param issueIds IDs (numbers) of the Issues.
+     * @return String.
+     */
+    private String query(final List<String> issueIds) {
+        final String[] parts = this.issuesUri.getRawPath().split("/");
+        final StringBuilder query = new StringBuilder()
+            .append("query { repository(owner: \"").append(parts[2])
+            .append("\", name: \"").append(parts[3]).append("\") {");
+        for(int idx = 0; idx < issueIds.size(); ++idx) {
+            query.append(" i").append(idx)
+                .append(": issueOrPullRequest(number: ")
+                .append(issueIds.get(idx))
+                .append(") { ...issue ...pull }");
+        }
+        return query.append(" } } ")
+            .append("fragment issue on Issue {").append(FIELDS).append('}')
+            .append(" fragment pull on PullRequest {").append(FIELDS)
+            .append('}')
+            .toString();
+    }
+
+    /**
+     * Turn an Issue (or PR) returned by the GraphQL API into the JSON
+     * returned by the REST API, with the attributes which we use.
+     * @param node Issue from the GraphQL API.
+     * @return Issue as JsonObject, like from the REST API.
+     */
+    private JsonObject restJson(final JsonObject node) {
+        final int number = node.getInt("number");
+        String author = "ghost";
+        if(node.get("author") instanceof JsonObject) {
+            author = node.getJsonObject("author").getString("login");
+        }
+        final JsonArrayBuilder assignees = Json.createArrayBuilder();
+        JsonValue assignee = JsonValue.NULL;
+        for(final JsonValue login : node.getJsonObject("assignees")
+            .getJsonArray("nodes")) {
+            if(assignee == JsonValue.NULL) {
+                assignee = login;
+            }
+            assignees.add(login);
+        }
+        String state = "open";
+        if(!"OPEN".equals(node.getString("state"))) {
+            state = "closed";
+        }
+        final JsonObjectBuilder json = Json.createObjectBuilder()
+            .add("number", number)
+            .add("url", this.issuesUri.toString() + "/" + number)
+            .add("html_url", node.getString("url"))
+            .add("title", node.getString("title"))
+            .add("body", node.getString("body"))
+            .add("state", state)
+            .add("updated_at", node.getString("updatedAt"))
+            .add("user", Json.createObjectBuilder().add("login", author))
+            .add("assignee", assignee)
+            .add("assignees", assignees)
+            .add(
+                "labels",
+                node.getJsonObject("labels").getJsonArray("nodes")
+            );
+        if(node.getString("url").endsWith("/pull/" + number)) {
+            json.add(
+                "pull_request",
+                Json.createObjectBuilder()
+                    .add("html_url", node.getString("url"))
+            );
+        }
+        return json.build();
+    }
 }
@@ -5,10 +5,8 @@ import com.selfxdsd.api.Repos;
 import com.selfxdsd.api.User;
 import com.selfxdsd.api.storage.Storage;
 
-import javax.json.JsonArray;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
-import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.Iterator;
 
@@ -61,17 +59,15 @@ final class GithubOrganizationRepos implements Repos {
 
     @Override
     public Iterator<Repo> iterator() {
-        final Resource resource = resources.get(this.uri);
-        final JsonArray repos;
-        final int statusCode = resource.statusCode();
-        if (statusCode == HttpURLConnection.HTTP_OK) {
-            repos = resource.asJsonArray();
-        } else {
-            throw new IllegalStateException("Unable to fetch Github "
-                + "organization Repos for current User. Expected 200 OK, "
-                + "but got: " + statusCode);
-        }
-        return repos.stream()
+        return new JsonPages(
+            this.resources,
+            this.uri,
+            resource -> {
+                throw new IllegalStateException("Unable to fetch Github "
+                    + "organization Repos for current User. Expected 200 OK, "
+                    + "but got: " + resource.statusCode());
+            }
+        ).stream()
             .filter(this::isAdmin)
             .map(this::buildRepo)
             .iterator();
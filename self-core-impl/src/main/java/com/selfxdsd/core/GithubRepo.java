@@ -37,7 +37,18 @@ import java.net.URI;
 final class GithubRepo extends BaseRepo {
 
     /**
-     * Constructor.
+     * Labels known to exist in the repos.
+     */
+    private final KnownLabels labels;
+
+    /**
+     * Snapshots of the Issues.
+     */
+    private final IssueSnapshots snapshots;
+
+    /**
+     * Constructor. No labels are known to exist in this repo and the
+     * snapshots of its Issues are kept only by it.
      * @param resources The provider's JSON Resources.
      * @param uri URI Pointing to this repo.
      * @param owner Owner of this repo.
@@ -49,8 +60,35 @@ final class GithubRepo extends BaseRepo {
         final URI uri,
         final User owner,
         final Storage storage
+    ) {
+        this(
+            resources, uri, owner, storage,
+            KnownLabels.NONE, new IssueSnapshots()
+        );
+    }
+
+    /**
+     * Constructor.
+     * @param resources The provider's JSON Resources.
+     * @param uri URI Pointing to this repo.
+     * @param owner Owner of this repo.
+     * @param storage Storage used to save the Project when
+     *  this repo is activated.
+     * @param labels Labels known to exist in the repos.
+     * @param snapshots Snapshots of the Issues.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    GithubRepo(
+        final JsonResources resources,
+        final URI uri,
+        final User owner,
+        final Storage storage,
+        final KnownLabels labels,
+        final IssueSnapshots snapshots
     ) {
         super(resources, uri, owner, storage);
+        this.labels = labels;
+        this.snapshots = snapshots;
     }
 
     @Override
@@ -101,11 +139,18 @@ final class GithubRepo extends BaseRepo {
 
     @Override
     public Issues issues() {
-        return new GithubIssues(
-            this.resources(),
-            URI.create(this.repoUri().toString() + "/issues"),
-            this,
-            this.storage()
+        return new CachedIssues(
+            new GithubIssues(
+                this.resources(),
+                URI.create(this.repoUri().toString() + "/issues"),
+                this,
+                this.storage(),
+                this.labels,
+                this.snapshots
+            ),
+            this.snapshots,
+            Provider.Names.GITHUB,
+            this.repoUri().getPath().substring("/repos/".length())
         );
     }
 
@@ -153,7 +198,8 @@ final class GithubRepo extends BaseRepo {
     public Labels labels() {
         return new GithubRepoLabels(
             URI.create(this.repoUri().toString() + "/labels"),
-            this.resources()
+            this.resources(),
+            this.labels
         );
     }
 }
@@ -25,13 +25,9 @@ package com.selfxdsd.core;
 import com.selfxdsd.api.Invitation;
 import com.selfxdsd.api.Invitations;
 
-import javax.json.JsonArray;
 import javax.json.JsonObject;
-import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.Iterator;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Github Repo invitations.
@@ -74,38 +70,29 @@ final class GithubRepoInvitations implements Invitations {
 
     @Override
     public Iterator<Invitation> iterator() {
-        final List<Invitation> invitations = this.fetchInvitations().stream()
+        return new JsonPages(
+            this.resources,
+            this.repoInvitationsUri,
+            invitations -> {
+                throw new IllegalStateException(
+                    "Unexpected response when fetching "
+                  + "[" + this.repoInvitationsUri + "]. "
+                  + "Expected 200 OK, but got " + invitations.statusCode()
+                  + "."
+                );
+            }
+        ).stream()
             .map(
-                jsonValue -> new HelloIssue(
-                        new StarRepo(
-                            new GithubInvitation(
-                                this.resources,
-                                this.repoInvitationsUri,
-                                (JsonObject) jsonValue,
-                                this.github
+                jsonValue -> (Invitation) new HelloIssue(
+                    new StarRepo(
+                        new GithubInvitation(
+                            this.resources,
+                            this.repoInvitationsUri,
+                            (JsonObject) jsonValue,
+                            this.github
                         )
                     )
                 )
-            ).collect(Collectors.toList());
-        return invitations.iterator();
-    }
-
-    /**
-     * Fetch invitations.
-     * @return JsonArray.
-     */
-    private JsonArray fetchInvitations() {
-        final Resource invitations = this.resources.get(
-            this.repoInvitationsUri
-        );
-        if(invitations.statusCode() == HttpURLConnection.HTTP_OK) {
-            return invitations.asJsonArray();
-        } else {
-            throw new IllegalStateException(
-                "Unexpected response when fetching "
-              + "[" + this.repoInvitationsUri + "]. "
-              + "Expected 200 OK, but got " + invitations.statusCode() + "."
-            );
-        }
+            ).iterator();
     }
 }
@@ -31,10 +31,11 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * All the labels in a Github repository.
@@ -51,6 +52,11 @@ final class GithubRepoLabels implements Labels {
         GithubRepoLabels.class
     );
 
+    /**
+     * Status returned by Github when the label already exists.
+     */
+    private static final int UNPROCESSABLE_ENTITY = 422;
+
     /**
      * Repo Labels URI.
      */
@@ -62,29 +68,70 @@ final class GithubRepoLabels implements Labels {
     private final JsonResources resources;
 
     /**
-     * Ctor.
+     * Labels known to exist in the repo.
+     */
+    private final KnownLabels known;
+
+    /**
+     * Ctor. The labels are always created, even if they already exist.
      * @param repoLabelsUri Repo Labels URI.
      * @param resources Resources.
      */
     GithubRepoLabels(final URI repoLabelsUri, final JsonResources resources) {
+        this(repoLabelsUri, resources, KnownLabels.NONE);
+    }
+
+    /**
+     * Ctor.
+     * @param repoLabelsUri Repo Labels URI.
+     * @param resources Resources.
+     * @param known Labels known to exist in the repo; they are not
+     *  created again.
+     */
+    GithubRepoLabels(
+        final URI repoLabelsUri,
+        final JsonResources resources,
+        final KnownLabels known
+    ) {
         this.resources = resources;
         this.repoLabelsUri = repoLabelsUri;
+        this.known = known;
     }
 
     @Override
     public boolean add(final String... names) {
         for(final String name : names) {
-            this.resources.post(
-                this.repoLabelsUri,
-                Json.createObjectBuilder()
-                    .add("name", name)
-                    .add("color", this.randomColor())
-                    .build()
-            );
+            if(this.isKnown(name)) {
+                LOG.debug("Repo Label [" + name + "] already exists.");
+            } else {
+                this.created(
+                    name,
+                    this.resources.post(this.repoLabelsUri, this.label(name))
+                );
+            }
         }
         return true;
     }
 
+    @Override
+    public CompletableFuture<Boolean> addAsync(final String... names) {
+        final List<CompletableFuture<?>> added = new ArrayList<>();
+        for(final String name : names) {
+            if(this.isKnown(name)) {
+                LOG.debug("Repo Label [" + name + "] already exists.");
+            } else {
+                added.add(
+                    this.resources.postAsync(
+                        this.repoLabelsUri, this.label(name)
+                    ).thenAccept(resource -> this.created(name, resource))
+                );
+            }
+        }
+        return CompletableFuture.allOf(
+            added.toArray(new CompletableFuture<?>[0])
+        ).thenApply(all -> true);
+    }
+
     @Override
     public boolean remove(final String name) {
         final URI labelUri = URI.create(
@@ -100,6 +147,7 @@ final class GithubRepoLabels implements Labels {
         if(status == HttpURLConnection.HTTP_NO_CONTENT
             || status == HttpURLConnection.HTTP_NOT_FOUND) {
             result = true;
+            this.known.removed(this.repoLabelsUri.toString(), name);
             LOG.debug("Repo Label removed successfully.");
         } else {
             result = false;
@@ -113,18 +161,46 @@ final class GithubRepoLabels implements Labels {
 
     @Override
     public Iterator<Label> iterator() {
-        final Resource resource = this.resources.get(this.repoLabelsUri);
-        final List<Label> repoLabels;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            repoLabels = resource.asJsonArray()
-                .stream()
-                .map(JsonObject.class::cast)
-                .map(GithubLabel::new)
-                .collect(Collectors.toList());
-        } else {
-            repoLabels = List.of();
+        return new JsonPages(this.resources, this.repoLabelsUri)
+            .stream()
+            .map(json -> (Label) new GithubLabel((JsonObject) json))
+            .iterator();
+    }
+
+    /**
+     * Is the label known to exist in the repo?
+     * @param name Name of the label.
+     * @return True or false.
+     */
+    private boolean isKnown(final String name) {
+        return this.known.contains(
+            this.repoLabelsUri.toString(), name, () -> this
+        );
+    }
+
+    /**
+     * Remember the label, if it was created or if it already exists.
+     * @param name Name of the label.
+     * @param resource Response of the POST request.
+     */
+    private void created(final String name, final Resource resource) {
+        final int status = resource.statusCode();
+        if(status == HttpURLConnection.HTTP_CREATED
+            || status == UNPROCESSABLE_ENTITY) {
+            this.known.created(this.repoLabelsUri.toString(), name);
         }
-        return repoLabels.iterator();
+    }
+
+    /**
+     * Body of the request which creates a label.
+     * @param name Name of the label.
+     * @return JsonObject.
+     */
+    private JsonObject label(final String name) {
+        return Json.createObjectBuilder()
+            .add("name", name)
+            .add("color", this.randomColor())
+            .build();
     }
 
     /**
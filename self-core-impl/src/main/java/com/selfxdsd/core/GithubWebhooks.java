@@ -31,7 +31,6 @@ import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import javax.json.JsonObject;
-import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.ArrayList;
@@ -130,7 +129,9 @@ final class GithubWebhooks implements Webhooks {
     @Override
     public boolean remove() {
         boolean removed = true;
-        for(final Webhook hook : this) {
+        final List<Webhook> hooks = new ArrayList<>();
+        this.forEach(hooks::add);
+        for(final Webhook hook : hooks) {
             if(hook.url().contains("//self-xdsd.")) {
                 LOG.debug(
                     "Removing Self XDSD Webhook from ["
@@ -160,46 +161,36 @@ final class GithubWebhooks implements Webhooks {
 
     @Override
     public Iterator<Webhook> iterator() {
-        final Iterator<Webhook> iterator;
         LOG.debug(
             "Fetching Github webhooks [" + this.hooksUri + "]..."
         );
-        final Resource response = this.resources.get(
-            URI.create(this.hooksUri.toString() + "?per_page=100")
-        );
-        if(response.statusCode() == HttpURLConnection.HTTP_OK) {
-            LOG.debug("Webhooks fetched successfully!");
-            final List<Webhook> list = new ArrayList<>();
-            for(final JsonValue hook : response.asJsonArray()) {
-                list.add(
-                    new Webhook() {
-                        /**
-                         * Hook in JSON.
-                         */
-                        private final JsonObject json = (JsonObject) hook;
-
-                        @Override
-                        public String id() {
-                            return String.valueOf(this.json.getInt("id"));
-                        }
-
-                        @Override
-                        public String url() {
-                            return this.json.getJsonObject("config")
-                                .getString("url");
-                        }
-                    }
-                );
-            }
-            iterator = list.iterator();
-        } else {
-            LOG.error(
+        return new JsonPages(
+            this.resources,
+            this.hooksUri,
+            response -> LOG.error(
                 "Problem when fetching webhooks. Expected 200 OK, "
                 + " but got " + response.statusCode()
                 + ". Returning empty iterable."
-            );
-            iterator = new ArrayList<Webhook>().iterator();
-        }
-        return iterator;
+            )
+        ).stream()
+            .map(
+                hook -> (Webhook) new Webhook() {
+                    /**
+                     * Hook in JSON.
+                     */
+                    private final JsonObject json = (JsonObject) hook;
+
+                    @Override
+                    public String id() {
+                        return String.valueOf(this.json.getInt("id"));
+                    }
+
+                    @Override
+                    public String url() {
+                        return this.json.getJsonObject("config")
+                            .getString("url");
+                    }
+                }
+            ).iterator();
     }
 }
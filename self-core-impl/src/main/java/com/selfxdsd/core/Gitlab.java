@@ -56,13 +56,30 @@ public final class Gitlab implements Provider {
      */
     private final Storage storage;
 
+    /**
+     * Numeric ids of the projects of this Gitlab.
+     */
+    private final GitlabProjectIds projectIds;
+
     /**
      * Constructor.
      * @param user Authenticated user.
      * @param storage Storage where we might save some stuff.
      */
     public Gitlab(final User user, final Storage storage) {
-        this(user, storage, new JsonResources.JdkHttp());
+        this(
+            user,
+            storage,
+            new CoalescedJsonResources(
+                new CachedJsonResources(
+                    new ResilientJsonResources(
+                        new RateLimitedJsonResources(
+                            new JsonResources.JdkHttp()
+                        )
+                    )
+                )
+            )
+        );
     }
 
     /**
@@ -76,7 +93,7 @@ public final class Gitlab implements Provider {
         final Storage storage,
         final JsonResources resources
     ) {
-        this(user, storage, resources, "");
+        this(user, storage, resources, "", new GitlabProjectIds());
     }
 
     /**
@@ -86,15 +103,19 @@ public final class Gitlab implements Provider {
      * @param storage Storage where we might save some stuff.
      * @param resources Gitlab's JSON Resources.
      * @param accessToken Access token.
+     * @param projectIds Numeric ids of the projects.
+     * @checkstyle ParameterNumber (10 lines)
      */
     private Gitlab(
         final User user,
         final Storage storage,
         final JsonResources resources,
-        final String accessToken
+        final String accessToken,
+        final GitlabProjectIds projectIds
     ) {
         this.user = user;
         this.storage = storage;
+        this.projectIds = projectIds;
         if (accessToken == null || accessToken.isBlank()) {
             this.resources = resources;
         } else {
@@ -115,7 +136,9 @@ public final class Gitlab implements Provider {
             name,
             this.resources,
             this.user,
-            this.storage);
+            this.storage,
+            this.projectIds
+        );
     }
 
     @Override
@@ -138,7 +161,8 @@ public final class Gitlab implements Provider {
             new BaseSelf.Authenticated(this.user, accessToken),
             this.storage,
             this.resources,
-            accessToken
+            accessToken,
+            this.projectIds
         );
     }
 
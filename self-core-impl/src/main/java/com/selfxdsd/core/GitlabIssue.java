@@ -32,6 +32,7 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An Issue in a Gitlab repository.
@@ -82,7 +83,12 @@ final class GitlabIssue implements Issue {
     private final JsonResources resources;
 
     /**
-     * Ctor.
+     * Ids of the Gitlab users.
+     */
+    private final GitlabUserIds userIds;
+
+    /**
+     * Ctor. The user ids are kept only by this Issue.
      * @param issueUri Issues base URI.
      * @param json Json Issue as returned by Gitlab's API.
      * @param storage Storage.
@@ -93,11 +99,30 @@ final class GitlabIssue implements Issue {
         final JsonObject json,
         final Storage storage,
         final JsonResources resources
+    ) {
+        this(issueUri, json, storage, resources, new GitlabUserIds());
+    }
+
+    /**
+     * Ctor.
+     * @param issueUri Issues base URI.
+     * @param json Json Issue as returned by Gitlab's API.
+     * @param storage Storage.
+     * @param resources Gitlab's JSON Resources.
+     * @param userIds Ids of the Gitlab users.
+     */
+    GitlabIssue(
+        final URI issueUri,
+        final JsonObject json,
+        final Storage storage,
+        final JsonResources resources,
+        final GitlabUserIds userIds
     ) {
         this.issueUri = issueUri;
         this.json = json;
         this.storage = storage;
         this.resources = resources;
+        this.userIds = userIds;
     }
 
     @Override
@@ -157,7 +182,9 @@ final class GitlabIssue implements Issue {
      * For Gitlab, assigning is done via
      * <a href="https://docs.gitlab.com/ee/api/issues.html#edit-issue">
      *     updating the issue</a> with `assignee_id` attribute. Thus we need
-     *  to get the user `id` by their "username" first.
+     *  to get the user `id` by their "username" first (see
+     *  {@link GitlabUserIds}) and make sure they are a member of the
+     *  Issue's Project.
      */
     @Override
     public boolean assign(final String username) {
@@ -166,29 +193,44 @@ final class GitlabIssue implements Issue {
                 + this.issueUri + "]..."
         );
         boolean assigned = false;
-        final Integer userId = this.findUserId(username);
+        final Integer userId = this.userIds.memberId(
+            this.project(), username, this.resources
+        );
         if(userId != null) {
-            final Resource resource = this.resources.put(
-                this.issueUri,
-                Json.createObjectBuilder()
-                    .add("assignee_id", userId)
-                    .build()
+            assigned = this.assigned(
+                username,
+                userId,
+                this.resources.put(this.issueUri, this.assignee(userId))
             );
-            if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-                LOG.debug("User \"" + username + "\" (id: " + userId + ") "
-                    + "assigned successfully!");
-                assigned = true;
-            } else {
-                LOG.debug(
-                    "Problem while assigning user \"" + username + "\". "
-                        + "Expected 200 OK, but got " + resource.statusCode()
-                );
-                assigned = false;
-            }
         }
         return assigned;
     }
 
+    @Override
+    public CompletableFuture<Boolean> assignAsync(final String username) {
+        LOG.debug(
+            "Assigning user " + username + " to Issue ["
+                + this.issueUri + "] (async)..."
+        );
+        return this.userIds.memberIdAsync(
+            this.project(), username, this.resources
+        ).thenCompose(
+            userId -> {
+                final CompletableFuture<Boolean> assigned;
+                if(userId == null) {
+                    assigned = CompletableFuture.completedFuture(false);
+                } else {
+                    assigned = this.resources.putAsync(
+                        this.issueUri, this.assignee(userId)
+                    ).thenApply(
+                        resource -> this.assigned(username, userId, resource)
+                    );
+                }
+                return assigned;
+            }
+        );
+    }
+
     @Override
     public boolean unassign(final String username) {
         throw new UnsupportedOperationException("Not implemented yet");
@@ -263,43 +305,49 @@ final class GitlabIssue implements Issue {
     }
 
     /**
-     * Find user id by searching it in projects/repo members.
-     * @param username Username to query.
-     * @return User id or null if not found.
+     * URI of the Issue's Project.
+     * @return URI.
      */
-    private Integer findUserId(final String username) {
-        final String projectPrefix = this.issueUri.toString()
-            .split("/issues")[0];
-        final URI projectMembersUri = URI.create(projectPrefix
-            + "/search?scope=users&search=" + username);
-        final Resource resource = this.resources.get(projectMembersUri);
-        LOG.debug(
-            "Searching for user \"" + username + "\" id in project members ["
-                + projectMembersUri + "]..."
-        );
-        final Integer userId;
+    private URI project() {
+        return URI.create(this.issueUri.toString().split("/issues")[0]);
+    }
+
+    /**
+     * Body of the request which assigns the Issue.
+     * @param userId Assignee's id.
+     * @return JsonObject.
+     */
+    private JsonObject assignee(final int userId) {
+        return Json.createObjectBuilder()
+            .add("assignee_id", userId)
+            .build();
+    }
+
+    /**
+     * Was the user assigned?
+     * @param username Assignee's username.
+     * @param userId Assignee's id.
+     * @param resource Response of the assign request.
+     * @return True or false.
+     */
+    private boolean assigned(
+        final String username,
+        final int userId,
+        final Resource resource
+    ) {
+        final boolean assigned;
         if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            userId = resource.asJsonArray().stream()
-                .filter(o -> o.asJsonObject()
-                    .getString("username")
-                    .equals(username))
-                .map(o -> o.asJsonObject().getInt("id"))
-                .findFirst()
-                .orElse(null);
-            if (userId == null) {
-                LOG.debug(
-                    "User id for \"" + username + "\" was not found. Make sure "
-                        + "they are part of the Issue's Project."
-                );
-            }
+            LOG.debug("User \"" + username + "\" (id: " + userId + ") "
+                + "assigned successfully!");
+            assigned = true;
         } else {
             LOG.debug(
-                "Could not get id for \"" + username + "\". Status code: "
-                    + resource.statusCode()
+                "Problem while assigning user \"" + username + "\". "
+                    + "Expected 200 OK, but got " + resource.statusCode()
             );
-            userId = null;
+            assigned = false;
         }
-        return userId;
+        return assigned;
     }
 
 }
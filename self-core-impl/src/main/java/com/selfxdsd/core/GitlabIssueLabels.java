@@ -28,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
+import javax.json.JsonArray;
 import javax.json.JsonObject;
 import java.net.HttpURLConnection;
 import java.net.URI;
@@ -35,12 +36,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
  * Labels on a Gitlab Issue.<br><br>
  *
- * This class is implemented based on the Issue json.
+ * This class is implemented based on the Issue json (if the labels
+ * are missing from it, the Issue is fetched again).
  * Add/Remove label are actually calls to the Edit Issue endpoint.
  *
  * @author Mihai Andronache (amihaiemil@gmail.com)
@@ -89,19 +92,93 @@ final class GitlabIssueLabels implements Labels {
 
     @Override
     public boolean add(final String... names) {
-        final boolean added;
         final String labels = Arrays.stream(names)
             .collect(Collectors.joining(","));
         LOG.debug(
             "Adding labels [" + labels + "] to GitLab Issue ["
             + this.uri + "]..."
         );
-        final Resource response = this.resources.put(
+        return this.added(
+            this.resources.put(
+                this.uri,
+                Json.createObjectBuilder()
+                    .add("add_labels", labels)
+                    .build()
+            )
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addAsync(final String... names) {
+        final String labels = Arrays.stream(names)
+            .collect(Collectors.joining(","));
+        LOG.debug(
+            "Adding labels [" + labels + "] to GitLab Issue ["
+            + this.uri + "] (async)..."
+        );
+        return this.resources.putAsync(
             this.uri,
             Json.createObjectBuilder()
                 .add("add_labels", labels)
                 .build()
+        ).thenApply(this::added);
+    }
+
+    @Override
+    public boolean remove(final String name) {
+        LOG.debug(
+            "Removing label [" + name + "] from GitLab Issue ["
+            + this.uri + "]..."
         );
+        return this.removed(
+            this.resources.put(
+                this.uri,
+                Json.createObjectBuilder()
+                    .add("remove_labels", name)
+                    .build()
+            )
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeAsync(final String name) {
+        LOG.debug(
+            "Removing label [" + name + "] from GitLab Issue ["
+            + this.uri + "] (async)..."
+        );
+        return this.resources.putAsync(
+            this.uri,
+            Json.createObjectBuilder()
+                .add("remove_labels", name)
+                .build()
+        ).thenApply(this::removed);
+    }
+
+    @Override
+    public Iterator<Label> iterator() {
+        final List<Label> labels = new ArrayList<>();
+        JsonObject issue = this.issue;
+        if(!(issue.get("labels") instanceof JsonArray)) {
+            LOG.debug(
+                "Labels missing from Issue JSON, fetching [" + this.uri + "]"
+            );
+            issue = this.resources.get(this.uri).asJsonObject();
+        }
+        final List<JsonObject> array = issue.getJsonArray("labels")
+            .getValuesAs(JsonObject.class);
+        for(final JsonObject label : array) {
+            labels.add(new GitlabLabel(label));
+        }
+        return labels.iterator();
+    }
+
+    /**
+     * Were the labels added?
+     * @param response Response of the edit request.
+     * @return True or false.
+     */
+    private boolean added(final Resource response) {
+        final boolean added;
         if(response.statusCode() == HttpURLConnection.HTTP_OK) {
             LOG.debug("Labels added successfully!");
             added = true;
@@ -115,19 +192,13 @@ final class GitlabIssueLabels implements Labels {
         return added;
     }
 
-    @Override
-    public boolean remove(final String name) {
+    /**
+     * Was the label removed?
+     * @param response Response of the edit request.
+     * @return True or false.
+     */
+    private boolean removed(final Resource response) {
         final boolean removed;
-        LOG.debug(
-            "Removing label [" + name + "] from GitLab Issue ["
-            + this.uri + "]..."
-        );
-        final Resource response = this.resources.put(
-            this.uri,
-            Json.createObjectBuilder()
-                .add("remove_labels", name)
-                .build()
-        );
         if(response.statusCode() == HttpURLConnection.HTTP_OK) {
             LOG.debug("Label removed successfully!");
             removed = true;
@@ -140,15 +211,4 @@ final class GitlabIssueLabels implements Labels {
         }
         return removed;
     }
-
-    @Override
-    public Iterator<Label> iterator() {
-        final List<Label> labels = new ArrayList<>();
-        final List<JsonObject> array = this.issue.getJsonArray("labels")
-            .getValuesAs(JsonObject.class);
-        for(final JsonObject label : array) {
-            labels.add(new GitlabLabel(label));
-        }
-        return labels.iterator();
-    }
 }
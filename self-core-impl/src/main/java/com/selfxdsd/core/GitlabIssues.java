@@ -29,8 +29,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.json.JsonObject;
+import javax.json.JsonValue;
 import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Issues in a Gitlab repository.
@@ -49,6 +62,17 @@ final class GitlabIssues implements Issues {
         GitlabIssues.class
     );
 
+    /**
+     * How many Issues are fetched with one request.
+     */
+    private static final int BULK = 100;
+
+    /**
+     * Format of the "updated_after" parameter, in UTC.
+     */
+    private static final DateTimeFormatter SINCE = DateTimeFormatter
+        .ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
     /**
      * Gitlab repo Issues base uri.
      */
@@ -64,6 +88,11 @@ final class GitlabIssues implements Issues {
      */
     private final Storage storage;
 
+    /**
+     * Ids of the Gitlab users, shared by these Issues.
+     */
+    private final GitlabUserIds userIds;
+
     /**
      * Ctor.
      *
@@ -75,10 +104,28 @@ final class GitlabIssues implements Issues {
         final JsonResources resources,
         final URI issuesUri,
         final Storage storage
+    ) {
+        this(resources, issuesUri, storage, new GitlabUserIds());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param resources Gitlab's JSON Resources.
+     * @param issuesUri Issues base URI.
+     * @param storage Storage.
+     * @param userIds Ids of the Gitlab users.
+     */
+    GitlabIssues(
+        final JsonResources resources,
+        final URI issuesUri,
+        final Storage storage,
+        final GitlabUserIds userIds
     ) {
         this.resources = resources;
         this.issuesUri = issuesUri;
         this.storage = storage;
+        this.userIds = userIds;
     }
 
     @Override
@@ -86,6 +133,86 @@ final class GitlabIssues implements Issues {
         throw new UnsupportedOperationException("Not implemented yet");
     }
 
+    @Override
+    public Map<String, Issue> getByIds(final Collection<String> issueIds) {
+        final List<String> ids = new ArrayList<>(
+            new LinkedHashSet<>(issueIds)
+        );
+        final Map<String, Issue> issues = new LinkedHashMap<>();
+        for(int start = 0; start < ids.size(); start = start + BULK) {
+            final StringBuilder query = new StringBuilder();
+            for(final String iid : ids.subList(
+                start, Math.min(start + BULK, ids.size())
+            )) {
+                if(query.length() > 0) {
+                    query.append('&');
+                }
+                query.append("iids%5B%5D=").append(
+                    URLEncoder.encode(iid, StandardCharsets.UTF_8)
+                );
+            }
+            final URI uri = URI.create(this.issuesUri + "?" + query);
+            LOG.debug("Fetching Gitlab Issues in bulk from " + uri);
+            new JsonPages(this.resources, uri).forEach(
+                json -> {
+                    final JsonObject issue = (JsonObject) json;
+                    issues.put(
+                        String.valueOf(issue.getInt("iid")),
+                        this.issue(issue)
+                    );
+                }
+            );
+        }
+        return issues;
+    }
+
+    /**
+     * Get the closed Issues among the given ones, by listing the Issues
+     * which were closed and updated since the given time. The listing
+     * stops as soon as all the given Issues are found.
+     * @param issueIds IDs of the Issues.
+     * @param since None of the given Issues was closed before this
+     *  time (UTC).
+     * @return Map of Issue ID to closed Issue.
+     */
+    @Override
+    public Map<String, Issue> closedSince(
+        final Collection<String> issueIds,
+        final LocalDateTime since
+    ) {
+        final Set<String> ids = new HashSet<>(issueIds);
+        final Map<String, Issue> closed = new LinkedHashMap<>();
+        if(!ids.isEmpty()) {
+            final URI uri = URI.create(
+                this.issuesUri + "?state=closed&updated_after="
+                + SINCE.format(since)
+            );
+            LOG.debug("Listing the closed Gitlab Issues at " + uri);
+            final JsonPages pages = new JsonPages(
+                this.resources,
+                uri,
+                resource -> {
+                    throw new IllegalStateException(
+                        "Could not list the closed Issues at " + uri
+                        + ". Received status code: " + resource.statusCode()
+                    );
+                }
+            );
+            for(final JsonValue json : pages) {
+                final String issueId = String.valueOf(
+                    ((JsonObject) json).getInt("iid")
+                );
+                if(ids.contains(issueId)) {
+                    closed.put(issueId, this.issue((JsonObject) json));
+                    if(closed.size() == ids.size()) {
+                        break;
+                    }
+                }
+            }
+        }
+        return closed;
+    }
+
     @Override
     public Issue received(final JsonObject issue) {
         throw new UnsupportedOperationException("Not implemented yet");
@@ -102,7 +229,37 @@ final class GitlabIssues implements Issues {
 
     @Override
     public Issues search(final String text, final String... labels) {
-        throw new UnsupportedOperationException("Not implemented yet");
+        final StringBuilder query = new StringBuilder(
+            "order_by=created_at&sort=desc"
+        );
+        if(text != null && !text.trim().isEmpty()) {
+            query.append("&search=").append(
+                URLEncoder.encode(text.trim(), StandardCharsets.UTF_8)
+            );
+        }
+        if(labels.length > 0) {
+            query.append("&labels=").append(
+                URLEncoder.encode(
+                    String.join(",", labels), StandardCharsets.UTF_8
+                )
+            );
+        }
+        final URI search = URI.create(this.issuesUri + "?" + query);
+        LOG.debug("Searching for Gitlab Issues at: " + search);
+        final JsonPages pages = new JsonPages(
+            this.resources,
+            search,
+            resource -> LOG.error(
+                "Search returned status: " + resource.statusCode() + ". "
+                + "Was expecting 200 OK! No more issues found at " + search
+            )
+        );
+        return new FoundIssues(
+            this,
+            () -> pages.stream()
+                .map(issue -> this.issue((JsonObject) issue))
+                .iterator()
+        );
     }
 
     @Override
@@ -112,4 +269,19 @@ final class GitlabIssues implements Issues {
         );
     }
 
+    /**
+     * Gitlab Issue from its JSON representation.
+     * @param issue JSON Issue.
+     * @return Issue.
+     */
+    private Issue issue(final JsonObject issue) {
+        return new GitlabIssue(
+            URI.create(this.issuesUri + "/" + issue.getInt("iid")),
+            issue,
+            this.storage,
+            this.resources,
+            this.userIds
+        );
+    }
+
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Numeric ids of Gitlab projects. A Gitlab project can be addressed by
+ * its URL-encoded path (e.g. /projects/john%2Ftest) or by its numeric
+ * id (e.g. /projects/123). The id is cheaper to look up on Gitlab's side
+ * and it doesn't change when the project is renamed or moved, so we
+ * resolve it once and use it in all the project's URIs.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+final class GitlabProjectIds {
+
+    /**
+     * URI of a project, split in the base and the id or path.
+     */
+    private static final Pattern PROJECT = Pattern.compile(
+        "^(.*/projects/)([^/]+)/?$"
+    );
+
+    /**
+     * Numeric ids, by instance and path.
+     */
+    private final Map<String, Integer> ids;
+
+    /**
+     * Ctor.
+     */
+    GitlabProjectIds() {
+        this.ids = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The URI of the project, with the numeric id, if it is known.
+     * @param project URI of the project.
+     * @return URI with the numeric id or the given URI.
+     */
+    URI known(final URI project) {
+        final Matcher matcher = PROJECT.matcher(project.toString());
+        URI known = project;
+        if(matcher.matches()) {
+            final Integer id = this.ids.get(GitlabProjectIds.key(matcher));
+            if(id != null) {
+                known = URI.create(matcher.group(1) + id);
+            }
+        }
+        return known;
+    }
+
+    /**
+     * The URI of the project, with the numeric id. If the id is not known,
+     * it is read from the project's JSON and remembered.
+     * @param project URI of the project.
+     * @param json Project's JSON, read only if needed.
+     * @return URI with the numeric id or the given URI, if it isn't
+     *  the URI of a Gitlab project.
+     */
+    URI resolved(final URI project, final Supplier<JsonObject> json) {
+        URI resolved = this.known(project);
+        if(resolved.equals(project) && GitlabProjectIds.byPath(project)) {
+            this.register(project, json.get());
+            resolved = this.known(project);
+        }
+        return resolved;
+    }
+
+    /**
+     * Remember the numeric id of a project.
+     * @param project URI of the project.
+     * @param json Project's JSON, as returned by Gitlab.
+     */
+    void register(final URI project, final JsonObject json) {
+        final Matcher matcher = PROJECT.matcher(project.toString());
+        if(matcher.matches() && json.get("id") instanceof JsonNumber
+            && GitlabProjectIds.byPath(project)) {
+            this.ids.put(GitlabProjectIds.key(matcher), json.getInt("id"));
+        }
+    }
+
+    /**
+     * Is the project addressed by its path, rather than by its id?
+     * @param project URI of the project.
+     * @return True or false.
+     */
+    private static boolean byPath(final URI project) {
+        final Matcher matcher = PROJECT.matcher(project.toString());
+        return matcher.matches() && !matcher.group(2).matches("\\d+");
+    }
+
+    /**
+     * Key of a project. Paths are case-insensitive in Gitlab.
+     * @param matcher Matched URI of the project.
+     * @return Key.
+     */
+    private static String key(final Matcher matcher) {
+        return (matcher.group(1) + matcher.group(2)).toLowerCase(Locale.ROOT);
+    }
+}
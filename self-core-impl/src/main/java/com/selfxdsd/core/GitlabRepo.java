@@ -24,8 +24,10 @@ package com.selfxdsd.core;
 
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.Labels;
+import com.selfxdsd.api.exceptions.RepoException;
 import com.selfxdsd.api.storage.Storage;
 
+import javax.json.JsonObject;
 import java.net.URI;
 
 /**
@@ -37,7 +39,13 @@ import java.net.URI;
 final class GitlabRepo extends BaseRepo {
 
     /**
-     * Constructor.
+     * Numeric ids of the Gitlab projects.
+     */
+    private final GitlabProjectIds projectIds;
+
+    /**
+     * Constructor. The numeric id of the project is kept only by this
+     * repo.
      * @param resources Gitlab's JSON Resources.
      * @param uri URI Pointing to this repo.
      * @param owner Owner of this repo.
@@ -49,8 +57,28 @@ final class GitlabRepo extends BaseRepo {
         final URI uri,
         final User owner,
         final Storage storage
+    ) {
+        this(resources, uri, owner, storage, new GitlabProjectIds());
+    }
+
+    /**
+     * Constructor.
+     * @param resources Gitlab's JSON Resources.
+     * @param uri URI Pointing to this repo.
+     * @param owner Owner of this repo.
+     * @param storage Storage used to save the Project when
+     *  this repo is activated.
+     * @param projectIds Numeric ids of the Gitlab projects.
+     */
+    GitlabRepo(
+        final JsonResources resources,
+        final URI uri,
+        final User owner,
+        final Storage storage,
+        final GitlabProjectIds projectIds
     ) {
         super(resources, uri, owner, storage);
+        this.projectIds = projectIds;
     }
 
     /**
@@ -61,18 +89,24 @@ final class GitlabRepo extends BaseRepo {
      * @param owner Owner of this repo.
      * @param storage Storage used to save the Project when
      *  this repo is activated.
+     * @param projectIds Numeric ids of the Gitlab projects.
      * @return GitlabRepo.
+     * @checkstyle ParameterNumber (10 lines)
      */
     static GitlabRepo createFromName(
         final String login,
         final String repoName,
         final JsonResources resources,
         final User owner,
-        final Storage storage
+        final Storage storage,
+        final GitlabProjectIds projectIds
     ) {
-        final URI repo = URI.create("https://gitlab.com/api/v4/projects/"
-            + login + "%2F"+repoName);
-        return new GitlabRepo(resources, repo, owner, storage);
+        final URI repo = projectIds.known(
+            URI.create(
+                "https://gitlab.com/api/v4/projects/" + login + "%2F" + repoName
+            )
+        );
+        return new GitlabRepo(resources, repo, owner, storage, projectIds);
     }
 
     @Override
@@ -116,6 +150,13 @@ final class GitlabRepo extends BaseRepo {
         return project;
     }
 
+    @Override
+    public JsonObject json() {
+        final JsonObject json = super.json();
+        this.projectIds.register(this.repoUri(), json);
+        return json;
+    }
+
     @Override
     public String fullName() {
         return this.json().getString("path_with_namespace");
@@ -128,19 +169,19 @@ final class GitlabRepo extends BaseRepo {
 
     @Override
     public Collaborators collaborators() {
-        final URI uri = URI.create(this.repoUri().toString() +"/members");
+        final URI uri = URI.create(this.projectUri().toString() + "/members");
         return new GitlabCollaborators(this.resources(), uri, this.storage());
     }
 
     @Override
     public Webhooks webhooks() {
-        final URI uri = URI.create(this.repoUri().toString() +"/hooks");
+        final URI uri = URI.create(this.projectUri().toString() + "/hooks");
         return new GitlabWebhooks(this.resources(), uri, this.storage());
     }
 
     @Override
     public Stars stars() {
-        final URI uri = URI.create(this.repoUri().toString() + "/star");
+        final URI uri = URI.create(this.projectUri().toString() + "/star");
         return new GitlabStars(this.resources(), uri, this);
     }
 
@@ -154,9 +195,34 @@ final class GitlabRepo extends BaseRepo {
     @Override
     public Labels labels() {
         return new GitlabRepoLabels(
-            URI.create(this.repoUri().toString() + "/labels"),
+            URI.create(this.projectUri().toString() + "/labels"),
             this.resources(),
             this
         );
     }
+
+    /**
+     * URI of this repo, with the numeric id of the Gitlab project, so the
+     * URIs of the sub-resources stay valid if the project is renamed.
+     * The id is resolved once per process. If the project cannot be
+     * read, we stay with its path.
+     * @return URI.
+     */
+    private URI projectUri() {
+        return this.projectIds.resolved(this.repoUri(), this::projectJson);
+    }
+
+    /**
+     * The JSON of this repo, used to resolve the project's numeric id.
+     * @return JsonObject, empty if the repo cannot be read.
+     */
+    private JsonObject projectJson() {
+        JsonObject json;
+        try {
+            json = this.json();
+        } catch (final RepoException.NotFound ex) {
+            json = JsonObject.EMPTY_JSON_OBJECT;
+        }
+        return json;
+    }
 }
@@ -33,9 +33,7 @@ import javax.json.JsonObject;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 /**
  * All the Labels in a GitLab repository.
@@ -154,22 +152,10 @@ final class GitlabRepoLabels implements Labels {
 
     @Override
     public Iterator<Label> iterator() {
-        final Resource resource = this.resources.get(
-            URI.create(
-                this.repoLabelsUri.toString() + "?per_page=100"
-            )
-        );
-        final List<Label> labels;
-        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
-            labels = resource.asJsonArray()
-                .stream()
-                .map(JsonObject.class::cast)
-                .map(GitlabLabel::new)
-                .collect(Collectors.toList());
-        } else {
-            labels = List.of();
-        }
-        return labels.iterator();
+        return new JsonPages(this.resources, this.repoLabelsUri)
+            .stream()
+            .map(json -> (Label) new GitlabLabel((JsonObject) json))
+            .iterator();
     }
 
     /**
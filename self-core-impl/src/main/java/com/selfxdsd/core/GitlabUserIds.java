@@ -0,0 +1,455 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ids of Gitlab users, by username, for each Gitlab instance. Gitlab
+ * needs the numeric id of a user to assign them, so we look it up with
+ * <a href="https://docs.gitlab.com/ee/api/users.html#for-normal-users">
+ * /users?username=</a> and keep it for a while.<br><br>
+ *
+ * Usernames which are not found are also kept (negative caching), but
+ * for a shorter time, since the user may register in the meantime.
+ * Failed lookups are not kept. The number of entries is bounded,
+ * the least recently used are evicted.<br><br>
+ *
+ * The users are looked up globally, so finding an id doesn't mean the
+ * user is a member of some Project. The memberships are checked with
+ * <a href="https://docs.gitlab.com/ee/api/members.html">
+ * /projects/:id/members/all/:user_id</a> and kept the same way, for each
+ * Project: a member for as long as a found id, a non-member for as long
+ * as a missing user.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+final class GitlabUserIds {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        GitlabUserIds.class
+    );
+
+    /**
+     * User ids, in access order (the eldest is least recently used).
+     */
+    private final LinkedHashMap<String, Entry> ids;
+
+    /**
+     * Maximum number of entries.
+     */
+    private final int maxEntries;
+
+    /**
+     * How long a found id is kept.
+     */
+    private final Duration found;
+
+    /**
+     * How long a missing user is kept.
+     */
+    private final Duration missing;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor. At most 10000 entries, the found ids are kept for 6 hours and
+     * the missing users for 10 minutes.
+     */
+    GitlabUserIds() {
+        this(
+            10000,
+            Duration.ofHours(6),
+            Duration.ofMinutes(10),
+            Clock.systemUTC()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param maxEntries Maximum number of entries.
+     * @param found How long a found id is kept.
+     * @param missing How long a missing user is kept.
+     * @param clock Clock.
+     */
+    GitlabUserIds(
+        final int maxEntries,
+        final Duration found,
+        final Duration missing,
+        final Clock clock
+    ) {
+        this.ids = new LinkedHashMap<>(16, 0.75F, true);
+        this.maxEntries = maxEntries;
+        this.found = found;
+        this.missing = missing;
+        this.clock = clock;
+    }
+
+    /**
+     * Id of the user.
+     * @param api Base URI of the Gitlab API (e.g.
+     *  https://gitlab.com/api/v4).
+     * @param username Username.
+     * @param resources Gitlab's JSON Resources.
+     * @return Id or null if the user is not found.
+     */
+    Integer userId(
+        final URI api,
+        final String username,
+        final JsonResources resources
+    ) {
+        final String key = GitlabUserIds.key(api, username);
+        final Entry cached = this.cached(key);
+        final Integer userId;
+        if(cached == null) {
+            final URI uri = GitlabUserIds.usersUri(api, username);
+            userId = this.looked(key, username, uri, resources.get(uri));
+        } else {
+            userId = cached.userId;
+        }
+        return userId;
+    }
+
+    /**
+     * Id of the user, without blocking the calling thread.
+     * @param api Base URI of the Gitlab API (e.g.
+     *  https://gitlab.com/api/v4).
+     * @param username Username.
+     * @param resources Gitlab's JSON Resources.
+     * @return Future id, null if the user is not found.
+     */
+    CompletableFuture<Integer> userIdAsync(
+        final URI api,
+        final String username,
+        final JsonResources resources
+    ) {
+        final String key = GitlabUserIds.key(api, username);
+        final Entry cached = this.cached(key);
+        final CompletableFuture<Integer> userId;
+        if(cached == null) {
+            final URI uri = GitlabUserIds.usersUri(api, username);
+            userId = resources.getAsync(uri).thenApply(
+                resource -> this.looked(key, username, uri, resource)
+            );
+        } else {
+            userId = CompletableFuture.completedFuture(cached.userId);
+        }
+        return userId;
+    }
+
+    /**
+     * Id of the user, if they are a member (direct or inherited) of the
+     * given Project.
+     * @param project URI of the Project (e.g.
+     *  https://gitlab.com/api/v4/projects/john%2Ftest).
+     * @param username Username.
+     * @param resources Gitlab's JSON Resources.
+     * @return Id or null if the user is not found or is not a member.
+     */
+    Integer memberId(
+        final URI project,
+        final String username,
+        final JsonResources resources
+    ) {
+        final Integer userId = this.userId(
+            GitlabUserIds.api(project), username, resources
+        );
+        Integer memberId = null;
+        if(userId != null) {
+            final String key = GitlabUserIds.key(project, userId);
+            final Entry cached = this.cached(key);
+            if(cached == null) {
+                final URI uri = GitlabUserIds.memberUri(project, userId);
+                memberId = this.member(
+                    key, username, userId, resources.get(uri)
+                );
+            } else {
+                memberId = cached.userId;
+            }
+        }
+        return memberId;
+    }
+
+    /**
+     * Id of the user, if they are a member (direct or inherited) of the
+     * given Project, without blocking the calling thread.
+     * @param project URI of the Project (e.g.
+     *  https://gitlab.com/api/v4/projects/john%2Ftest).
+     * @param username Username.
+     * @param resources Gitlab's JSON Resources.
+     * @return Future id, null if the user is not found or is not a member.
+     */
+    CompletableFuture<Integer> memberIdAsync(
+        final URI project,
+        final String username,
+        final JsonResources resources
+    ) {
+        return this.userIdAsync(
+            GitlabUserIds.api(project), username, resources
+        ).thenCompose(
+            userId -> {
+                final CompletableFuture<Integer> memberId;
+                if(userId == null) {
+                    memberId = CompletableFuture.completedFuture(null);
+                } else {
+                    final String key = GitlabUserIds.key(project, userId);
+                    final Entry cached = this.cached(key);
+                    if(cached == null) {
+                        memberId = resources.getAsync(
+                            GitlabUserIds.memberUri(project, userId)
+                        ).thenApply(
+                            resource -> this.member(
+                                key, username, userId, resource
+                            )
+                        );
+                    } else {
+                        memberId = CompletableFuture.completedFuture(
+                            cached.userId
+                        );
+                    }
+                }
+                return memberId;
+            }
+        );
+    }
+
+    /**
+     * Read the membership from the member response and keep it.
+     * @param key Key of the membership.
+     * @param username Username.
+     * @param userId User id.
+     * @param resource Response of the member request.
+     * @return User id or null if they are not a member.
+     */
+    private Integer member(
+        final String key,
+        final String username,
+        final int userId,
+        final Resource resource
+    ) {
+        final Integer memberId;
+        if(resource.statusCode() == HttpURLConnection.HTTP_OK) {
+            this.keep(key, userId, this.found);
+            memberId = userId;
+        } else if(resource.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+            LOG.debug(
+                "User \"" + username + "\" is not a member of the Project."
+            );
+            this.keep(key, null, this.missing);
+            memberId = null;
+        } else {
+            LOG.debug(
+                "Could not check if \"" + username + "\" is a member of the "
+                + "Project. Status code: " + resource.statusCode()
+            );
+            memberId = null;
+        }
+        return memberId;
+    }
+
+    /**
+     * Read the user id from the lookup response and keep it.
+     * @param key Key of the user.
+     * @param username Username.
+     * @param uri URI of the lookup.
+     * @param resource Response of the lookup.
+     * @return User id or null if not found.
+     */
+    private Integer looked(
+        final String key,
+        final String username,
+        final URI uri,
+        final Resource resource
+    ) {
+        LOG.debug("Looking up the id of user \"" + username + "\" at " + uri);
+        final Integer userId;
+        if (resource.statusCode() == HttpURLConnection.HTTP_OK) {
+            userId = resource.asJsonArray().stream()
+                .map(user -> user.asJsonObject())
+                .filter(
+                    user -> user.getString("username")
+                        .equalsIgnoreCase(username)
+                )
+                .map(user -> user.getInt("id"))
+                .findFirst()
+                .orElse(null);
+            if(userId == null) {
+                LOG.debug("User \"" + username + "\" was not found.");
+                this.keep(key, null, this.missing);
+            } else {
+                this.keep(key, userId, this.found);
+            }
+        } else {
+            LOG.debug(
+                "Could not get id for \"" + username + "\". Status code: "
+                    + resource.statusCode()
+            );
+            userId = null;
+        }
+        return userId;
+    }
+
+    /**
+     * Keep an entry, evicting the least recently used one if there are
+     * too many.
+     * @param key Key of the entry.
+     * @param userId User id, null if the user is not found or not a member.
+     * @param ttl How long the entry is kept.
+     */
+    private void keep(
+        final String key,
+        final Integer userId,
+        final Duration ttl
+    ) {
+        synchronized (this.ids) {
+            this.ids.put(
+                key, new Entry(userId, this.clock.instant().plus(ttl))
+            );
+            if(this.ids.size() > this.maxEntries) {
+                final Iterator<String> eldest = this.ids.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * The cached entry of a user, if it has not expired.
+     * @param key Key of the user.
+     * @return Entry or null.
+     */
+    private Entry cached(final String key) {
+        synchronized (this.ids) {
+            Entry cached = this.ids.get(key);
+            if(cached != null
+                && cached.expires.isBefore(this.clock.instant())) {
+                this.ids.remove(key);
+                cached = null;
+            }
+            return cached;
+        }
+    }
+
+    /**
+     * URI of the user lookup.
+     * @param api Base URI of the Gitlab API.
+     * @param username Username.
+     * @return URI.
+     */
+    private static URI usersUri(final URI api, final String username) {
+        return URI.create(
+            api + "/users?username="
+            + URLEncoder.encode(username, StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * URI of a member of a Project (direct or inherited).
+     * @param project URI of the Project.
+     * @param userId User id.
+     * @return URI.
+     */
+    private static URI memberUri(final URI project, final int userId) {
+        return URI.create(project + "/members/all/" + userId);
+    }
+
+    /**
+     * Base URI of the Gitlab API, from the URI of a Project.
+     * @param project URI of the Project.
+     * @return URI.
+     */
+    private static URI api(final URI project) {
+        return URI.create(project.toString().split("/projects/")[0]);
+    }
+
+    /**
+     * Key of a Project membership.
+     * @param project URI of the Project.
+     * @param userId User id.
+     * @return Key.
+     */
+    private static String key(final URI project, final int userId) {
+        return project.getAuthority().toLowerCase(Locale.ROOT)
+            + project.getRawPath() + "/members/" + userId;
+    }
+
+    /**
+     * Key of a user. Usernames are case-insensitive in Gitlab.
+     * @param api Base URI of the Gitlab API.
+     * @param username Username.
+     * @return Key.
+     */
+    private static String key(final URI api, final String username) {
+        return api.getAuthority().toLowerCase(Locale.ROOT) + "/"
+            + username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cached user id or membership.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Entry {
+
+        /**
+         * User id, null if the user was not found or is not a member.
+         */
+        private final Integer userId;
+
+        /**
+         * When this entry expires.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         * @param userId User id, null if the user was not found.
+         * @param expires When this entry expires.
+         */
+        Entry(final Integer userId, final Instant expires) {
+            this.userId = userId;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Events;
+import com.selfxdsd.api.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Events pipeline which drops the duplicate Events (e.g. webhooks
+ * redelivered by the Provider after a timeout) before they reach the
+ * original pipeline. An Event is recognized by its delivery ID or, if
+ * the delivery ID is not known, by its type, Project, Issue and Comment
+ * (only for the {@link Event.Type#NEW_ISSUE} and
+ * {@link Event.Type#ISSUE_COMMENT} Events, which cannot legitimately
+ * happen twice). The keys are remembered for a sliding time window and
+ * at most a given number of them are kept, the oldest being evicted
+ * first.<br><br>
+ *
+ * The Events built in self-core (e.g. the activate Event, the sweeps)
+ * have no delivery ID, and neither do the webhook Events, unless the
+ * application which reads the webhooks sets it (see
+ * {@link Event#deliveryId()}). Until then, the fallback key is the only
+ * key used, so only new Issues and new Comments are deduplicated; the
+ * other webhook Events always pass.<br><br>
+ *
+ * A duplicate is reported as accepted, since the original Event was,
+ * so the Provider does not deliver it again. If the original pipeline
+ * rejects an Event, its key is forgotten, so the redelivery can pass.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class IdempotentEvents implements Events {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        IdempotentEvents.class
+    );
+
+    /**
+     * Original pipeline.
+     */
+    private final Events origin;
+
+    /**
+     * For how long a key is remembered, in millis.
+     */
+    private final long window;
+
+    /**
+     * Maximum number of remembered keys.
+     */
+    private final int max;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * When each key was seen (epoch millis), oldest first.
+     */
+    private final Map<String, Long> seen;
+
+    /**
+     * Ctor. The keys are remembered for 10 minutes, at most 100000 of
+     * them.
+     * @param origin Original pipeline.
+     */
+    public IdempotentEvents(final Events origin) {
+        this(origin, Duration.ofMinutes(10), 100000, Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original pipeline.
+     * @param window For how long a key is remembered.
+     * @param max Maximum number of remembered keys.
+     * @param clock Clock.
+     */
+    public IdempotentEvents(
+        final Events origin,
+        final Duration window,
+        final int max,
+        final Clock clock
+    ) {
+        this.origin = origin;
+        this.window = window.toMillis();
+        this.max = max;
+        this.clock = clock;
+        this.seen = new LinkedHashMap<>();
+    }
+
+    @Override
+    public boolean submit(final Event event) {
+        final String key = IdempotentEvents.key(event);
+        final boolean accepted;
+        if(key == null) {
+            accepted = this.origin.submit(event);
+        } else if(this.firstTime(key)) {
+            accepted = this.origin.submit(event);
+            if(!accepted) {
+                this.forget(key);
+            }
+        } else {
+            LOG.debug("Dropping duplicate event " + key);
+            accepted = true;
+        }
+        return accepted;
+    }
+
+    @Override
+    public int pending() {
+        return this.origin.pending();
+    }
+
+    @Override
+    public void close() {
+        this.origin.close();
+    }
+
+    /**
+     * Remember the key, if it was not seen in the current window.
+     * @param key Key of an Event.
+     * @return True if it was not seen, false if it is a duplicate.
+     */
+    private synchronized boolean firstTime(final String key) {
+        final long now = this.clock.millis();
+        final Iterator<Long> oldest = this.seen.values().iterator();
+        while(oldest.hasNext() && now - oldest.next() >= this.window) {
+            oldest.remove();
+        }
+        final boolean first = !this.seen.containsKey(key);
+        if(first) {
+            if(!this.seen.isEmpty() && this.seen.size() >= this.max) {
+                this.seen.remove(this.seen.keySet().iterator().next());
+            }
+            this.seen.put(key, now);
+        }
+        return first;
+    }
+
+    /**
+     * Forget a key.
+     * @param key Key of an Event.
+     */
+    private synchronized void forget(final String key) {
+        this.seen.remove(key);
+    }
+
+    /**
+     * Key of an Event.
+     * @param event Event.
+     * @return Key or null if the Event cannot be recognized.
+     */
+    private static String key(final Event event) {
+        final String delivery = event.deliveryId();
+        final String type = event.type();
+        final String key;
+        if(delivery != null && !delivery.isEmpty()) {
+            key = "delivery " + delivery;
+        } else if(Event.Type.NEW_ISSUE.equals(type)) {
+            key = IdempotentEvents.issue(event);
+        } else if(Event.Type.ISSUE_COMMENT.equals(type)) {
+            key = IdempotentEvents.issue(event)
+                + " comment " + event.comment().commentId();
+        } else {
+            key = null;
+        }
+        return key;
+    }
+
+    /**
+     * Key of an Event's Issue.
+     * @param event Event.
+     * @return String.
+     */
+    private static String issue(final Event event) {
+        final Project project = event.project();
+        return event.type() + " " + project.provider() + "/"
+            + project.repoFullName() + "#" + event.issue().issueId();
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.CommentsIndex;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Comments index kept in memory. It is lost when the application
+ * restarts, so the first duplicate check of each Issue will read
+ * its comments again. The bodies of the comments are not kept.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InMemoryCommentsIndex implements CommentsIndex {
+
+    /**
+     * Indexed comments, by Issue and hash.
+     */
+    private final Map<String, Map<String, JsonObject>> comments;
+
+    /**
+     * Last indexed comment of each Issue.
+     */
+    private final Map<String, JsonObject> lasts;
+
+    /**
+     * Ctor.
+     */
+    public InMemoryCommentsIndex() {
+        this.comments = new HashMap<>();
+        this.lasts = new HashMap<>();
+    }
+
+    @Override
+    public synchronized JsonObject find(
+        final String issue,
+        final String hash
+    ) {
+        return this.comments.getOrDefault(issue, Map.of()).get(hash);
+    }
+
+    @Override
+    public synchronized void add(
+        final String issue,
+        final String hash,
+        final JsonObject comment
+    ) {
+        final JsonObject indexed = Json.createObjectBuilder(comment)
+            .remove("body")
+            .build();
+        this.comments.computeIfAbsent(
+            issue, key -> new HashMap<>()
+        ).put(hash, indexed);
+        this.lasts.put(issue, indexed);
+    }
+
+    @Override
+    public synchronized JsonObject last(final String issue) {
+        return this.lasts.get(issue);
+    }
+}
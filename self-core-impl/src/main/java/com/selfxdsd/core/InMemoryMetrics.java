@@ -0,0 +1,340 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics kept in memory. Latencies and sizes are recorded in
+ * log-linear histograms (4 buckets per power of 2), so the memory used
+ * by a series is fixed and the percentiles are accurate within 25%.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InMemoryMetrics implements Metrics {
+
+    /**
+     * Series, by name.
+     */
+    private final Map<String, Series> series;
+
+    /**
+     * Ctor.
+     */
+    public InMemoryMetrics() {
+        this.series = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void record(
+        final String name,
+        final Duration latency,
+        final long bytes,
+        final boolean failed
+    ) {
+        this.series.computeIfAbsent(name, Series::new).record(
+            latency, bytes, failed
+        );
+    }
+
+    @Override
+    public Snapshot snapshot(final String name) {
+        final Series found = this.series.get(name);
+        final Snapshot snapshot;
+        if(found == null) {
+            snapshot = new Series(name).snapshot();
+        } else {
+            snapshot = found.snapshot();
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Iterable<Snapshot> snapshots() {
+        final List<Snapshot> snapshots = new ArrayList<>();
+        for(final Series each : this.series.values()) {
+            snapshots.add(each.snapshot());
+        }
+        snapshots.sort(
+            Comparator.comparing(Snapshot::total).reversed()
+        );
+        return snapshots;
+    }
+
+    /**
+     * Series of calls, updated concurrently.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Series {
+
+        /**
+         * Name.
+         */
+        private final String name;
+
+        /**
+         * Number of calls.
+         */
+        private final AtomicLong count;
+
+        /**
+         * Number of failed calls.
+         */
+        private final AtomicLong errors;
+
+        /**
+         * Received bytes.
+         */
+        private final AtomicLong bytes;
+
+        /**
+         * Total latency in nanoseconds.
+         */
+        private final AtomicLong nanos;
+
+        /**
+         * Histogram of latencies, in microseconds.
+         */
+        private final Histogram latencies;
+
+        /**
+         * Histogram of response sizes, in bytes.
+         */
+        private final Histogram sizes;
+
+        /**
+         * Ctor.
+         * @param name Name of the series.
+         */
+        Series(final String name) {
+            this.name = name;
+            this.count = new AtomicLong();
+            this.errors = new AtomicLong();
+            this.bytes = new AtomicLong();
+            this.nanos = new AtomicLong();
+            this.latencies = new Histogram();
+            this.sizes = new Histogram();
+        }
+
+        /**
+         * Record a call.
+         * @param latency Latency.
+         * @param size Received bytes.
+         * @param failed Failed or not.
+         */
+        void record(
+            final Duration latency,
+            final long size,
+            final boolean failed
+        ) {
+            this.count.incrementAndGet();
+            if(failed) {
+                this.errors.incrementAndGet();
+            }
+            this.bytes.addAndGet(size);
+            this.nanos.addAndGet(latency.toNanos());
+            this.latencies.record(latency.toNanos() / 1000);
+            this.sizes.record(size);
+        }
+
+        /**
+         * Snapshot of this series.
+         * @return Snapshot.
+         */
+        Snapshot snapshot() {
+            final long[] latencies = this.latencies.counts();
+            final long[] sizes = this.sizes.counts();
+            final long count = this.count.get();
+            final long errors = this.errors.get();
+            final long bytes = this.bytes.get();
+            final Duration total = Duration.ofNanos(this.nanos.get());
+            return new Snapshot() {
+                @Override
+                public String name() {
+                    return Series.this.name;
+                }
+
+                @Override
+                public long count() {
+                    return count;
+                }
+
+                @Override
+                public long errors() {
+                    return errors;
+                }
+
+                @Override
+                public long bytes() {
+                    return bytes;
+                }
+
+                @Override
+                public Duration total() {
+                    return total;
+                }
+
+                @Override
+                public Duration latency(final double percentile) {
+                    return Duration.ofNanos(
+                        Histogram.percentile(latencies, percentile) * 1000
+                    );
+                }
+
+                @Override
+                public long size(final double percentile) {
+                    return Histogram.percentile(sizes, percentile);
+                }
+            };
+        }
+    }
+
+    /**
+     * Log-linear histogram of non-negative values. Bucket 0 holds
+     * the zeros; then, every power of 2 is split in 4 buckets.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    static final class Histogram {
+
+        /**
+         * Buckets per power of 2.
+         */
+        private static final int SUB = 4;
+
+        /**
+         * Buckets.
+         */
+        private final AtomicLongArray buckets;
+
+        /**
+         * Ctor.
+         */
+        Histogram() {
+            this.buckets = new AtomicLongArray(Long.SIZE * SUB + 1);
+        }
+
+        /**
+         * Record a value.
+         * @param value Value (negative values are recorded as 0).
+         */
+        void record(final long value) {
+            this.buckets.incrementAndGet(Histogram.bucket(value));
+        }
+
+        /**
+         * Current counts of the buckets.
+         * @return Array of counts.
+         */
+        long[] counts() {
+            final long[] counts = new long[this.buckets.length()];
+            for(int idx = 0; idx < counts.length; ++idx) {
+                counts[idx] = this.buckets.get(idx);
+            }
+            return counts;
+        }
+
+        /**
+         * Bucket of a value.
+         * @param value Value.
+         * @return Index of the bucket.
+         */
+        static int bucket(final long value) {
+            final int bucket;
+            if(value <= 0) {
+                bucket = 0;
+            } else {
+                final int exp = Long.SIZE - 1
+                    - Long.numberOfLeadingZeros(value);
+                final int sub;
+                if(exp >= 2) {
+                    sub = (int) ((value >> (exp - 2)) & (SUB - 1));
+                } else {
+                    sub = (int) ((value << (2 - exp)) & (SUB - 1));
+                }
+                bucket = 1 + exp * SUB + sub;
+            }
+            return bucket;
+        }
+
+        /**
+         * The largest value which falls in a bucket.
+         * @param bucket Index of the bucket.
+         * @return Value.
+         */
+        static long upper(final int bucket) {
+            final long upper;
+            if(bucket == 0) {
+                upper = 0;
+            } else {
+                final int exp = (bucket - 1) / SUB;
+                final long sub = (bucket - 1) % SUB;
+                if(exp >= 2) {
+                    upper = ((SUB + sub + 1) << (exp - 2)) - 1;
+                } else {
+                    upper = (SUB + sub) >> (2 - exp);
+                }
+            }
+            return upper;
+        }
+
+        /**
+         * Percentile of the values counted in the given buckets.
+         * @param counts Counts of the buckets.
+         * @param percentile Percentile, between 0 and 100.
+         * @return Upper bound of the bucket holding the percentile.
+         */
+        static long percentile(final long[] counts, final double percentile) {
+            long total = 0;
+            for(final long count : counts) {
+                total = total + count;
+            }
+            final long rank = Math.max(
+                1, (long) Math.ceil(total * percentile / 100)
+            );
+            long value = 0;
+            long seen = 0;
+            for(int idx = 0; idx < counts.length && total > 0; ++idx) {
+                seen = seen + counts[idx];
+                if(seen >= rank) {
+                    value = Histogram.upper(idx);
+                    break;
+                }
+            }
+            return value;
+        }
+    }
+}
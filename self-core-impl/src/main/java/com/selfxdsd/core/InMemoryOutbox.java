@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox kept in memory. The messages which were not posted are lost
+ * when the application restarts.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InMemoryOutbox implements Outbox {
+
+    /**
+     * Pending messages, oldest first.
+     */
+    private final List<Message> messages;
+
+    /**
+     * Ctor.
+     */
+    public InMemoryOutbox() {
+        this.messages = new ArrayList<>();
+    }
+
+    @Override
+    public synchronized Message add(
+        final String provider,
+        final String repoFullName,
+        final String issueId,
+        final String body
+    ) {
+        final Message message = new Message() {
+            @Override
+            public String provider() {
+                return provider;
+            }
+
+            @Override
+            public String repoFullName() {
+                return repoFullName;
+            }
+
+            @Override
+            public String issueId() {
+                return issueId;
+            }
+
+            @Override
+            public String body() {
+                return body;
+            }
+        };
+        this.messages.add(message);
+        return message;
+    }
+
+    @Override
+    public synchronized void remove(final Message message) {
+        this.messages.remove(message);
+    }
+
+    @Override
+    public synchronized Iterable<Message> pending() {
+        return new ArrayList<>(this.messages);
+    }
+}
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Metrics;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * JsonResources decorator which records the Metrics of each call:
+ * count, errors, received bytes and latency, per HTTP method and
+ * URI template (e.g. {@code GET /repos/{o}/{r}/issues/{n}/labels}).
+ * A call counts as an error if it fails with an exception or with
+ * a 5xx status.<br><br>
+ *
+ * To record the calls of a Provider, build it with these JsonResources
+ * (e.g. with the Metrics of {@link com.selfxdsd.api.Self#metrics()}).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InstrumentedJsonResources implements JsonResources {
+
+    /**
+     * Path segments which are followed by names (not numbers), mapped
+     * to the placeholders which replace those names in the template.
+     */
+    private static final Map<String, List<String>> NAMED = Map.of(
+        "repos", List.of("{o}", "{r}"),
+        "users", List.of("{u}"),
+        "orgs", List.of("{org}"),
+        "projects", List.of("{p}"),
+        "groups", List.of("{g}"),
+        "labels", List.of("{l}"),
+        "collaborators", List.of("{u}"),
+        "commits", List.of("{sha}")
+    );
+
+    /**
+     * Numeric path segment.
+     */
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Where the metrics are recorded.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param metrics Where the metrics are recorded.
+     */
+    public InstrumentedJsonResources(
+        final JsonResources origin,
+        final Metrics metrics
+    ) {
+        this.origin = origin;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new InstrumentedJsonResources(
+            this.origin.authenticated(accessToken), this.metrics
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.measured("GET", uri, () -> this.origin.get(uri));
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.measured(
+            "GET", uri, () -> this.origin.get(uri, headers)
+        );
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.measured(
+            "POST", uri, () -> this.origin.post(uri, body)
+        );
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.measured(
+            "PATCH", uri, () -> this.origin.patch(uri, body)
+        );
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.measured("PUT", uri, () -> this.origin.put(uri, body));
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.measured(
+            "DELETE", uri, () -> this.origin.delete(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.measuredAsync(
+            "GET", uri, () -> this.origin.getAsync(uri)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.measuredAsync(
+            "GET", uri, () -> this.origin.getAsync(uri, headers)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.measuredAsync(
+            "POST", uri, () -> this.origin.postAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.measuredAsync(
+            "PATCH", uri, () -> this.origin.patchAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.measuredAsync(
+            "PUT", uri, () -> this.origin.putAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.measuredAsync(
+            "DELETE", uri, () -> this.origin.deleteAsync(uri, body)
+        );
+    }
+
+    /**
+     * Name of the series of calls with the given method and URI:
+     * the method followed by the URI's path, where the numbers and
+     * the names (of users, repos etc) are replaced by placeholders.
+     * The query is left out.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return Name of the series.
+     */
+    static String template(final String method, final URI uri) {
+        final StringBuilder template = new StringBuilder(method).append(' ');
+        final String path = uri.getRawPath();
+        List<String> names = List.of();
+        int next = 0;
+        if(path == null || path.isEmpty()) {
+            template.append('/');
+        } else {
+            for(final String segment : path.substring(1).split("/", -1)) {
+                template.append('/');
+                if(next < names.size()) {
+                    template.append(names.get(next));
+                    next = next + 1;
+                } else if(NUMBER.matcher(segment).matches()) {
+                    template.append("{n}");
+                } else {
+                    template.append(segment);
+                    names = NAMED.getOrDefault(segment, List.of());
+                    next = 0;
+                }
+            }
+        }
+        return template.toString();
+    }
+
+    /**
+     * Make a request and record its metrics.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param request Request.
+     * @return Resource.
+     */
+    private Resource measured(
+        final String method,
+        final URI uri,
+        final Supplier<Resource> request
+    ) {
+        final long start = System.nanoTime();
+        final Resource resource;
+        try {
+            resource = request.get();
+        } catch (final RuntimeException ex) {
+            this.failed(method, uri, start);
+            throw ex;
+        }
+        this.record(method, uri, start, resource);
+        return resource;
+    }
+
+    /**
+     * Make an asynchronous request and record its metrics when it
+     * completes. A request which completes exceptionally is recorded
+     * as failed.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param request Request.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> measuredAsync(
+        final String method,
+        final URI uri,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        final long start = System.nanoTime();
+        final CompletableFuture<Resource> future;
+        try {
+            future = request.get();
+        } catch (final RuntimeException ex) {
+            this.failed(method, uri, start);
+            throw ex;
+        }
+        return future.whenComplete(
+            (resource, error) -> {
+                if(error == null) {
+                    this.record(method, uri, start, resource);
+                } else {
+                    this.failed(method, uri, start);
+                }
+            }
+        );
+    }
+
+    /**
+     * Record the metrics of a call which received a response.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param start When the call started (System.nanoTime()).
+     * @param resource Response.
+     */
+    private void record(
+        final String method,
+        final URI uri,
+        final long start,
+        final Resource resource
+    ) {
+        this.metrics.record(
+            InstrumentedJsonResources.template(method, uri),
+            Duration.ofNanos(System.nanoTime() - start),
+            InstrumentedJsonResources.size(resource),
+            resource.statusCode() >= 500
+        );
+    }
+
+    /**
+     * Record the metrics of a call which failed with an exception.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param start When the call started (System.nanoTime()).
+     */
+    private void failed(
+        final String method,
+        final URI uri,
+        final long start
+    ) {
+        this.metrics.record(
+            InstrumentedJsonResources.template(method, uri),
+            Duration.ofNanos(System.nanoTime() - start),
+            0,
+            true
+        );
+    }
+
+    /**
+     * Size of the received body, in bytes.
+     * @param resource Response.
+     * @return Bytes.
+     */
+    private static long size(final Resource resource) {
+        final long size;
+        if(resource instanceof JsonResources.JsonResponse) {
+            size = ((JsonResources.JsonResponse) resource).body.length;
+        } else {
+            size = resource.body().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,327 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Issue;
+
+import javax.json.JsonObject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshots of Issues, as last fetched from or pushed by the Provider,
+ * keyed by provider, repo full name and issue id. Only the JSON of the
+ * Issue is kept, not the Issue itself: the Issue is built again by
+ * whoever looks it up, so it makes its requests with the caller's
+ * access token. Bounded in number
+ * of entries (the least recently used are evicted) and in time: a
+ * snapshot older than the TTL is not used anymore.<br><br>
+ *
+ * Snapshots are replaced when the Provider pushes (via webhook) a version
+ * of the Issue which is at least as new as the cached one.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class IssueSnapshots {
+
+    /**
+     * Snapshots, in access order (the eldest is least recently used).
+     */
+    private final LinkedHashMap<String, Snapshot> snapshots;
+
+    /**
+     * Maximum number of snapshots.
+     */
+    private final int maxEntries;
+
+    /**
+     * How long a snapshot can be used.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Cache hits.
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Cache misses.
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Ctor. At most 10000 snapshots, each used for 5 minutes.
+     */
+    public IssueSnapshots() {
+        this(10000, Duration.ofMinutes(5), Clock.systemUTC());
+    }
+
+    /**
+     * Ctor.
+     * @param maxEntries Maximum number of snapshots.
+     * @param ttl How long a snapshot can be used.
+     * @param clock Clock.
+     */
+    public IssueSnapshots(
+        final int maxEntries,
+        final Duration ttl,
+        final Clock clock
+    ) {
+        this.snapshots = new LinkedHashMap<>(16, 0.75F, true);
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+
+    /**
+     * Number of cache hits.
+     * @return Long.
+     */
+    public long hits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Number of cache misses.
+     * @return Long.
+     */
+    public long misses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Hit rate, between 0 and 1.
+     * @return Double, 0 if there were no lookups.
+     */
+    public double hitRate() {
+        final long hits = this.hits.get();
+        final long total = hits + this.misses.get();
+        final double rate;
+        if(total == 0) {
+            rate = 0;
+        } else {
+            rate = (double) hits / total;
+        }
+        return rate;
+    }
+
+    /**
+     * Number of snapshots.
+     * @return Integer.
+     */
+    public synchronized int size() {
+        return this.snapshots.size();
+    }
+
+    /**
+     * Look up a snapshot. Expired snapshots are removed.
+     * @param provider Provider.
+     * @param repo Repo full name.
+     * @param issueId Issue id.
+     * @return Issue's JSON or null if there is no fresh snapshot.
+     */
+    public synchronized JsonObject lookup(
+        final String provider,
+        final String repo,
+        final String issueId
+    ) {
+        final String key = IssueSnapshots.key(provider, repo, issueId);
+        final Snapshot snapshot = this.snapshots.get(key);
+        JsonObject json = null;
+        if(snapshot != null) {
+            if(this.clock.millis() - snapshot.stored < this.ttl.toMillis()) {
+                json = snapshot.json;
+            } else {
+                this.snapshots.remove(key);
+            }
+        }
+        if(json == null) {
+            this.misses.incrementAndGet();
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return json;
+    }
+
+    /**
+     * Store the snapshot of an Issue fetched from the Provider.
+     * @param provider Provider.
+     * @param repo Repo full name.
+     * @param issue Issue.
+     */
+    public synchronized void store(
+        final String provider,
+        final String repo,
+        final Issue issue
+    ) {
+        this.snapshots.put(
+            IssueSnapshots.key(provider, repo, issue.issueId()),
+            new Snapshot(issue.json(), this.clock.millis())
+        );
+        this.evict();
+    }
+
+    /**
+     * An Issue was pushed by the Provider (e.g. via webhook). Its snapshot
+     * replaces the cached one, unless the cached one is newer.
+     * @param provider Provider.
+     * @param repo Repo full name.
+     * @param issue Received Issue.
+     * @return True if the snapshot was replaced, false if the cached
+     *  snapshot is newer than the received Issue.
+     */
+    public synchronized boolean received(
+        final String provider,
+        final String repo,
+        final Issue issue
+    ) {
+        final String key = IssueSnapshots.key(
+            provider, repo, issue.issueId()
+        );
+        final Snapshot cached = this.snapshots.get(key);
+        final boolean replaced;
+        if(cached == null || !cached.newerThan(issue)) {
+            this.snapshots.put(
+                key, new Snapshot(issue.json(), this.clock.millis())
+            );
+            this.evict();
+            replaced = true;
+        } else {
+            replaced = false;
+        }
+        return replaced;
+    }
+
+    /**
+     * Remove the snapshot of an Issue.
+     * @param provider Provider.
+     * @param repo Repo full name.
+     * @param issueId Issue id.
+     */
+    public synchronized void invalidate(
+        final String provider,
+        final String repo,
+        final String issueId
+    ) {
+        this.snapshots.remove(IssueSnapshots.key(provider, repo, issueId));
+    }
+
+    /**
+     * Evict the least recently used snapshots, while there are too many.
+     */
+    private void evict() {
+        final Iterator<Map.Entry<String, Snapshot>> eldest = this.snapshots
+            .entrySet()
+            .iterator();
+        while(eldest.hasNext() && this.snapshots.size() > this.maxEntries) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Key of a snapshot. Repo names are case-insensitive.
+     * @param provider Provider.
+     * @param repo Repo full name.
+     * @param issueId Issue id.
+     * @return String.
+     */
+    private static String key(
+        final String provider,
+        final String repo,
+        final String issueId
+    ) {
+        return provider + "/" + repo.toLowerCase(Locale.ROOT) + "#" + issueId;
+    }
+
+    /**
+     * Snapshot of an Issue.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Snapshot {
+
+        /**
+         * The Issue's JSON.
+         */
+        private final JsonObject json;
+
+        /**
+         * When it was stored (epoch millis).
+         */
+        private final long stored;
+
+        /**
+         * Ctor.
+         * @param json Issue's JSON.
+         * @param stored When it was stored.
+         */
+        Snapshot(final JsonObject json, final long stored) {
+            this.json = json;
+            this.stored = stored;
+        }
+
+        /**
+         * Is this snapshot newer than the given Issue? It is, only if both
+         * have an updated_at timestamp and this one's is later.
+         * @param other Other Issue.
+         * @return True or false.
+         */
+        boolean newerThan(final Issue other) {
+            final Instant mine = Snapshot.updated(this.json);
+            final Instant theirs = Snapshot.updated(other.json());
+            return mine != null && theirs != null && mine.isAfter(theirs);
+        }
+
+        /**
+         * When was the Issue last updated?
+         * @param json Issue's JSON.
+         * @return Instant or null if unknown.
+         */
+        private static Instant updated(final JsonObject json) {
+            Instant updated;
+            try {
+                updated = Instant.parse(json.getString("updated_at", ""));
+            } catch (final DateTimeParseException ex) {
+                updated = null;
+            }
+            return updated;
+        }
+    }
+}
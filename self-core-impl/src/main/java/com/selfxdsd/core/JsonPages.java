@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The elements of a paginated JSON array collection (e.g. the comments of
+ * an Issue), across all its pages. The pages are requested with the
+ * maximum page size and fetched lazily, as the iterator advances: the
+ * next page is fetched only when the current one is exhausted, so
+ * stopping early never fetches unneeded pages.<br><br>
+ *
+ * The next page is indicated by the Link header (rel="next") on Github
+ * and by the X-Next-Page header on Gitlab. By default, each page is a JSON
+ * array; pages which wrap their elements in an object (e.g. the "items"
+ * of Github's search API) need a function which reads the elements.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+final class JsonPages implements Iterable<JsonValue> {
+
+    /**
+     * Maximum page size, both on Github and Gitlab.
+     */
+    static final int PER_PAGE = 100;
+
+    /**
+     * Next link in a Link header.
+     */
+    private static final Pattern NEXT = Pattern.compile(
+        "<([^>]+)>\\s*;\\s*rel=\"?next\"?"
+    );
+
+    /**
+     * JSON Resources.
+     */
+    private final JsonResources resources;
+
+    /**
+     * URI of the first page.
+     */
+    private final URI first;
+
+    /**
+     * What to do with a page which is not 200 OK. After it, the
+     * iteration stops.
+     */
+    private final Consumer<Resource> unexpected;
+
+    /**
+     * Reads the elements of a page.
+     */
+    private final Function<Resource, Stream<JsonValue>> elements;
+
+    /**
+     * Ctor. The iteration stops silently at a page which is not 200 OK.
+     * @param resources JSON Resources.
+     * @param first URI of the first page.
+     */
+    JsonPages(final JsonResources resources, final URI first) {
+        this(resources, first, page -> { });
+    }
+
+    /**
+     * Ctor.
+     * @param resources JSON Resources.
+     * @param first URI of the first page.
+     * @param unexpected What to do with a page which is not 200 OK
+     *  (e.g. log or throw an exception). After it, the iteration stops.
+     */
+    JsonPages(
+        final JsonResources resources,
+        final URI first,
+        final Consumer<Resource> unexpected
+    ) {
+        this(resources, first, unexpected, Resource::asJsonStream);
+    }
+
+    /**
+     * Ctor.
+     * @param resources JSON Resources.
+     * @param first URI of the first page.
+     * @param unexpected What to do with a page which is not 200 OK
+     *  (e.g. log or throw an exception). After it, the iteration stops.
+     * @param elements Reads the elements of a 200 OK page.
+     */
+    JsonPages(
+        final JsonResources resources,
+        final URI first,
+        final Consumer<Resource> unexpected,
+        final Function<Resource, Stream<JsonValue>> elements
+    ) {
+        this.resources = resources;
+        this.first = JsonPages.maxPageSize(first);
+        this.unexpected = unexpected;
+        this.elements = elements;
+    }
+
+    /**
+     * Iterate over the elements. The first page is fetched right away,
+     * the following ones only when needed.
+     * @return Iterator of JsonValue.
+     */
+    @Override
+    public Iterator<JsonValue> iterator() {
+        return new Pages(
+            this.resources, this.first, this.unexpected, this.elements
+        );
+    }
+
+    /**
+     * The elements, as a lazy sequential Stream. The first page is
+     * fetched right away, the following ones only when needed.
+     * @return Stream of JsonValue.
+     */
+    Stream<JsonValue> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * URI of the next page.
+     * @param current URI of the current page.
+     * @param page The current page.
+     * @return URI or null if this is the last page.
+     */
+    static URI next(final URI current, final Resource page) {
+        URI next = null;
+        final List<String> links = page.headers().get("Link");
+        if(links != null) {
+            for(final String link : links) {
+                final Matcher matcher = NEXT.matcher(link);
+                if(matcher.find()) {
+                    next = URI.create(matcher.group(1));
+                    break;
+                }
+            }
+        }
+        if(next == null) {
+            final List<String> nextPage = page.headers().get("X-Next-Page");
+            if(nextPage != null && !nextPage.isEmpty()
+                && !nextPage.get(0).trim().isEmpty()) {
+                next = JsonPages.withParam(
+                    current, "page", nextPage.get(0).trim()
+                );
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Ask for the maximum page size, unless a page size is already
+     * specified.
+     * @param uri URI.
+     * @return URI.
+     */
+    static URI maxPageSize(final URI uri) {
+        final String query = uri.getRawQuery();
+        final URI max;
+        if(query != null && ("&" + query).contains("&per_page=")) {
+            max = uri;
+        } else {
+            max = JsonPages.withParam(
+                uri, "per_page", String.valueOf(PER_PAGE)
+            );
+        }
+        return max;
+    }
+
+    /**
+     * Set a query parameter, replacing its existing value, if any.
+     * @param uri URI.
+     * @param name Name of the parameter.
+     * @param value Value of the parameter.
+     * @return URI.
+     */
+    private static URI withParam(
+        final URI uri,
+        final String name,
+        final String value
+    ) {
+        final String str = uri.toString();
+        final String param = name + "=" + value;
+        final URI result;
+        final Matcher existing = Pattern.compile(
+            "([?&])" + Pattern.quote(name) + "=[^&#]*"
+        ).matcher(str);
+        if(existing.find()) {
+            result = URI.create(
+                existing.replaceFirst("$1" + Matcher.quoteReplacement(param))
+            );
+        } else if(uri.getRawQuery() == null) {
+            result = URI.create(str + "?" + param);
+        } else {
+            result = URI.create(str + "&" + param);
+        }
+        return result;
+    }
+
+    /**
+     * Iterator over the pages, fetching them one by one.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Pages implements Iterator<JsonValue> {
+
+        /**
+         * JSON Resources.
+         */
+        private final JsonResources resources;
+
+        /**
+         * What to do with a page which is not 200 OK.
+         */
+        private final Consumer<Resource> unexpected;
+
+        /**
+         * Reads the elements of a page.
+         */
+        private final Function<Resource, Stream<JsonValue>> elements;
+
+        /**
+         * URI of the next page, null if there is none.
+         */
+        private URI next;
+
+        /**
+         * Elements of the current page.
+         */
+        private Iterator<JsonValue> current;
+
+        /**
+         * Ctor.
+         * @param resources JSON Resources.
+         * @param first URI of the first page.
+         * @param unexpected What to do with a page which is not 200 OK.
+         * @param elements Reads the elements of a page.
+         */
+        Pages(
+            final JsonResources resources,
+            final URI first,
+            final Consumer<Resource> unexpected,
+            final Function<Resource, Stream<JsonValue>> elements
+        ) {
+            this.resources = resources;
+            this.unexpected = unexpected;
+            this.elements = elements;
+            this.next = first;
+            this.current = Collections.emptyIterator();
+            this.fetch();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(!this.current.hasNext() && this.next != null) {
+                this.fetch();
+            }
+            return this.current.hasNext();
+        }
+
+        @Override
+        public JsonValue next() {
+            if(!this.hasNext()) {
+                throw new NoSuchElementException("No more elements.");
+            }
+            return this.current.next();
+        }
+
+        /**
+         * Fetch the next page.
+         */
+        private void fetch() {
+            final URI uri = this.next;
+            final Resource page = this.resources.get(uri);
+            if(page.statusCode() == HttpURLConnection.HTTP_OK) {
+                this.current = this.elements.apply(page).iterator();
+                this.next = JsonPages.next(uri, page);
+            } else {
+                this.current = Collections.emptyIterator();
+                this.next = null;
+                this.unexpected.accept(page);
+            }
+        }
+    }
+}
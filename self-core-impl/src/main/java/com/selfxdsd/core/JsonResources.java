@@ -24,14 +24,30 @@ package com.selfxdsd.core;
 
 import javax.json.Json;
 import javax.json.JsonArray;
+import javax.json.JsonException;
 import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
 import javax.json.JsonValue;
+import javax.json.stream.JsonParser;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.StringReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * JSON Resources used by the Provider.
@@ -61,6 +77,17 @@ public interface JsonResources {
      */
     Resource get(final URI uri);
 
+    /**
+     * Get the Resource at the specified URI, sending some extra
+     * request headers (e.g. If-None-Match for conditional requests).
+     * @param uri Resource location.
+     * @param headers Extra request headers.
+     * @return Resource.
+     * @throws IllegalStateException If IOException or InterruptedException
+     *  occur while making the HTTP request.
+     */
+    Resource get(final URI uri, final Map<String, String> headers);
+
     /**
      * Post a JsonObject to the specified URI.
      * @param uri URI.
@@ -113,15 +140,139 @@ public interface JsonResources {
         final JsonValue body
     );
 
+    /**
+     * Get the Resource at the specified URI, without blocking the
+     * calling thread.
+     * @param uri Resource location.
+     * @return Future Resource. It completes exceptionally with an
+     *  IllegalStateException if the HTTP request fails.
+     */
+    CompletableFuture<Resource> getAsync(final URI uri);
+
+    /**
+     * Get the Resource at the specified URI, sending some extra
+     * request headers, without blocking the calling thread.
+     * @param uri Resource location.
+     * @param headers Extra request headers.
+     * @return Future Resource. It completes exceptionally with an
+     *  IllegalStateException if the HTTP request fails.
+     */
+    CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    );
+
+    /**
+     * Post a JsonObject to the specified URI, without blocking the
+     * calling thread.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with an
+     *  IllegalStateException if the HTTP request fails.
+     */
+    CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    );
+
+    /**
+     * Patch a JsonObject at the specified URI, without blocking the
+     * calling thread.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with an
+     *  IllegalStateException if the HTTP request fails.
+     */
+    CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    );
+
+    /**
+     * Put a JsonObject at the specified URI, without blocking the
+     * calling thread.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with an
+     *  IllegalStateException if the HTTP request fails.
+     */
+    CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    );
+
+    /**
+     * DELETE the specified resource, without blocking the calling thread.
+     * @param uri URI.
+     * @param body JSON body of the request.
+     * @return Future Resource. It completes exceptionally with an
+     *  IllegalStateException if the HTTP request fails.
+     */
+    CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    );
+
     /**
      * JSON Resources obtained by making HTTP calls, using
-     * the JDK.
+     * the JDK.<br><br>
+     *
+     * All the instances created with the default constructor, as well as
+     * their authenticated copies, share the same HttpClient. This way,
+     * connections are kept alive and reused (multiplexed, over HTTP/2)
+     * instead of paying a new TCP + TLS handshake for every call.
      * @author Mihai Andronache (amihaiemil@gmail.com)
      * @version $Id$
      * @since 0.0.8
      */
     final class JdkHttp implements JsonResources {
 
+        /**
+         * Default connect timeout.
+         */
+        private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+        /**
+         * Default request timeout.
+         */
+        private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+        /**
+         * HttpClient shared by all the instances created with the
+         * default constructor.
+         */
+        private static final HttpClient SHARED = JdkHttp.client(
+            CONNECT_TIMEOUT,
+            Executors.newCachedThreadPool(
+                new ThreadFactory() {
+                    /**
+                     * Number of created threads.
+                     */
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(
+                            runnable,
+                            "self-http-" + this.count.incrementAndGet()
+                        );
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+            )
+        );
+
+        /**
+         * HTTP Client, shared by this instance and its authenticated copies.
+         */
+        private final HttpClient client;
+
+        /**
+         * Timeout of each request.
+         */
+        private final Duration timeout;
+
         /**
          * Access token.
          */
@@ -131,37 +282,79 @@ public interface JsonResources {
          * Ctor.
          */
         JdkHttp() {
-            this(null);
+            this(SHARED, REQUEST_TIMEOUT);
+        }
+
+        /**
+         * Ctor. Use it if you need a client configured differently than
+         * the shared one. Keep the instance, it is meant to be reused.
+         * @param connectTimeout Timeout for establishing a connection.
+         * @param requestTimeout Timeout for each request.
+         * @param executor Executor used by the HttpClient.
+         */
+        public JdkHttp(
+            final Duration connectTimeout,
+            final Duration requestTimeout,
+            final Executor executor
+        ) {
+            this(JdkHttp.client(connectTimeout, executor), requestTimeout);
+        }
+
+        /**
+         * Ctor.
+         * @param client HTTP Client.
+         * @param timeout Timeout of each request.
+         */
+        JdkHttp(final HttpClient client, final Duration timeout) {
+            this(client, timeout, null);
         }
 
         /**
          * Ctor.
+         * @param client HTTP Client.
+         * @param timeout Timeout of each request.
          * @param accessToken Access token for authenticated requests.
          */
-        private JdkHttp(final AccessToken accessToken) {
+        private JdkHttp(
+            final HttpClient client,
+            final Duration timeout,
+            final AccessToken accessToken
+        ) {
+            this.client = client;
+            this.timeout = timeout;
             this.accessToken = accessToken;
         }
 
         @Override
         public JsonResources authenticated(final AccessToken accessToken) {
-            return new JsonResources.JdkHttp(accessToken);
+            return new JsonResources.JdkHttp(
+                this.client, this.timeout, accessToken
+            );
+        }
+
+        /**
+         * The HttpClient which sends the requests.
+         * @return HttpClient.
+         */
+        HttpClient client() {
+            return this.client;
         }
 
         @Override
         public Resource get(final URI uri) {
+            return this.get(uri, Map.of());
+        }
+
+        @Override
+        public Resource get(final URI uri, final Map<String, String> headers) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "GET",
-                            HttpRequest.BodyPublishers.noBody()
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                final HttpRequest.Builder request = this.request(
+                    uri,
+                    "GET",
+                    HttpRequest.BodyPublishers.noBody()
                 );
+                headers.forEach(request::header);
+                return this.send(request.build());
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
                     "Couldn't GET [" + uri.toString() +"]",
@@ -176,19 +369,14 @@ public interface JsonResources {
             final JsonValue body
         ) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "POST",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                return this.send(
+                    this.request(
+                        uri,
+                        "POST",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ).build()
                 );
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
@@ -205,19 +393,14 @@ public interface JsonResources {
             final JsonValue body
         ) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "PATCH",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                return this.send(
+                    this.request(
+                        uri,
+                        "PATCH",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ).build()
                 );
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
@@ -231,19 +414,14 @@ public interface JsonResources {
         @Override
         public Resource put(final URI uri, final JsonValue body) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "PUT",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                return this.send(
+                    this.request(
+                        uri,
+                        "PUT",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ).build()
                 );
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
@@ -257,19 +435,14 @@ public interface JsonResources {
         @Override
         public Resource delete(final URI uri, final JsonValue body) {
             try {
-                final HttpResponse<String> response = HttpClient.newHttpClient()
-                    .send(
-                        this.request(
-                            uri,
-                            "DELETE",
-                            HttpRequest.BodyPublishers.ofString(
-                                body.toString()
-                            )
-                        ),
-                        HttpResponse.BodyHandlers.ofString()
-                    );
-                return new JsonResponse(
-                    response.statusCode(), response.body()
+                return this.send(
+                    this.request(
+                        uri,
+                        "DELETE",
+                        HttpRequest.BodyPublishers.ofString(
+                            body.toString()
+                        )
+                    ).build()
                 );
             } catch (final IOException | InterruptedException ex) {
                 throw new IllegalStateException(
@@ -280,39 +453,193 @@ public interface JsonResources {
             }
         }
 
+        @Override
+        public CompletableFuture<Resource> getAsync(final URI uri) {
+            return this.getAsync(uri, Map.of());
+        }
+
+        @Override
+        public CompletableFuture<Resource> getAsync(
+            final URI uri,
+            final Map<String, String> headers
+        ) {
+            final HttpRequest.Builder request = this.request(
+                uri,
+                "GET",
+                HttpRequest.BodyPublishers.noBody()
+            );
+            headers.forEach(request::header);
+            return this.sendAsync(
+                request.build(),
+                "Couldn't GET [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> postAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.sendAsync(
+                this.request(
+                    uri,
+                    "POST",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ).build(),
+                "Couldn't POST " + body.toString()
+                + " to [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> patchAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.sendAsync(
+                this.request(
+                    uri,
+                    "PATCH",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ).build(),
+                "Couldn't PATCH " + body.toString()
+                + " at [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> putAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.sendAsync(
+                this.request(
+                    uri,
+                    "PUT",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ).build(),
+                "Couldn't PUT " + body.toString()
+                + " at [" + uri.toString() + "]"
+            );
+        }
+
+        @Override
+        public CompletableFuture<Resource> deleteAsync(
+            final URI uri,
+            final JsonValue body
+        ) {
+            return this.sendAsync(
+                this.request(
+                    uri,
+                    "DELETE",
+                    HttpRequest.BodyPublishers.ofString(body.toString())
+                ).build(),
+                "Couldn't DELETE " + body.toString()
+                + " at [" + uri.toString() + "]"
+            );
+        }
+
         /**
-         * Build and return the HTTP Request.
+         * Send the HTTP Request using the shared HttpClient.
+         * @param request HttpRequest.
+         * @return Resource.
+         * @throws IOException If something goes wrong.
+         * @throws InterruptedException If the thread is interrupted.
+         */
+        private Resource send(final HttpRequest request)
+            throws IOException, InterruptedException {
+            final HttpResponse<byte[]> response = this.client.send(
+                request,
+                HttpResponse.BodyHandlers.ofByteArray()
+            );
+            return new JsonResponse(
+                response.statusCode(),
+                response.body(),
+                response.headers().map()
+            );
+        }
+
+        /**
+         * Send the HTTP Request asynchronously, using the shared HttpClient.
+         * The calling thread is not blocked, the response is handled on
+         * the HttpClient's executor.
+         * @param request HttpRequest.
+         * @param error Error message, in case the request fails.
+         * @return Future Resource.
+         */
+        private CompletableFuture<Resource> sendAsync(
+            final HttpRequest request,
+            final String error
+        ) {
+            return this.client.sendAsync(
+                request,
+                HttpResponse.BodyHandlers.ofByteArray()
+            ).handle(
+                (response, ex) -> {
+                    if(ex != null) {
+                        throw new CompletionException(
+                            new IllegalStateException(error, ex)
+                        );
+                    }
+                    final Resource resource = new JsonResponse(
+                        response.statusCode(),
+                        response.body(),
+                        response.headers().map()
+                    );
+                    return resource;
+                }
+            );
+        }
+
+        /**
+         * Build the HTTP Request.
          * @param uri URI.
          * @param method Method.
          * @param body Body.
-         * @return HttpRequest.
+         * @return HttpRequest.Builder.
          */
-        private HttpRequest request(
+        private HttpRequest.Builder request(
             final URI uri,
             final String method,
             final HttpRequest.BodyPublisher body
         ) {
-            final HttpRequest request;
+            final HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(this.timeout)
+                .method(method, body)
+                .header("Content-Type", "application/json");
             if(this.accessToken != null) {
-                request = HttpRequest.newBuilder()
-                    .uri(uri)
-                    .method(method, body)
-                    .header("Content-Type", "application/json")
-                    .header(this.accessToken.header(), this.accessToken.value())
-                    .build();
-            } else {
-                request = HttpRequest.newBuilder()
-                    .uri(uri)
-                    .method(method, body)
-                    .header("Content-Type", "application/json")
-                    .build();
+                request.header(
+                    this.accessToken.header(), this.accessToken.value()
+                );
             }
             return request;
         }
+
+        /**
+         * Build an HTTP/2 client (it falls back to HTTP/1.1 with keep-alive
+         * if the server does not support HTTP/2).
+         * @param connectTimeout Connect timeout.
+         * @param executor Executor.
+         * @return HttpClient.
+         */
+        private static HttpClient client(
+            final Duration connectTimeout,
+            final Executor executor
+        ) {
+            return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+        }
     }
 
     /**
-     * Response as JSON.
+     * Response as JSON. The body is kept as received (bytes) and parsed
+     * only once, the first time it is needed. Large arrays can also be
+     * streamed, element by element, without building the whole tree
+     * (see {@link #asJsonStream()}).
      * @author Mihai Andronache (amihaiemil@gmail.com)
      * @version $Id$
      * @since 0.0.8
@@ -325,9 +652,19 @@ public interface JsonResources {
         final int statusCode;
 
         /**
-         * Response body (expected to be a JSON).
+         * Response body (expected to be a JSON), as received.
          */
-        final String body;
+        final byte[] body;
+
+        /**
+         * Response headers.
+         */
+        final Map<String, List<String>> headers;
+
+        /**
+         * Parsed body, null until it is needed.
+         */
+        private volatile JsonStructure parsed;
 
         /**
          * Ctor.
@@ -335,8 +672,38 @@ public interface JsonResources {
          * @param body Response Body.
          */
         JsonResponse(final int statusCode, final String body) {
+            this(statusCode, body, Map.of());
+        }
+
+        /**
+         * Ctor.
+         * @param statusCode Status code.
+         * @param body Response Body.
+         * @param headers Response Headers.
+         */
+        JsonResponse(
+            final int statusCode,
+            final String body,
+            final Map<String, List<String>> headers
+        ) {
+            this(statusCode, body.getBytes(StandardCharsets.UTF_8), headers);
+        }
+
+        /**
+         * Ctor.
+         * @param statusCode Status code.
+         * @param body Response Body, as received.
+         * @param headers Response Headers.
+         */
+        JsonResponse(
+            final int statusCode,
+            final byte[] body,
+            final Map<String, List<String>> headers
+        ) {
             this.statusCode = statusCode;
             this.body = body;
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.headers.putAll(headers);
         }
 
         @Override
@@ -346,16 +713,78 @@ public interface JsonResources {
 
         @Override
         public JsonObject asJsonObject() {
-            return Json.createReader(
-                new StringReader(this.body)
-            ).readObject();
+            final JsonStructure json = this.json();
+            if(!(json instanceof JsonObject)) {
+                throw new JsonException(
+                    "Expected a JSON Object, but got " + json.getValueType()
+                );
+            }
+            return (JsonObject) json;
         }
 
         @Override
         public JsonArray asJsonArray() {
-            return Json.createReader(
-                new StringReader(this.body)
-            ).readArray();
+            final JsonStructure json = this.json();
+            if(!(json instanceof JsonArray)) {
+                throw new JsonException(
+                    "Expected a JSON Array, but got " + json.getValueType()
+                );
+            }
+            return (JsonArray) json;
+        }
+
+        @Override
+        public Stream<JsonValue> asJsonStream() {
+            final JsonStructure json = this.parsed;
+            final Stream<JsonValue> stream;
+            if(json == null) {
+                final JsonParser parser = Json.createParser(
+                    new ByteArrayInputStream(this.body)
+                );
+                if(!parser.hasNext()
+                    || parser.next() != JsonParser.Event.START_ARRAY) {
+                    parser.close();
+                    throw new JsonException("Expected a JSON Array.");
+                }
+                stream = parser.getArrayStream().onClose(parser::close);
+            } else {
+                stream = json.asJsonArray().stream();
+            }
+            return stream;
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return this.headers;
+        }
+
+        @Override
+        public String body() {
+            return new String(this.body, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int size() {
+            return this.body.length;
+        }
+
+        /**
+         * The parsed body. It is parsed only once, on the first call.
+         * @return JsonStructure.
+         */
+        private JsonStructure json() {
+            JsonStructure json = this.parsed;
+            if(json == null) {
+                try (
+                    final JsonReader reader = Json.createReader(
+                        new ByteArrayInputStream(this.body)
+                    )
+                ) {
+                    json = reader.read();
+                }
+                this.parsed = json;
+            }
+            return json;
         }
     }
 }
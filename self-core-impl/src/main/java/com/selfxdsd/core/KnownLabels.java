@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Label;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Labels known to exist in each repository, so we don't try to create
+ * them again. The labels of a repo are listed once, when first needed,
+ * and then kept up to date with the labels we create or remove. The
+ * listing is repeated after the TTL expires, to see the labels changed
+ * by other people.<br><br>
+ *
+ * A registry with a zero TTL knows no labels and never lists them.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+final class KnownLabels {
+
+    /**
+     * Registry which knows no labels.
+     */
+    static final KnownLabels NONE = new KnownLabels(
+        Duration.ZERO, Clock.systemUTC()
+    );
+
+    /**
+     * Known labels, by the URI of the repo labels.
+     */
+    private final Map<String, Listed> repos;
+
+    /**
+     * How long a listing is used.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor.
+     * @param ttl How long a listing is used.
+     * @param clock Clock.
+     */
+    KnownLabels(final Duration ttl, final Clock clock) {
+        this.repos = new ConcurrentHashMap<>();
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    /**
+     * Is the label known to exist in the repo?
+     * @param repo URI of the repo labels.
+     * @param name Name of the label.
+     * @param labels Lists all the labels of the repo, if needed.
+     * @return True or false.
+     */
+    boolean contains(
+        final String repo,
+        final String name,
+        final Supplier<Iterable<Label>> labels
+    ) {
+        final boolean known;
+        if(this.ttl.isZero()) {
+            known = false;
+        } else {
+            known = this.listed(repo, labels).names.contains(
+                KnownLabels.key(name)
+            );
+        }
+        return known;
+    }
+
+    /**
+     * A label was created (or found to exist) in the repo.
+     * @param repo URI of the repo labels.
+     * @param name Name of the label.
+     */
+    void created(final String repo, final String name) {
+        final Listed listed = this.repos.get(KnownLabels.key(repo));
+        if(listed != null) {
+            listed.names.add(KnownLabels.key(name));
+        }
+    }
+
+    /**
+     * A label was removed from the repo.
+     * @param repo URI of the repo labels.
+     * @param name Name of the label.
+     */
+    void removed(final String repo, final String name) {
+        final Listed listed = this.repos.get(KnownLabels.key(repo));
+        if(listed != null) {
+            listed.names.remove(KnownLabels.key(name));
+        }
+    }
+
+    /**
+     * The labels of a repo, listed now if they are missing or expired.
+     * @param repo URI of the repo labels.
+     * @param labels Lists all the labels of the repo.
+     * @return Listed labels.
+     */
+    private Listed listed(
+        final String repo,
+        final Supplier<Iterable<Label>> labels
+    ) {
+        final String key = KnownLabels.key(repo);
+        final Instant now = this.clock.instant();
+        Listed listed = this.repos.get(key);
+        if(listed == null || listed.expires.isBefore(now)) {
+            listed = new Listed(now.plus(this.ttl));
+            for(final Label label : labels.get()) {
+                listed.names.add(KnownLabels.key(label.name()));
+            }
+            this.repos.put(key, listed);
+        }
+        return listed;
+    }
+
+    /**
+     * Labels and repos are case-insensitive.
+     * @param name Name of the label or URI of the repo.
+     * @return Key.
+     */
+    private static String key(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Labels listed from a repo.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Listed {
+
+        /**
+         * Names of the labels.
+         */
+        private final Set<String> names;
+
+        /**
+         * When this listing expires.
+         */
+        private final Instant expires;
+
+        /**
+         * Ctor.
+         * @param expires When this listing expires.
+         */
+        Listed(final Instant expires) {
+            this.names = ConcurrentHashMap.newKeySet();
+            this.expires = expires;
+        }
+    }
+}
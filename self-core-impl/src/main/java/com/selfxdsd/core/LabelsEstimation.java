@@ -44,10 +44,11 @@ import java.util.regex.Pattern;
 final class LabelsEstimation implements Estimation {
 
     /**
-     * Label regex.
-     * @checkstyle LineLength (5 lines)
+     * Label regex, compiled once.
      */
-    private static final String ESTIMATION = "^([1-9]+[0-9]*)[ ]*(minutes|min|m)$";
+    private static final Pattern ESTIMATION = Pattern.compile(
+        "^([1-9]+[0-9]*)[ ]*(minutes|min|m)$", Pattern.CASE_INSENSITIVE
+    );
 
     /**
      * Maximum estimation allowed.
@@ -76,12 +77,8 @@ final class LabelsEstimation implements Estimation {
     @Override
     public int minutes() {
         int minutes = 0;
-        final Pattern reg = Pattern.compile(
-            ESTIMATION,
-            Pattern.CASE_INSENSITIVE
-        );
         for(final Label label : this.issue.labels()) {
-            final Matcher match = reg.matcher(label.name());
+            final Matcher match = ESTIMATION.matcher(label.name());
             if(match.find()) {
                 minutes = Integer.valueOf(match.group(1));
                 break;
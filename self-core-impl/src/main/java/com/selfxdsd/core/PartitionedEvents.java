@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Events;
+import com.selfxdsd.api.Metrics;
+import com.selfxdsd.api.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events pipeline partitioned by Project. Each partition has a bounded
+ * queue and one worker thread, so the Events of the same Project are
+ * resolved in order, while the Events of different Projects are resolved
+ * in parallel. When the queue of a partition is full, the Event is
+ * rejected (backpressure) instead of piling up in memory.<br><br>
+ *
+ * The resolution of each Event is recorded in the Metrics, under the
+ * series "EVENT {type}". The worker threads are daemons and are only
+ * started when the first Events arrive.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class PartitionedEvents implements Events {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        PartitionedEvents.class
+    );
+
+    /**
+     * Partitions.
+     */
+    private final List<ThreadPoolExecutor> partitions;
+
+    /**
+     * How long to wait for the pending Events, on close.
+     */
+    private final Duration drain;
+
+    /**
+     * Where the resolved Events are recorded.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor. The pending Events are waited for at most 30 seconds on close.
+     * @param partitions Number of partitions.
+     * @param capacity How many Events can wait in each partition.
+     * @param metrics Where the resolved Events are recorded.
+     */
+    public PartitionedEvents(
+        final int partitions,
+        final int capacity,
+        final Metrics metrics
+    ) {
+        this(partitions, capacity, Duration.ofSeconds(30), metrics);
+    }
+
+    /**
+     * Ctor.
+     * @param partitions Number of partitions.
+     * @param capacity How many Events can wait in each partition.
+     * @param drain How long to wait for the pending Events, on close.
+     * @param metrics Where the resolved Events are recorded.
+     */
+    public PartitionedEvents(
+        final int partitions,
+        final int capacity,
+        final Duration drain,
+        final Metrics metrics
+    ) {
+        this.partitions = new ArrayList<>(partitions);
+        for(int idx = 0; idx < partitions; idx = idx + 1) {
+            final String name = "self-events-" + idx;
+            this.partitions.add(
+                new ThreadPoolExecutor(
+                    1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacity),
+                    work -> {
+                        final Thread thread = new Thread(work, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                )
+            );
+        }
+        this.drain = drain;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean submit(final Event event) {
+        final Project project = event.project();
+        final ThreadPoolExecutor partition = this.partitions.get(
+            Math.floorMod(
+                (project.provider() + "/" + project.repoFullName()).hashCode(),
+                this.partitions.size()
+            )
+        );
+        boolean accepted;
+        try {
+            partition.execute(() -> this.resolve(project, event));
+            accepted = true;
+        } catch (final RejectedExecutionException ex) {
+            LOG.warn(
+                "Event " + event.type() + " of project "
+                + project.repoFullName() + " at " + project.provider()
+                + " was rejected, the pipeline is full or closed."
+            );
+            accepted = false;
+        }
+        return accepted;
+    }
+
+    @Override
+    public int pending() {
+        int pending = 0;
+        for(int idx = 0; idx < this.partitions.size(); idx = idx + 1) {
+            pending = pending + this.pending(idx);
+        }
+        return pending;
+    }
+
+    /**
+     * How many Events are waiting in a partition (queue depth).
+     * @param partition Index of the partition.
+     * @return Integer.
+     */
+    public int pending(final int partition) {
+        return this.partitions.get(partition).getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        for(final ThreadPoolExecutor partition : this.partitions) {
+            partition.shutdown();
+        }
+        final long deadline = System.nanoTime() + this.drain.toNanos();
+        try {
+            for(final ThreadPoolExecutor partition : this.partitions) {
+                partition.awaitTermination(
+                    Math.max(0L, deadline - System.nanoTime()),
+                    TimeUnit.NANOSECONDS
+                );
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        int dropped = 0;
+        for(final ThreadPoolExecutor partition : this.partitions) {
+            dropped = dropped + partition.shutdownNow().size();
+        }
+        if(dropped > 0) {
+            LOG.error(
+                "Closed the events pipeline with " + dropped
+                + " unresolved events."
+            );
+        }
+    }
+
+    /**
+     * Resolve an Event and record it.
+     * @param project Project of the Event.
+     * @param event Event.
+     */
+    private void resolve(final Project project, final Event event) {
+        final long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            project.resolve(event);
+        } catch (final RuntimeException ex) {
+            failed = true;
+            LOG.error(
+                "Could not resolve event " + event.type() + " of project "
+                + project.repoFullName() + " at " + project.provider(),
+                ex
+            );
+        }
+        this.metrics.record(
+            "EVENT " + event.type(),
+            Duration.ofNanos(System.nanoTime() - start),
+            0,
+            failed
+        );
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources decorator which paces the requests according to the
+ * rate limit budget of the access token (see {@link RateLimits}).
+ * A request rejected because of the rate limit (429, or 403 with
+ * Retry-After or no remaining budget) is sent once more, after the
+ * waiting time indicated by the Provider.<br><br>
+ *
+ * Requests to the search APIs have their own, much smaller, rate limit
+ * (e.g. 30 requests per minute on Github), so they are paced with a
+ * separate budget of the same access token.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class RateLimitedJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Rate limits.
+     */
+    private final RateLimits limits;
+
+    /**
+     * Key of the access token.
+     */
+    private final String token;
+
+    /**
+     * Ctor. The budgets are shared only with the instances returned by
+     * {@link #authenticated(AccessToken)}.
+     * @param origin Original JsonResources.
+     */
+    public RateLimitedJsonResources(final JsonResources origin) {
+        this(origin, new RateLimits(Clock.systemUTC()));
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param limits Rate limits.
+     */
+    public RateLimitedJsonResources(
+        final JsonResources origin,
+        final RateLimits limits
+    ) {
+        this(origin, limits, RateLimits.key(null));
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param limits Rate limits.
+     * @param token Key of the access token.
+     */
+    private RateLimitedJsonResources(
+        final JsonResources origin,
+        final RateLimits limits,
+        final String token
+    ) {
+        this.origin = origin;
+        this.limits = limits;
+        this.token = token;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new RateLimitedJsonResources(
+            this.origin.authenticated(accessToken),
+            this.limits,
+            RateLimits.key(accessToken)
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.paced(uri, () -> this.origin.get(uri));
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.paced(uri, () -> this.origin.get(uri, headers));
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.paced(uri, () -> this.origin.post(uri, body));
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.paced(uri, () -> this.origin.patch(uri, body));
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.paced(uri, () -> this.origin.put(uri, body));
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.paced(uri, () -> this.origin.delete(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.pacedAsync(uri, () -> this.origin.getAsync(uri));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.pacedAsync(uri, () -> this.origin.getAsync(uri, headers));
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.pacedAsync(uri, () -> this.origin.postAsync(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.pacedAsync(uri, () -> this.origin.patchAsync(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.pacedAsync(uri, () -> this.origin.putAsync(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.pacedAsync(uri, () -> this.origin.deleteAsync(uri, body));
+    }
+
+    /**
+     * Make the request when the budget allows it. If it is rejected
+     * because of the rate limit, make it once more when the budget
+     * allows it again.
+     * @param uri URI of the request.
+     * @param request Request.
+     * @return Resource.
+     * @throws IllegalStateException If interrupted while waiting.
+     */
+    private Resource paced(final URI uri, final Supplier<Resource> request) {
+        final RateLimits.Budget budget = this.budget(uri);
+        final boolean background = RateLimits.inBackground();
+        try {
+            budget.acquire(background);
+            Resource resource = request.get();
+            budget.update(resource);
+            if(RateLimits.Budget.limited(resource)) {
+                budget.acquire(background);
+                resource = request.get();
+                budget.update(resource);
+            }
+            return resource;
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for the rate limit.", ex
+            );
+        }
+    }
+
+    /**
+     * Make the request when the budget allows it, without blocking
+     * the calling thread while waiting. If it is rejected because of the
+     * rate limit, make it once more when the budget allows it again.
+     * @param uri URI of the request.
+     * @param request Request.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> pacedAsync(
+        final URI uri,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        final RateLimits.Budget budget = this.budget(uri);
+        final boolean background = RateLimits.inBackground();
+        return budget.acquireAsync(background)
+            .thenCompose(acquired -> request.get())
+            .thenCompose(
+                resource -> {
+                    budget.update(resource);
+                    final CompletableFuture<Resource> result;
+                    if(RateLimits.Budget.limited(resource)) {
+                        result = budget.acquireAsync(background)
+                            .thenCompose(acquired -> request.get())
+                            .thenApply(
+                                retried -> {
+                                    budget.update(retried);
+                                    return retried;
+                                }
+                            );
+                    } else {
+                        result = CompletableFuture.completedFuture(resource);
+                    }
+                    return result;
+                }
+            );
+    }
+
+    /**
+     * Budget which paces the request: the search budget for the search
+     * APIs (/search/... on Github, .../search on Gitlab), the GraphQL
+     * budget for the GraphQL API (its limit is counted in points, apart
+     * from the REST one), the core budget of the access token otherwise.
+     * @param uri URI of the request.
+     * @return Budget.
+     */
+    private RateLimits.Budget budget(final URI uri) {
+        final String path = uri.getPath();
+        final RateLimits.Budget budget;
+        if(path != null
+            && (path.startsWith("/search/") || path.endsWith("/search"))) {
+            budget = this.limits.budget(this.token + " (search)");
+        } else if(path != null && path.endsWith("/graphql")) {
+            budget = this.limits.budget(this.token + " (graphql)");
+        } else {
+            budget = this.limits.budget(this.token);
+        }
+        return budget;
+    }
+
+}
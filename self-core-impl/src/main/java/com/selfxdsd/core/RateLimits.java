@@ -0,0 +1,407 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit budgets of the Providers' access tokens. The budgets are
+ * read from the response headers (X-RateLimit-* for Github, RateLimit-*
+ * for Gitlab, Retry-After for both) and used to pace the requests ahead
+ * of exhaustion.<br><br>
+ *
+ * Background work (e.g. the tasks sweeps) should be run through
+ * {@link #background(Runnable)}: background requests may not use the last
+ * part of the budget, which is reserved for the webhook-driven requests
+ * (e.g. replying to comments).
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class RateLimits {
+
+    /**
+     * Is the current thread doing background work?
+     */
+    private static final ThreadLocal<Boolean> BACKGROUND =
+        ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Budgets, per access token.
+     */
+    private final Map<String, Budget> budgets;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor.
+     * @param clock Clock.
+     */
+    public RateLimits(final Clock clock) {
+        this.budgets = new ConcurrentHashMap<>();
+        this.clock = clock;
+    }
+
+    /**
+     * Run some background work. The requests made by the current thread
+     * while running it will have low priority.
+     * @param work Background work.
+     */
+    public static void background(final Runnable work) {
+        final boolean previous = BACKGROUND.get();
+        BACKGROUND.set(Boolean.TRUE);
+        try {
+            work.run();
+        } finally {
+            BACKGROUND.set(previous);
+        }
+    }
+
+    /**
+     * Is the current thread doing background work?
+     * @return True or false.
+     */
+    static boolean inBackground() {
+        return BACKGROUND.get();
+    }
+
+    /**
+     * Remaining requests for the given access token, as last reported
+     * by the Provider.
+     * @param accessToken Access token.
+     * @return Remaining requests or -1 if the budget is not known yet.
+     */
+    public int remaining(final AccessToken accessToken) {
+        final Budget budget = this.budgets.get(RateLimits.key(accessToken));
+        final int remaining;
+        if(budget == null) {
+            remaining = -1;
+        } else {
+            remaining = budget.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * When is the budget of the given access token reset?
+     * @param accessToken Access token.
+     * @return Instant or null if it's not known yet.
+     */
+    public Instant reset(final AccessToken accessToken) {
+        final Budget budget = this.budgets.get(RateLimits.key(accessToken));
+        final Instant reset;
+        if(budget == null) {
+            reset = null;
+        } else {
+            reset = budget.reset();
+        }
+        return reset;
+    }
+
+    /**
+     * Get the Budget of an access token.
+     * @param token Access token key (see {@link #key(AccessToken)}).
+     * @return Budget, never null.
+     */
+    Budget budget(final String token) {
+        return this.budgets.computeIfAbsent(
+            token, key -> new Budget(this.clock)
+        );
+    }
+
+    /**
+     * Key of an access token: its digest, so the token itself is not
+     * kept in the budgets.
+     * @param accessToken Access token, may be null for anonymous requests.
+     * @return String.
+     */
+    static String key(final AccessToken accessToken) {
+        final String key;
+        if(accessToken == null) {
+            key = "";
+        } else {
+            key = accessToken.digest();
+        }
+        return key;
+    }
+
+    /**
+     * Rate limit budget of one access token.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    static final class Budget {
+
+        /**
+         * Percentage of the limit which is reserved for
+         * foreground (webhook-driven) requests.
+         */
+        private static final int RESERVED = 10;
+
+        /**
+         * Under this percentage of the limit, the requests are paced
+         * (evenly spread until the reset).
+         */
+        private static final int PACED = 20;
+
+        /**
+         * Clock.
+         */
+        private final Clock clock;
+
+        /**
+         * Limit of requests per window, -1 if unknown.
+         */
+        private int limit;
+
+        /**
+         * Remaining requests in the current window, -1 if unknown.
+         */
+        private int remaining;
+
+        /**
+         * When the window is reset (epoch millis).
+         */
+        private long resetAt;
+
+        /**
+         * No request should be made until this moment (epoch millis),
+         * set by Retry-After or by exhausting the budget.
+         */
+        private long blockedUntil;
+
+        /**
+         * When the last request was allowed (epoch millis).
+         */
+        private long lastGrant;
+
+        /**
+         * Ctor.
+         * @param clock Clock.
+         */
+        Budget(final Clock clock) {
+            this.clock = clock;
+            this.limit = -1;
+            this.remaining = -1;
+        }
+
+        /**
+         * Wait until a request can be made, then take it out of the budget.
+         * @param background Is it a background request?
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        synchronized void acquire(final boolean background)
+            throws InterruptedException {
+            long delay = this.tryAcquire(background);
+            while(delay > 0) {
+                this.wait(delay);
+                delay = this.tryAcquire(background);
+            }
+        }
+
+        /**
+         * Take a request out of the budget when it can be made, without
+         * blocking the calling thread.
+         * @param background Is it a background request?
+         * @return Future which completes when the request can be made.
+         */
+        CompletableFuture<Void> acquireAsync(final boolean background) {
+            final CompletableFuture<Void> acquired = new CompletableFuture<>();
+            this.acquireAsync(background, acquired);
+            return acquired;
+        }
+
+        /**
+         * Take a request out of the budget if it can be made now.
+         * @param background Is it a background request?
+         * @return Milliseconds to wait before trying again, 0 if the
+         *  request was taken out of the budget.
+         */
+        synchronized long tryAcquire(final boolean background) {
+            long delay = this.delay(background);
+            if(delay <= 0) {
+                delay = 0;
+                this.lastGrant = this.clock.millis();
+                if(this.remaining > 0) {
+                    this.remaining = this.remaining - 1;
+                }
+            }
+            return delay;
+        }
+
+        /**
+         * Try to take a request out of the budget and complete the given
+         * future if it succeeds, or try again later, on a timer.
+         * @param background Is it a background request?
+         * @param acquired Future to complete.
+         */
+        private void acquireAsync(
+            final boolean background,
+            final CompletableFuture<Void> acquired
+        ) {
+            final long delay = this.tryAcquire(background);
+            if(delay > 0) {
+                CompletableFuture.delayedExecutor(
+                    delay, TimeUnit.MILLISECONDS
+                ).execute(() -> this.acquireAsync(background, acquired));
+            } else {
+                acquired.complete(null);
+            }
+        }
+
+        /**
+         * Update the budget from the response headers.
+         * @param resource Response received from the Provider.
+         */
+        synchronized void update(final Resource resource) {
+            final long now = this.clock.millis();
+            final Map<String, List<String>> headers = resource.headers();
+            final int limit = Budget.number(
+                headers, "X-RateLimit-Limit", "RateLimit-Limit"
+            );
+            final int remaining = Budget.number(
+                headers, "X-RateLimit-Remaining", "RateLimit-Remaining"
+            );
+            final int reset = Budget.number(
+                headers, "X-RateLimit-Reset", "RateLimit-Reset"
+            );
+            if(limit >= 0) {
+                this.limit = limit;
+            }
+            if(remaining >= 0) {
+                this.remaining = remaining;
+            }
+            if(reset >= 0) {
+                this.resetAt = reset * 1000L;
+            }
+            final int retryAfter = Budget.number(headers, "Retry-After");
+            if(retryAfter >= 0) {
+                this.blockedUntil = now + retryAfter * 1000L;
+            } else if(Budget.limited(resource)) {
+                this.blockedUntil = Math.max(this.resetAt, now + 1000L);
+            }
+            this.notifyAll();
+        }
+
+        /**
+         * Remaining requests.
+         * @return Integer, -1 if unknown.
+         */
+        synchronized int remaining() {
+            return this.remaining;
+        }
+
+        /**
+         * When is this budget reset.
+         * @return Instant or null if unknown.
+         */
+        synchronized Instant reset() {
+            final Instant reset;
+            if(this.resetAt > 0) {
+                reset = Instant.ofEpochMilli(this.resetAt);
+            } else {
+                reset = null;
+            }
+            return reset;
+        }
+
+        /**
+         * For how long should a request wait before being sent?
+         * @param background Is it a background request?
+         * @return Milliseconds, 0 or negative if it can be sent now.
+         */
+        synchronized long delay(final boolean background) {
+            final long now = this.clock.millis();
+            long delay = this.blockedUntil - now;
+            if(delay <= 0 && this.limit > 0 && this.remaining >= 0
+                && this.resetAt > now) {
+                final int reserved;
+                if(background) {
+                    reserved = this.limit * RESERVED / 100;
+                } else {
+                    reserved = 0;
+                }
+                final int available = this.remaining - reserved;
+                if(available <= 0) {
+                    delay = this.resetAt - now;
+                } else if(this.remaining < this.limit * PACED / 100) {
+                    delay = this.lastGrant
+                        + (this.resetAt - now) / available - now;
+                }
+            }
+            return delay;
+        }
+
+        /**
+         * Was the request rejected because of the (primary or secondary)
+         * rate limit?
+         * @param resource Response.
+         * @return True or false.
+         */
+        static boolean limited(final Resource resource) {
+            final int status = resource.statusCode();
+            final Map<String, List<String>> headers = resource.headers();
+            return status == 429 || (status == 403 && (
+                headers.containsKey("Retry-After")
+                || Budget.number(
+                    headers, "X-RateLimit-Remaining", "RateLimit-Remaining"
+                ) == 0
+            ));
+        }
+
+        /**
+         * Read the first numeric header found.
+         * @param headers Headers.
+         * @param names Names of the header, in order of preference.
+         * @return Value or -1 if none of them is present or numeric.
+         */
+        private static int number(
+            final Map<String, List<String>> headers,
+            final String... names
+        ) {
+            int value = -1;
+            for(final String name : names) {
+                final List<String> values = headers.get(name);
+                if(values != null && !values.isEmpty()) {
+                    try {
+                        value = Integer.parseInt(values.get(0).trim());
+                        break;
+                    } catch (final NumberFormatException ex) {
+                        value = -1;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources decorator which records every request and its response
+ * in a {@link Cassette}, so they can be played back later, offline,
+ * with {@link ReplayedJsonResources}. Use it for benchmarks and
+ * profiling, not in production.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class RecordingJsonResources implements JsonResources {
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Cassette where the interactions are recorded.
+     */
+    private final Cassette cassette;
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param cassette Cassette where the interactions are recorded.
+     */
+    public RecordingJsonResources(
+        final JsonResources origin,
+        final Cassette cassette
+    ) {
+        this.origin = origin;
+        this.cassette = cassette;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new RecordingJsonResources(
+            this.origin.authenticated(accessToken), this.cassette
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.recorded("GET", uri, null, () -> this.origin.get(uri));
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.recorded(
+            "GET", uri, null, () -> this.origin.get(uri, headers)
+        );
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.recorded(
+            "POST", uri, body, () -> this.origin.post(uri, body)
+        );
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.recorded(
+            "PATCH", uri, body, () -> this.origin.patch(uri, body)
+        );
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.recorded(
+            "PUT", uri, body, () -> this.origin.put(uri, body)
+        );
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.recorded(
+            "DELETE", uri, body, () -> this.origin.delete(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.recordedAsync(
+            "GET", uri, null, () -> this.origin.getAsync(uri)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.recordedAsync(
+            "GET", uri, null, () -> this.origin.getAsync(uri, headers)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.recordedAsync(
+            "POST", uri, body, () -> this.origin.postAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.recordedAsync(
+            "PATCH", uri, body, () -> this.origin.patchAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.recordedAsync(
+            "PUT", uri, body, () -> this.origin.putAsync(uri, body)
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.recordedAsync(
+            "DELETE", uri, body, () -> this.origin.deleteAsync(uri, body)
+        );
+    }
+
+    /**
+     * Make a request and record it.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param body Request body, may be null.
+     * @param request Request.
+     * @return Resource.
+     */
+    private Resource recorded(
+        final String method,
+        final URI uri,
+        final JsonValue body,
+        final Supplier<Resource> request
+    ) {
+        final long start = System.nanoTime();
+        final Resource resource = request.get();
+        this.cassette.record(
+            method, uri, body, resource,
+            Duration.ofNanos(System.nanoTime() - start)
+        );
+        return resource;
+    }
+
+    /**
+     * Make an asynchronous request and record it when it completes.
+     * Failed requests are not recorded.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @param body Request body, may be null.
+     * @param request Request.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> recordedAsync(
+        final String method,
+        final URI uri,
+        final JsonValue body,
+        final Supplier<CompletableFuture<Resource>> request
+    ) {
+        final long start = System.nanoTime();
+        return request.get().thenApply(
+            resource -> {
+                this.cassette.record(
+                    method, uri, body, resource,
+                    Duration.ofNanos(System.nanoTime() - start)
+                );
+                return resource;
+            }
+        );
+    }
+}
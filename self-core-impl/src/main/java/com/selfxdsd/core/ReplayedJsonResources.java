@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonResources which does not go to the network: it plays back
+ * the interactions recorded in a {@link Cassette} by
+ * {@link RecordingJsonResources}, optionally with the recorded latency.
+ * Use it to benchmark and profile offline, reproducibly.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class ReplayedJsonResources implements JsonResources {
+
+    /**
+     * Cassette with the recorded interactions.
+     */
+    private final Cassette cassette;
+
+    /**
+     * Should the responses come with the recorded latency?
+     */
+    private final boolean latency;
+
+    /**
+     * Ctor. The responses come right away.
+     * @param cassette Cassette with the recorded interactions.
+     */
+    public ReplayedJsonResources(final Cassette cassette) {
+        this(cassette, false);
+    }
+
+    /**
+     * Ctor.
+     * @param cassette Cassette with the recorded interactions.
+     * @param latency Should the responses come with the recorded latency?
+     */
+    public ReplayedJsonResources(
+        final Cassette cassette,
+        final boolean latency
+    ) {
+        this.cassette = cassette;
+        this.latency = latency;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return this;
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.replayed("GET", uri);
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.replayed("GET", uri);
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.replayed("POST", uri);
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.replayed("PATCH", uri);
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.replayed("PUT", uri);
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.replayed("DELETE", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.replayedAsync("GET", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.replayedAsync("GET", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayedAsync("POST", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayedAsync("PATCH", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayedAsync("PUT", uri);
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.replayedAsync("DELETE", uri);
+    }
+
+    /**
+     * Play the next recorded response.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return Resource.
+     * @throws IllegalStateException If there is no such recorded
+     *  interaction or if interrupted while waiting for the latency.
+     */
+    private Resource replayed(final String method, final URI uri) {
+        final Cassette.Interaction interaction = this.cassette.play(
+            method, uri
+        );
+        if(this.latency) {
+            try {
+                Thread.sleep(interaction.latency().toMillis());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                    "Interrupted while replaying " + method + " " + uri, ex
+                );
+            }
+        }
+        return interaction.response();
+    }
+
+    /**
+     * Play the next recorded response, asynchronously.
+     * @param method HTTP method.
+     * @param uri URI.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> replayedAsync(
+        final String method,
+        final URI uri
+    ) {
+        final CompletableFuture<Resource> replayed = new CompletableFuture<>();
+        try {
+            final Cassette.Interaction interaction = this.cassette.play(
+                method, uri
+            );
+            Duration delay = Duration.ZERO;
+            if(this.latency) {
+                delay = interaction.latency();
+            }
+            CompletableFuture.delayedExecutor(
+                delay.toMillis(), TimeUnit.MILLISECONDS
+            ).execute(() -> replayed.complete(interaction.response()));
+        } catch (final IllegalStateException ex) {
+            replayed.completeExceptionally(ex);
+        }
+        return replayed;
+    }
+}
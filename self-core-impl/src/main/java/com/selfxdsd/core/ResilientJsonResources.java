@@ -0,0 +1,637 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.json.JsonValue;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * JsonResources decorator which makes the calls to the Provider resilient
+ * to transient failures.<br><br>
+ *
+ * The idempotent requests (GET, PUT, DELETE) which fail with an exception
+ * or with 502, 503 or 504 are retried, with jittered exponential backoff.
+ * POST and PATCH are never retried.<br><br>
+ *
+ * Every host has a circuit breaker. After a number of consecutive failures
+ * the breaker opens and the requests to that host fail fast, with an
+ * IllegalStateException, without reaching the network. After a while,
+ * one trial request is let through: if it succeeds, the breaker closes
+ * again.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class ResilientJsonResources implements JsonResources {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        ResilientJsonResources.class
+    );
+
+    /**
+     * Default number of attempts for an idempotent request.
+     */
+    private static final int ATTEMPTS = 3;
+
+    /**
+     * Default backoff before the first retry (it doubles afterwards).
+     */
+    private static final Duration BACKOFF = Duration.ofMillis(250);
+
+    /**
+     * Original JsonResources.
+     */
+    private final JsonResources origin;
+
+    /**
+     * Circuit breakers.
+     */
+    private final Breakers breakers;
+
+    /**
+     * Maximum number of attempts for an idempotent request.
+     */
+    private final int attempts;
+
+    /**
+     * Backoff before the first retry.
+     */
+    private final Duration backoff;
+
+    /**
+     * Ctor. The circuit breakers are shared only with the instances
+     * returned by {@link #authenticated(AccessToken)}.
+     * @param origin Original JsonResources.
+     */
+    public ResilientJsonResources(final JsonResources origin) {
+        this(origin, new Breakers(), ATTEMPTS, BACKOFF);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Original JsonResources.
+     * @param breakers Circuit breakers.
+     * @param attempts Maximum number of attempts for an idempotent request.
+     * @param backoff Backoff before the first retry (it doubles for
+     *  each of the following retries).
+     */
+    public ResilientJsonResources(
+        final JsonResources origin,
+        final Breakers breakers,
+        final int attempts,
+        final Duration backoff
+    ) {
+        this.origin = origin;
+        this.breakers = breakers;
+        this.attempts = attempts;
+        this.backoff = backoff;
+    }
+
+    @Override
+    public JsonResources authenticated(final AccessToken accessToken) {
+        return new ResilientJsonResources(
+            this.origin.authenticated(accessToken),
+            this.breakers,
+            this.attempts,
+            this.backoff
+        );
+    }
+
+    @Override
+    public Resource get(final URI uri) {
+        return this.retried(uri, () -> this.origin.get(uri));
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
+        return this.retried(uri, () -> this.origin.get(uri, headers));
+    }
+
+    @Override
+    public Resource post(final URI uri, final JsonValue body) {
+        return this.guarded(uri, () -> this.origin.post(uri, body));
+    }
+
+    @Override
+    public Resource patch(final URI uri, final JsonValue body) {
+        return this.guarded(uri, () -> this.origin.patch(uri, body));
+    }
+
+    @Override
+    public Resource put(final URI uri, final JsonValue body) {
+        return this.retried(uri, () -> this.origin.put(uri, body));
+    }
+
+    @Override
+    public Resource delete(final URI uri, final JsonValue body) {
+        return this.retried(uri, () -> this.origin.delete(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return this.retriedAsync(uri, () -> this.origin.getAsync(uri), 1);
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return this.retriedAsync(
+            uri, () -> this.origin.getAsync(uri, headers), 1
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.retriedAsync(
+            uri, () -> this.origin.postAsync(uri, body), this.attempts
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.retriedAsync(
+            uri, () -> this.origin.patchAsync(uri, body), this.attempts
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.retriedAsync(
+            uri, () -> this.origin.putAsync(uri, body), 1
+        );
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return this.retriedAsync(
+            uri, () -> this.origin.deleteAsync(uri, body), 1
+        );
+    }
+
+    /**
+     * Make an idempotent request, retrying it if it fails transiently.
+     * @param uri URI of the request.
+     * @param request Request.
+     * @return Resource.
+     * @throws IllegalStateException If the breaker is open, if the last
+     *  attempt failed with an exception, or if interrupted while
+     *  backing off.
+     */
+    private Resource retried(final URI uri, final Supplier<Resource> request) {
+        int attempt = 1;
+        while(true) {
+            try {
+                final Resource resource = this.guarded(uri, request);
+                if(attempt >= this.attempts
+                    || !ResilientJsonResources.failed(resource)) {
+                    return resource;
+                }
+            } catch (final RuntimeException ex) {
+                if(attempt >= this.attempts || this.open(uri)) {
+                    throw ex;
+                }
+            }
+            this.breakers.retried();
+            try {
+                Thread.sleep(this.delay(attempt));
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                    "Interrupted while retrying [" + uri + "]", ex
+                );
+            }
+            attempt = attempt + 1;
+        }
+    }
+
+    /**
+     * Make a request through the circuit breaker of its host.
+     * @param uri URI of the request.
+     * @param request Request.
+     * @return Resource.
+     * @throws IllegalStateException If the breaker is open or if the
+     *  request fails with an exception.
+     */
+    private Resource guarded(final URI uri, final Supplier<Resource> request) {
+        final Breaker breaker = this.breakers.allow(uri);
+        boolean failed = true;
+        try {
+            final Resource resource = request.get();
+            failed = ResilientJsonResources.failed(resource);
+            return resource;
+        } finally {
+            if(failed) {
+                breaker.failure();
+            } else {
+                breaker.success();
+            }
+        }
+    }
+
+    /**
+     * Make a request asynchronously, through the circuit breaker of its
+     * host, retrying it if it fails transiently and it is idempotent.
+     * @param uri URI of the request.
+     * @param request Request.
+     * @param attempt Number of this attempt. Non-idempotent requests
+     *  start directly with the last attempt, so they are not retried.
+     * @return Future Resource.
+     */
+    private CompletableFuture<Resource> retriedAsync(
+        final URI uri,
+        final Supplier<CompletableFuture<Resource>> request,
+        final int attempt
+    ) {
+        final CompletableFuture<Resource> result = new CompletableFuture<>();
+        final Breaker breaker;
+        try {
+            breaker = this.breakers.allow(uri);
+        } catch (final IllegalStateException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+        CompletableFuture<Resource> sent;
+        try {
+            sent = request.get();
+        } catch (final RuntimeException ex) {
+            sent = CompletableFuture.failedFuture(ex);
+        }
+        sent.whenComplete(
+            (resource, error) -> {
+                final boolean failed = error != null
+                    || ResilientJsonResources.failed(resource);
+                if(failed) {
+                    breaker.failure();
+                } else {
+                    breaker.success();
+                }
+                if(failed && attempt < this.attempts) {
+                    this.breakers.retried();
+                    CompletableFuture.delayedExecutor(
+                        this.delay(attempt), TimeUnit.MILLISECONDS
+                    ).execute(
+                        () -> this.retriedAsync(uri, request, attempt + 1)
+                            .whenComplete(
+                                (retried, ex) -> {
+                                    if(ex == null) {
+                                        result.complete(retried);
+                                    } else {
+                                        result.completeExceptionally(ex);
+                                    }
+                                }
+                            )
+                    );
+                } else if(error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(resource);
+                }
+            }
+        );
+        return result;
+    }
+
+    /**
+     * Is the circuit breaker of the URI's host open?
+     * @param uri URI.
+     * @return True or false.
+     */
+    private boolean open(final URI uri) {
+        return Breakers.OPEN.equals(this.breakers.state(uri.getHost()));
+    }
+
+    /**
+     * Backoff before retrying: exponential, with full jitter.
+     * @param attempt Number of the failed attempt.
+     * @return Milliseconds.
+     */
+    private long delay(final int attempt) {
+        final long max = this.backoff.toMillis() << Math.min(attempt - 1, 16);
+        final long delay;
+        if(max > 0) {
+            delay = ThreadLocalRandom.current().nextLong(max / 2, max + 1);
+        } else {
+            delay = 0;
+        }
+        return delay;
+    }
+
+    /**
+     * Is the response a transient failure (bad gateway, service
+     * unavailable or gateway timeout)?
+     * @param resource Response.
+     * @return True or false.
+     */
+    private static boolean failed(final Resource resource) {
+        final int status = resource.statusCode();
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * The circuit breakers, one per host, together with the counters
+     * of retried and rejected requests.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    public static final class Breakers {
+
+        /**
+         * Closed breaker: requests go through.
+         */
+        public static final String CLOSED = "closed";
+
+        /**
+         * Open breaker: requests are rejected.
+         */
+        public static final String OPEN = "open";
+
+        /**
+         * Half-open breaker: one trial request goes through.
+         */
+        public static final String HALF_OPEN = "half-open";
+
+        /**
+         * Breaker of each host.
+         */
+        private final Map<String, Breaker> hosts;
+
+        /**
+         * Consecutive failures after which a breaker opens.
+         */
+        private final int threshold;
+
+        /**
+         * How long a breaker stays open before letting a trial through.
+         */
+        private final Duration cooldown;
+
+        /**
+         * Clock.
+         */
+        private final Clock clock;
+
+        /**
+         * Number of retried requests.
+         */
+        private final AtomicLong retries;
+
+        /**
+         * Number of requests rejected by open breakers.
+         */
+        private final AtomicLong rejections;
+
+        /**
+         * Ctor. A breaker opens after 5 consecutive failures and stays
+         * open for 30 seconds.
+         */
+        public Breakers() {
+            this(5, Duration.ofSeconds(30), Clock.systemUTC());
+        }
+
+        /**
+         * Ctor.
+         * @param threshold Consecutive failures after which a breaker opens.
+         * @param cooldown How long a breaker stays open.
+         * @param clock Clock.
+         */
+        public Breakers(
+            final int threshold,
+            final Duration cooldown,
+            final Clock clock
+        ) {
+            this.hosts = new ConcurrentHashMap<>();
+            this.threshold = threshold;
+            this.cooldown = cooldown;
+            this.clock = clock;
+            this.retries = new AtomicLong();
+            this.rejections = new AtomicLong();
+        }
+
+        /**
+         * State of the breaker of a host.
+         * @param host Host.
+         * @return One of CLOSED, OPEN or HALF_OPEN.
+         */
+        public String state(final String host) {
+            final Breaker breaker = this.hosts.get(host);
+            final String state;
+            if(breaker == null) {
+                state = CLOSED;
+            } else {
+                state = breaker.state();
+            }
+            return state;
+        }
+
+        /**
+         * How many requests have been retried so far.
+         * @return Long.
+         */
+        public long retries() {
+            return this.retries.get();
+        }
+
+        /**
+         * How many requests have been rejected by open breakers so far.
+         * @return Long.
+         */
+        public long rejected() {
+            return this.rejections.get();
+        }
+
+        /**
+         * Let a request to the URI go through, if the breaker of its host
+         * allows it.
+         * @param uri URI.
+         * @return Breaker which should be told about the outcome.
+         * @throws IllegalStateException If the breaker is open.
+         */
+        Breaker allow(final URI uri) {
+            final String host = uri.getHost();
+            final Breaker breaker = this.hosts.computeIfAbsent(
+                host, h -> new Breaker(
+                    this.threshold, this.cooldown, this.clock
+                )
+            );
+            if(!breaker.allow()) {
+                this.rejections.incrementAndGet();
+                LOG.warn("Circuit breaker of " + host + " is open.");
+                throw new IllegalStateException(
+                    "Circuit breaker of " + host + " is open, request to ["
+                    + uri + "] rejected."
+                );
+            }
+            return breaker;
+        }
+
+        /**
+         * Count a retried request.
+         */
+        void retried() {
+            this.retries.incrementAndGet();
+        }
+    }
+
+    /**
+     * Circuit breaker of a host.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    static final class Breaker {
+
+        /**
+         * Consecutive failures after which the breaker opens.
+         */
+        private final int threshold;
+
+        /**
+         * How long the breaker stays open before letting a trial through.
+         */
+        private final Duration cooldown;
+
+        /**
+         * Clock.
+         */
+        private final Clock clock;
+
+        /**
+         * Consecutive failures.
+         */
+        private int failures;
+
+        /**
+         * When the breaker opened (epoch millis), or -1 if closed.
+         */
+        private long opened;
+
+        /**
+         * Is the trial request of the half-open breaker in flight?
+         */
+        private boolean trial;
+
+        /**
+         * Ctor.
+         * @param threshold Consecutive failures after which it opens.
+         * @param cooldown How long it stays open.
+         * @param clock Clock.
+         */
+        Breaker(
+            final int threshold,
+            final Duration cooldown,
+            final Clock clock
+        ) {
+            this.threshold = threshold;
+            this.cooldown = cooldown;
+            this.clock = clock;
+            this.opened = -1;
+        }
+
+        /**
+         * Can a request go through now?
+         * @return True or false.
+         */
+        synchronized boolean allow() {
+            final String state = this.state();
+            final boolean allow;
+            if(Breakers.CLOSED.equals(state)) {
+                allow = true;
+            } else if(Breakers.HALF_OPEN.equals(state) && !this.trial) {
+                this.trial = true;
+                allow = true;
+            } else {
+                allow = false;
+            }
+            return allow;
+        }
+
+        /**
+         * The request went through successfully; close the breaker.
+         */
+        synchronized void success() {
+            this.failures = 0;
+            this.opened = -1;
+            this.trial = false;
+        }
+
+        /**
+         * The request failed; open the breaker if it is the trial one
+         * or if there are too many consecutive failures.
+         */
+        synchronized void failure() {
+            this.failures = this.failures + 1;
+            if(this.trial || this.failures >= this.threshold) {
+                this.opened = this.clock.millis();
+            }
+            this.trial = false;
+        }
+
+        /**
+         * State of the breaker.
+         * @return One of Breakers.CLOSED, Breakers.OPEN or Breakers.HALF_OPEN.
+         */
+        synchronized String state() {
+            final String state;
+            if(this.opened < 0) {
+                state = Breakers.CLOSED;
+            } else if(
+                this.clock.millis() - this.opened < this.cooldown.toMillis()
+            ) {
+                state = Breakers.OPEN;
+            } else {
+                state = Breakers.HALF_OPEN;
+            }
+            return state;
+        }
+    }
+}
@@ -24,6 +24,11 @@ package com.selfxdsd.core;
 
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Resource returned by the Provider.
@@ -51,4 +56,32 @@ public interface Resource {
      */
     JsonArray asJsonArray();
 
+    /**
+     * The elements of this resource, which should be a JSON array,
+     * one by one. Use it for large arrays: it does not necessarily build
+     * the whole array in memory. Close the Stream when done.
+     * @return Stream of JsonValue.
+     */
+    Stream<JsonValue> asJsonStream();
+
+    /**
+     * The response headers. Header names are case-insensitive.
+     * @return Map of header name to values.
+     */
+    Map<String, List<String>> headers();
+
+    /**
+     * The raw body of this resource, as it was received.
+     * @return String.
+     */
+    String body();
+
+    /**
+     * Size of the raw body, in bytes.
+     * @return Integer.
+     */
+    default int size() {
+        return this.body().getBytes(StandardCharsets.UTF_8).length;
+    }
+
 }
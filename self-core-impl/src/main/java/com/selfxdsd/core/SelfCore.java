@@ -22,6 +22,8 @@
  */
 package com.selfxdsd.core;
 
+import com.selfxdsd.api.Events;
+import com.selfxdsd.api.Metrics;
 import com.selfxdsd.api.storage.Storage;
 
 /**
@@ -41,4 +43,27 @@ public final class SelfCore extends BaseSelf {
         super(storage);
     }
 
+    /**
+     * Constructor.
+     * @param storage Storage for Self.
+     * @param events Pipeline of the Events.
+     */
+    public SelfCore(final Storage storage, final Events events) {
+        super(storage, events);
+    }
+
+    /**
+     * Constructor.
+     * @param storage Storage for Self.
+     * @param events Pipeline of the Events.
+     * @param metrics Metrics of Self.
+     */
+    public SelfCore(
+        final Storage storage,
+        final Events events,
+        final Metrics metrics
+    ) {
+        super(storage, events, metrics);
+    }
+
 }
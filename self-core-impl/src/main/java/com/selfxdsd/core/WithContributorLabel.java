@@ -30,6 +30,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.json.JsonObject;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Issue decorator which adds or removes a label with the contributor's tag
@@ -125,6 +126,60 @@ final class WithContributorLabel implements Issue {
         return unassigned;
     }
 
+    @Override
+    public CompletableFuture<Boolean> assignAsync(final String username) {
+        return this.decorated.assignAsync(username).thenCompose(
+            assigned -> {
+                final CompletableFuture<Boolean> result;
+                if(assigned) {
+                    LOG.debug("Adding label @" + username + "... ");
+                    result = this.labels().addAsync("@" + username)
+                        .thenApply(
+                            labeled -> {
+                                if(labeled) {
+                                    LOG.debug("Label added.");
+                                } else {
+                                    LOG.warn("Problem while adding label.");
+                                }
+                                return assigned;
+                            }
+                        );
+                } else {
+                    result = CompletableFuture.completedFuture(assigned);
+                }
+                return result;
+            }
+        );
+    }
+
+    @Override
+    public CompletableFuture<Boolean> unassignAsync(final String username) {
+        return this.decorated.unassignAsync(username).thenCompose(
+            unassigned -> {
+                final CompletableFuture<Boolean> result;
+                if(unassigned) {
+                    LOG.debug("Removing label @" + username + "... ");
+                    result = this.labels().removeAsync("@" + username)
+                        .thenApply(
+                            removed -> {
+                                if(removed) {
+                                    LOG.debug("Label removed.");
+                                } else {
+                                    LOG.warn(
+                                        "Problem while removing label."
+                                    );
+                                }
+                                return unassigned;
+                            }
+                        );
+                } else {
+                    result = CompletableFuture.completedFuture(unassigned);
+                }
+                return result;
+            }
+        );
+    }
+
     @Override
     public JsonObject json() {
         return this.decorated.json();
@@ -25,8 +25,11 @@ package com.selfxdsd.core.managers;
 import com.selfxdsd.api.Comment;
 import com.selfxdsd.api.Event;
 import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Project;
 import com.selfxdsd.api.pm.Intermediary;
 import com.selfxdsd.api.pm.Step;
+import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.CommentsOutbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,10 +89,13 @@ public final class SendReply extends Intermediary {
         withPreview
             .append("> ").append(body).append("\n\n")
             .append(this.reply);
-        issue.comments().post(
-            withPreview.toString()
-        );
-        LOG.debug("Reply sent successfully!");
+        final Project project = event.project();
+        Storage storage = null;
+        if(project != null) {
+            storage = project.storage();
+        }
+        CommentsOutbox.post(issue, withPreview.toString(), storage);
+        LOG.debug("Reply sent or queued successfully!");
         this.next().perform(event);
     }
 }
@@ -26,6 +26,7 @@ import com.selfxdsd.api.*;
 import com.selfxdsd.api.pm.Conversation;
 import com.selfxdsd.api.pm.Step;
 import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.CommentsOutbox;
 import com.selfxdsd.core.Github;
 import com.selfxdsd.core.Gitlab;
 import org.slf4j.Logger;
@@ -36,6 +37,10 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -256,7 +261,7 @@ public final class StoredProjectManager implements ProjectManager {
                                             .reply("manualAssignment.comment"),
                                         author
                                     );
-                                    issue.comments().post(reply);
+                                    this.reply(issue, reply);
                                 }
                             }
                         ),
@@ -275,7 +280,7 @@ public final class StoredProjectManager implements ProjectManager {
                                         issue.assignee(),
                                         issue.role()
                                     );
-                                    issue.comments().post(reply);
+                                    this.reply(issue, reply);
                                 }
                             }
                         ),
@@ -300,7 +305,7 @@ public final class StoredProjectManager implements ProjectManager {
                                     issue.author()
                                 );
                             }
-                            issue.comments().post(reply);
+                            this.reply(issue, reply);
                         }
                     }
                 )
@@ -337,7 +342,7 @@ public final class StoredProjectManager implements ProjectManager {
                         author
                     );
                 }
-                issue.comments().post(reply);
+                this.reply(issue, reply);
             }
         }
     }
@@ -350,8 +355,13 @@ public final class StoredProjectManager implements ProjectManager {
             + project.repoFullName() + " at " + project.provider()
         );
         final Tasks projectTasks = project.tasks();
+        final List<Task> unassigned = new ArrayList<>();
         for(final Task task : projectTasks.unassigned()) {
-            final Issue issue = task.issue();
+            unassigned.add(task);
+        }
+        final Map<String, Issue> issues = this.issues(project, unassigned);
+        for(final Task task : unassigned) {
+            final Issue issue = StoredProjectManager.issue(task, issues);
             if (issue.isClosed()) {
                 LOG.debug("Issue associated with task #" + issue.issueId()
                     + " is closed. Removing task...");
@@ -394,6 +404,196 @@ public final class StoredProjectManager implements ProjectManager {
         );
     }
 
+    /**
+     * Fetch the Issues of the given Tasks in bulk, so the sweeps
+     * do not have to fetch them one by one.
+     * @param project Project.
+     * @param tasks Tasks of the Project.
+     * @return Map of Issue ID to Issue.
+     */
+    private Map<String, Issue> issues(
+        final Project project,
+        final List<Task> tasks
+    ) {
+        final Map<String, Issue> issues = new HashMap<>();
+        final ProjectManager manager = project.projectManager();
+        if(manager != null && !tasks.isEmpty()) {
+            issues.putAll(
+                StoredProjectManager.issues(manager, project)
+                    .getByIds(StoredProjectManager.ids(tasks))
+            );
+        }
+        return issues;
+    }
+
+    /**
+     * The closed Issues of the given assigned Tasks. They are listed
+     * from the Provider with the Issues closed since the earliest
+     * assignment, so the Issues which are still open are not fetched.
+     * @param project Project.
+     * @param tasks Assigned Tasks of the Project.
+     * @return Map of Issue ID to closed Issue.
+     */
+    private Map<String, Issue> closed(
+        final Project project,
+        final List<Task> tasks
+    ) {
+        final Map<String, Issue> closed = new HashMap<>();
+        final ProjectManager manager = project.projectManager();
+        if(manager == null) {
+            for(final Task task : tasks) {
+                final Issue issue = task.issue();
+                if(issue.isClosed()) {
+                    closed.put(task.issueId(), issue);
+                }
+            }
+        } else if(!tasks.isEmpty()) {
+            LocalDateTime since = tasks.get(0).assignmentDate();
+            for(final Task task : tasks) {
+                if(task.assignmentDate().isBefore(since)) {
+                    since = task.assignmentDate();
+                }
+            }
+            closed.putAll(
+                StoredProjectManager.issues(manager, project).closedSince(
+                    StoredProjectManager.ids(tasks),
+                    since.minusDays(1)
+                )
+            );
+        }
+        return closed;
+    }
+
+    /**
+     * The Issues of a Project, as seen by its manager.
+     * @param manager Project's manager.
+     * @param project Project.
+     * @return Issues.
+     */
+    private static Issues issues(
+        final ProjectManager manager,
+        final Project project
+    ) {
+        final String repoFullName = project.repoFullName();
+        return manager.provider().repo(
+            repoFullName.substring(0, repoFullName.indexOf("/")),
+            repoFullName.substring(repoFullName.indexOf("/") + 1)
+        ).issues();
+    }
+
+    /**
+     * The IDs of the Issues of some Tasks.
+     * @param tasks Tasks.
+     * @return List of Issue IDs.
+     */
+    private static List<String> ids(final List<Task> tasks) {
+        final List<String> ids = new ArrayList<>();
+        for(final Task task : tasks) {
+            ids.add(task.issueId());
+        }
+        return ids;
+    }
+
+    /**
+     * Did the assignee miss the deadline of the Task?
+     * @param task Assigned Task.
+     * @param now Current time.
+     * @return True or false.
+     */
+    private static boolean missed(final Task task, final LocalDateTime now) {
+        return now.until(task.deadline(), ChronoUnit.MINUTES) < 0;
+    }
+
+    /**
+     * Should the assignee be reminded of the deadline? They are reminded
+     * once, after the first half of the allowed period.
+     * @param task Assigned Task.
+     * @param now Current time.
+     * @return True or false.
+     */
+    private static boolean remind(final Task task, final LocalDateTime now) {
+        final int time = Period.between(
+            task.assignmentDate().toLocalDate(),
+            task.deadline().toLocalDate()
+        ).getDays();
+        final int left = Period.between(
+            now.toLocalDate(),
+            task.deadline().toLocalDate()
+        ).getDays();
+        return left <= time / 2 && !task.isNotified(Task.Notices.REMINDER);
+    }
+
+    /**
+     * Invoice a Task whose Issue was closed and take it out of scope.
+     * @param project Project.
+     * @param task Assigned Task.
+     * @param assignee Assignee.
+     * @param issue Closed Issue.
+     */
+    private void invoice(
+        final Project project,
+        final Task task,
+        final Contributor assignee,
+        final Issue issue
+    ) {
+        LOG.debug(
+            "Task #" + issue.issueId()
+            + " of Contributor " + assignee.username()
+            + " is closed. Invoicing... "
+        );
+        final InvoicedTask invoiced = task.contract()
+            .invoices()
+            .active()
+            .register(task, this.commission(task.value()));
+        if(invoiced != null) {
+            this.reply(
+                issue,
+                String.format(
+                    project.language().reply(
+                        "taskInvoiced.comment"
+                    ),
+                    assignee.username()
+                )
+            );
+            this.storage.tasks().remove(task);
+            if(issue.assignee() != null) {
+                issue.unassign(issue.assignee());
+            }
+            LOG.debug(
+                "Task #" + issue.issueId() + " successfully"
+                + " invoiced and taken out of scope."
+            );
+        }
+    }
+
+    /**
+     * Reply on an Issue. The reply goes through the comments outbox, if
+     * the Storage has one, otherwise it is posted right away.
+     * @param issue Issue.
+     * @param body Body of the reply.
+     */
+    private void reply(final Issue issue, final String body) {
+        CommentsOutbox.post(issue, body, this.storage);
+    }
+
+    /**
+     * The Issue of a Task: from the ones fetched in bulk or, if it is
+     * missing from them, fetched now.
+     * @param task Task.
+     * @param issues Issues fetched in bulk.
+     * @return Issue.
+     */
+    private static Issue issue(
+        final Task task,
+        final Map<String, Issue> issues
+    ) {
+        Issue issue = issues.get(task.issueId());
+        if(issue == null) {
+            issue = task.issue();
+        }
+        return issue;
+    }
+
     /**
      * Assigns Project's Task to a Contributor. Contributor might be null from
      * election.
@@ -408,7 +608,8 @@ public final class StoredProjectManager implements ProjectManager {
                             final Contributor contributor) {
         if (contributor == null) {
             LOG.debug("Couldn't find any assignee, posting comment...");
-            issue.comments().post(
+            this.reply(
+                issue,
                 String.format(
                     project.language().reply("noAssigneeFound.comment"),
                     project.owner().username(),
@@ -436,7 +637,7 @@ public final class StoredProjectManager implements ProjectManager {
                     assigned.estimation()
                 );
             }
-            issue.comments().post(reply);
+            this.reply(issue, reply);
             LOG.debug(
                 "Task #" + issue.issueId() + " assigned to @"
                     + contributor.username() + "."
@@ -451,77 +652,72 @@ public final class StoredProjectManager implements ProjectManager {
             "Checking the assigned tasks of project "
             + project.repoFullName() + " at " + project.provider()
         );
+        final List<Task> assigned = new ArrayList<>();
+        final List<Contributor> assignees = new ArrayList<>();
         for(final Task task : project.tasks()) {
             final Contributor assignee = task.assignee();
             if(assignee != null) {
-                final Issue issue = task.issue();
-                if(issue.isClosed()) {
-                    LOG.debug(
-                        "Task #" + issue.issueId()
-                        + " of Contributor " + assignee.username()
-                        + " is closed. Invoicing... "
+                assigned.add(task);
+                assignees.add(assignee);
+            }
+        }
+        final Map<String, Issue> closed = this.closed(project, assigned);
+        final LocalDateTime now = this.dateTimeSupplier.get();
+        final List<Task> due = new ArrayList<>();
+        final List<Contributor> dueAssignees = new ArrayList<>();
+        for(int idx = 0; idx < assigned.size(); ++idx) {
+            final Task task = assigned.get(idx);
+            final Issue issue = closed.get(task.issueId());
+            if(issue != null) {
+                this.invoice(project, task, assignees.get(idx), issue);
+            } else if(StoredProjectManager.missed(task, now)
+                || StoredProjectManager.remind(task, now)) {
+                due.add(task);
+                dueAssignees.add(assignees.get(idx));
+            }
+        }
+        final Map<String, Issue> issues = this.issues(project, due);
+        for(int idx = 0; idx < due.size(); ++idx) {
+            final Task task = due.get(idx);
+            final Contributor assignee = dueAssignees.get(idx);
+            final Issue issue = StoredProjectManager.issue(task, issues);
+            if(issue.isClosed()) {
+                this.invoice(project, task, assignee, issue);
+            } else if (StoredProjectManager.missed(task, now)) {
+                task.resignations()
+                    .register(task, Resignations.Reason.DEADLINE);
+                task.unassign();
+                if(issue.assignee() != null) {
+                    issue.unassign(issue.assignee());
+                }
+                this.reply(
+                    issue,
+                    String.format(
+                        project.language().reply(
+                            "taskDeadlineMissed.comment"
+                        ),
+                        assignee.username(),
+                        task.deadline()
+                    )
+                );
+            } else {
+                this.reply(
+                    issue,
+                    String.format(
+                        project.language().reply(
+                            "taskDeadlineReminder.comment"
+                        ),
+                        assignee.username(),
+                        task.deadline()
+                    )
+                );
+                final Task reminded = task.notified(Task.Notices.REMINDER);
+                if(reminded == null
+                    || !reminded.isNotified(Task.Notices.REMINDER)) {
+                    LOG.warn(
+                        "The deadline reminder of Task #" + task.issueId()
+                        + " was not remembered, it will be posted again."
                     );
-                    final InvoicedTask invoiced = task.contract()
-                        .invoices()
-                        .active()
-                        .register(task, this.commission(task.value()));
-                    if(invoiced != null) {
-                        issue.comments().post(
-                            String.format(
-                                project.language().reply(
-                                    "taskInvoiced.comment"
-                                ),
-                                assignee.username()
-                            )
-                        );
-                        this.storage.tasks().remove(task);
-                        if(issue.assignee() != null) {
-                            issue.unassign(issue.assignee());
-                        }
-                        LOG.debug(
-                            "Task #" + issue.issueId() + " successfully"
-                            + " invoiced and taken out of scope."
-                        );
-                    }
-                } else {
-                    final LocalDateTime now = this.dateTimeSupplier.get();
-                    if (now.until(task.deadline(), ChronoUnit.MINUTES) < 0) {
-                        task.resignations()
-                            .register(task, Resignations.Reason.DEADLINE);
-                        task.unassign();
-                        if(issue.assignee() != null) {
-                            issue.unassign(issue.assignee());
-                        }
-                        issue.comments().post(
-                            String.format(
-                                project.language().reply(
-                                    "taskDeadlineMissed.comment"
-                                ),
-                                assignee.username(),
-                                task.deadline()
-                            )
-                        );
-                    } else {
-                        final int time = Period.between(
-                            task.assignmentDate().toLocalDate(),
-                            task.deadline().toLocalDate()
-                        ).getDays();
-                        final int left = Period.between(
-                            now.toLocalDate(),
-                            task.deadline().toLocalDate()
-                        ).getDays();
-                        if (left <= time / 2) {
-                            issue.comments().post(
-                                String.format(
-                                    project.language().reply(
-                                        "taskDeadlineReminder.comment"
-                                    ),
-                                    assignee.username(),
-                                    task.deadline()
-                                )
-                            );
-                        }
-                    }
                 }
             }
         }
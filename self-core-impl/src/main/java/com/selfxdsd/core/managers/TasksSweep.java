@@ -0,0 +1,423 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.managers;
+
+import com.selfxdsd.api.Comment;
+import com.selfxdsd.api.Commit;
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Metrics;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.ProjectManager;
+import com.selfxdsd.api.Projects;
+import com.selfxdsd.api.storage.Paged;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sweep of the tasks of all the Projects managed by a ProjectManager.
+ * Each Project resolves the {@link Event.Type#UNASSIGNED_TASKS} and then
+ * the {@link Event.Type#ASSIGNED_TASKS} event. The Projects are swept in
+ * parallel, on the given workers, but at most {@code perProvider}
+ * Projects of the same Provider and at most {@code perToken} Projects of
+ * the same ProjectManager (i.e. of the same access token) are swept at
+ * the same time, so one sweep cannot use the whole rate limit budget.
+ * The limits are shared by all the sweeps run with the same instance.
+ * <br><br>
+ *
+ * The Projects wait in one queue and a Project starts as soon as both
+ * its limits allow it, so the Projects of a busy Provider or
+ * ProjectManager do not hold back the others. The duration of each
+ * Project's sweep is returned and also recorded in the Metrics, under
+ * the series "SWEEP {provider}". A Project whose sweep fails does not
+ * stop the sweep of the others.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class TasksSweep {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(
+        TasksSweep.class
+    );
+
+    /**
+     * How many Projects are read from Storage at once.
+     */
+    private static final int PAGE = 100;
+
+    /**
+     * Workers which sweep the Projects.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * How many Projects of the same Provider can be swept at once.
+     */
+    private final int perProvider;
+
+    /**
+     * How many Projects of the same ProjectManager can be swept at once.
+     */
+    private final int perToken;
+
+    /**
+     * Permits, per Provider and per ProjectManager.
+     */
+    private final Map<String, Semaphore> permits;
+
+    /**
+     * Projects waiting for their permits, in the order they came.
+     */
+    private final List<Swept> waiting;
+
+    /**
+     * Where the durations are recorded.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Ctor.
+     * @param workers Workers which sweep the Projects.
+     * @param perProvider How many Projects of the same Provider can be
+     *  swept at once.
+     * @param perToken How many Projects of the same ProjectManager can be
+     *  swept at once.
+     * @param metrics Where the durations are recorded.
+     */
+    public TasksSweep(
+        final ExecutorService workers,
+        final int perProvider,
+        final int perToken,
+        final Metrics metrics
+    ) {
+        this.workers = workers;
+        this.perProvider = perProvider;
+        this.perToken = perToken;
+        this.permits = new ConcurrentHashMap<>();
+        this.waiting = new LinkedList<>();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sweep all the Projects of the given ProjectManager and wait until
+     * they are done.
+     * @param manager ProjectManager.
+     * @return Duration of each Project's sweep, by Project
+     *  (e.g. "github/mihai/test").
+     * @throws IllegalStateException If interrupted while waiting.
+     */
+    public Map<String, Duration> sweep(final ProjectManager manager) {
+        final Map<String, Duration> durations = new ConcurrentHashMap<>();
+        final List<Swept> swept = new ArrayList<>();
+        final Projects projects = manager.projects();
+        final int pages = projects.page(new Paged.Page(1, PAGE)).totalPages();
+        for(int number = 1; number <= pages; number = number + 1) {
+            for(final Project project
+                : projects.page(new Paged.Page(number, PAGE))) {
+                swept.add(
+                    new Swept(
+                        project,
+                        this.permits(
+                            "provider " + project.provider(), this.perProvider
+                        ),
+                        this.permits("pm " + manager.id(), this.perToken),
+                        durations
+                    )
+                );
+            }
+        }
+        synchronized (this.waiting) {
+            this.waiting.addAll(swept);
+        }
+        this.dispatch();
+        try {
+            for(final Swept each : swept) {
+                each.done.get();
+            }
+        } catch (final InterruptedException ex) {
+            synchronized (this.waiting) {
+                this.waiting.removeAll(swept);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for the sweep.", ex
+            );
+        } catch (final ExecutionException ex) {
+            throw new IllegalStateException(
+                "Unexpected error in the sweep.", ex.getCause()
+            );
+        }
+        LOG.debug(
+            "Swept " + durations.size() + " projects of PM " + manager.id()
+        );
+        return durations;
+    }
+
+    /**
+     * Start the waiting Projects whose limits allow it. A Project which
+     * has to wait does not hold back the ones after it.
+     */
+    private void dispatch() {
+        boolean rejected = true;
+        while(rejected) {
+            rejected = false;
+            final List<Swept> ready = new ArrayList<>();
+            synchronized (this.waiting) {
+                final Iterator<Swept> waits = this.waiting.iterator();
+                while(waits.hasNext()) {
+                    final Swept next = waits.next();
+                    if(next.provider.tryAcquire()) {
+                        if(next.token.tryAcquire()) {
+                            waits.remove();
+                            ready.add(next);
+                        } else {
+                            next.provider.release();
+                        }
+                    }
+                }
+            }
+            for(final Swept each : ready) {
+                rejected = !this.start(each) || rejected;
+            }
+        }
+    }
+
+    /**
+     * Start the sweep of a Project, which holds its permits. When it is
+     * done, the permits are released and the waiting Projects are
+     * dispatched.
+     * @param project Project and its permits.
+     * @return False if the workers rejected it.
+     */
+    private boolean start(final Swept project) {
+        boolean started = true;
+        try {
+            this.workers.execute(
+                () -> {
+                    boolean done = false;
+                    try {
+                        project.durations.put(
+                            project.project.provider() + "/"
+                            + project.project.repoFullName(),
+                            this.swept(project.project)
+                        );
+                        done = true;
+                    } finally {
+                        project.token.release();
+                        project.provider.release();
+                        if(done) {
+                            project.done.complete(null);
+                        } else {
+                            project.done.completeExceptionally(
+                                new IllegalStateException(
+                                    "The sweep of project "
+                                    + project.project.repoFullName()
+                                    + " did not finish."
+                                )
+                            );
+                        }
+                        this.dispatch();
+                    }
+                }
+            );
+        } catch (final RejectedExecutionException ex) {
+            project.token.release();
+            project.provider.release();
+            project.done.completeExceptionally(ex);
+            started = false;
+        }
+        return started;
+    }
+
+    /**
+     * Sweep the tasks of a Project.
+     * @param project Project.
+     * @return How long it took.
+     */
+    private Duration swept(final Project project) {
+        final long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            project.resolve(
+                new SweepEvent(Event.Type.UNASSIGNED_TASKS, project)
+            );
+            project.resolve(
+                new SweepEvent(Event.Type.ASSIGNED_TASKS, project)
+            );
+        } catch (final RuntimeException ex) {
+            failed = true;
+            LOG.error(
+                "Could not sweep the tasks of project "
+                + project.repoFullName() + " at " + project.provider(),
+                ex
+            );
+        }
+        final Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        this.metrics.record(
+            "SWEEP " + project.provider(), duration, 0, failed
+        );
+        LOG.debug(
+            "Swept the tasks of project " + project.repoFullName()
+            + " at " + project.provider() + " in " + duration.toMillis()
+            + "ms."
+        );
+        return duration;
+    }
+
+    /**
+     * Permits of a Provider or of a ProjectManager.
+     * @param key Key of the Provider or ProjectManager.
+     * @param limit How many permits there are.
+     * @return Semaphore.
+     */
+    private Semaphore permits(final String key, final int limit) {
+        return this.permits.computeIfAbsent(
+            key, name -> new Semaphore(limit, true)
+        );
+    }
+
+    /**
+     * Event triggering the sweep of a Project.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class SweepEvent implements Event {
+
+        /**
+         * Type of the event.
+         */
+        private final String type;
+
+        /**
+         * Swept Project.
+         */
+        private final Project project;
+
+        /**
+         * Ctor.
+         * @param type Type of the event.
+         * @param project Swept Project.
+         */
+        SweepEvent(final String type, final Project project) {
+            this.type = type;
+            this.project = project;
+        }
+
+        @Override
+        public String type() {
+            return this.type;
+        }
+
+        @Override
+        public Issue issue() {
+            return null;
+        }
+
+        @Override
+        public Comment comment() {
+            return null;
+        }
+
+        @Override
+        public Commit commit() {
+            return null;
+        }
+
+        @Override
+        public Project project() {
+            return this.project;
+        }
+    }
+
+    /**
+     * Project waiting to be swept, with its permits.
+     * @author Mihai Andronache (amihaiemil@gmail.com)
+     * @version $Id$
+     * @since 0.0.42
+     */
+    private static final class Swept {
+
+        /**
+         * Project.
+         */
+        private final Project project;
+
+        /**
+         * Permits of its Provider.
+         */
+        private final Semaphore provider;
+
+        /**
+         * Permits of its ProjectManager.
+         */
+        private final Semaphore token;
+
+        /**
+         * Where its duration is put.
+         */
+        private final Map<String, Duration> durations;
+
+        /**
+         * Completed when it is swept.
+         */
+        private final CompletableFuture<Void> done;
+
+        /**
+         * Ctor.
+         * @param project Project.
+         * @param provider Permits of its Provider.
+         * @param token Permits of its ProjectManager.
+         * @param durations Where its duration is put.
+         */
+        Swept(
+            final Project project,
+            final Semaphore provider,
+            final Semaphore token,
+            final Map<String, Duration> durations
+        ) {
+            this.project = project;
+            this.provider = provider;
+            this.token = token;
+            this.durations = durations;
+            this.done = new CompletableFuture<>();
+        }
+    }
+}
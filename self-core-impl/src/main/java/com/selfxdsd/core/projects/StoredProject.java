@@ -26,6 +26,7 @@ import com.selfxdsd.api.*;
 import com.selfxdsd.api.exceptions.WalletAlreadyExistsException;
 import com.selfxdsd.api.storage.Storage;
 import com.selfxdsd.core.Env;
+import com.selfxdsd.core.RateLimits;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Customer;
@@ -187,10 +188,14 @@ public final class StoredProject implements Project {
                 this.projectManager.reopenedIssue(event);
                 break;
             case Event.Type.UNASSIGNED_TASKS:
-                this.projectManager.unassignedTasks(event);
+                RateLimits.background(
+                    () -> this.projectManager.unassignedTasks(event)
+                );
                 break;
             case Event.Type.ASSIGNED_TASKS:
-                this.projectManager.assignedTasks(event);
+                RateLimits.background(
+                    () -> this.projectManager.assignedTasks(event)
+                );
                 break;
             case Event.Type.ISSUE_COMMENT:
                 this.projectManager.comment(event);
@@ -117,6 +117,11 @@ public final class ProjectTasks implements Tasks {
         return this.storage.tasks().assign(task, contract, days);
     }
 
+    @Override
+    public Task notified(final Task task, final String notice) {
+        return this.storage.tasks().notified(task, notice);
+    }
+
     @Override
     public Task unassign(final Task task) {
         final boolean isOfProject = task.project().repoFullName()
@@ -30,6 +30,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A Task stored and managed by Self.
@@ -64,6 +65,11 @@ public final class StoredTask implements Task {
      */
     private final int estimation;
 
+    /**
+     * Notices posted on the Issue since the Task was assigned.
+     */
+    private final Set<String> notices;
+
     /**
      * Self Storage.
      */
@@ -110,6 +116,38 @@ public final class StoredTask implements Task {
         final LocalDateTime assignmentDate,
         final LocalDateTime deadline,
         final int estimation
+    ) {
+        this(
+            contract,
+            issueId,
+            storage,
+            assignmentDate,
+            deadline,
+            estimation,
+            Set.of()
+        );
+    }
+
+    /**
+     * Constructor for an assigned task, with the notices which
+     * were already posted.
+     * @param contract Contract to which this task is assigned.
+     * @param issueId Id of the Issue that this task represents.
+     * @param storage Storage.
+     * @param assignmentDate Timestamp when this task has been assigned.
+     * @param deadline Deadline by when this task should be finished.
+     * @param estimation Estimation in minutes.
+     * @param notices Notices posted since the task was assigned.
+     * @checkstyle ParameterNumber (10 lines)
+     */
+    public StoredTask(
+        final Contract contract,
+        final String issueId,
+        final Storage storage,
+        final LocalDateTime assignmentDate,
+        final LocalDateTime deadline,
+        final int estimation,
+        final Set<String> notices
     ) {
         this.contract = contract;
         this.issueId = issueId;
@@ -117,6 +155,7 @@ public final class StoredTask implements Task {
         this.assignmentDate = assignmentDate;
         this.deadline = deadline;
         this.estimation = estimation;
+        this.notices = notices;
     }
 
     @Override
@@ -228,11 +267,30 @@ public final class StoredTask implements Task {
         return this.estimation;
     }
 
+    @Override
+    public boolean isNotified(final String notice) {
+        return this.notices.contains(notice);
+    }
+
+    @Override
+    public Task notified(final String notice) {
+        final Task task;
+        if(this.notices.contains(notice)) {
+            task = this;
+        } else {
+            task = this.storage.tasks().notified(this, notice);
+        }
+        return task;
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(this.issueId,
-            this.contract.project().repoFullName(),
-            this.contract.project().provider());
+        final Project project = this.contract.project();
+        return Objects.hash(
+            this.issueId,
+            project.repoFullName(),
+            project.provider()
+        );
     }
 
     @Override
@@ -244,10 +302,11 @@ public final class StoredTask implements Task {
             return false;
         }
         final Task other = (Task) obj;
+        final Project project = this.contract.project();
         final Project otherProject = other.project();
-        return this.issueId.equals(other.issue().issueId())
-            && this.project().repoFullName().equals(otherProject.repoFullName())
-            && this.project().provider().equals(otherProject.provider());
+        return this.issueId.equals(other.issueId())
+            && project.repoFullName().equals(otherProject.repoFullName())
+            && project.provider().equals(otherProject.provider());
     }
 
     /**
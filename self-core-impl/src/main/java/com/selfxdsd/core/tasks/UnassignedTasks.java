@@ -69,6 +69,11 @@ public final class UnassignedTasks implements Tasks {
         return this.storage.tasks().assign(task, contract, days);
     }
 
+    @Override
+    public Task notified(final Task task, final String notice) {
+        return this.storage.tasks().notified(task, notice);
+    }
+
     @Override
     public Task unassign(final Task task) {
         throw new TasksException.OfUnassigned("Can't unassign a task from "
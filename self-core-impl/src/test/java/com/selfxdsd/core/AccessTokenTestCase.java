@@ -35,4 +35,27 @@ public final class AccessTokenTestCase {
         MatcherAssert.assertThat(token.value(),
             Matchers.equalTo("gitlab123"));
     }
+
+    /**
+     * The digest of a token is a SHA-256 hash which does not contain
+     * the token, and which differs from one token to another.
+     */
+    @Test
+    public void digestsTheToken(){
+        final String digest = new AccessToken.Github("github123").digest();
+        MatcherAssert.assertThat(
+            digest, Matchers.equalTo(
+                new AccessToken.Github("github123").digest()
+            )
+        );
+        MatcherAssert.assertThat(digest.length(), Matchers.equalTo(64));
+        MatcherAssert.assertThat(
+            digest, Matchers.not(Matchers.containsString("github123"))
+        );
+        MatcherAssert.assertThat(
+            digest, Matchers.not(
+                Matchers.equalTo(new AccessToken.Gitlab("github123").digest())
+            )
+        );
+    }
 }
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Issues;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link CachedIssues}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CachedIssuesTestCase {
+
+    /**
+     * The second getById of the same Issue is served from the snapshots.
+     */
+    @Test
+    public void servesIssueFromSnapshot() {
+        final Issue issue = CachedIssuesTestCase.issue("1");
+        final Issues origin = Mockito.mock(Issues.class);
+        Mockito.when(origin.getById("1")).thenReturn(issue);
+        Mockito.when(origin.received(issue.json())).thenReturn(issue);
+        final Issues cached = new CachedIssues(
+            origin, CachedIssuesTestCase.snapshots(), "github", "o/r"
+        );
+        MatcherAssert.assertThat(
+            cached.getById("1"), Matchers.sameInstance(issue)
+        );
+        MatcherAssert.assertThat(
+            cached.getById("1"), Matchers.sameInstance(issue)
+        );
+        MatcherAssert.assertThat(
+            cached.getByIdAsync("1").join(), Matchers.sameInstance(issue)
+        );
+        Mockito.verify(origin, Mockito.times(1)).getById("1");
+    }
+
+    /**
+     * Missing Issues are not cached.
+     */
+    @Test
+    public void doesNotCacheMissingIssue() {
+        final Issues origin = Mockito.mock(Issues.class);
+        final IssueSnapshots snapshots = CachedIssuesTestCase.snapshots();
+        final Issues cached = new CachedIssues(
+            origin, snapshots, "github", "o/r"
+        );
+        MatcherAssert.assertThat(cached.getById("2"), Matchers.nullValue());
+        MatcherAssert.assertThat(snapshots.size(), Matchers.equalTo(0));
+    }
+
+    /**
+     * A fetched Issue is cached when fetched asynchronously too.
+     */
+    @Test
+    public void cachesIssueFetchedAsync() {
+        final Issue issue = CachedIssuesTestCase.issue("1");
+        final Issues origin = Mockito.mock(Issues.class);
+        Mockito.when(origin.getByIdAsync("1")).thenReturn(
+            CompletableFuture.completedFuture(issue)
+        );
+        Mockito.when(origin.received(issue.json())).thenReturn(issue);
+        final Issues cached = new CachedIssues(
+            origin, CachedIssuesTestCase.snapshots(), "github", "o/r"
+        );
+        cached.getByIdAsync("1").join();
+        MatcherAssert.assertThat(
+            cached.getById("1"), Matchers.sameInstance(issue)
+        );
+        Mockito.verify(origin, Mockito.never()).getById("1");
+    }
+
+    /**
+     * A received Issue replaces the snapshot.
+     */
+    @Test
+    public void receivedIssueReplacesSnapshot() {
+        final Issue old = CachedIssuesTestCase.issue("1");
+        final Issue pushed = CachedIssuesTestCase.issue("1");
+        final JsonObject json = Json.createObjectBuilder()
+            .add("number", 1)
+            .build();
+        final Issues origin = Mockito.mock(Issues.class);
+        Mockito.when(origin.getById("1")).thenReturn(old);
+        Mockito.when(origin.received(json)).thenReturn(pushed);
+        final Issues cached = new CachedIssues(
+            origin, CachedIssuesTestCase.snapshots(), "github", "o/r"
+        );
+        cached.getById("1");
+        MatcherAssert.assertThat(
+            cached.received(json), Matchers.sameInstance(pushed)
+        );
+        MatcherAssert.assertThat(
+            cached.getById("1"), Matchers.sameInstance(pushed)
+        );
+    }
+
+    /**
+     * Snapshots for tests.
+     * @return IssueSnapshots.
+     */
+    private static IssueSnapshots snapshots() {
+        return new IssueSnapshots(10, Duration.ofMinutes(5), Clock.systemUTC());
+    }
+
+    /**
+     * Mock Issue.
+     * @param issueId Id.
+     * @return Issue.
+     */
+    private static Issue issue(final String issueId) {
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.issueId()).thenReturn(issueId);
+        Mockito.when(issue.json()).thenReturn(
+            Json.createObjectBuilder()
+                .add("number", Integer.parseInt(issueId))
+                .build()
+        );
+        return issue;
+    }
+
+    /**
+     * The bulk fetch goes to the Provider even for the Issues which have
+     * snapshots, and it refreshes the snapshots.
+     */
+    @Test
+    public void getsIssuesByIdsFromTheProvider() {
+        final Issue first = CachedIssuesTestCase.issue("1");
+        final Issue second = CachedIssuesTestCase.issue("2");
+        final Issues origin = Mockito.mock(Issues.class);
+        Mockito.when(origin.getById("1")).thenReturn(first);
+        Mockito.when(origin.received(first.json())).thenReturn(first);
+        Mockito.when(origin.getByIds(List.of("1", "2", "3"))).thenReturn(
+            Map.of("1", first, "2", second)
+        );
+        final IssueSnapshots snapshots = CachedIssuesTestCase.snapshots();
+        final Issues cached = new CachedIssues(
+            origin, snapshots, "github", "o/r"
+        );
+        cached.getById("1");
+        final Map<String, Issue> found = cached.getByIds(
+            List.of("1", "2", "3")
+        );
+        MatcherAssert.assertThat(found.get("1"), Matchers.sameInstance(first));
+        MatcherAssert.assertThat(
+            found.get("2"), Matchers.sameInstance(second)
+        );
+        MatcherAssert.assertThat(found.size(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(snapshots.size(), Matchers.equalTo(2));
+        Mockito.verify(origin, Mockito.times(1))
+            .getByIds(List.of("1", "2", "3"));
+    }
+
+    /**
+     * A snapshot is turned into an Issue by the Issues which look it up,
+     * so the Issue works with their access token, not with the token of
+     * whoever fetched it first.
+     */
+    @Test
+    public void buildsSnapshotWithCallersIssues() {
+        final Issue owners = CachedIssuesTestCase.issue("1");
+        final Issue pms = CachedIssuesTestCase.issue("1");
+        final Issues owner = Mockito.mock(Issues.class);
+        Mockito.when(owner.getById("1")).thenReturn(owners);
+        final Issues manager = Mockito.mock(Issues.class);
+        Mockito.when(manager.received(owners.json())).thenReturn(pms);
+        final IssueSnapshots snapshots = CachedIssuesTestCase.snapshots();
+        new CachedIssues(owner, snapshots, "github", "o/r").getById("1");
+        final Issues cached = new CachedIssues(
+            manager, snapshots, "github", "o/r"
+        );
+        MatcherAssert.assertThat(
+            cached.getById("1"), Matchers.sameInstance(pms)
+        );
+        MatcherAssert.assertThat(
+            cached.getByIds(List.of("1")).get("1"), Matchers.sameInstance(pms)
+        );
+        Mockito.verify(manager, Mockito.never()).getById("1");
+    }
+
+    /**
+     * CachedIssues gets the closed Issues from the Provider and refreshes
+     * their snapshots.
+     */
+    @Test
+    public void getsClosedIssuesFromTheProvider() {
+        final Issue closed = CachedIssuesTestCase.issue("2");
+        final Issues origin = Mockito.mock(Issues.class);
+        final LocalDateTime since = LocalDateTime.now();
+        Mockito.when(origin.closedSince(List.of("1", "2"), since))
+            .thenReturn(Map.of("2", closed));
+        final IssueSnapshots snapshots = CachedIssuesTestCase.snapshots();
+        final Map<String, Issue> found = new CachedIssues(
+            origin, snapshots, "github", "o/r"
+        ).closedSince(List.of("1", "2"), since);
+        MatcherAssert.assertThat(
+            found.get("2"), Matchers.sameInstance(closed)
+        );
+        MatcherAssert.assertThat(found.size(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(snapshots.size(), Matchers.equalTo(1));
+    }
+}
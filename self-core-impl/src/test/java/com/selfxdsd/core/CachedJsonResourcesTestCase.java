@@ -0,0 +1,369 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link CachedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CachedJsonResourcesTestCase {
+
+    /**
+     * A cached GET is revalidated with If-None-Match and the cached
+     * Resource is returned on 304 Not Modified.
+     */
+    @Test
+    public void servesCachedResourceOnNotModified() {
+        final JsonObject issue = Json.createObjectBuilder()
+            .add("number", 1)
+            .build();
+        final MockJsonResources origin = new MockJsonResources(
+            req -> {
+                final MockResource resource;
+                if(req.getHeaders().containsKey("If-None-Match")) {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_NOT_MODIFIED,
+                        Json.createObjectBuilder().build()
+                    );
+                } else {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        issue,
+                        Map.of("ETag", List.of("\"abc\""))
+                    );
+                }
+                return resource;
+            }
+        );
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(10, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r/issues/1");
+        cached.get(uri);
+        final Resource second = cached.get(uri);
+        MatcherAssert.assertThat(
+            second.statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            second.asJsonObject(),
+            Matchers.equalTo(issue)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().get("If-None-Match"),
+            Matchers.equalTo("\"abc\"")
+        );
+        MatcherAssert.assertThat(responses.hits(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(responses.misses(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(responses.entries(), Matchers.equalTo(1));
+    }
+
+    /**
+     * A cached GET is revalidated with If-Modified-Since and the new
+     * Resource is cached and returned if it was modified.
+     */
+    @Test
+    public void replacesModifiedResource() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder()
+                    .add("since", String.valueOf(
+                        req.getHeaders().get("If-Modified-Since")
+                    )).build(),
+                Map.of("Last-Modified", List.of("Wed, 21 Oct 2020 07:28:00"))
+            )
+        );
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(10, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r");
+        MatcherAssert.assertThat(
+            cached.get(uri).asJsonObject().getString("since"),
+            Matchers.equalTo("null")
+        );
+        MatcherAssert.assertThat(
+            cached.get(uri).asJsonObject().getString("since"),
+            Matchers.equalTo("Wed, 21 Oct 2020 07:28:00")
+        );
+        MatcherAssert.assertThat(responses.hits(), Matchers.equalTo(0L));
+        MatcherAssert.assertThat(responses.misses(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(responses.entries(), Matchers.equalTo(1));
+    }
+
+    /**
+     * Resources without ETag or Last-Modified are not cached.
+     */
+    @Test
+    public void doesNotCacheWithoutValidators() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder().build()
+            )
+        );
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(10, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r/labels");
+        cached.get(uri);
+        cached.get(uri);
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().isEmpty(),
+            Matchers.is(Boolean.TRUE)
+        );
+        MatcherAssert.assertThat(responses.entries(), Matchers.equalTo(0));
+        MatcherAssert.assertThat(responses.misses(), Matchers.equalTo(2L));
+    }
+
+    /**
+     * The least recently used entries are evicted when the cache has
+     * too many entries or when the cached bodies are too big.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add("id", 1).build(),
+                Map.of("ETag", List.of("\"etag\""))
+            )
+        );
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(2, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        cached.get(URI.create("https://api.github.com/one"));
+        cached.get(URI.create("https://api.github.com/two"));
+        cached.get(URI.create("https://api.github.com/three"));
+        MatcherAssert.assertThat(responses.entries(), Matchers.equalTo(2));
+        cached.get(URI.create("https://api.github.com/one"));
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().isEmpty(),
+            Matchers.is(Boolean.TRUE)
+        );
+        final CachedJsonResources.Responses small =
+            new CachedJsonResources.Responses(10, 12);
+        final JsonResources smallCache = new CachedJsonResources(
+            origin, small
+        );
+        smallCache.get(URI.create("https://api.github.com/one"));
+        smallCache.get(URI.create("https://api.github.com/two"));
+        MatcherAssert.assertThat(small.entries(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(small.size(), Matchers.equalTo(8L));
+    }
+
+    /**
+     * Responses are cached per access token: a Resource cached for one
+     * token is never served for another one.
+     */
+    @Test
+    public void cachesPerAccessToken() {
+        final MockJsonResources first = new MockJsonResources(
+            new AccessToken.Github("first"),
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build(),
+                Map.of("ETag", List.of("\"first\""))
+            )
+        );
+        final MockJsonResources second = new MockJsonResources(
+            new AccessToken.Github("second"),
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build(),
+                Map.of("ETag", List.of("\"second\""))
+            )
+        );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.authenticated(Mockito.any(AccessToken.class))
+        ).thenReturn(first, second);
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(10, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r");
+        cached.authenticated(new AccessToken.Github("first")).get(uri);
+        cached.authenticated(new AccessToken.Github("second")).get(uri);
+        MatcherAssert.assertThat(
+            second.requests().first().getHeaders().isEmpty(),
+            Matchers.is(Boolean.TRUE)
+        );
+        MatcherAssert.assertThat(responses.entries(), Matchers.equalTo(2));
+    }
+
+    /**
+     * POST, PATCH, PUT and DELETE are delegated as they are.
+     */
+    @Test
+    public void delegatesOtherMethods() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_CREATED,
+                Json.createObjectBuilder().build()
+            )
+        );
+        final JsonResources cached = new CachedJsonResources(
+            origin, new CachedJsonResources.Responses(10, 1000)
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r");
+        final JsonObject body = Json.createObjectBuilder().build();
+        cached.post(uri, body);
+        cached.patch(uri, body);
+        cached.put(uri, body);
+        cached.delete(uri, body);
+        MatcherAssert.assertThat(
+            origin.requests(),
+            Matchers.iterableWithSize(4)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().first().getMethod(),
+            Matchers.equalTo("POST")
+        );
+        MatcherAssert.assertThat(
+            origin.requests().last().getMethod(),
+            Matchers.equalTo("DELETE")
+        );
+    }
+
+    /**
+     * Asynchronous GETs are revalidated too and the cached Resource
+     * is returned on 304 Not Modified.
+     */
+    @Test
+    public void servesCachedResourceAsync() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> {
+                final MockResource resource;
+                if(req.getHeaders().containsKey("If-None-Match")) {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_NOT_MODIFIED,
+                        Json.createObjectBuilder().build()
+                    );
+                } else {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder().add("number", 1).build(),
+                        Map.of("ETag", List.of("\"abc\""))
+                    );
+                }
+                return resource;
+            }
+        );
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(10, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r/issues/1");
+        cached.getAsync(uri).join();
+        final Resource second = cached.getAsync(uri).join();
+        MatcherAssert.assertThat(
+            second.statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(responses.hits(), Matchers.equalTo(1L));
+    }
+
+    /**
+     * The same URI requested with different headers (e.g. Accept) is
+     * cached separately.
+     */
+    @Test
+    public void cachesPerRequestHeaders() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build(),
+                Map.of("ETag", List.of("\"abc\""))
+            )
+        );
+        final CachedJsonResources.Responses responses =
+            new CachedJsonResources.Responses(10, 1000);
+        final JsonResources cached = new CachedJsonResources(
+            origin, responses
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r");
+        cached.get(uri, Map.of("Accept", "application/vnd.github.v3+json"));
+        cached.get(uri, Map.of("Accept", "application/vnd.github.raw"));
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().get("If-None-Match"),
+            Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(responses.entries(), Matchers.equalTo(2));
+        cached.get(uri, Map.of("accept", "application/vnd.github.raw"));
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().get("If-None-Match"),
+            Matchers.equalTo("\"abc\"")
+        );
+    }
+
+    /**
+     * Two CachedJsonResources built separately don't share their cache.
+     */
+    @Test
+    public void separateInstancesDoNotShareCache() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add("number", 1).build(),
+                Map.of("ETag", List.of("\"abc\""))
+            )
+        );
+        final URI uri = URI.create("https://api.github.com/repos/o/r/issues/1");
+        new CachedJsonResources(origin).get(uri);
+        new CachedJsonResources(origin).get(uri);
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().last().getHeaders().get("If-None-Match"),
+            Matchers.nullValue()
+        );
+    }
+}
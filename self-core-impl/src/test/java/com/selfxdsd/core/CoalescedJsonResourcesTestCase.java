@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link CoalescedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CoalescedJsonResourcesTestCase {
+
+    /**
+     * URI of the requests.
+     */
+    private static final URI ISSUE = URI.create(
+        "https://api.github.com/repos/o/r/issues/1"
+    );
+
+    /**
+     * N threads asking for the same URI at the same time make only
+     * one request to the origin and all get the same Resource.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void concurrentGetsMakeOneRequest() throws Exception {
+        final int callers = 8;
+        final AtomicInteger upstream = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CoalescedJsonResources.Flights flights =
+            new CoalescedJsonResources.Flights();
+        final JsonResources coalesced = new CoalescedJsonResources(
+            new MockJsonResources(
+                req -> {
+                    upstream.incrementAndGet();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder().add("number", 1).build()
+                    );
+                }
+            ),
+            flights
+        );
+        final ExecutorService threads = Executors.newFixedThreadPool(callers);
+        try {
+            final List<Future<Resource>> results = new ArrayList<>();
+            for(int idx = 0; idx < callers; ++idx) {
+                results.add(threads.submit(() -> coalesced.get(ISSUE)));
+            }
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while(flights.coalesced() < callers - 1
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            final Resource first = results.get(0).get(10, TimeUnit.SECONDS);
+            for(final Future<Resource> result : results) {
+                MatcherAssert.assertThat(
+                    result.get(10, TimeUnit.SECONDS),
+                    Matchers.sameInstance(first)
+                );
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        MatcherAssert.assertThat(upstream.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            flights.coalesced(), Matchers.equalTo((long) callers - 1)
+        );
+        MatcherAssert.assertThat(flights.inFlight(), Matchers.equalTo(0));
+    }
+
+    /**
+     * Once the request landed, the next identical GET goes to the
+     * origin again.
+     */
+    @Test
+    public void sequentialGetsAreNotCoalesced() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build()
+            )
+        );
+        final JsonResources coalesced = new CoalescedJsonResources(
+            origin, new CoalescedJsonResources.Flights()
+        );
+        coalesced.get(ISSUE);
+        coalesced.get(ISSUE);
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Requests made with different access tokens are not coalesced.
+     */
+    @Test
+    public void differentTokensAreNotCoalesced() {
+        final CoalescedJsonResources.Flights flights =
+            new CoalescedJsonResources.Flights();
+        final CompletableFuture<Resource> pending = new CompletableFuture<>();
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.authenticated(Mockito.any(AccessToken.class)))
+            .thenReturn(origin);
+        Mockito.when(
+            origin.getAsync(
+                Mockito.any(URI.class), Mockito.anyMap()
+            )
+        ).thenReturn(pending);
+        final JsonResources coalesced = new CoalescedJsonResources(
+            origin, flights
+        );
+        final CompletableFuture<Resource> first = coalesced
+            .authenticated(new AccessToken.Github("token1"))
+            .getAsync(ISSUE);
+        final CompletableFuture<Resource> second = coalesced
+            .authenticated(new AccessToken.Github("token2"))
+            .getAsync(ISSUE);
+        final CompletableFuture<Resource> third = coalesced
+            .authenticated(new AccessToken.Github("token1"))
+            .getAsync(ISSUE);
+        MatcherAssert.assertThat(flights.inFlight(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(flights.coalesced(), Matchers.equalTo(1L));
+        final Resource resource = Mockito.mock(Resource.class);
+        pending.complete(resource);
+        MatcherAssert.assertThat(
+            first.join(), Matchers.sameInstance(resource)
+        );
+        MatcherAssert.assertThat(
+            third.join(), Matchers.sameInstance(resource)
+        );
+        MatcherAssert.assertThat(second.isDone(), Matchers.is(true));
+        MatcherAssert.assertThat(flights.inFlight(), Matchers.equalTo(0));
+        Mockito.verify(origin, Mockito.times(2)).getAsync(
+            Mockito.any(URI.class),
+            Mockito.anyMap()
+        );
+    }
+
+    /**
+     * The failure of a request in flight is seen by all its passengers.
+     */
+    @Test
+    public void failureIsShared() {
+        final CoalescedJsonResources.Flights flights =
+            new CoalescedJsonResources.Flights();
+        final CompletableFuture<Resource> pending = new CompletableFuture<>();
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.getAsync(
+                Mockito.any(URI.class), Mockito.anyMap()
+            )
+        ).thenReturn(pending);
+        final JsonResources coalesced = new CoalescedJsonResources(
+            origin, flights
+        );
+        final CompletableFuture<Resource> first = coalesced.getAsync(ISSUE);
+        final CompletableFuture<Resource> second = coalesced.getAsync(ISSUE);
+        pending.completeExceptionally(new IllegalStateException("Down"));
+        MatcherAssert.assertThat(
+            first.isCompletedExceptionally(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            second.isCompletedExceptionally(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(flights.inFlight(), Matchers.equalTo(0));
+    }
+
+    /**
+     * If the origin throws instead of returning a future, the flight
+     * lands and fails, so the next identical GET is not left hanging.
+     */
+    @Test
+    public void originThrowingDoesNotStrandFlight() {
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.getAsync(Mockito.eq(ISSUE), Mockito.anyMap())
+        ).thenThrow(new IllegalStateException("Could not send."));
+        final CoalescedJsonResources.Flights flights =
+            new CoalescedJsonResources.Flights();
+        final JsonResources coalesced = new CoalescedJsonResources(
+            origin, flights
+        );
+        MatcherAssert.assertThat(
+            coalesced.getAsync(ISSUE).isCompletedExceptionally(),
+            Matchers.is(Boolean.TRUE)
+        );
+        MatcherAssert.assertThat(flights.inFlight(), Matchers.equalTo(0));
+        MatcherAssert.assertThat(
+            coalesced.getAsync(ISSUE).isCompletedExceptionally(),
+            Matchers.is(Boolean.TRUE)
+        );
+        Mockito.verify(origin, Mockito.times(2)).getAsync(
+            Mockito.eq(ISSUE), Mockito.anyMap()
+        );
+    }
+
+    /**
+     * Two CoalescedJsonResources built separately don't share their
+     * requests in flight.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void separateInstancesAreNotCoalesced() throws Exception {
+        final AtomicInteger upstream = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final MockJsonResources origin = new MockJsonResources(
+            req -> {
+                upstream.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().build()
+                );
+            }
+        );
+        final JsonResources first = new CoalescedJsonResources(origin);
+        final JsonResources second = new CoalescedJsonResources(origin);
+        final ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Resource> one = threads.submit(() -> first.get(ISSUE));
+            final Future<Resource> two = threads.submit(
+                () -> second.get(ISSUE)
+            );
+            final long deadline = System.currentTimeMillis() + 10_000;
+            while(upstream.get() < 2
+                && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            MatcherAssert.assertThat(
+                one.get(10, TimeUnit.SECONDS),
+                Matchers.not(Matchers.sameInstance(
+                    two.get(10, TimeUnit.SECONDS)
+                ))
+            );
+        } finally {
+            threads.shutdownNow();
+        }
+        MatcherAssert.assertThat(upstream.get(), Matchers.equalTo(2));
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Comments;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Issues;
+import com.selfxdsd.api.Outbox;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.ProjectManager;
+import com.selfxdsd.api.Projects;
+import com.selfxdsd.api.Provider;
+import com.selfxdsd.api.Repo;
+import com.selfxdsd.api.storage.Storage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Unit tests for {@link CommentsOutbox}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class CommentsOutboxTestCase {
+
+    /**
+     * Without an Outbox in the Storage, the comment is posted right away.
+     */
+    @Test
+    public void postsRightAwayWithoutOutbox() {
+        final Comments comments = Mockito.mock(Comments.class);
+        final Issue issue = CommentsOutboxTestCase.issue("1", comments);
+        final Storage storage = Mockito.mock(Storage.class);
+        CommentsOutbox.post(issue, "hello", storage);
+        CommentsOutbox.post(issue, "no storage", null);
+        Mockito.verify(comments, Mockito.times(1)).post("hello");
+        Mockito.verify(comments, Mockito.times(1)).post("no storage");
+    }
+
+    /**
+     * With an Outbox in the Storage, the comment is only added to it.
+     */
+    @Test
+    public void addsToTheOutbox() {
+        final Comments comments = Mockito.mock(Comments.class);
+        final Issue issue = CommentsOutboxTestCase.issue("1", comments);
+        final Outbox stored = new InMemoryOutbox();
+        final Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.outbox()).thenReturn(stored);
+        CommentsOutbox.post(issue, "first", storage);
+        CommentsOutbox.post(issue, "second", storage);
+        Mockito.verify(comments, Mockito.never()).post(Mockito.anyString());
+        Mockito.verify(comments, Mockito.never()).post(Mockito.anyList());
+        MatcherAssert.assertThat(
+            stored.pending(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * The replies to the same Issue are posted as one comment, in order,
+     * and then removed from the Outbox.
+     */
+    @Test
+    public void mergesRepliesToTheSameIssue() {
+        final Comments comments = Mockito.mock(Comments.class);
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(issues.getById("1")).thenReturn(
+            CommentsOutboxTestCase.issue("1", comments)
+        );
+        final Outbox stored = new InMemoryOutbox();
+        stored.add(Provider.Names.GITHUB, "john/test", "1", "first");
+        stored.add(Provider.Names.GITHUB, "john/test", "1", "second");
+        final CommentsOutbox outbox = new CommentsOutbox(
+            CommentsOutboxTestCase.storage(stored, issues),
+            Duration.ofMinutes(1), Duration.ZERO, 3
+        );
+        outbox.flush(Duration.ofSeconds(5));
+        Mockito.verify(comments, Mockito.times(1))
+            .post(List.of("first", "second"));
+        Mockito.verify(issues, Mockito.times(1)).getById("1");
+        MatcherAssert.assertThat(stored.pending(), Matchers.emptyIterable());
+        outbox.close();
+    }
+
+    /**
+     * The replies to different Issues are posted separately.
+     */
+    @Test
+    public void keepsIssuesApart() {
+        final Comments first = Mockito.mock(Comments.class);
+        final Comments second = Mockito.mock(Comments.class);
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(issues.getById("1")).thenReturn(
+            CommentsOutboxTestCase.issue("1", first)
+        );
+        Mockito.when(issues.getById("2")).thenReturn(
+            CommentsOutboxTestCase.issue("2", second)
+        );
+        final Outbox stored = new InMemoryOutbox();
+        stored.add(Provider.Names.GITHUB, "john/test", "1", "a");
+        stored.add(Provider.Names.GITHUB, "john/test", "2", "b");
+        final CommentsOutbox outbox = new CommentsOutbox(
+            CommentsOutboxTestCase.storage(stored, issues),
+            Duration.ofMinutes(1), Duration.ZERO, 3
+        );
+        outbox.flush(Duration.ofSeconds(5));
+        Mockito.verify(first, Mockito.times(1)).post(List.of("a"));
+        Mockito.verify(second, Mockito.times(1)).post(List.of("b"));
+        outbox.close();
+    }
+
+    /**
+     * A comment which cannot be posted is retried, then dropped.
+     */
+    @Test
+    public void retriesThenDrops() {
+        final Comments comments = Mockito.mock(Comments.class);
+        Mockito.when(comments.post(Mockito.anyList())).thenThrow(
+            new IllegalStateException("Provider is down.")
+        );
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(issues.getById("1")).thenReturn(
+            CommentsOutboxTestCase.issue("1", comments)
+        );
+        final Outbox stored = new InMemoryOutbox();
+        stored.add(Provider.Names.GITHUB, "john/test", "1", "hello");
+        final CommentsOutbox outbox = new CommentsOutbox(
+            CommentsOutboxTestCase.storage(stored, issues),
+            Duration.ofMinutes(1), Duration.ZERO, 2
+        );
+        outbox.flush(Duration.ofSeconds(5));
+        MatcherAssert.assertThat(
+            stored.pending(), Matchers.iterableWithSize(1)
+        );
+        outbox.flush(Duration.ofSeconds(5));
+        Mockito.verify(comments, Mockito.times(2)).post(List.of("hello"));
+        MatcherAssert.assertThat(stored.pending(), Matchers.emptyIterable());
+        outbox.flush(Duration.ofSeconds(5));
+        Mockito.verify(comments, Mockito.times(2)).post(List.of("hello"));
+        outbox.close();
+    }
+
+    /**
+     * The comments of an Issue which is not found are dropped.
+     */
+    @Test
+    public void dropsCommentsOfMissingIssues() {
+        final Outbox stored = new InMemoryOutbox();
+        stored.add(Provider.Names.GITHUB, "john/test", "1", "hello");
+        final CommentsOutbox outbox = new CommentsOutbox(
+            CommentsOutboxTestCase.storage(
+                stored, Mockito.mock(Issues.class)
+            ),
+            Duration.ofMinutes(1), Duration.ZERO, 3
+        );
+        outbox.flush(Duration.ofSeconds(5));
+        MatcherAssert.assertThat(stored.pending(), Matchers.emptyIterable());
+        outbox.close();
+    }
+
+    /**
+     * Once started, the Outbox is posted in the background, starting with
+     * the messages left in it (e.g. before a restart).
+     */
+    @Test
+    public void postsInTheBackgroundOnceStarted() {
+        final Comments comments = Mockito.mock(Comments.class);
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(issues.getById("1")).thenReturn(
+            CommentsOutboxTestCase.issue("1", comments)
+        );
+        final Outbox stored = new InMemoryOutbox();
+        stored.add(Provider.Names.GITHUB, "john/test", "1", "left");
+        final Storage storage = CommentsOutboxTestCase.storage(
+            stored, issues
+        );
+        final CommentsOutbox outbox = new CommentsOutbox(
+            storage, Duration.ofMillis(50), Duration.ZERO, 3
+        );
+        outbox.start();
+        Mockito.verify(comments, Mockito.timeout(5000)).post(List.of("left"));
+        CommentsOutbox.post(
+            CommentsOutboxTestCase.issue("1", comments), "later", storage
+        );
+        Mockito.verify(comments, Mockito.timeout(5000))
+            .post(List.of("later"));
+        outbox.close();
+    }
+
+    /**
+     * Mock a Storage whose Project john/test reads its Issues from
+     * the given ones.
+     * @param outbox Outbox of the Storage.
+     * @param issues Issues of the Project.
+     * @return Storage.
+     */
+    private static Storage storage(final Outbox outbox, final Issues issues) {
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(repo.issues()).thenReturn(issues);
+        final Provider provider = Mockito.mock(Provider.class);
+        Mockito.when(provider.repo("john", "test")).thenReturn(repo);
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        Mockito.when(manager.provider()).thenReturn(provider);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("john/test");
+        Mockito.when(project.projectManager()).thenReturn(manager);
+        final Projects projects = Mockito.mock(Projects.class);
+        Mockito.when(
+            projects.getProjectById("john/test", Provider.Names.GITHUB)
+        ).thenReturn(project);
+        final Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.outbox()).thenReturn(outbox);
+        Mockito.when(storage.projects()).thenReturn(projects);
+        return storage;
+    }
+
+    /**
+     * Mock an Issue.
+     * @param issueId ID of the Issue.
+     * @param comments Comments of the Issue.
+     * @return Issue.
+     */
+    private static Issue issue(final String issueId, final Comments comments) {
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.provider()).thenReturn(Provider.Names.GITHUB);
+        Mockito.when(issue.repoFullName()).thenReturn("john/test");
+        Mockito.when(issue.issueId()).thenReturn(issueId);
+        Mockito.when(issue.comments()).thenReturn(comments);
+        return issue;
+    }
+}
@@ -24,11 +24,13 @@ package com.selfxdsd.core;
 
 import com.selfxdsd.api.Comment;
 import com.selfxdsd.api.Comments;
+import com.selfxdsd.api.CommentsIndex;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import javax.json.Json;
 import javax.json.JsonObject;
 import java.util.Iterator;
 import java.util.List;
@@ -145,4 +147,189 @@ public final class DoNotRepeatTestCase {
         Mockito.when(comment.body()).thenReturn(body);
         return comment;
     }
+
+    /**
+     * DoNotRepeat does not post duplicate comments asynchronously.
+     */
+    @Test
+    public void doesNotPostDuplicateAsync() {
+        final Comment existing = this.mockComment("hey there");
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator())
+            .thenReturn(List.of(existing).iterator());
+        final Comments doNotRepeat = new DoNotRepeat(origin);
+        MatcherAssert.assertThat(
+            doNotRepeat.postAsync("hey there").join(),
+            Matchers.is(existing)
+        );
+        Mockito.verify(origin, Mockito.never())
+            .postAsync(Mockito.anyString());
+    }
+
+    /**
+     * DoNotRepeat does not read the comments again if the body is indexed.
+     */
+    @Test
+    public void doesNotReadIndexedComments() {
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator()).thenReturn(
+            List.of(this.comment(1, "hello world")).iterator()
+        );
+        final Comment posted = this.comment(2, "Hey there");
+        Mockito.when(origin.post("Hey there")).thenReturn(posted);
+        Mockito.when(origin.since(Mockito.any(Comment.class)))
+            .thenReturn(List.of(posted));
+        Mockito.when(origin.received(Mockito.any(JsonObject.class)))
+            .thenAnswer(
+                inv -> new GithubComment((JsonObject) inv.getArguments()[0])
+            );
+        final CommentsIndex index = new InMemoryCommentsIndex();
+        new DoNotRepeat(origin, index, "github/o/r#1").post("Hey there");
+        final Comment existing = new DoNotRepeat(
+            origin, index, "github/o/r#1"
+        ).post("hey there");
+        MatcherAssert.assertThat(
+            existing.commentId(), Matchers.equalTo("2")
+        );
+        MatcherAssert.assertThat(
+            existing.body(), Matchers.equalTo("hey there")
+        );
+        Mockito.verify(origin, Mockito.times(1)).iterator();
+        Mockito.verify(origin, Mockito.times(1)).post(Mockito.anyString());
+    }
+
+    /**
+     * On an index miss, DoNotRepeat reads only the comments posted after
+     * the last indexed one.
+     */
+    @Test
+    public void readsOnlyNewerCommentsOnMiss() {
+        final Comment first = this.comment(1, "hello world");
+        final Comment second = this.comment(2, "hey there");
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.received(Mockito.any(JsonObject.class)))
+            .thenAnswer(
+                inv -> new GithubComment((JsonObject) inv.getArguments()[0])
+            );
+        Mockito.when(origin.since(Mockito.any(Comment.class)))
+            .thenReturn(List.of(second));
+        Mockito.when(origin.post(Mockito.anyString())).thenThrow(
+            new IllegalStateException("Comment should not be posted!")
+        );
+        final CommentsIndex index = new InMemoryCommentsIndex();
+        index.add("github/o/r#1", "hash", first.json());
+        final Comment existing = new DoNotRepeat(
+            origin, index, "github/o/r#1"
+        ).post("hey there");
+        MatcherAssert.assertThat(existing, Matchers.is(second));
+        MatcherAssert.assertThat(
+            index.last("github/o/r#1").getInt("id"), Matchers.equalTo(2)
+        );
+        Mockito.verify(origin, Mockito.never()).iterator();
+    }
+
+    /**
+     * A Github comment.
+     * @param id Id.
+     * @param body Body.
+     * @return Comment.
+     */
+    private Comment comment(final int id, final String body) {
+        return new GithubComment(
+            Json.createObjectBuilder()
+                .add("id", id)
+                .add("body", body)
+                .build()
+        );
+    }
+
+    /**
+     * After posting, DoNotRepeat also indexes the comments which others
+     * posted before ours, since the last indexed one, so their
+     * duplicates are still caught.
+     */
+    @Test
+    public void indexesCommentsPostedBeforeOurs() {
+        final Comment first = this.comment(1, "hello world");
+        final Comment theirs = this.comment(2, "thanks!");
+        final Comment ours = this.comment(3, "hey there");
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.received(Mockito.any(JsonObject.class)))
+            .thenAnswer(
+                inv -> new GithubComment((JsonObject) inv.getArguments()[0])
+            );
+        Mockito.when(origin.since(Mockito.any(Comment.class)))
+            .thenReturn(List.of())
+            .thenReturn(List.of(theirs, ours));
+        Mockito.when(origin.post("hey there")).thenReturn(ours);
+        final CommentsIndex index = new InMemoryCommentsIndex();
+        index.add("github/o/r#1", "hash", first.json());
+        final Comments doNotRepeat = new DoNotRepeat(
+            origin, index, "github/o/r#1"
+        );
+        doNotRepeat.post("hey there");
+        MatcherAssert.assertThat(
+            index.last("github/o/r#1").getInt("id"), Matchers.equalTo(3)
+        );
+        MatcherAssert.assertThat(
+            doNotRepeat.post("Thanks!").commentId(), Matchers.equalTo("2")
+        );
+        Mockito.verify(origin, Mockito.times(1)).post(Mockito.anyString());
+        Mockito.verify(origin, Mockito.times(2))
+            .since(Mockito.any(Comment.class));
+    }
+
+    /**
+     * DoNotRepeat checks each merged message on its own: it posts only
+     * the new ones and indexes each of them, so none is repeated later.
+     */
+    @Test
+    public void postsOnlyNewMergedMessages() {
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator()).thenAnswer(
+            inv -> List.of(this.comment(1, "hey there")).iterator()
+        );
+        Mockito.when(origin.since(Mockito.any(Comment.class)))
+            .thenReturn(List.of());
+        Mockito.when(origin.received(Mockito.any(JsonObject.class)))
+            .thenAnswer(
+                inv -> new GithubComment((JsonObject) inv.getArguments()[0])
+            );
+        Mockito.when(origin.post(List.of("bye"))).thenReturn(
+            this.comment(2, "bye")
+        );
+        final Comments doNotRepeat = new DoNotRepeat(
+            origin, new InMemoryCommentsIndex(), "github/o/r#1"
+        );
+        MatcherAssert.assertThat(
+            doNotRepeat.post(List.of("Hey there", "bye", "bye"))
+                .commentId(),
+            Matchers.equalTo("2")
+        );
+        MatcherAssert.assertThat(
+            doNotRepeat.post("BYE").commentId(), Matchers.equalTo("2")
+        );
+        Mockito.verify(origin, Mockito.times(1)).post(List.of("bye"));
+        Mockito.verify(origin, Mockito.never()).post(Mockito.anyString());
+    }
+
+    /**
+     * Without an index, DoNotRepeat finds a message which was merged
+     * into an existing comment.
+     */
+    @Test
+    public void findsMergedMessageWithoutIndex() {
+        final Comment merged = this.comment(
+            1, "First message.\n\nSecond message."
+        );
+        final Comments origin = Mockito.mock(Comments.class);
+        Mockito.when(origin.iterator()).thenReturn(
+            List.of(merged).iterator()
+        );
+        MatcherAssert.assertThat(
+            new DoNotRepeat(origin).post("second message."),
+            Matchers.is(merged)
+        );
+        Mockito.verify(origin, Mockito.never()).post(Mockito.anyString());
+    }
 }
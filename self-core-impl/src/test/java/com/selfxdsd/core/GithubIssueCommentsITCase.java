@@ -11,6 +11,7 @@ import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
 import java.net.URI;
+import java.util.Map;
 
 /**
  * Integration tests for {@link GithubIssueComments}.
@@ -34,7 +35,9 @@ public final class GithubIssueCommentsITCase {
         Mockito
             .when(resources.get(Mockito.any(URI.class)))
             .thenAnswer(invocation -> {
-                final URI uri = (URI) invocation.getArguments()[0];
+                final URI uri = URI.create(
+                    invocation.getArguments()[0].toString().split("\\?")[0]
+                );
                 final JsonArray array = Json.createArrayBuilder()
                     .add(Json.createObjectBuilder()
                         .add("id", 1)
@@ -164,6 +167,12 @@ public final class GithubIssueCommentsITCase {
         Mockito.when(resource.statusCode()).thenReturn(status);
         Mockito.when(resource.asJsonObject()).thenReturn(object);
         Mockito.when(resource.asJsonArray()).thenReturn(array);
+        Mockito.when(resource.headers()).thenReturn(Map.of());
+        if(array != null) {
+            Mockito.when(resource.asJsonStream()).thenAnswer(
+                invocation -> array.stream()
+            );
+        }
         return resource;
     }
 }
@@ -24,11 +24,13 @@ package com.selfxdsd.core;
 
 import com.selfxdsd.api.Comment;
 import com.selfxdsd.api.Comments;
+import com.selfxdsd.core.mock.MockJsonResources;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
 import javax.json.Json;
+import java.net.HttpURLConnection;
 import java.net.URI;
 
 /**
@@ -64,4 +66,77 @@ public final class GithubIssueCommentsTestCase {
         );
     }
     
+
+    /**
+     * A Comment can be posted asynchronously.
+     */
+    @Test
+    public void postsCommentAsync() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_CREATED,
+                Json.createObjectBuilder()
+                    .add("id", 1)
+                    .add("body", req.getBody().asJsonObject().getString("body"))
+                    .build()
+            )
+        );
+        final Comments comments = new GithubIssueComments(
+            URI.create("https://api.github.com/repos/o/r/issues/1"),
+            resources
+        );
+        final Comment posted = comments.postAsync("hello").join();
+        MatcherAssert.assertThat(
+            posted.body(),
+            Matchers.equalTo("hello")
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create("https://api.github.com/repos/o/r/issues/1/comments")
+            )
+        );
+    }
+
+    /**
+     * GithubIssueComments reads only the comments posted after the given
+     * one, using the "since" parameter.
+     */
+    @Test
+    public void readsCommentsSinceLast() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder().add("id", 5))
+                    .add(Json.createObjectBuilder().add("id", 6))
+                    .build()
+            )
+        );
+        final Comments comments = new GithubIssueComments(
+            URI.create("https://api.github.com/repos/o/r/issues/1"),
+            resources
+        );
+        final Iterable<Comment> since = comments.since(
+            comments.received(
+                Json.createObjectBuilder()
+                    .add("id", 5)
+                    .add("created_at", "2020-01-01T10:00:00Z")
+                    .build()
+            )
+        );
+        MatcherAssert.assertThat(since, Matchers.iterableWithSize(1));
+        MatcherAssert.assertThat(
+            since.iterator().next().commentId(), Matchers.equalTo("6")
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://api.github.com/repos/o/r/issues/1/comments"
+                    + "?since=2020-01-01T10%3A00%3A00Z&per_page=100"
+                )
+            )
+        );
+    }
 }
@@ -33,6 +33,9 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Unit tests for {@link GithubIssueLabels}.
@@ -66,7 +69,7 @@ public final class GithubIssueLabelsTestCase {
         MatcherAssert.assertThat(iterable,
             Matchers.iterableWithSize(2));
         MatcherAssert.assertThat(resources.requests().first().getUri(),
-            Matchers.equalTo(uri));
+            Matchers.equalTo(URI.create(uri + "?per_page=100")));
     }
 
     /**
@@ -159,4 +162,221 @@ public final class GithubIssueLabelsTestCase {
             Matchers.equalTo(Json.createObjectBuilder().build())
         );
     }
+
+    /**
+     * A GithubIssueLabels can add new labels asynchronously, first to the
+     * Repo and then to the Issue.
+     */
+    @Test
+    public void canAddLabelsAsync() {
+        final MockJsonResources resources =
+            new MockJsonResources(req -> new MockJsonResources.MockResource(200,
+                JsonValue.NULL));
+        final URI uri = URI.create("https://api.github.com/repos/amihaiemil"
+            + "/docker-java-api/issues/123/labels");
+        final Labels issueLabels = new GithubIssueLabels(uri, resources);
+        MatcherAssert.assertThat(
+            issueLabels.addAsync("bug", "puzzle").join(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(),
+            Matchers.iterableWithSize(3)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(2).getUri(),
+            Matchers.equalTo(uri)
+        );
+        MatcherAssert.assertThat(
+            ((JsonObject) resources.requests().atIndex(2).getBody())
+                .getJsonArray("labels")
+                .size(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * A GithubIssueLabels can remove a label asynchronously.
+     */
+    @Test
+    public void canRemoveLabelAsync() {
+        final MockJsonResources resources =
+            new MockJsonResources(req -> new MockJsonResources.MockResource(404,
+                JsonValue.NULL));
+        final URI uri = URI.create("https://api.github.com/repos/amihaiemil"
+            + "/docker-java-api/issues/123/labels");
+        final Labels issueLabels = new GithubIssueLabels(uri, resources);
+        MatcherAssert.assertThat(
+            issueLabels.removeAsync("bug").join(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getMethod(),
+            Matchers.equalTo("DELETE")
+        );
+    }
+
+    /**
+     * GithubIssueLabels reads the labels from the Issue's JSON,
+     * if they are there, without making any request.
+     */
+    @Test
+    public void iteratesEmbeddedLabels() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                throw new IllegalStateException("No request expected.");
+            }
+        );
+        final Labels labels = new GithubIssueLabels(
+            URI.create(
+                "https://api.github.com/repos/amihaiemil"
+                + "/docker-java-api/issues/123/labels"
+            ),
+            resources,
+            Json.createObjectBuilder()
+                .add("number", 123)
+                .add(
+                    "labels",
+                    Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("name", "bug"))
+                        .add(Json.createObjectBuilder().add("name", "60 min"))
+                )
+                .build()
+        );
+        MatcherAssert.assertThat(labels, Matchers.iterableWithSize(2));
+        MatcherAssert.assertThat(
+            labels.iterator().next().name(), Matchers.equalTo("bug")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * GithubIssueLabels fetches the labels if they are missing from
+     * the Issue's JSON.
+     */
+    @Test
+    public void fetchesLabelsMissingFromJson() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                200,
+                Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder().add("name", "bug"))
+                    .build()
+            )
+        );
+        final Labels labels = new GithubIssueLabels(
+            URI.create(
+                "https://api.github.com/repos/amihaiemil"
+                + "/docker-java-api/issues/123/labels"
+            ),
+            resources,
+            Json.createObjectBuilder().add("number", 123).build()
+        );
+        MatcherAssert.assertThat(labels, Matchers.iterableWithSize(1));
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+    }
+
+    /**
+     * A GithubIssueLabels does not create the label in the repo again,
+     * if it is known to exist.
+     */
+    @Test
+    public void addsKnownLabelOnlyToIssue() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        200, Json.createArrayBuilder().build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        201, JsonValue.NULL
+                    );
+                }
+                return resource;
+            }
+        );
+        final URI uri = URI.create(
+            "https://api.github.com/repos/amihaiemil"
+            + "/docker-java-api/issues/123/labels"
+        );
+        final Labels issueLabels = new GithubIssueLabels(
+            uri,
+            resources,
+            JsonObject.EMPTY_JSON_OBJECT,
+            new KnownLabels(Duration.ofHours(1), Clock.systemUTC())
+        );
+        issueLabels.add("@mihai");
+        issueLabels.add("@mihai");
+        issueLabels.add("@mihai");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(5)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(4).getUri(), Matchers.equalTo(uri)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(3).getUri(), Matchers.equalTo(uri)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(2).getUri(), Matchers.equalTo(uri)
+        );
+    }
+
+    /**
+     * Once a label is removed, the labels from the Issue's JSON are
+     * stale: GithubIssueLabels fetches them and reports the change.
+     */
+    @Test
+    public void fetchesLabelsAfterRemovingOne() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        200,
+                        Json.createArrayBuilder()
+                            .add(Json.createObjectBuilder().add("name", "bug"))
+                            .build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        200, JsonValue.NULL
+                    );
+                }
+                return resource;
+            }
+        );
+        final AtomicInteger relabeled = new AtomicInteger();
+        final Labels labels = new GithubIssueLabels(
+            URI.create(
+                "https://api.github.com/repos/amihaiemil"
+                + "/docker-java-api/issues/123/labels"
+            ),
+            resources,
+            Json.createObjectBuilder()
+                .add("number", 123)
+                .add(
+                    "labels",
+                    Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("name", "bug"))
+                        .add(Json.createObjectBuilder().add("name", "60 min"))
+                )
+                .build(),
+            KnownLabels.NONE,
+            relabeled::incrementAndGet
+        );
+        MatcherAssert.assertThat(labels, Matchers.iterableWithSize(2));
+        MatcherAssert.assertThat(labels.remove("60 min"), Matchers.is(true));
+        MatcherAssert.assertThat(relabeled.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(labels, Matchers.iterableWithSize(1));
+        MatcherAssert.assertThat(
+            resources.requests().last().getMethod(), Matchers.equalTo("GET")
+        );
+    }
 }
@@ -265,7 +265,7 @@ public final class GithubIssueTestCase {
         );
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             resources
         );
@@ -317,7 +317,7 @@ public final class GithubIssueTestCase {
         );
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             resources
         );
@@ -369,7 +369,7 @@ public final class GithubIssueTestCase {
         );
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             resources
         );
@@ -421,7 +421,7 @@ public final class GithubIssueTestCase {
         );
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             resources
         );
@@ -466,7 +466,7 @@ public final class GithubIssueTestCase {
     public void closesOk() {
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Github("github123"),
@@ -509,7 +509,7 @@ public final class GithubIssueTestCase {
     public void closesNotFound() {
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Github("github123"),
@@ -551,7 +551,7 @@ public final class GithubIssueTestCase {
     public void reopensOk() {
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Github("github123"),
@@ -594,7 +594,7 @@ public final class GithubIssueTestCase {
     public void reopensNotFound() {
         final Issue issue = new GithubIssue(
             URI.create("http://localhost/issues/1"),
-            JsonObject.EMPTY_JSON_OBJECT,
+            GithubIssueTestCase.issue(),
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Github("github123"),
@@ -662,4 +662,169 @@ public final class GithubIssueTestCase {
             Matchers.is(Boolean.FALSE)
         );
     }
+
+    /**
+     * A user can be assigned asynchronously.
+     */
+    @Test
+    public void assignsUserAsync() {
+        final MockJsonResources resources = new MockJsonResources(
+            new AccessToken.Github("github123"),
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_CREATED,
+                Json.createObjectBuilder().build()
+            )
+        );
+        final Issue issue = new GithubIssue(
+            URI.create("http://localhost/issues/1"),
+            GithubIssueTestCase.issue(),
+            Mockito.mock(Storage.class),
+            resources
+        );
+        MatcherAssert.assertThat(
+            issue.assignAsync("george").join(),
+            Matchers.is(Boolean.TRUE)
+        );
+        final MockJsonResources.MockRequest assign = resources
+            .requests()
+            .atIndex(0);
+        MatcherAssert.assertThat(
+            assign.getMethod(),
+            Matchers.equalTo("POST")
+        );
+        MatcherAssert.assertThat(
+            assign.getUri().toString(),
+            Matchers.equalTo("http://localhost/issues/1/assignees")
+        );
+    }
+
+    /**
+     * A user can be unassigned asynchronously.
+     */
+    @Test
+    public void unassignsUserAsync() {
+        final MockJsonResources resources = new MockJsonResources(
+            new AccessToken.Github("github123"),
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_NOT_FOUND,
+                Json.createObjectBuilder().build()
+            )
+        );
+        final Issue issue = new GithubIssue(
+            URI.create("http://localhost/issues/1"),
+            GithubIssueTestCase.issue(),
+            Mockito.mock(Storage.class),
+            resources
+        );
+        MatcherAssert.assertThat(
+            issue.unassignAsync("george").join(),
+            Matchers.is(Boolean.FALSE)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(0).getMethod(),
+            Matchers.equalTo("DELETE")
+        );
+    }
+
+    /**
+     * The Estimation of a GithubIssue is read from the labels in its
+     * JSON, without any HTTP call.
+     */
+    @Test
+    public void estimatesFromEmbeddedLabels() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                throw new IllegalStateException("No request expected.");
+            }
+        );
+        final Estimation estimation = new GithubIssue(
+            URI.create("http://localhost/issues/1"),
+            Json.createObjectBuilder()
+                .add("number", 1)
+                .add(
+                    "labels",
+                    Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("name", "bug"))
+                        .add(Json.createObjectBuilder().add("name", "90 min"))
+                )
+                .build(),
+            Mockito.mock(Storage.class),
+            resources
+        ).estimation();
+        MatcherAssert.assertThat(
+            estimation.minutes(), Matchers.equalTo(90)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.emptyIterable()
+        );
+    }
+
+    /**
+     * Assigning a GithubIssue invalidates its snapshot, so the next read
+     * gets the new assignee from Github.
+     */
+    @Test
+    public void assignInvalidatesSnapshot() {
+        final IssueSnapshots snapshots = new IssueSnapshots();
+        final Issue issue = new GithubIssue(
+            URI.create("http://localhost/issues/1"),
+            GithubIssueTestCase.issue(),
+            Mockito.mock(Storage.class),
+            new MockJsonResources(
+                req -> new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_CREATED,
+                    Json.createObjectBuilder().build()
+                )
+            ),
+            KnownLabels.NONE,
+            snapshots
+        );
+        snapshots.store("github", "amihaiemil/self", issue);
+        issue.assign("george");
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "amihaiemil/self", "1"),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * Closing a GithubIssue invalidates its snapshot.
+     */
+    @Test
+    public void closeInvalidatesSnapshot() {
+        final IssueSnapshots snapshots = new IssueSnapshots();
+        final Issue issue = new GithubIssue(
+            URI.create("http://localhost/issues/1"),
+            GithubIssueTestCase.issue(),
+            Mockito.mock(Storage.class),
+            new MockJsonResources(
+                req -> new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().build()
+                )
+            ),
+            KnownLabels.NONE,
+            snapshots
+        );
+        snapshots.store("github", "amihaiemil/self", issue);
+        issue.close();
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "amihaiemil/self", "1"),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * JSON of Issue amihaiemil/self#1, as Github returns it.
+     * @return JsonObject.
+     */
+    private static JsonObject issue() {
+        return Json.createObjectBuilder()
+            .add("number", 1)
+            .add(
+                "url",
+                "https://api.github.com/repos/amihaiemil/self/issues/1"
+            )
+            .build();
+    }
 }
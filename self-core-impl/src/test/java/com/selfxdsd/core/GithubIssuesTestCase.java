@@ -31,9 +31,17 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.json.Json;
+import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.mockito.Mockito.mock;
 
@@ -577,4 +585,399 @@ public final class GithubIssuesTestCase {
             found, Matchers.emptyIterable()
         );
     }
+
+    /**
+     * An Issue can be fetched asynchronously.
+     */
+    @Test
+    public void getsIssueByIdAsync() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add("number", 1).build()
+            )
+        );
+        final Issues issues = new GithubIssues(
+            resources,
+            URI.create("https://api.github.com/repos/o/r/issues"),
+            mock(Repo.class),
+            mock(Storage.class)
+        );
+        final Issue issue = issues.getByIdAsync("1").join();
+        MatcherAssert.assertThat(issue.issueId(), Matchers.equalTo("1"));
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create("https://api.github.com/repos/o/r/issues/1")
+            )
+        );
+    }
+
+    /**
+     * Fetching a missing Issue asynchronously completes with null.
+     */
+    @Test
+    public void getsMissingIssueByIdAsync() {
+        final Issues issues = new GithubIssues(
+            new MockJsonResources(
+                req -> new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_NOT_FOUND,
+                    Json.createObjectBuilder().build()
+                )
+            ),
+            URI.create("https://api.github.com/repos/o/r/issues"),
+            mock(Repo.class),
+            mock(Storage.class)
+        );
+        MatcherAssert.assertThat(
+            issues.getByIdAsync("1").join(),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * More Issues are fetched with one GraphQL query and turned into
+     * Issues like the ones from the REST API.
+     */
+    @Test
+    public void getsIssuesByIdsWithGraphQl() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                MatcherAssert.assertThat(
+                    req.getMethod(), Matchers.equalTo("POST")
+                );
+                MatcherAssert.assertThat(
+                    req.getUri(),
+                    Matchers.equalTo(
+                        URI.create("https://api.github.com/graphql")
+                    )
+                );
+                MatcherAssert.assertThat(
+                    ((JsonObject) req.getBody()).getString("query"),
+                    Matchers.allOf(
+                        Matchers.containsString(
+                            "repository(owner: \"o\", name: \"r\")"
+                        ),
+                        Matchers.containsString(
+                            "i0: issueOrPullRequest(number: 1)"
+                        ),
+                        Matchers.containsString(
+                            "i2: issueOrPullRequest(number: 3)"
+                        )
+                    )
+                );
+                return new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().add(
+                        "data",
+                        Json.createObjectBuilder().add(
+                            "repository",
+                            Json.createObjectBuilder()
+                                .add(
+                                    "i0",
+                                    GithubIssuesTestCase.node(
+                                        1, "issues", "OPEN", "mihai"
+                                    )
+                                )
+                                .add(
+                                    "i1",
+                                    GithubIssuesTestCase.node(
+                                        2, "pull", "MERGED", null
+                                    )
+                                )
+                                .addNull("i2")
+                        )
+                    ).build()
+                );
+            }
+        );
+        final Map<String, Issue> found = new GithubIssues(
+            resources,
+            URI.create("https://api.github.com/repos/o/r/issues"),
+            mock(Repo.class),
+            mock(Storage.class)
+        ).getByIds(List.of("1", "2", "3"));
+        MatcherAssert.assertThat(
+            found.keySet(), Matchers.contains("1", "2")
+        );
+        final Issue issue = found.get("1");
+        MatcherAssert.assertThat(issue.issueId(), Matchers.equalTo("1"));
+        MatcherAssert.assertThat(
+            issue.repoFullName(), Matchers.equalTo("o/r")
+        );
+        MatcherAssert.assertThat(issue.isClosed(), Matchers.is(false));
+        MatcherAssert.assertThat(issue.isPullRequest(), Matchers.is(false));
+        MatcherAssert.assertThat(issue.assignee(), Matchers.equalTo("mihai"));
+        MatcherAssert.assertThat(
+            issue.author(), Matchers.equalTo("amihaiemil")
+        );
+        MatcherAssert.assertThat(
+            issue.labels().iterator().next().name(), Matchers.equalTo("bug")
+        );
+        final Issue pull = found.get("2");
+        MatcherAssert.assertThat(pull.isClosed(), Matchers.is(true));
+        MatcherAssert.assertThat(pull.isPullRequest(), Matchers.is(true));
+        MatcherAssert.assertThat(pull.assignee(), Matchers.nullValue());
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+    }
+
+    /**
+     * A sweep over many Issues needs only a few requests: one
+     * GraphQL query for each 50 Issues, instead of one GET per Issue.
+     */
+    @Test
+    public void getsManyIssuesInFewRequests() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final String query = ((JsonObject) req.getBody())
+                    .getString("query");
+                final Matcher numbers = Pattern.compile(
+                    "(i\\d+): issueOrPullRequest\\(number: (\\d+)\\)"
+                ).matcher(query);
+                final JsonObjectBuilder repository = Json.createObjectBuilder();
+                while(numbers.find()) {
+                    repository.add(
+                        numbers.group(1),
+                        GithubIssuesTestCase.node(
+                            Integer.parseInt(numbers.group(2)),
+                            "issues", "OPEN", null
+                        )
+                    );
+                }
+                return new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().add(
+                        "data",
+                        Json.createObjectBuilder().add("repository", repository)
+                    ).build()
+                );
+            }
+        );
+        final List<String> ids = new ArrayList<>();
+        for(int number = 1; number <= 120; ++number) {
+            ids.add(String.valueOf(number));
+        }
+        final Map<String, Issue> found = new GithubIssues(
+            resources,
+            URI.create("https://api.github.com/repos/o/r/issues"),
+            mock(Repo.class),
+            mock(Storage.class)
+        ).getByIds(ids);
+        MatcherAssert.assertThat(found.size(), Matchers.equalTo(120));
+        MatcherAssert.assertThat(
+            found.get("120").issueId(), Matchers.equalTo("120")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+    }
+
+    /**
+     * If the GraphQL query fails, the Issues are fetched one by one.
+     */
+    @Test
+    public void getsIssuesOneByOneIfGraphQlFails() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("POST".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_FORBIDDEN,
+                        Json.createObjectBuilder().build()
+                    );
+                } else {
+                    final String path = req.getUri().getPath();
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder().add(
+                            "number",
+                            Integer.parseInt(
+                                path.substring(path.lastIndexOf('/') + 1)
+                            )
+                        ).build()
+                    );
+                }
+                return resource;
+            }
+        );
+        final Map<String, Issue> found = new GithubIssues(
+            resources,
+            URI.create("https://api.github.com/repos/o/r/issues"),
+            mock(Repo.class),
+            mock(Storage.class)
+        ).getByIds(List.of("4", "5"));
+        MatcherAssert.assertThat(
+            found.keySet(), Matchers.contains("4", "5")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+    }
+
+    /**
+     * Issue or PR as returned by the GraphQL API.
+     * @param number Number.
+     * @param type Type in the URL: issues or pull.
+     * @param state State.
+     * @param assignee Assignee's login or null.
+     * @return JsonObject.
+     */
+    private static JsonObject node(
+        final int number,
+        final String type,
+        final String state,
+        final String assignee
+    ) {
+        final JsonArrayBuilder assignees = Json.createArrayBuilder();
+        if(assignee != null) {
+            assignees.add(Json.createObjectBuilder().add("login", assignee));
+        }
+        return Json.createObjectBuilder()
+            .add("number", number)
+            .add("url", "https://github.com/o/r/" + type + "/" + number)
+            .add("title", "Title")
+            .add("body", "Body")
+            .add("state", state)
+            .add("updatedAt", "2020-10-10T10:00:00Z")
+            .add(
+                "author",
+                Json.createObjectBuilder().add("login", "amihaiemil")
+            )
+            .add(
+                "assignees",
+                Json.createObjectBuilder().add("nodes", assignees)
+            )
+            .add(
+                "labels",
+                Json.createObjectBuilder().add(
+                    "nodes",
+                    Json.createArrayBuilder().add(
+                        Json.createObjectBuilder()
+                            .add("name", "bug")
+                            .add("color", "ff0000")
+                    )
+                )
+            )
+            .build();
+    }
+
+    /**
+     * GithubIssues.search(...) goes through all the pages of results,
+     * following the Link header, and only when the found Issues are
+     * iterated.
+     */
+    @Test
+    public void searchesAllPagesLazily() {
+        final String next = "https://api.github.com/search/issues?"
+            + "q=repo:amihaiemil/repo&sort=created&order=desc"
+            + "&per_page=100&page=2";
+        final MockJsonResources resources = new MockJsonResources(
+            new AccessToken.Github("github123"),
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if(next.equals(req.getUri().toString())) {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder()
+                            .add(
+                                "items",
+                                Json.createArrayBuilder().add(
+                                    Json.createObjectBuilder()
+                                        .add("number", 1)
+                                )
+                            ).build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder()
+                            .add(
+                                "items",
+                                Json.createArrayBuilder()
+                                    .add(
+                                        Json.createObjectBuilder()
+                                            .add("number", 3)
+                                    ).add(
+                                        Json.createObjectBuilder()
+                                            .add("number", 2)
+                                    )
+                            ).build(),
+                        Map.of(
+                            "Link",
+                            List.of("<" + next + ">; rel=\"next\"")
+                        )
+                    );
+                }
+                return resource;
+            }
+        );
+        final Issues found = new Github(
+            Mockito.mock(User.class),
+            Mockito.mock(Storage.class),
+            resources
+        ).repo("amihaiemil", "repo").issues().search("");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(0)
+        );
+        final List<String> ids = new ArrayList<>();
+        found.forEach(issue -> ids.add(issue.issueId()));
+        MatcherAssert.assertThat(ids, Matchers.contains("3", "2", "1"));
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * GithubIssues lists the Issues closed since a given time and stops
+     * as soon as it found the given ones.
+     */
+    @Test
+    public void getsClosedIssuesSince() {
+        final MockJsonResources resources = new MockJsonResources(
+            new AccessToken.Github("github123"),
+            req -> {
+                if(req.getUri().toString().contains("&page=2")) {
+                    throw new IllegalStateException("Page 2 not expected.");
+                }
+                return new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("number", 3))
+                        .add(Json.createObjectBuilder().add("number", 2))
+                        .build(),
+                    Map.of(
+                        "Link",
+                        List.of(
+                            "<https://api.github.com/repos/amihaiemil/repo"
+                            + "/issues?state=closed&page=2>; rel=\"next\""
+                        )
+                    )
+                );
+            }
+        );
+        final Map<String, Issue> closed = new Github(
+            Mockito.mock(User.class),
+            Mockito.mock(Storage.class),
+            resources
+        ).repo("amihaiemil", "repo").issues().closedSince(
+            List.of("2", "3"), LocalDateTime.of(2020, 1, 1, 10, 0)
+        );
+        MatcherAssert.assertThat(
+            closed.keySet(), Matchers.contains("3", "2")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://api.github.com/repos/amihaiemil/repo/issues"
+                    + "?state=closed&since=2020-01-01T10:00:00Z&per_page=100"
+                )
+            )
+        );
+    }
 }
@@ -54,7 +54,9 @@ public final class GithubOrganizationTestCase {
         final JsonResources resources = new MockJsonResources(
             req -> {
                 MatcherAssert.assertThat(req.getUri().toString(),
-                    Matchers.is("https://api.github.com/orgs/github/repos"));
+                    Matchers.is(
+                        "https://api.github.com/orgs/github/repos?per_page=100"
+                    ));
                 return new MockResource(200,
                     Json.createArrayBuilder().build());
             }
@@ -34,6 +34,8 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 
 /**
  * Unit tests for {@link GithubRepoLabels}.
@@ -67,7 +69,7 @@ public final class GithubRepoLabelsTestCase {
         MatcherAssert.assertThat(iterable,
             Matchers.iterableWithSize(2));
         MatcherAssert.assertThat(resources.requests().first().getUri(),
-            Matchers.equalTo(uri));
+            Matchers.equalTo(URI.create(uri + "?per_page=100")));
     }
 
     /**
@@ -148,4 +150,53 @@ public final class GithubRepoLabelsTestCase {
         );
     }
 
+    /**
+     * GithubRepoLabels does not create the labels which are known
+     * to exist in the repo.
+     */
+    @Test
+    public void doesNotCreateKnownLabels() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder()
+                            .add(Json.createObjectBuilder().add("name", "Bug"))
+                            .build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_CREATED,
+                        JsonValue.NULL
+                    );
+                }
+                return resource;
+            }
+        );
+        final URI uri = URI.create(
+            "https://api.github.com/repos/amihaiemil/docker-java-api/labels"
+        );
+        final Labels repoLabels = new GithubRepoLabels(
+            uri,
+            resources,
+            new KnownLabels(Duration.ofHours(1), Clock.systemUTC())
+        );
+        repoLabels.add("bug");
+        repoLabels.add("puzzle");
+        repoLabels.add("puzzle", "bug");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(0).getMethod(),
+            Matchers.equalTo("GET")
+        );
+        MatcherAssert.assertThat(
+            ((JsonObject) resources.requests().atIndex(1).getBody())
+                .getString("name"),
+            Matchers.equalTo("puzzle")
+        );
+    }
 }
@@ -33,6 +33,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.json.Json;
+import javax.json.JsonValue;
 import java.math.BigDecimal;
 import java.net.URI;
 
@@ -239,4 +240,107 @@ public final class GithubRepoTestCase {
 
         repo.activate();
     }
+
+    /**
+     * The labels known to exist in a repo are shared by the Issues of the
+     * same Github, but not with another Github.
+     */
+    @Test
+    public void knowsLabelsPerGithub() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        200, Json.createArrayBuilder().build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        201, JsonValue.NULL
+                    );
+                }
+                return resource;
+            }
+        );
+        final Github github = new Github(
+            Mockito.mock(User.class), Mockito.mock(Storage.class), resources
+        );
+        GithubRepoTestCase.issue(github, 1).labels().add("bug");
+        GithubRepoTestCase.issue(github, 2).labels().add("bug");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(4)
+        );
+        GithubRepoTestCase.issue(
+            new Github(
+                Mockito.mock(User.class),
+                Mockito.mock(Storage.class),
+                resources
+            ),
+            3
+        ).labels().add("bug");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(7)
+        );
+    }
+
+    /**
+     * The snapshots of the Issues are shared by the repos of the same
+     * Github, but not with another Github.
+     */
+    @Test
+    public void keepsSnapshotsPerGithub() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                200,
+                Json.createObjectBuilder()
+                    .add("number", 1)
+                    .add(
+                        "url",
+                        "https://api.github.com/repos/amihaiemil/test/issues/1"
+                    )
+                    .build()
+            )
+        );
+        final Github github = new Github(
+            Mockito.mock(User.class), Mockito.mock(Storage.class), resources
+        );
+        GithubRepoTestCase.issue(github, 1);
+        MatcherAssert.assertThat(
+            github.repo("amihaiemil", "test").issues().getById("1").issueId(),
+            Matchers.equalTo("1")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(0)
+        );
+        MatcherAssert.assertThat(
+            new Github(
+                Mockito.mock(User.class),
+                Mockito.mock(Storage.class),
+                resources
+            ).repo("amihaiemil", "test").issues().getById("1").issueId(),
+            Matchers.equalTo("1")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+    }
+
+    /**
+     * Issue of the repo amihaiemil/test, as received from a webhook.
+     * @param github Github.
+     * @param number Number of the Issue.
+     * @return Issue.
+     */
+    private static Issue issue(final Github github, final int number) {
+        return github.repo("amihaiemil", "test").issues().received(
+            Json.createObjectBuilder()
+                .add("number", number)
+                .add(
+                    "url",
+                    "https://api.github.com/repos/amihaiemil/test/issues/"
+                    + number
+                )
+                .build()
+        );
+    }
 }
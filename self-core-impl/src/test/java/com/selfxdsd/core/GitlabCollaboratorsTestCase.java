@@ -33,6 +33,7 @@ import org.mockito.Mockito;
 
 import javax.json.Json;
 import java.net.HttpURLConnection;
+import java.util.function.Function;
 
 /**
  * Unit tests for {@link GitlabCollaborators}.
@@ -54,7 +55,7 @@ public final class GitlabCollaboratorsTestCase {
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Gitlab("gitlab123"),
-                req -> {
+                GitlabCollaboratorsTestCase.withProject(req -> {
                     MatcherAssert.assertThat(
                         req.getAccessToken().value(),
                         Matchers.equalTo("gitlab123")
@@ -73,13 +74,13 @@ public final class GitlabCollaboratorsTestCase {
                     MatcherAssert.assertThat(
                         req.getUri().toString(),
                         Matchers.equalTo("https://gitlab.com/api/v4/"
-                                + "projects/amihaiemil%2Frepo/members")
+                                + "projects/123/members")
                     );
                     return new MockJsonResources.MockResource(
                         HttpURLConnection.HTTP_CREATED,
                         Json.createObjectBuilder().build()
                     );
-                }
+                })
             )
         );
         final boolean res = provider
@@ -104,7 +105,7 @@ public final class GitlabCollaboratorsTestCase {
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Gitlab("gitlab123"),
-                req -> {
+                GitlabCollaboratorsTestCase.withProject(req -> {
                     MatcherAssert.assertThat(
                         req.getAccessToken().value(),
                         Matchers.equalTo("gitlab123")
@@ -123,13 +124,13 @@ public final class GitlabCollaboratorsTestCase {
                     MatcherAssert.assertThat(
                         req.getUri().toString(),
                         Matchers.equalTo("https://gitlab.com/api/v4/"
-                                + "projects/amihaiemil%2Frepo/members")
+                                + "projects/123/members")
                     );
                     return new MockJsonResources.MockResource(
                         HttpURLConnection.HTTP_CONFLICT,
                         Json.createObjectBuilder().build()
                     );
-                }
+                })
             )
         );
         final boolean res = provider
@@ -154,7 +155,7 @@ public final class GitlabCollaboratorsTestCase {
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Gitlab("gitlab123"),
-                req -> {
+                GitlabCollaboratorsTestCase.withProject(req -> {
                     MatcherAssert.assertThat(
                         req.getAccessToken().value(),
                         Matchers.equalTo("gitlab123")
@@ -173,13 +174,13 @@ public final class GitlabCollaboratorsTestCase {
                     MatcherAssert.assertThat(
                         req.getUri().toString(),
                         Matchers.equalTo("https://gitlab.com/api/v4/"
-                                + "projects/amihaiemil%2Frepo/members")
+                                + "projects/123/members")
                     );
                     return new MockJsonResources.MockResource(
                         HttpURLConnection.HTTP_NOT_FOUND,
                         Json.createObjectBuilder().build()
                     );
-                }
+                })
             )
         );
         final boolean res = provider
@@ -203,7 +204,7 @@ public final class GitlabCollaboratorsTestCase {
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Gitlab("gitlab123"),
-                req -> {
+                GitlabCollaboratorsTestCase.withProject(req -> {
                     MatcherAssert.assertThat(
                         req.getAccessToken().value(),
                         Matchers.equalTo("gitlab123")
@@ -222,13 +223,13 @@ public final class GitlabCollaboratorsTestCase {
                     MatcherAssert.assertThat(
                         req.getUri().toString(),
                         Matchers.equalTo("https://gitlab.com/api/v4/"
-                            + "projects/amihaiemil%2Frepo/members/12345")
+                            + "projects/123/members/12345")
                     );
                     return new MockJsonResources.MockResource(
                         HttpURLConnection.HTTP_NO_CONTENT,
                         Json.createObjectBuilder().build()
                     );
-                }
+                })
             )
         );
         final boolean res = provider
@@ -252,7 +253,7 @@ public final class GitlabCollaboratorsTestCase {
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Gitlab("gitlab123"),
-                req -> {
+                GitlabCollaboratorsTestCase.withProject(req -> {
                     MatcherAssert.assertThat(
                         req.getAccessToken().value(),
                         Matchers.equalTo("gitlab123")
@@ -271,13 +272,13 @@ public final class GitlabCollaboratorsTestCase {
                     MatcherAssert.assertThat(
                         req.getUri().toString(),
                         Matchers.equalTo("https://gitlab.com/api/v4/"
-                            + "projects/amihaiemil%2Frepo/members/12345")
+                            + "projects/123/members/12345")
                     );
                     return new MockJsonResources.MockResource(
                         HttpURLConnection.HTTP_NOT_FOUND,
                         Json.createObjectBuilder().build()
                     );
-                }
+                })
             )
         );
         final boolean res = provider
@@ -289,4 +290,29 @@ public final class GitlabCollaboratorsTestCase {
         );
     }
 
+    /**
+     * Gitlab which answers the project lookup with id 123 and sends the
+     * other requests to the given handler.
+     * @param handler Handler of the other requests.
+     * @return Request handler.
+     */
+    private static Function<MockJsonResources.MockRequest,
+        MockJsonResources.MockResource> withProject(
+        final Function<MockJsonResources.MockRequest,
+            MockJsonResources.MockResource> handler
+    ) {
+        return req -> {
+            final MockJsonResources.MockResource resource;
+            if("GET".equals(req.getMethod()) && req.getUri().toString()
+                .endsWith("/projects/amihaiemil%2Frepo")) {
+                resource = new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().add("id", 123).build()
+                );
+            } else {
+                resource = handler.apply(req);
+            }
+            return resource;
+        };
+    }
 }
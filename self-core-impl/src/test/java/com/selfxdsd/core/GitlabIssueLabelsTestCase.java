@@ -160,4 +160,66 @@ public final class GitlabIssueLabelsTestCase {
         );
     }
 
+    /**
+     * Labels can be added asynchronously.
+     */
+    @Test
+    public void canAddLabelsAsync() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                JsonValue.NULL
+            )
+        );
+        final Labels labels = new GitlabIssueLabels(
+            URI.create("https://gitlab.com/api/v4/projects/1/issues/1"),
+            resources,
+            Mockito.mock(JsonObject.class)
+        );
+        MatcherAssert.assertThat(
+            labels.addAsync("bug", "puzzle").join(),
+            Matchers.is(true)
+        );
+        final MockJsonResources.MockRequest req = resources.requests().first();
+        MatcherAssert.assertThat(req.getMethod(), Matchers.equalTo("PUT"));
+        MatcherAssert.assertThat(
+            req.getBody().asJsonObject().getString("add_labels"),
+            Matchers.equalTo("bug,puzzle")
+        );
+    }
+
+    /**
+     * GitlabIssueLabels fetches the Issue if the labels are missing
+     * from its JSON.
+     */
+    @Test
+    public void fetchesIssueIfLabelsAreMissing() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder()
+                    .add("iid", 1)
+                    .add(
+                        "labels",
+                        Json.createArrayBuilder().add(
+                            Json.createObjectBuilder().add("name", "bug")
+                        )
+                    )
+                    .build()
+            )
+        );
+        final URI uri = URI.create(
+            "https://gitlab.com/api/v4/projects/"
+            + "/amihaiemil%2Ftestrepo/issues/1"
+        );
+        final Labels labels = new GitlabIssueLabels(
+            uri,
+            resources,
+            Json.createObjectBuilder().add("iid", 1).build()
+        );
+        MatcherAssert.assertThat(labels, Matchers.iterableWithSize(1));
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(), Matchers.equalTo(uri)
+        );
+    }
 }
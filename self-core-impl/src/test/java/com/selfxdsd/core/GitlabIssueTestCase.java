@@ -37,6 +37,8 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
 
 /**
  * Unit tests for {@link GitlabIssue}.
@@ -302,7 +304,7 @@ public final class GitlabIssueTestCase {
         final MockJsonResources resources = new MockJsonResources((req) -> {
             final JsonValue body;
             if (req.getUri().toString()
-                .endsWith("search?scope=users&search=john")) {
+                .contains("/users?username=")) {
                 body = Json
                     .createArrayBuilder()
                     .add(Json.createObjectBuilder()
@@ -321,23 +323,31 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(
+                10, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+            )
         ).assign("john");
 
         final MockJsonResources.MockRequests requests = resources.requests();
-        //checking GET "members" request
+        //checking GET "users" request
         MatcherAssert.assertThat(requests.first().getUri().toString(),
-            Matchers.equalTo("https://gitlab.com/api/v4/projects"
-                + "/john%2Ftest/search?scope=users&search=john"));
+            Matchers.equalTo("https://gitlab.com/api/v4/users?username=john"));
         MatcherAssert.assertThat(requests.first().getMethod(), Matchers
             .equalTo("GET"));
-        //checking PUT "assign" request
+        //checking GET "member" request
         MatcherAssert.assertThat(requests.atIndex(1).getUri().toString(),
             Matchers.equalTo("https://gitlab.com/api/v4/projects"
-                + "/john%2Ftest/issues/1"));
+                + "/john%2Ftest/members/all/1"));
         MatcherAssert.assertThat(requests.atIndex(1).getMethod(), Matchers
+            .equalTo("GET"));
+        //checking PUT "assign" request
+        MatcherAssert.assertThat(requests.atIndex(2).getUri().toString(),
+            Matchers.equalTo("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/issues/1"));
+        MatcherAssert.assertThat(requests.atIndex(2).getMethod(), Matchers
             .equalTo("PUT"));
-        MatcherAssert.assertThat(requests.atIndex(1).getBody(), Matchers
+        MatcherAssert.assertThat(requests.atIndex(2).getBody(), Matchers
             .equalTo(Json.createObjectBuilder()
                 .add("assignee_id", 1)
                 .build()));
@@ -353,7 +363,7 @@ public final class GitlabIssueTestCase {
         final MockJsonResources resources = new MockJsonResources((req) -> {
             final MockJsonResources.MockResource res;
             if (req.getUri().toString()
-                .endsWith("search?scope=users&search=john")) {
+                .contains("/users?username=")) {
                 res = new MockJsonResources.MockResource(200, Json
                     .createArrayBuilder()
                     .add(Json.createObjectBuilder()
@@ -361,6 +371,9 @@ public final class GitlabIssueTestCase {
                         .add("username", "john")
                         .build())
                     .build());
+            } else if (req.getUri().toString().contains("/members/all/")) {
+                res = new MockJsonResources.MockResource(200,
+                    JsonValue.NULL);
             } else {
                 res = new MockJsonResources.MockResource(500,
                     JsonValue.NULL);
@@ -372,7 +385,10 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(
+                10, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+            )
         ).assign("john");
 
         MatcherAssert.assertThat(assigned, Matchers.is(false));
@@ -386,7 +402,7 @@ public final class GitlabIssueTestCase {
         final MockJsonResources resources = new MockJsonResources((req) -> {
             final int code;
             if (req.getUri().toString()
-                .endsWith("search?scope=users&search=john")) {
+                .contains("/users?username=")) {
                 code = 500;
             } else {
                 code = 200;
@@ -398,7 +414,10 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(
+                10, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+            )
         ).assign("john");
 
         MatcherAssert.assertThat(assigned, Matchers.is(false));
@@ -412,7 +431,7 @@ public final class GitlabIssueTestCase {
         final MockJsonResources resources = new MockJsonResources((req) -> {
             final JsonValue body;
             if (req.getUri().toString()
-                .endsWith("search?scope=users&search=john")) {
+                .contains("/users?username=")) {
                 body = Json
                     .createArrayBuilder()
                     .add(Json.createObjectBuilder()
@@ -430,7 +449,10 @@ public final class GitlabIssueTestCase {
                 + "/john%2Ftest/issues/1"),
             JsonObject.EMPTY_JSON_OBJECT,
             Mockito.mock(Storage.class),
-            resources
+            resources,
+            new GitlabUserIds(
+                10, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+            )
         ).assign("dan");
 
         MatcherAssert.assertThat(assigned, Matchers.is(false));
@@ -581,4 +603,107 @@ public final class GitlabIssueTestCase {
             )
         );
     }
+
+    /**
+     * Assigning more Issues of the same Project to the same user looks up
+     * their id and checks their membership only once.
+     */
+    @Test
+    public void looksUpUserIdOnce() {
+        final MockJsonResources resources = new MockJsonResources((req) -> {
+            final JsonValue body;
+            if (req.getUri().toString().contains("/users?username=")) {
+                body = Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder()
+                        .add("id", 1)
+                        .add("username", "john"))
+                    .build();
+            } else {
+                body = JsonValue.NULL;
+            }
+            return new MockJsonResources.MockResource(200, body);
+        });
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+        );
+        for(int iid = 1; iid <= 3; ++iid) {
+            MatcherAssert.assertThat(
+                new GitlabIssue(
+                    URI.create(
+                        "https://gitlab.com/api/v4/projects/john%2Ftest/issues/"
+                        + iid
+                    ),
+                    JsonObject.EMPTY_JSON_OBJECT,
+                    Mockito.mock(Storage.class),
+                    resources,
+                    userIds
+                ).assign("john"),
+                Matchers.is(true)
+            );
+        }
+        int lookups = 0;
+        int members = 0;
+        for(final MockJsonResources.MockRequest req : resources.requests()) {
+            if(req.getUri().toString().contains("/users?username=")) {
+                lookups = lookups + 1;
+            }
+            if(req.getUri().toString().contains("/members/all/")) {
+                members = members + 1;
+            }
+        }
+        MatcherAssert.assertThat(lookups, Matchers.equalTo(1));
+        MatcherAssert.assertThat(members, Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(5)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(4).getMethod(),
+            Matchers.equalTo("PUT")
+        );
+    }
+
+    /**
+     * GitlabIssue.assign(...) fails if the user is not a member of the
+     * Issue's Project, without trying to assign them.
+     */
+    @Test
+    public void assignFailsIfUserIsNotProjectMember() {
+        final MockJsonResources resources = new MockJsonResources((req) -> {
+            final MockJsonResources.MockResource res;
+            if (req.getUri().toString().contains("/users?username=")) {
+                res = new MockJsonResources.MockResource(200, Json
+                    .createArrayBuilder()
+                    .add(Json.createObjectBuilder()
+                        .add("id", 1)
+                        .add("username", "john"))
+                    .build());
+            } else if (req.getUri().toString().contains("/members/all/")) {
+                res = new MockJsonResources.MockResource(404,
+                    JsonValue.NULL);
+            } else {
+                res = new MockJsonResources.MockResource(200,
+                    JsonValue.NULL);
+            }
+            return res;
+        });
+        final GitlabIssue issue = new GitlabIssue(
+            URI.create("https://gitlab.com/api/v4/projects"
+                + "/john%2Ftest/issues/1"),
+            JsonObject.EMPTY_JSON_OBJECT,
+            Mockito.mock(Storage.class),
+            resources,
+            new GitlabUserIds(
+                10, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+            )
+        );
+        MatcherAssert.assertThat(issue.assign("john"), Matchers.is(false));
+        MatcherAssert.assertThat(
+            issue.assignAsync("john").join(), Matchers.is(false)
+        );
+        for(final MockJsonResources.MockRequest req : resources.requests()) {
+            MatcherAssert.assertThat(
+                req.getMethod(), Matchers.equalTo("GET")
+            );
+        }
+    }
 }
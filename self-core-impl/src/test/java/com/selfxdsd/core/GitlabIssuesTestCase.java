@@ -22,12 +22,23 @@
  */
 package com.selfxdsd.core;
 
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Issues;
 import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.mock.MockJsonResources;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Unit tests for {@link GitlabIssues}.
@@ -75,15 +86,59 @@ public final class GitlabIssuesTestCase {
     }
 
     /**
-     * GitlabIssues.getById(...) is not implemented yet.
+     * GitlabIssues.search(...) reads the found Issues page by page, only
+     * as they are iterated.
      */
-    @Test(expected = UnsupportedOperationException.class)
-    public void searchIsNotImplemented() {
-        new GitlabIssues(
-            Mockito.mock(JsonResources.class),
+    @Test
+    public void searchesIssuesPageByPage() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if(req.getUri().toString().contains("&page=2")) {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder()
+                            .add(Json.createObjectBuilder().add("iid", 1))
+                            .build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder()
+                            .add(Json.createObjectBuilder().add("iid", 3))
+                            .add(Json.createObjectBuilder().add("iid", 2))
+                            .build(),
+                        Map.of("X-Next-Page", List.of("2"))
+                    );
+                }
+                return resource;
+            }
+        );
+        final Issues found = new GitlabIssues(
+            resources,
             URI.create("https://gitlab.com/api/v4/projects/john%2Ftest/issues"),
             Mockito.mock(Storage.class)
-        ).search("", "");
+        ).search("some bug", "bug", "puzzle");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(0)
+        );
+        MatcherAssert.assertThat(
+            found.getById("3").issueId(), Matchers.equalTo("3")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://gitlab.com/api/v4/projects/john%2Ftest/issues"
+                    + "?order_by=created_at&sort=desc&search=some+bug"
+                    + "&labels=bug%2Cpuzzle&per_page=100"
+                )
+            )
+        );
+        MatcherAssert.assertThat(found, Matchers.iterableWithSize(3));
     }
 
     /**
@@ -97,4 +152,170 @@ public final class GitlabIssuesTestCase {
             Mockito.mock(Storage.class)
         ).iterator();
     }
+
+    /**
+     * GitlabIssues can fetch more Issues with one request.
+     */
+    @Test
+    public void getsIssuesByIds() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder()
+                    .add(Json.createObjectBuilder().add("iid", 1))
+                    .add(Json.createObjectBuilder().add("iid", 3))
+                    .build()
+            )
+        );
+        final Map<String, Issue> found = new GitlabIssues(
+            resources,
+            URI.create("https://gitlab.com/api/v4/projects/john%2Ftest/issues"),
+            Mockito.mock(Storage.class)
+        ).getByIds(List.of("1", "2", "3"));
+        MatcherAssert.assertThat(found.keySet(), Matchers.contains("1", "3"));
+        MatcherAssert.assertThat(
+            found.get("3").issueId(), Matchers.equalTo("3")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://gitlab.com/api/v4/projects/john%2Ftest/issues"
+                    + "?iids%5B%5D=1&iids%5B%5D=2&iids%5B%5D=3&per_page=100"
+                )
+            )
+        );
+    }
+
+    /**
+     * GitlabIssues lists the Issues closed since a given time and stops
+     * as soon as it found the given ones.
+     */
+    @Test
+    public void getsClosedIssuesSince() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if(req.getUri().toString().contains("&page=2")) {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder()
+                            .add(Json.createObjectBuilder().add("iid", 1))
+                            .build(),
+                        Map.of("X-Next-Page", List.of("3"))
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder()
+                            .add(Json.createObjectBuilder().add("iid", 3))
+                            .add(Json.createObjectBuilder().add("iid", 2))
+                            .build(),
+                        Map.of("X-Next-Page", List.of("2"))
+                    );
+                }
+                return resource;
+            }
+        );
+        final Map<String, Issue> closed = new GitlabIssues(
+            resources,
+            URI.create("https://gitlab.com/api/v4/projects/john%2Ftest/issues"),
+            Mockito.mock(Storage.class)
+        ).closedSince(
+            List.of("1", "3"), LocalDateTime.of(2020, 1, 1, 10, 0)
+        );
+        MatcherAssert.assertThat(
+            closed.keySet(), Matchers.contains("3", "1")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://gitlab.com/api/v4/projects/john%2Ftest/issues"
+                    + "?state=closed&updated_after=2020-01-01T10:00:00Z"
+                    + "&per_page=100"
+                )
+            )
+        );
+    }
+
+    /**
+     * GitlabIssues fails if the closed Issues cannot be listed, so no
+     * closed Issue is taken for an open one.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void complainsIfClosedIssuesCannotBeListed() {
+        new GitlabIssues(
+            new MockJsonResources(
+                req -> new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_INTERNAL_ERROR,
+                    JsonValue.NULL
+                )
+            ),
+            URI.create("https://gitlab.com/api/v4/projects/john%2Ftest/issues"),
+            Mockito.mock(Storage.class)
+        ).closedSince(List.of("1"), LocalDateTime.now());
+    }
+
+    /**
+     * The Issues of the same GitlabIssues share the user ids and the
+     * memberships, so assigning the same user on all of them looks the
+     * user up only once.
+     */
+    @Test
+    public void sharesUserIdsBetweenIssues() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final JsonValue body;
+                final String uri = req.getUri().toString();
+                if(uri.contains("/users?username=")) {
+                    body = Json.createArrayBuilder()
+                        .add(
+                            Json.createObjectBuilder()
+                                .add("id", 1)
+                                .add("username", "john")
+                        ).build();
+                } else if(uri.contains("/issues?")) {
+                    body = Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("iid", 1))
+                        .add(Json.createObjectBuilder().add("iid", 2))
+                        .build();
+                } else {
+                    body = JsonValue.NULL;
+                }
+                return new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK, body
+                );
+            }
+        );
+        final Map<String, Issue> issues = new GitlabIssues(
+            resources,
+            URI.create("https://gitlab.com/api/v4/projects/john%2Ftest/issues"),
+            Mockito.mock(Storage.class)
+        ).getByIds(List.of("1", "2"));
+        MatcherAssert.assertThat(
+            issues.get("1").assign("john"), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            issues.get("2").assign("john"), Matchers.is(true)
+        );
+        int lookups = 0;
+        int members = 0;
+        for(final MockJsonResources.MockRequest req : resources.requests()) {
+            if(req.getUri().toString().contains("/users?username=")) {
+                lookups = lookups + 1;
+            }
+            if(req.getUri().toString().contains("/members/all/")) {
+                members = members + 1;
+            }
+        }
+        MatcherAssert.assertThat(lookups, Matchers.equalTo(1));
+        MatcherAssert.assertThat(members, Matchers.equalTo(1));
+    }
 }
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for {@link GitlabProjectIds}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class GitlabProjectIdsTestCase {
+
+    /**
+     * The id is read once and then used for the project's URI.
+     */
+    @Test
+    public void resolvesIdOnce() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Supplier<JsonObject> json = () -> {
+            reads.incrementAndGet();
+            return Json.createObjectBuilder().add("id", 123).build();
+        };
+        final GitlabProjectIds ids = new GitlabProjectIds();
+        final URI path = URI.create(
+            "https://gitlab.com/api/v4/projects/john%2Ftest"
+        );
+        final URI numeric = URI.create(
+            "https://gitlab.com/api/v4/projects/123"
+        );
+        MatcherAssert.assertThat(ids.known(path), Matchers.is(path));
+        MatcherAssert.assertThat(
+            ids.resolved(path, json),
+            Matchers.equalTo(numeric)
+        );
+        MatcherAssert.assertThat(
+            ids.resolved(
+                URI.create("https://gitlab.com/api/v4/projects/John%2FTest/"),
+                json
+            ),
+            Matchers.equalTo(numeric)
+        );
+        MatcherAssert.assertThat(
+            ids.known(path),
+            Matchers.equalTo(numeric)
+        );
+        MatcherAssert.assertThat(reads.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * URIs which already have the numeric id, or which are not Gitlab
+     * project URIs, are not resolved.
+     */
+    @Test
+    public void doesNotResolveOtherUris() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Supplier<JsonObject> json = () -> {
+            reads.incrementAndGet();
+            return Json.createObjectBuilder().add("id", 123).build();
+        };
+        final GitlabProjectIds ids = new GitlabProjectIds();
+        final URI numeric = URI.create("https://gitlab.com/api/v4/projects/5");
+        final URI other = URI.create("http://localhost:8080/repos/mihai/test");
+        MatcherAssert.assertThat(
+            ids.resolved(numeric, json), Matchers.is(numeric)
+        );
+        MatcherAssert.assertThat(
+            ids.resolved(other, json), Matchers.is(other)
+        );
+        MatcherAssert.assertThat(reads.get(), Matchers.equalTo(0));
+    }
+
+    /**
+     * If the project's JSON has no id, the path is kept.
+     */
+    @Test
+    public void keepsPathWithoutId() {
+        final GitlabProjectIds ids = new GitlabProjectIds();
+        final URI path = URI.create(
+            "https://gitlab.com/api/v4/projects/john%2Ftest"
+        );
+        MatcherAssert.assertThat(
+            ids.resolved(path, () -> JsonObject.EMPTY_JSON_OBJECT),
+            Matchers.is(path)
+        );
+    }
+}
@@ -178,4 +178,108 @@ public final class GitlabRepoTestCase {
             )
         );
     }
+
+    /**
+     * A GitlabRepo resolves the numeric id of the project once and uses
+     * it in the URIs of its sub-resources.
+     */
+    @Test
+    public void usesNumericProjectId() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        200,
+                        Json.createObjectBuilder()
+                            .add("id", 7)
+                            .add("path_with_namespace", "mihai/test")
+                            .build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        201, Json.createObjectBuilder().build()
+                    );
+                }
+                return resource;
+            }
+        );
+        final GitlabProjectIds projectIds = new GitlabProjectIds();
+        final URI uri = URI.create(
+            "https://gitlab.com/api/v4/projects/mihai%2Ftest"
+        );
+        new GitlabRepo(
+            resources, uri, Mockito.mock(User.class),
+            Mockito.mock(Storage.class), projectIds
+        ).collaborators().invite("1");
+        new GitlabRepo(
+            resources, uri, Mockito.mock(User.class),
+            Mockito.mock(Storage.class), projectIds
+        ).collaborators().invite("2");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(), Matchers.equalTo(uri)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(1).getUri(),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/api/v4/projects/7/members")
+            )
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(2).getUri(),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/api/v4/projects/7/members")
+            )
+        );
+    }
+
+    /**
+     * The numeric project ids are shared by the repos of the same Gitlab,
+     * but not with another Gitlab.
+     */
+    @Test
+    public void knowsProjectIdsPerGitlab() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                if("GET".equals(req.getMethod())) {
+                    resource = new MockJsonResources.MockResource(
+                        200,
+                        Json.createObjectBuilder()
+                            .add("id", 7)
+                            .add("path_with_namespace", "mihai/test")
+                            .build()
+                    );
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        201, Json.createObjectBuilder().build()
+                    );
+                }
+                return resource;
+            }
+        );
+        final Gitlab gitlab = new Gitlab(
+            Mockito.mock(User.class), Mockito.mock(Storage.class), resources
+        );
+        gitlab.repo("mihai", "test").collaborators().invite("1");
+        gitlab.repo("mihai", "test").collaborators().invite("2");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+        new Gitlab(
+            Mockito.mock(User.class), Mockito.mock(Storage.class), resources
+        ).repo("mihai", "test").collaborators().invite("3");
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(5)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(4).getUri(),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/api/v4/projects/7/members")
+            )
+        );
+    }
 }
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for {@link GitlabUserIds}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class GitlabUserIdsTestCase {
+
+    /**
+     * Gitlab API.
+     */
+    private static final URI GITLAB = URI.create("https://gitlab.com/api/v4");
+
+    /**
+     * Found ids are looked up once, with the users endpoint.
+     */
+    @Test
+    public void keepsFoundIds() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.users();
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            userIds.userId(GITLAB, "john", resources), Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            userIds.userId(GITLAB, "John", resources), Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            userIds.userIdAsync(GITLAB, "john", resources).join(),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri(),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/api/v4/users?username=john")
+            )
+        );
+    }
+
+    /**
+     * Missing users are kept for a shorter time.
+     */
+    @Test
+    public void keepsMissingUsers() {
+        final AtomicReference<Instant> now = new AtomicReference<>(
+            Instant.parse("2020-01-01T10:00:00Z")
+        );
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenAnswer(inv -> now.get());
+        final MockJsonResources resources = GitlabUserIdsTestCase.users();
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofMinutes(1), clock
+        );
+        MatcherAssert.assertThat(
+            userIds.userId(GITLAB, "dan", resources), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            userIds.userId(GITLAB, "dan", resources), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(1)
+        );
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+        userIds.userId(GITLAB, "dan", resources);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Failed lookups are not kept.
+     */
+    @Test
+    public void doesNotKeepFailedLookups() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_INTERNAL_ERROR, JsonValue.NULL
+            )
+        );
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            userIds.userId(GITLAB, "john", resources), Matchers.nullValue()
+        );
+        userIds.userId(GITLAB, "john", resources);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Each Gitlab instance has its own users.
+     */
+    @Test
+    public void keepsIdsPerInstance() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.users();
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        userIds.userId(GITLAB, "john", resources);
+        userIds.userId(
+            URI.create("https://gitlab.example.com/api/v4"), "john", resources
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * The least recently used ids are evicted.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.users();
+        final GitlabUserIds userIds = new GitlabUserIds(
+            1, Duration.ofHours(1), Duration.ofHours(1), Clock.systemUTC()
+        );
+        userIds.userId(GITLAB, "john", resources);
+        userIds.userId(GITLAB, "dan", resources);
+        userIds.userId(GITLAB, "john", resources);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+    }
+
+    /**
+     * The membership of a user is checked once for each Project.
+     */
+    @Test
+    public void keepsMemberships() {
+        final MockJsonResources resources = GitlabUserIdsTestCase.users();
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofMinutes(1), Clock.systemUTC()
+        );
+        final URI project = URI.create(GITLAB + "/projects/john%2Ftest");
+        MatcherAssert.assertThat(
+            userIds.memberId(project, "john", resources), Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            userIds.memberIdAsync(project, "john", resources).join(),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(1).getUri(),
+            Matchers.equalTo(
+                URI.create(
+                    "https://gitlab.com/api/v4/projects/john%2Ftest"
+                    + "/members/all/1"
+                )
+            )
+        );
+        userIds.memberId(
+            URI.create(GITLAB + "/projects/john%2Fother"), "john", resources
+        );
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+    }
+
+    /**
+     * Non-members are kept for a shorter time, failed membership checks
+     * are not kept.
+     */
+    @Test
+    public void keepsNonMembers() {
+        final AtomicReference<Instant> now = new AtomicReference<>(
+            Instant.parse("2020-01-01T10:00:00Z")
+        );
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenAnswer(inv -> now.get());
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockJsonResources.MockResource resource;
+                final String uri = req.getUri().toString();
+                if(uri.contains("/members/all/")) {
+                    if(uri.contains("/broken/")) {
+                        resource = new MockJsonResources.MockResource(
+                            HttpURLConnection.HTTP_INTERNAL_ERROR,
+                            JsonValue.NULL
+                        );
+                    } else {
+                        resource = new MockJsonResources.MockResource(
+                            HttpURLConnection.HTTP_NOT_FOUND,
+                            JsonValue.NULL
+                        );
+                    }
+                } else {
+                    resource = new MockJsonResources.MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder()
+                            .add(
+                                Json.createObjectBuilder()
+                                    .add("id", 1)
+                                    .add("username", "john")
+                            ).build()
+                    );
+                }
+                return resource;
+            }
+        );
+        final GitlabUserIds userIds = new GitlabUserIds(
+            10, Duration.ofHours(1), Duration.ofMinutes(1), clock
+        );
+        final URI project = URI.create(GITLAB + "/projects/john%2Ftest");
+        MatcherAssert.assertThat(
+            userIds.memberId(project, "john", resources), Matchers.nullValue()
+        );
+        userIds.memberId(project, "john", resources);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(2)
+        );
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+        userIds.memberId(project, "john", resources);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(3)
+        );
+        final URI broken = URI.create(GITLAB + "/projects/broken");
+        MatcherAssert.assertThat(
+            userIds.memberId(broken, "john", resources), Matchers.nullValue()
+        );
+        userIds.memberId(broken, "john", resources);
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(5)
+        );
+    }
+
+    /**
+     * Gitlab which knows only the user "john", with id 1.
+     * @return MockJsonResources.
+     */
+    private static MockJsonResources users() {
+        return new MockJsonResources(
+            req -> {
+                final JsonValue body;
+                if(req.getUri().toString().endsWith("username=john")) {
+                    body = Json.createArrayBuilder()
+                        .add(
+                            Json.createObjectBuilder()
+                                .add("id", 1)
+                                .add("username", "john")
+                        ).build();
+                } else {
+                    body = Json.createArrayBuilder().build();
+                }
+                return new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK, body
+                );
+            }
+        );
+    }
+}
@@ -35,6 +35,7 @@ import org.mockito.Mockito;
 import javax.json.Json;
 import javax.json.JsonValue;
 import java.net.HttpURLConnection;
+import java.util.function.Function;
 
 /**
  * Unit tests for {@link GitlabWebhooks}.
@@ -57,7 +58,7 @@ public final class GitlabWebhooksTestCase {
             Mockito.mock(Storage.class),
             new MockJsonResources(
                 new AccessToken.Gitlab("gitlab123"),
-                req -> {
+                GitlabWebhooksTestCase.withProject(req -> {
                     MatcherAssert.assertThat(
                         req.getAccessToken().value(),
                         Matchers.equalTo("gitlab123")
@@ -80,15 +81,14 @@ public final class GitlabWebhooksTestCase {
                     MatcherAssert.assertThat(
                         req.getUri().toString(),
                         Matchers.equalTo(
-                            "https://gitlab.com/api/v4/projects"
-                                + "/amihaiemil%2Frepo/hooks"
+                            "https://gitlab.com/api/v4/projects/123/hooks"
                         )
                     );
                     return new MockJsonResources.MockResource(
                         HttpURLConnection.HTTP_CREATED,
                         Json.createObjectBuilder().build()
                     );
-                }
+                })
             )
         );
         final boolean res = provider
@@ -124,4 +124,29 @@ public final class GitlabWebhooksTestCase {
         MatcherAssert.assertThat(res, Matchers.is(Boolean.FALSE));
     }
 
+    /**
+     * Gitlab which answers the project lookup with id 123 and sends the
+     * other requests to the given handler.
+     * @param handler Handler of the other requests.
+     * @return Request handler.
+     */
+    private static Function<MockJsonResources.MockRequest,
+        MockJsonResources.MockResource> withProject(
+        final Function<MockJsonResources.MockRequest,
+            MockJsonResources.MockResource> handler
+    ) {
+        return req -> {
+            final MockJsonResources.MockResource resource;
+            if("GET".equals(req.getMethod()) && req.getUri().toString()
+                .endsWith("/projects/amihaiemil%2Frepo")) {
+                resource = new MockJsonResources.MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().add("id", 123).build()
+                );
+            } else {
+                resource = handler.apply(req);
+            }
+            return resource;
+        };
+    }
 }
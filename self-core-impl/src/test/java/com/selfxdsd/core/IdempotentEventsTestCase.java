@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Comment;
+import com.selfxdsd.api.Commit;
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Events;
+import com.selfxdsd.api.Issue;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.Provider;
+import com.selfxdsd.api.User;
+import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.mock.MockJsonResources;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.json.Json;
+import javax.json.JsonObject;
+
+/**
+ * Unit tests for {@link IdempotentEvents}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class IdempotentEventsTestCase {
+
+    /**
+     * An Event delivered twice is submitted only once.
+     */
+    @Test
+    public void dropsRedeliveredEvent() {
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class))).thenReturn(true);
+        final Events events = new IdempotentEvents(origin);
+        final Event event = IdempotentEventsTestCase.event(
+            Event.Type.ASSIGNED_TASKS, "1", null
+        );
+        Mockito.when(event.deliveryId()).thenReturn("delivery-1");
+        MatcherAssert.assertThat(events.submit(event), Matchers.is(true));
+        MatcherAssert.assertThat(events.submit(event), Matchers.is(true));
+        Mockito.verify(origin, Mockito.times(1)).submit(event);
+    }
+
+    /**
+     * Without a delivery ID, a new Issue or a Comment are recognized by
+     * their IDs.
+     */
+    @Test
+    public void dropsDuplicateIssuesAndComments() {
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class))).thenReturn(true);
+        final Events events = new IdempotentEvents(origin);
+        final Event issue = IdempotentEventsTestCase.event(
+            Event.Type.NEW_ISSUE, "1", null
+        );
+        final Event comment = IdempotentEventsTestCase.event(
+            Event.Type.ISSUE_COMMENT, "1", "100"
+        );
+        final Event other = IdempotentEventsTestCase.event(
+            Event.Type.ISSUE_COMMENT, "1", "101"
+        );
+        events.submit(issue);
+        events.submit(issue);
+        events.submit(comment);
+        events.submit(comment);
+        events.submit(other);
+        Mockito.verify(origin, Mockito.times(1)).submit(issue);
+        Mockito.verify(origin, Mockito.times(1)).submit(comment);
+        Mockito.verify(origin, Mockito.times(1)).submit(other);
+    }
+
+    /**
+     * Events which cannot be recognized are always submitted.
+     */
+    @Test
+    public void submitsUnrecognizedEvents() {
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class))).thenReturn(true);
+        final Events events = new IdempotentEvents(origin);
+        final Event sweep = IdempotentEventsTestCase.event(
+            Event.Type.UNASSIGNED_TASKS, null, null
+        );
+        events.submit(sweep);
+        events.submit(sweep);
+        Mockito.verify(origin, Mockito.times(2)).submit(sweep);
+    }
+
+    /**
+     * An Event is submitted again after the window passes.
+     */
+    @Test
+    public void forgetsEventsAfterWindow() {
+        final AtomicReference<Instant> now = new AtomicReference<>(
+            Instant.parse("2020-10-01T10:00:00Z")
+        );
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis())
+            .thenAnswer(inv -> now.get().toEpochMilli());
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class))).thenReturn(true);
+        final Events events = new IdempotentEvents(
+            origin, Duration.ofMinutes(10), 100, clock
+        );
+        final Event issue = IdempotentEventsTestCase.event(
+            Event.Type.NEW_ISSUE, "1", null
+        );
+        events.submit(issue);
+        now.set(now.get().plus(Duration.ofMinutes(9)));
+        events.submit(issue);
+        Mockito.verify(origin, Mockito.times(1)).submit(issue);
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+        events.submit(issue);
+        Mockito.verify(origin, Mockito.times(2)).submit(issue);
+    }
+
+    /**
+     * At most the given number of keys are remembered, the oldest
+     * ones are forgotten first.
+     */
+    @Test
+    public void evictsOldestEvents() {
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class))).thenReturn(true);
+        final Events events = new IdempotentEvents(
+            origin, Duration.ofMinutes(10), 2, Clock.systemUTC()
+        );
+        final Event first = IdempotentEventsTestCase.event(
+            Event.Type.NEW_ISSUE, "1", null
+        );
+        final Event second = IdempotentEventsTestCase.event(
+            Event.Type.NEW_ISSUE, "2", null
+        );
+        final Event third = IdempotentEventsTestCase.event(
+            Event.Type.NEW_ISSUE, "3", null
+        );
+        events.submit(first);
+        events.submit(second);
+        events.submit(third);
+        events.submit(second);
+        events.submit(first);
+        Mockito.verify(origin, Mockito.times(2)).submit(first);
+        Mockito.verify(origin, Mockito.times(1)).submit(second);
+    }
+
+    /**
+     * An Event rejected by the original pipeline can be submitted again.
+     */
+    @Test
+    public void forgetsRejectedEvents() {
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class)))
+            .thenReturn(false, true);
+        final Events events = new IdempotentEvents(origin);
+        final Event issue = IdempotentEventsTestCase.event(
+            Event.Type.NEW_ISSUE, "1", null
+        );
+        MatcherAssert.assertThat(events.submit(issue), Matchers.is(false));
+        MatcherAssert.assertThat(events.submit(issue), Matchers.is(true));
+        Mockito.verify(origin, Mockito.times(2)).submit(issue);
+    }
+
+    /**
+     * Mock an Event of a Github Project.
+     * @param type Type of the Event.
+     * @param issueId ID of the Issue, may be null.
+     * @param commentId ID of the Comment, may be null.
+     * @return Event.
+     */
+    private static Event event(
+        final String type,
+        final String issueId,
+        final String commentId
+    ) {
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("mihai/test");
+        Mockito.when(project.provider()).thenReturn("github");
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.issueId()).thenReturn(issueId);
+        final Comment comment = Mockito.mock(Comment.class);
+        Mockito.when(comment.commentId()).thenReturn(commentId);
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.type()).thenReturn(type);
+        Mockito.when(event.project()).thenReturn(project);
+        Mockito.when(event.issue()).thenReturn(issue);
+        Mockito.when(event.comment()).thenReturn(comment);
+        return event;
+    }
+
+    /**
+     * A redelivered Github webhook is read again into a new Event, with
+     * new Issue and Comment objects, and without a delivery ID. It is
+     * still recognized, by the IDs in its payload.
+     */
+    @Test
+    public void dropsRedeliveredGithubComment() {
+        final Github github = new Github(
+            Mockito.mock(User.class),
+            Mockito.mock(Storage.class),
+            new MockJsonResources(
+                req -> {
+                    throw new IllegalStateException("No request expected.");
+                }
+            )
+        );
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("mihai/test");
+        Mockito.when(project.provider()).thenReturn(Provider.Names.GITHUB);
+        final JsonObject payload = Json.createObjectBuilder()
+            .add(
+                "issue",
+                Json.createObjectBuilder()
+                    .add("number", 1)
+                    .add("title", "Some bug")
+            )
+            .add(
+                "comment",
+                Json.createObjectBuilder()
+                    .add("id", 100)
+                    .add("body", "@zoeself hello")
+            )
+            .build();
+        final Events origin = Mockito.mock(Events.class);
+        Mockito.when(origin.submit(Mockito.any(Event.class))).thenReturn(true);
+        final Events events = new IdempotentEvents(origin);
+        final Event first = IdempotentEventsTestCase.webhook(
+            github, project, payload
+        );
+        final Event redelivered = IdempotentEventsTestCase.webhook(
+            github, project, payload
+        );
+        MatcherAssert.assertThat(first.deliveryId(), Matchers.nullValue());
+        MatcherAssert.assertThat(events.submit(first), Matchers.is(true));
+        MatcherAssert.assertThat(
+            events.submit(redelivered), Matchers.is(true)
+        );
+        Mockito.verify(origin, Mockito.times(1)).submit(first);
+        Mockito.verify(origin, Mockito.never()).submit(redelivered);
+    }
+
+    /**
+     * An issue_comment Event read from a Github webhook payload, the way
+     * the application which receives the webhooks builds it.
+     * @param github Github.
+     * @param project Project.
+     * @param payload Payload of the webhook.
+     * @return Event.
+     */
+    private static Event webhook(
+        final Github github,
+        final Project project,
+        final JsonObject payload
+    ) {
+        final Issue issue = github.repo("mihai", "test").issues().received(
+            payload.getJsonObject("issue")
+        );
+        final Comment comment = issue.comments().received(
+            payload.getJsonObject("comment")
+        );
+        return new Event() {
+            @Override
+            public String type() {
+                return Type.ISSUE_COMMENT;
+            }
+
+            @Override
+            public Issue issue() {
+                return issue;
+            }
+
+            @Override
+            public Comment comment() {
+                return comment;
+            }
+
+            @Override
+            public Commit commit() {
+                throw new UnsupportedOperationException("No Commit.");
+            }
+
+            @Override
+            public Project project() {
+                return project;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.CommentsIndex;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+
+/**
+ * Unit tests for {@link InMemoryCommentsIndex}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InMemoryCommentsIndexTestCase {
+
+    /**
+     * It finds the indexed comments, without their bodies.
+     */
+    @Test
+    public void findsIndexedComments() {
+        final CommentsIndex index = new InMemoryCommentsIndex();
+        index.add(
+            "github/o/r#1", "abc",
+            Json.createObjectBuilder()
+                .add("id", 1)
+                .add("body", "hello")
+                .build()
+        );
+        MatcherAssert.assertThat(
+            index.find("github/o/r#1", "abc"),
+            Matchers.equalTo(Json.createObjectBuilder().add("id", 1).build())
+        );
+        MatcherAssert.assertThat(
+            index.find("github/o/r#1", "def"), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            index.find("github/o/r#2", "abc"), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * It remembers the last indexed comment of each Issue.
+     */
+    @Test
+    public void remembersLastComment() {
+        final CommentsIndex index = new InMemoryCommentsIndex();
+        MatcherAssert.assertThat(
+            index.last("github/o/r#1"), Matchers.nullValue()
+        );
+        index.add(
+            "github/o/r#1", "abc",
+            Json.createObjectBuilder().add("id", 1).build()
+        );
+        index.add(
+            "github/o/r#1", "def",
+            Json.createObjectBuilder().add("id", 2).build()
+        );
+        MatcherAssert.assertThat(
+            index.last("github/o/r#1").getInt("id"), Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            index.last("github/o/r#2"), Matchers.nullValue()
+        );
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Metrics;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Iterator;
+
+/**
+ * Unit tests for {@link InMemoryMetrics}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InMemoryMetricsTestCase {
+
+    /**
+     * It counts the calls, the errors and the bytes of a series.
+     */
+    @Test
+    public void countsCalls() {
+        final Metrics metrics = new InMemoryMetrics();
+        metrics.record("GET /a", Duration.ofMillis(10), 100, false);
+        metrics.record("GET /a", Duration.ofMillis(20), 50, true);
+        final Metrics.Snapshot snapshot = metrics.snapshot("GET /a");
+        MatcherAssert.assertThat(snapshot.name(), Matchers.equalTo("GET /a"));
+        MatcherAssert.assertThat(snapshot.count(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(snapshot.errors(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(snapshot.bytes(), Matchers.equalTo(150L));
+        MatcherAssert.assertThat(
+            snapshot.total(), Matchers.equalTo(Duration.ofMillis(30))
+        );
+    }
+
+    /**
+     * A series without calls has an empty snapshot.
+     */
+    @Test
+    public void emptySnapshot() {
+        final Metrics.Snapshot snapshot = new InMemoryMetrics()
+            .snapshot("GET /missing");
+        MatcherAssert.assertThat(snapshot.count(), Matchers.equalTo(0L));
+        MatcherAssert.assertThat(
+            snapshot.latency(99), Matchers.equalTo(Duration.ZERO)
+        );
+        MatcherAssert.assertThat(snapshot.size(50), Matchers.equalTo(0L));
+    }
+
+    /**
+     * Percentiles are approximated within 25%.
+     */
+    @Test
+    public void approximatesPercentiles() {
+        final Metrics metrics = new InMemoryMetrics();
+        for(int millis = 1; millis <= 100; ++millis) {
+            metrics.record(
+                "GET /a", Duration.ofMillis(millis), millis * 10, false
+            );
+        }
+        final Metrics.Snapshot snapshot = metrics.snapshot("GET /a");
+        final long median = snapshot.latency(50).toMillis();
+        MatcherAssert.assertThat(
+            median, Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(50L),
+                Matchers.lessThanOrEqualTo(63L)
+            )
+        );
+        final long slowest = snapshot.latency(100).toMillis();
+        MatcherAssert.assertThat(
+            slowest, Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(100L),
+                Matchers.lessThanOrEqualTo(125L)
+            )
+        );
+        MatcherAssert.assertThat(
+            snapshot.size(90), Matchers.allOf(
+                Matchers.greaterThanOrEqualTo(900L),
+                Matchers.lessThanOrEqualTo(1125L)
+            )
+        );
+    }
+
+    /**
+     * The snapshots come with the most expensive series first.
+     */
+    @Test
+    public void sortsSnapshotsByTotalLatency() {
+        final Metrics metrics = new InMemoryMetrics();
+        metrics.record("GET /cheap", Duration.ofMillis(5), 0, false);
+        metrics.record("GET /hot", Duration.ofMillis(50), 0, false);
+        metrics.record("GET /hot", Duration.ofMillis(50), 0, false);
+        metrics.record("POST /slow", Duration.ofMillis(80), 0, false);
+        final Iterator<Metrics.Snapshot> snapshots = metrics.snapshots()
+            .iterator();
+        MatcherAssert.assertThat(
+            snapshots.next().name(), Matchers.equalTo("GET /hot")
+        );
+        MatcherAssert.assertThat(
+            snapshots.next().name(), Matchers.equalTo("POST /slow")
+        );
+        MatcherAssert.assertThat(
+            snapshots.next().name(), Matchers.equalTo("GET /cheap")
+        );
+        MatcherAssert.assertThat(snapshots.hasNext(), Matchers.is(false));
+    }
+
+    /**
+     * Each bucket's upper bound is the largest value mapped to it.
+     */
+    @Test
+    public void bucketsAreConsistent() {
+        for(long value = 0; value < 5000; ++value) {
+            final int bucket = InMemoryMetrics.Histogram.bucket(value);
+            MatcherAssert.assertThat(
+                InMemoryMetrics.Histogram.upper(bucket),
+                Matchers.greaterThanOrEqualTo(value)
+            );
+            MatcherAssert.assertThat(
+                InMemoryMetrics.Histogram.bucket(
+                    InMemoryMetrics.Histogram.upper(bucket)
+                ),
+                Matchers.equalTo(bucket)
+            );
+        }
+    }
+}
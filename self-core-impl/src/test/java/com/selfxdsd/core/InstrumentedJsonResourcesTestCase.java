@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Metrics;
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Unit tests for {@link InstrumentedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class InstrumentedJsonResourcesTestCase {
+
+    /**
+     * It records the calls per method and URI template.
+     */
+    @Test
+    public void recordsCallsPerTemplate() {
+        final Metrics metrics = new InMemoryMetrics();
+        final JsonResources instrumented = new InstrumentedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createArrayBuilder().build()
+                )
+            ),
+            metrics
+        );
+        instrumented.get(
+            URI.create("https://api.github.com/repos/a/b/issues/1/labels")
+        );
+        instrumented.get(
+            URI.create(
+                "https://api.github.com/repos/c/d/issues/2/labels?per_page=100"
+            )
+        );
+        instrumented.post(
+            URI.create("https://api.github.com/repos/a/b/issues/1/labels"),
+            Json.createArrayBuilder().build()
+        );
+        final Metrics.Snapshot get = metrics.snapshot(
+            "GET /repos/{o}/{r}/issues/{n}/labels"
+        );
+        MatcherAssert.assertThat(get.count(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(get.errors(), Matchers.equalTo(0L));
+        MatcherAssert.assertThat(get.bytes(), Matchers.equalTo(4L));
+        MatcherAssert.assertThat(
+            metrics.snapshot("POST /repos/{o}/{r}/issues/{n}/labels").count(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Calls failing with an exception or with 5xx are counted as errors.
+     */
+    @Test
+    public void recordsErrors() {
+        final Metrics metrics = new InMemoryMetrics();
+        final JsonResources instrumented = new InstrumentedJsonResources(
+            new MockJsonResources(
+                req -> {
+                    if("DELETE".equals(req.getMethod())) {
+                        throw new IllegalStateException("Connection reset");
+                    }
+                    return new MockResource(
+                        HttpURLConnection.HTTP_BAD_GATEWAY,
+                        Json.createObjectBuilder().build()
+                    );
+                }
+            ),
+            metrics
+        );
+        final URI hook = URI.create("https://api.github.com/repos/a/b/hooks/5");
+        instrumented.get(hook);
+        try {
+            instrumented.delete(hook, Json.createObjectBuilder().build());
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                metrics.snapshot("DELETE /repos/{o}/{r}/hooks/{n}").errors(),
+                Matchers.equalTo(1L)
+            );
+        }
+        MatcherAssert.assertThat(
+            metrics.snapshot("GET /repos/{o}/{r}/hooks/{n}").errors(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Asynchronous calls are recorded when they complete.
+     */
+    @Test
+    public void recordsAsyncCalls() {
+        final Metrics metrics = new InMemoryMetrics();
+        final JsonResources instrumented = new InstrumentedJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_CREATED,
+                    Json.createObjectBuilder().build()
+                )
+            ),
+            metrics
+        );
+        instrumented.postAsync(
+            URI.create(
+                "https://gitlab.com/api/v4/projects/a%2Fb/issues/3/notes"
+            ),
+            Json.createObjectBuilder().build()
+        ).join();
+        MatcherAssert.assertThat(
+            metrics.snapshot("POST /api/v4/projects/{p}/issues/{n}/notes")
+                .count(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Calls failing with any RuntimeException are counted as errors,
+     * not only with IllegalStateException.
+     */
+    @Test
+    public void recordsAnyRuntimeException() {
+        final Metrics metrics = new InMemoryMetrics();
+        final URI issue = URI.create(
+            "https://api.github.com/repos/a/b/issues/1"
+        );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.get(issue)).thenThrow(
+            new IllegalArgumentException("Bad URI.")
+        );
+        try {
+            new InstrumentedJsonResources(origin, metrics).get(issue);
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalArgumentException ex) {
+            final Metrics.Snapshot get = metrics.snapshot(
+                "GET /repos/{o}/{r}/issues/{n}"
+            );
+            MatcherAssert.assertThat(get.count(), Matchers.equalTo(1L));
+            MatcherAssert.assertThat(get.errors(), Matchers.equalTo(1L));
+        }
+    }
+
+    /**
+     * Asynchronous calls which complete exceptionally are counted as
+     * errors.
+     */
+    @Test
+    public void recordsFailedAsyncCalls() {
+        final Metrics metrics = new InMemoryMetrics();
+        final URI issue = URI.create(
+            "https://api.github.com/repos/a/b/issues/1"
+        );
+        final CompletableFuture<Resource> failed = new CompletableFuture<>();
+        failed.completeExceptionally(
+            new IllegalStateException("Connection reset")
+        );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.getAsync(issue)).thenReturn(failed);
+        final CompletableFuture<Resource> resource =
+            new InstrumentedJsonResources(origin, metrics).getAsync(issue);
+        MatcherAssert.assertThat(
+            resource.isCompletedExceptionally(), Matchers.is(true)
+        );
+        final Metrics.Snapshot get = metrics.snapshot(
+            "GET /repos/{o}/{r}/issues/{n}"
+        );
+        MatcherAssert.assertThat(get.count(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(get.errors(), Matchers.equalTo(1L));
+    }
+
+    /**
+     * It builds the URI templates.
+     */
+    @Test
+    public void buildsTemplates() {
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                "PUT",
+                URI.create("https://api.github.com/repos/a/b/collaborators/x")
+            ),
+            Matchers.equalTo("PUT /repos/{o}/{r}/collaborators/{u}")
+        );
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                "GET", URI.create("https://api.github.com/user/repos")
+            ),
+            Matchers.equalTo("GET /user/repos")
+        );
+        MatcherAssert.assertThat(
+            InstrumentedJsonResources.template(
+                "DELETE",
+                URI.create("https://api.github.com/repos/a/b/labels/bug")
+            ),
+            Matchers.equalTo("DELETE /repos/{o}/{r}/labels/{l}")
+        );
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Issue;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link IssueSnapshots}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class IssueSnapshotsTestCase {
+
+    /**
+     * A stored snapshot is found, case-insensitively by repo,
+     * and the hits and misses are counted.
+     */
+    @Test
+    public void looksUpStoredSnapshot() {
+        final IssueSnapshots snapshots = new IssueSnapshots(
+            10, Duration.ofMinutes(5), Clock.systemUTC()
+        );
+        final Issue issue = IssueSnapshotsTestCase.issue("1", "");
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "1"), Matchers.nullValue()
+        );
+        snapshots.store("github", "o/r", issue);
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "O/R", "1"),
+            Matchers.sameInstance(issue.json())
+        );
+        MatcherAssert.assertThat(
+            snapshots.lookup("gitlab", "o/r", "1"), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(snapshots.hits(), Matchers.equalTo(1L));
+        MatcherAssert.assertThat(snapshots.misses(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(
+            snapshots.hitRate(), Matchers.closeTo(1.0 / 3, 0.001)
+        );
+        MatcherAssert.assertThat(snapshots.size(), Matchers.equalTo(1));
+    }
+
+    /**
+     * An expired snapshot is not used anymore.
+     */
+    @Test
+    public void expiresSnapshots() {
+        final AtomicLong now = new AtomicLong();
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenAnswer(inv -> now.get());
+        final IssueSnapshots snapshots = new IssueSnapshots(
+            10, Duration.ofMinutes(5), clock
+        );
+        snapshots.store("github", "o/r", IssueSnapshotsTestCase.issue("1", ""));
+        now.set(Duration.ofMinutes(6).toMillis());
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "1"), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(snapshots.size(), Matchers.equalTo(0));
+    }
+
+    /**
+     * The least recently used snapshots are evicted.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final IssueSnapshots snapshots = new IssueSnapshots(
+            2, Duration.ofMinutes(5), Clock.systemUTC()
+        );
+        snapshots.store("github", "o/r", IssueSnapshotsTestCase.issue("1", ""));
+        snapshots.store("github", "o/r", IssueSnapshotsTestCase.issue("2", ""));
+        snapshots.lookup("github", "o/r", "1");
+        snapshots.store("github", "o/r", IssueSnapshotsTestCase.issue("3", ""));
+        MatcherAssert.assertThat(snapshots.size(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "2"), Matchers.nullValue()
+        );
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "1"), Matchers.notNullValue()
+        );
+    }
+
+    /**
+     * A received Issue replaces the snapshot, unless the snapshot
+     * is newer.
+     */
+    @Test
+    public void replacesSnapshotWithNewerPush() {
+        final IssueSnapshots snapshots = new IssueSnapshots(
+            10, Duration.ofMinutes(5), Clock.systemUTC()
+        );
+        final Issue current = IssueSnapshotsTestCase.issue(
+            "1", "2020-10-10T10:00:00Z"
+        );
+        snapshots.store("github", "o/r", current);
+        MatcherAssert.assertThat(
+            snapshots.received(
+                "github", "o/r",
+                IssueSnapshotsTestCase.issue("1", "2020-10-10T09:00:00Z")
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "1"),
+            Matchers.sameInstance(current.json())
+        );
+        final Issue newer = IssueSnapshotsTestCase.issue(
+            "1", "2020-10-10T11:00:00Z"
+        );
+        MatcherAssert.assertThat(
+            snapshots.received("github", "o/r", newer), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "1"),
+            Matchers.sameInstance(newer.json())
+        );
+    }
+
+    /**
+     * A snapshot can be invalidated.
+     */
+    @Test
+    public void invalidatesSnapshot() {
+        final IssueSnapshots snapshots = new IssueSnapshots(
+            10, Duration.ofMinutes(5), Clock.systemUTC()
+        );
+        snapshots.store("github", "o/r", IssueSnapshotsTestCase.issue("1", ""));
+        snapshots.invalidate("github", "o/r", "1");
+        MatcherAssert.assertThat(
+            snapshots.lookup("github", "o/r", "1"), Matchers.nullValue()
+        );
+    }
+
+    /**
+     * Mock Issue.
+     * @param issueId Id.
+     * @param updated When it was last updated.
+     * @return Issue.
+     */
+    private static Issue issue(final String issueId, final String updated) {
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.issueId()).thenReturn(issueId);
+        Mockito.when(issue.json()).thenReturn(
+            Json.createObjectBuilder().add("updated_at", updated).build()
+        );
+        return issue;
+    }
+}
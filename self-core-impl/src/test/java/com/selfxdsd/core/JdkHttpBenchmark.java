@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.jcabi.http.mock.MkAnswer;
+import com.jcabi.http.mock.MkContainer;
+import com.jcabi.http.mock.MkGrizzlyContainer;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Per-call latency benchmark of {@link JsonResources.JdkHttp}: the shared,
+ * keep-alive client against a brand new HttpClient for every call (the way
+ * it used to work). It is not a test, since wall-clock timings are not
+ * reliable on a build machine. Run its main method and compare the numbers.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class JdkHttpBenchmark {
+
+    /**
+     * How many calls are made with each client.
+     */
+    private static final int CALLS = 200;
+
+    /**
+     * Hidden ctor.
+     */
+    private JdkHttpBenchmark() { }
+
+    /**
+     * Run the benchmark against a local HTTP server.
+     * @param args Command line arguments, ignored.
+     * @throws IOException If the server cannot be started.
+     */
+    public static void main(final String... args) throws IOException {
+        final MkContainer container = new MkGrizzlyContainer();
+        for(int idx = 0; idx < CALLS * 2; idx++) {
+            container.next(
+                new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "{}")
+            );
+        }
+        try(final MkContainer started = container.start()) {
+            final URI home = started.home();
+            final JsonResources shared = new JsonResources.JdkHttp();
+            final long start = System.nanoTime();
+            for(int idx = 0; idx < CALLS; idx++) {
+                shared.get(home);
+            }
+            final long sharedNanos = System.nanoTime() - start;
+            final long restart = System.nanoTime();
+            for(int idx = 0; idx < CALLS; idx++) {
+                new JsonResources.JdkHttp(
+                    HttpClient.newHttpClient(),
+                    Duration.ofSeconds(30)
+                ).get(home);
+            }
+            final long freshNanos = System.nanoTime() - restart;
+            System.out.println(
+                "Shared client: " + sharedNanos / CALLS + "ns/call, "
+                + "new client per call: " + freshNanos / CALLS + "ns/call."
+            );
+        }
+    }
+}
@@ -35,6 +35,13 @@ import javax.json.Json;
 import javax.json.JsonObject;
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
 
 /**
  * Integration tests for {@link com.selfxdsd.core.JsonResources.JdkHttp}.
@@ -254,4 +261,123 @@ public final class JdkHttpITCase {
             );
         }
     }
+
+    /**
+     * All the JdkHttp instances built with the default ctor, and all their
+     * authenticated copies, send their requests with the same HttpClient.
+     */
+    @Test
+    public void authenticatedCopiesShareTheClient() {
+        final JsonResources.JdkHttp resources = new JsonResources.JdkHttp();
+        final HttpClient client = resources.client();
+        MatcherAssert.assertThat(
+            new JsonResources.JdkHttp().client(),
+            Matchers.sameInstance(client)
+        );
+        MatcherAssert.assertThat(
+            ((JsonResources.JdkHttp) resources.authenticated(
+                new AccessToken.Github("first")
+            )).client(),
+            Matchers.sameInstance(client)
+        );
+        MatcherAssert.assertThat(
+            ((JsonResources.JdkHttp) resources.authenticated(
+                new AccessToken.Gitlab("second")
+            )).client(),
+            Matchers.sameInstance(client)
+        );
+    }
+
+    /**
+     * Authenticated copies of JdkHttp work with the same shared client and
+     * they all send their own access token.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void authenticatedCopiesSendTheirOwnToken() throws IOException {
+        try(
+            final MkContainer container = new MkGrizzlyContainer()
+                .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "{}"))
+                .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "{}"))
+                .start(this.resource.port())
+        ) {
+            final JsonResources resources = new JsonResources.JdkHttp(
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(5),
+                Executors.newCachedThreadPool()
+            );
+            resources.authenticated(new AccessToken.Github("first"))
+                .get(container.home());
+            resources.authenticated(new AccessToken.Gitlab("second"))
+                .get(container.home());
+            MatcherAssert.assertThat(
+                container.take().headers().get("Authorization").get(0),
+                Matchers.equalTo("token first")
+            );
+            MatcherAssert.assertThat(
+                container.take().headers().get("Private-Token").get(0),
+                Matchers.equalTo("second")
+            );
+        }
+    }
+
+    /**
+     * JdkHttp can send requests asynchronously, several of them being
+     * in flight at the same time.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void sendsRequestsAsync() throws IOException {
+        final JsonObject body = Json.createObjectBuilder()
+            .add("test", "async")
+            .build();
+        try(
+            final MkContainer container = new MkGrizzlyContainer()
+                .next(new MkAnswer.Simple(HttpURLConnection.HTTP_OK, "{}"))
+                .next(new MkAnswer.Simple(HttpURLConnection.HTTP_CREATED))
+                .start(this.resource.port())
+        ) {
+            final JsonResources resources = new JsonResources.JdkHttp()
+                .authenticated(new AccessToken.Github("123token456"));
+            final CompletableFuture<Resource> get = resources.getAsync(
+                container.home()
+            );
+            final CompletableFuture<Resource> post = resources.postAsync(
+                container.home(), body
+            );
+            MatcherAssert.assertThat(
+                List.of(
+                    get.join().statusCode(),
+                    post.join().statusCode()
+                ),
+                Matchers.containsInAnyOrder(
+                    HttpURLConnection.HTTP_OK,
+                    HttpURLConnection.HTTP_CREATED
+                )
+            );
+            MatcherAssert.assertThat(
+                container.take().headers().get("Authorization").get(0),
+                Matchers.equalTo("token 123token456")
+            );
+        }
+    }
+
+    /**
+     * A failed asynchronous request completes exceptionally with an
+     * IllegalStateException.
+     */
+    @Test
+    public void failedAsyncRequestCompletesExceptionally() {
+        final CompletableFuture<Resource> get = new JsonResources.JdkHttp()
+            .getAsync(URI.create("http://localhost:1/nothing/here"));
+        try {
+            get.join();
+            MatcherAssert.assertThat("Should have failed!", false);
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(
+                ex.getCause(),
+                Matchers.instanceOf(IllegalStateException.class)
+            );
+        }
+    }
 }
@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link JsonPages}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class JsonPagesTestCase {
+
+    /**
+     * JsonPages follows the Link headers (Github), asking for the
+     * maximum page size.
+     */
+    @Test
+    public void followsLinkHeaders() {
+        final String comments = "https://api.github.com/repos/o/r/issues/1"
+            + "/comments";
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockResource page;
+                if(req.getUri().toString().contains("page=2")) {
+                    page = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().add(3).build(),
+                        Map.of(
+                            "Link",
+                            List.of(
+                                "<" + comments + "?per_page=100&page=1>; "
+                                + "rel=\"prev\""
+                            )
+                        )
+                    );
+                } else {
+                    page = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().add(1).add(2).build(),
+                        Map.of(
+                            "Link",
+                            List.of(
+                                "<" + comments + "?per_page=100&page=2>; "
+                                + "rel=\"next\", <" + comments
+                                + "?per_page=100&page=2>; rel=\"last\""
+                            )
+                        )
+                    );
+                }
+                return page;
+            }
+        );
+        MatcherAssert.assertThat(
+            new JsonPages(resources, URI.create(comments))
+                .stream()
+                .map(JsonValue::toString)
+                .collect(Collectors.toList()),
+            Matchers.contains("1", "2", "3")
+        );
+        MatcherAssert.assertThat(
+            resources.requests(),
+            Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().first().getUri().toString(),
+            Matchers.equalTo(comments + "?per_page=100")
+        );
+        MatcherAssert.assertThat(
+            resources.requests().last().getUri().toString(),
+            Matchers.equalTo(comments + "?per_page=100&page=2")
+        );
+    }
+
+    /**
+     * JsonPages follows the X-Next-Page headers (Gitlab).
+     */
+    @Test
+    public void followsNextPageHeaders() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> {
+                final MockResource page;
+                if(req.getUri().toString().endsWith("&page=2")) {
+                    page = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().add(2).build(),
+                        Map.of("X-Next-Page", List.of(""))
+                    );
+                } else {
+                    page = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createArrayBuilder().add(1).build(),
+                        Map.of("X-Next-Page", List.of("2"))
+                    );
+                }
+                return page;
+            }
+        );
+        MatcherAssert.assertThat(
+            new JsonPages(
+                resources,
+                URI.create("https://gitlab.com/api/v4/projects/1/labels")
+            ),
+            Matchers.iterableWithSize(2)
+        );
+        MatcherAssert.assertThat(
+            resources.requests().atIndex(1).getUri().toString(),
+            Matchers.equalTo(
+                "https://gitlab.com/api/v4/projects/1/labels"
+                + "?per_page=100&page=2"
+            )
+        );
+    }
+
+    /**
+     * The next page is not fetched if the iteration stops before
+     * reaching it.
+     */
+    @Test
+    public void fetchesPagesLazily() {
+        final AtomicInteger calls = new AtomicInteger();
+        final JsonResources resources = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createArrayBuilder()
+                    .add(calls.incrementAndGet())
+                    .add(0)
+                    .build(),
+                Map.of("X-Next-Page", List.of("" + (calls.get() + 1)))
+            )
+        );
+        final Iterator<JsonValue> iterator = new JsonPages(
+            resources, URI.create("https://gitlab.com/api/v4/projects/1/hooks")
+        ).iterator();
+        MatcherAssert.assertThat(calls.get(), Matchers.is(1));
+        iterator.next();
+        iterator.next();
+        MatcherAssert.assertThat(calls.get(), Matchers.is(1));
+        MatcherAssert.assertThat(
+            iterator.next().toString(),
+            Matchers.equalTo("2")
+        );
+        MatcherAssert.assertThat(calls.get(), Matchers.is(2));
+    }
+
+    /**
+     * An unexpected page is handed to the given callback and the
+     * iteration stops.
+     */
+    @Test
+    public void stopsAtUnexpectedPage() {
+        final AtomicInteger unexpected = new AtomicInteger();
+        final JsonPages pages = new JsonPages(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_NOT_FOUND,
+                    JsonValue.NULL
+                )
+            ),
+            URI.create("https://api.github.com/orgs/o/repos"),
+            page -> unexpected.set(page.statusCode())
+        );
+        MatcherAssert.assertThat(pages, Matchers.emptyIterable());
+        MatcherAssert.assertThat(
+            unexpected.get(),
+            Matchers.is(HttpURLConnection.HTTP_NOT_FOUND)
+        );
+    }
+
+    /**
+     * The page size is not changed if it's already specified.
+     */
+    @Test
+    public void keepsGivenPageSize() {
+        final URI uri = URI.create(
+            "https://api.github.com/repos/o/r/hooks?per_page=10"
+        );
+        MatcherAssert.assertThat(
+            JsonPages.maxPageSize(uri),
+            Matchers.equalTo(uri)
+        );
+        MatcherAssert.assertThat(
+            JsonPages.maxPageSize(
+                URI.create("https://gitlab.com/api/v4/groups/1/projects?a=b")
+            ),
+            Matchers.equalTo(
+                URI.create(
+                    "https://gitlab.com/api/v4/groups/1/projects"
+                    + "?a=b&per_page=100"
+                )
+            )
+        );
+    }
+
+    /**
+     * The X-Next-Page header replaces the current page number.
+     */
+    @Test
+    public void replacesPageNumber() {
+        MatcherAssert.assertThat(
+            JsonPages.next(
+                URI.create("https://gitlab.com/api/v4/x?page=2&per_page=100"),
+                new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    JsonValue.EMPTY_JSON_ARRAY,
+                    Map.of("X-Next-Page", List.of("3"))
+                )
+            ),
+            Matchers.equalTo(
+                URI.create("https://gitlab.com/api/v4/x?page=3&per_page=100")
+            )
+        );
+    }
+}
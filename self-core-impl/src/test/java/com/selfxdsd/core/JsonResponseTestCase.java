@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for {@link JsonResources.JsonResponse}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class JsonResponseTestCase {
+
+    /**
+     * The body is parsed only once.
+     */
+    @Test
+    public void parsesBodyOnce() {
+        final Resource response = new JsonResources.JsonResponse(
+            200, "{\"number\": 1}"
+        );
+        final JsonObject first = response.asJsonObject();
+        MatcherAssert.assertThat(first.getInt("number"), Matchers.is(1));
+        MatcherAssert.assertThat(
+            response.asJsonObject(),
+            Matchers.sameInstance(first)
+        );
+    }
+
+    /**
+     * The body is kept as received and decoded as UTF-8.
+     */
+    @Test
+    public void keepsBodyAsReceived() {
+        final String body = "{\"body\": \"Pl\u0103te\u0219te \uD83D\uDCB0\"}";
+        final Resource response = new JsonResources.JsonResponse(
+            200, body.getBytes(StandardCharsets.UTF_8), Map.of()
+        );
+        MatcherAssert.assertThat(response.body(), Matchers.equalTo(body));
+        MatcherAssert.assertThat(
+            response.asJsonObject().getString("body"),
+            Matchers.equalTo("Pl\u0103te\u0219te \uD83D\uDCB0")
+        );
+    }
+
+    /**
+     * A JSON array can be streamed element by element.
+     */
+    @Test
+    public void streamsArray() {
+        final Resource response = new JsonResources.JsonResponse(
+            200, "[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]"
+        );
+        try (final Stream<JsonValue> array = response.asJsonStream()) {
+            MatcherAssert.assertThat(
+                array.map(JsonValue::asJsonObject)
+                    .map(json -> json.getInt("id"))
+                    .collect(Collectors.toList()),
+                Matchers.equalTo(List.of(1, 2, 3))
+            );
+        }
+    }
+
+    /**
+     * If the body was already parsed, the stream is read from the
+     * parsed array.
+     */
+    @Test
+    public void streamsParsedArray() {
+        final Resource response = new JsonResources.JsonResponse(
+            200, "[1, 2]"
+        );
+        MatcherAssert.assertThat(
+            response.asJsonArray().size(),
+            Matchers.is(2)
+        );
+        MatcherAssert.assertThat(
+            response.asJsonStream().count(),
+            Matchers.is(2L)
+        );
+    }
+
+    /**
+     * An empty array is streamed as an empty Stream.
+     */
+    @Test
+    public void streamsEmptyArray() {
+        MatcherAssert.assertThat(
+            new JsonResources.JsonResponse(200, "[]").asJsonStream().count(),
+            Matchers.is(0L)
+        );
+    }
+
+    /**
+     * Streaming complains if the body is not an array.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsIfStreamedBodyIsNotArray() {
+        new JsonResources.JsonResponse(200, "{}").asJsonStream();
+    }
+
+    /**
+     * Reading an array as JsonObject throws JsonException.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsIfArrayIsReadAsObject() {
+        new JsonResources.JsonResponse(200, "[]").asJsonObject();
+    }
+
+    /**
+     * Reading an object as JsonArray throws JsonException.
+     */
+    @Test(expected = JsonException.class)
+    public void complainsIfObjectIsReadAsArray() {
+        new JsonResources.JsonResponse(200, "{}").asJsonArray();
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Label;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for {@link KnownLabels}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class KnownLabelsTestCase {
+
+    /**
+     * The labels of a repo are listed only once.
+     */
+    @Test
+    public void listsLabelsOnce() {
+        final AtomicInteger listings = new AtomicInteger();
+        final Supplier<Iterable<Label>> labels = () -> {
+            listings.incrementAndGet();
+            return List.of(KnownLabelsTestCase.label("Bug"));
+        };
+        final KnownLabels known = new KnownLabels(
+            Duration.ofHours(1), Clock.systemUTC()
+        );
+        MatcherAssert.assertThat(
+            known.contains("repos/o/r/labels", "bug", labels),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            known.contains("repos/O/R/labels", "puzzle", labels),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(listings.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * The labels we create or remove are remembered.
+     */
+    @Test
+    public void remembersCreatedAndRemovedLabels() {
+        final Supplier<Iterable<Label>> labels = () -> List.of(
+            KnownLabelsTestCase.label("bug")
+        );
+        final KnownLabels known = new KnownLabels(
+            Duration.ofHours(1), Clock.systemUTC()
+        );
+        known.contains("repos/o/r/labels", "bug", labels);
+        known.created("repos/o/r/labels", "puzzle");
+        known.removed("repos/o/r/labels", "bug");
+        MatcherAssert.assertThat(
+            known.contains("repos/o/r/labels", "puzzle", labels),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            known.contains("repos/o/r/labels", "bug", labels),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * The labels are listed again after the TTL expires.
+     */
+    @Test
+    public void listsLabelsAgainAfterTtl() {
+        final AtomicReference<Instant> now = new AtomicReference<>(
+            Instant.parse("2020-01-01T10:00:00Z")
+        );
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.instant()).thenAnswer(inv -> now.get());
+        final AtomicInteger listings = new AtomicInteger();
+        final Supplier<Iterable<Label>> labels = () -> {
+            listings.incrementAndGet();
+            return List.of();
+        };
+        final KnownLabels known = new KnownLabels(Duration.ofHours(1), clock);
+        known.contains("repos/o/r/labels", "bug", labels);
+        now.set(now.get().plus(Duration.ofMinutes(30)));
+        known.contains("repos/o/r/labels", "bug", labels);
+        MatcherAssert.assertThat(listings.get(), Matchers.equalTo(1));
+        now.set(now.get().plus(Duration.ofMinutes(31)));
+        known.contains("repos/o/r/labels", "bug", labels);
+        MatcherAssert.assertThat(listings.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * KnownLabels.NONE knows no labels and never lists them.
+     */
+    @Test
+    public void noneKnowsNothing() {
+        final AtomicInteger listings = new AtomicInteger();
+        final Supplier<Iterable<Label>> labels = () -> {
+            listings.incrementAndGet();
+            return List.of(KnownLabelsTestCase.label("bug"));
+        };
+        KnownLabels.NONE.created("repos/o/r/labels", "bug");
+        MatcherAssert.assertThat(
+            KnownLabels.NONE.contains("repos/o/r/labels", "bug", labels),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(listings.get(), Matchers.equalTo(0));
+    }
+
+    /**
+     * Mock a Label.
+     * @param name Name.
+     * @return Label.
+     */
+    private static Label label(final String name) {
+        final Label label = Mockito.mock(Label.class);
+        Mockito.when(label.name()).thenReturn(name);
+        return label;
+    }
+}
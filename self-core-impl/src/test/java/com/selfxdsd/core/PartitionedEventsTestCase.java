@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Project;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Unit tests for {@link PartitionedEvents}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class PartitionedEventsTestCase {
+
+    /**
+     * The Events of a Project are resolved in the order in which they
+     * were submitted and closing waits for all of them.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void resolvesEventsOfProjectInOrder() throws Exception {
+        final List<String> resolved = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        final Project project = PartitionedEventsTestCase.project(
+            "mihai/test", event -> resolved.add(event.type())
+        );
+        final PartitionedEvents events = new PartitionedEvents(
+            4, 100, Duration.ofSeconds(10), new InMemoryMetrics()
+        );
+        final List<String> types = new ArrayList<>();
+        for(int idx = 0; idx < 50; idx = idx + 1) {
+            types.add("type" + idx);
+            MatcherAssert.assertThat(
+                events.submit(
+                    PartitionedEventsTestCase.event("type" + idx, project)
+                ),
+                Matchers.is(true)
+            );
+        }
+        events.close();
+        MatcherAssert.assertThat(resolved, Matchers.equalTo(types));
+        MatcherAssert.assertThat(events.pending(), Matchers.equalTo(0));
+    }
+
+    /**
+     * When the queue of a partition is full, the Event is rejected.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void rejectsEventsWhenFull() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Project project = PartitionedEventsTestCase.project(
+            "mihai/test",
+            event -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        );
+        final PartitionedEvents events = new PartitionedEvents(
+            1, 1, Duration.ofSeconds(10), new InMemoryMetrics()
+        );
+        MatcherAssert.assertThat(
+            events.submit(PartitionedEventsTestCase.event("one", project)),
+            Matchers.is(true)
+        );
+        started.await(5, TimeUnit.SECONDS);
+        MatcherAssert.assertThat(
+            events.submit(PartitionedEventsTestCase.event("two", project)),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(events.pending(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(events.pending(0), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            events.submit(PartitionedEventsTestCase.event("three", project)),
+            Matchers.is(false)
+        );
+        release.countDown();
+        events.close();
+        MatcherAssert.assertThat(
+            events.submit(PartitionedEventsTestCase.event("four", project)),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * A failing Event is recorded and does not stop the partition.
+     */
+    @Test
+    public void recordsFailedEvents() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final List<String> resolved = Collections.synchronizedList(
+            new ArrayList<>()
+        );
+        final Project project = PartitionedEventsTestCase.project(
+            "mihai/test",
+            event -> {
+                if("failing".equals(event.type())) {
+                    throw new IllegalStateException("Github is down.");
+                }
+                resolved.add(event.type());
+            }
+        );
+        final PartitionedEvents events = new PartitionedEvents(
+            1, 10, Duration.ofSeconds(10), metrics
+        );
+        events.submit(PartitionedEventsTestCase.event("failing", project));
+        events.submit(PartitionedEventsTestCase.event("working", project));
+        events.close();
+        MatcherAssert.assertThat(resolved, Matchers.contains("working"));
+        MatcherAssert.assertThat(
+            metrics.snapshot("EVENT failing").errors(), Matchers.equalTo(1L)
+        );
+        MatcherAssert.assertThat(
+            metrics.snapshot("EVENT working").count(), Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Mock a Github Project.
+     * @param name Full name of the repo.
+     * @param resolve What happens when an Event is resolved.
+     * @return Project.
+     */
+    private static Project project(
+        final String name,
+        final Consumer<Event> resolve
+    ) {
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn(name);
+        Mockito.when(project.provider()).thenReturn("github");
+        Mockito.doAnswer(
+            invocation -> {
+                resolve.accept((Event) invocation.getArguments()[0]);
+                return null;
+            }
+        ).when(project).resolve(Mockito.any(Event.class));
+        return project;
+    }
+
+    /**
+     * Mock an Event.
+     * @param type Type.
+     * @param project Project.
+     * @return Event.
+     */
+    private static Event event(final String type, final Project project) {
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.type()).thenReturn(type);
+        Mockito.when(event.project()).thenReturn(project);
+        return event;
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link RateLimitedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class RateLimitedJsonResourcesTestCase {
+
+    /**
+     * A request rejected because of the rate limit is sent once more,
+     * after the time indicated by Retry-After.
+     */
+    @Test
+    public void retriesRateLimitedRequest() {
+        final AtomicInteger count = new AtomicInteger();
+        final MockJsonResources origin = new MockJsonResources(
+            req -> {
+                final MockResource resource;
+                if(count.incrementAndGet() == 1) {
+                    resource = new MockResource(
+                        429,
+                        Json.createObjectBuilder().build(),
+                        Map.of("Retry-After", List.of("0"))
+                    );
+                } else {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_OK,
+                        Json.createObjectBuilder().add("ok", true).build()
+                    );
+                }
+                return resource;
+            }
+        );
+        final JsonResources limited = new RateLimitedJsonResources(
+            origin, new RateLimits(Clock.systemUTC())
+        );
+        final Resource resource = limited.get(
+            URI.create("https://api.github.com/repos/o/r")
+        );
+        MatcherAssert.assertThat(
+            resource.statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            origin.requests(),
+            Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * The remaining budget of each access token can be queried.
+     */
+    @Test
+    public void reportsRemainingBudgetPerToken() {
+        final long reset = System.currentTimeMillis() / 1000 + 3600;
+        final MockJsonResources authenticated = new MockJsonResources(
+            new AccessToken.Github("pm-token"),
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build(),
+                Map.of(
+                    "X-RateLimit-Limit", List.of("5000"),
+                    "X-RateLimit-Remaining", List.of("4321"),
+                    "X-RateLimit-Reset", List.of(String.valueOf(reset))
+                )
+            )
+        );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.authenticated(Mockito.any(AccessToken.class))
+        ).thenReturn(authenticated);
+        final RateLimits limits = new RateLimits(Clock.systemUTC());
+        final AccessToken token = new AccessToken.Github("pm-token");
+        new RateLimitedJsonResources(origin, limits)
+            .authenticated(token)
+            .get(URI.create("https://api.github.com/repos/o/r"));
+        MatcherAssert.assertThat(
+            limits.remaining(token),
+            Matchers.equalTo(4321)
+        );
+        MatcherAssert.assertThat(
+            limits.remaining(new AccessToken.Github("other")),
+            Matchers.equalTo(-1)
+        );
+    }
+
+    /**
+     * All the methods go through to the original JsonResources.
+     */
+    @Test
+    public void delegatesAllMethods() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().build()
+            )
+        );
+        final JsonResources limited = new RateLimitedJsonResources(
+            origin, new RateLimits(Clock.systemUTC())
+        );
+        final URI uri = URI.create("https://gitlab.com/api/v4/projects/1");
+        final JsonObject body = Json.createObjectBuilder().build();
+        limited.get(uri);
+        limited.get(uri, Map.of("Accept", "application/json"));
+        limited.post(uri, body);
+        limited.patch(uri, body);
+        limited.put(uri, body);
+        limited.delete(uri, body);
+        MatcherAssert.assertThat(
+            origin.requests(),
+            Matchers.iterableWithSize(6)
+        );
+        MatcherAssert.assertThat(
+            origin.requests().atIndex(1).getHeaders().get("Accept"),
+            Matchers.equalTo("application/json")
+        );
+    }
+
+    /**
+     * An asynchronous request rejected because of the rate limit is
+     * sent once more.
+     */
+    @Test
+    public void retriesRateLimitedRequestAsync() {
+        final AtomicInteger count = new AtomicInteger();
+        final MockJsonResources origin = new MockJsonResources(
+            req -> {
+                final MockResource resource;
+                if(count.incrementAndGet() == 1) {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_FORBIDDEN,
+                        Json.createObjectBuilder().build(),
+                        Map.of("Retry-After", List.of("0"))
+                    );
+                } else {
+                    resource = new MockResource(
+                        HttpURLConnection.HTTP_CREATED,
+                        Json.createObjectBuilder().build()
+                    );
+                }
+                return resource;
+            }
+        );
+        final JsonResources limited = new RateLimitedJsonResources(
+            origin, new RateLimits(Clock.systemUTC())
+        );
+        final Resource resource = limited.postAsync(
+            URI.create("https://api.github.com/repos/o/r/issues/1/comments"),
+            Json.createObjectBuilder().add("body", "hi").build()
+        ).join();
+        MatcherAssert.assertThat(
+            resource.statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_CREATED)
+        );
+        MatcherAssert.assertThat(
+            origin.requests(),
+            Matchers.iterableWithSize(2)
+        );
+    }
+
+    /**
+     * Requests to the search API are paced with their own budget, which
+     * does not overwrite the core budget of the access token.
+     */
+    @Test
+    public void keepsSearchBudgetApart() {
+        final long reset = System.currentTimeMillis() / 1000 + 3600;
+        final MockJsonResources authenticated = new MockJsonResources(
+            new AccessToken.Github("pm-token"),
+            req -> {
+                final String remaining;
+                final String limit;
+                if(req.getUri().getPath().startsWith("/search/")) {
+                    limit = "30";
+                    remaining = "29";
+                } else {
+                    limit = "5000";
+                    remaining = "4321";
+                }
+                return new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().build(),
+                    Map.of(
+                        "X-RateLimit-Limit", List.of(limit),
+                        "X-RateLimit-Remaining", List.of(remaining),
+                        "X-RateLimit-Reset", List.of(String.valueOf(reset))
+                    )
+                );
+            }
+        );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.authenticated(Mockito.any(AccessToken.class))
+        ).thenReturn(authenticated);
+        final RateLimits limits = new RateLimits(Clock.systemUTC());
+        final AccessToken token = new AccessToken.Github("pm-token");
+        final JsonResources limited = new RateLimitedJsonResources(
+            origin, limits
+        ).authenticated(token);
+        limited.get(URI.create("https://api.github.com/repos/o/r"));
+        limited.get(URI.create("https://api.github.com/search/issues?q=x"));
+        MatcherAssert.assertThat(
+            limits.remaining(token),
+            Matchers.equalTo(4321)
+        );
+    }
+
+    /**
+     * The GraphQL API has its own (points based) budget, its rate limit
+     * headers do not overwrite the REST budget of the access token.
+     */
+    @Test
+    public void keepsGraphqlBudgetApart() {
+        final long reset = System.currentTimeMillis() / 1000 + 3600;
+        final MockJsonResources authenticated = new MockJsonResources(
+            new AccessToken.Github("pm-token"),
+            req -> {
+                final String remaining;
+                if(req.getUri().getPath().endsWith("/graphql")) {
+                    remaining = "4990";
+                } else {
+                    remaining = "4321";
+                }
+                return new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().build(),
+                    Map.of(
+                        "X-RateLimit-Limit", List.of("5000"),
+                        "X-RateLimit-Remaining", List.of(remaining),
+                        "X-RateLimit-Reset", List.of(String.valueOf(reset))
+                    )
+                );
+            }
+        );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(
+            origin.authenticated(Mockito.any(AccessToken.class))
+        ).thenReturn(authenticated);
+        final RateLimits limits = new RateLimits(Clock.systemUTC());
+        final AccessToken token = new AccessToken.Github("pm-token");
+        final JsonResources limited = new RateLimitedJsonResources(
+            origin, limits
+        ).authenticated(token);
+        limited.get(URI.create("https://api.github.com/repos/o/r"));
+        limited.post(
+            URI.create("https://api.github.com/graphql"),
+            Json.createObjectBuilder().add("query", "{}").build()
+        );
+        MatcherAssert.assertThat(
+            limits.remaining(token),
+            Matchers.equalTo(4321)
+        );
+    }
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.JsonValue;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link RateLimits}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class RateLimitsTestCase {
+
+    /**
+     * Now, in epoch seconds.
+     */
+    private static final long NOW = 1_600_000_000L;
+
+    /**
+     * Fixed clock.
+     */
+    private final Clock clock = Clock.fixed(
+        Instant.ofEpochSecond(NOW), ZoneOffset.UTC
+    );
+
+    /**
+     * The budget of an unknown access token is unknown.
+     */
+    @Test
+    public void unknownBudget() {
+        final RateLimits limits = new RateLimits(this.clock);
+        final AccessToken token = new AccessToken.Github("123");
+        MatcherAssert.assertThat(
+            limits.remaining(token),
+            Matchers.equalTo(-1)
+        );
+        MatcherAssert.assertThat(
+            limits.reset(token),
+            Matchers.nullValue()
+        );
+    }
+
+    /**
+     * The budget is read from Github's headers.
+     */
+    @Test
+    public void readsGithubHeaders() {
+        final RateLimits limits = new RateLimits(this.clock);
+        final AccessToken token = new AccessToken.Github("123");
+        limits.budget(RateLimits.key(token)).update(
+            this.response(
+                200,
+                Map.of(
+                    "X-RateLimit-Limit", List.of("5000"),
+                    "X-RateLimit-Remaining", List.of("4999"),
+                    "X-RateLimit-Reset", List.of(String.valueOf(NOW + 3600))
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            limits.remaining(token),
+            Matchers.equalTo(4999)
+        );
+        MatcherAssert.assertThat(
+            limits.reset(token),
+            Matchers.equalTo(Instant.ofEpochSecond(NOW + 3600))
+        );
+        MatcherAssert.assertThat(
+            limits.budget(RateLimits.key(token)).delay(true),
+            Matchers.lessThanOrEqualTo(0L)
+        );
+    }
+
+    /**
+     * The budget is read from Gitlab's headers.
+     */
+    @Test
+    public void readsGitlabHeaders() {
+        final RateLimits limits = new RateLimits(this.clock);
+        final AccessToken token = new AccessToken.Gitlab("123");
+        limits.budget(RateLimits.key(token)).update(
+            this.response(
+                200,
+                Map.of(
+                    "RateLimit-Limit", List.of("600"),
+                    "RateLimit-Remaining", List.of("42"),
+                    "RateLimit-Reset", List.of(String.valueOf(NOW + 60))
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            limits.remaining(token),
+            Matchers.equalTo(42)
+        );
+        MatcherAssert.assertThat(
+            limits.reset(token),
+            Matchers.equalTo(Instant.ofEpochSecond(NOW + 60))
+        );
+    }
+
+    /**
+     * Background requests wait for the reset when only the reserved part
+     * of the budget is left, while foreground requests can still go.
+     */
+    @Test
+    public void reservesBudgetForForeground() {
+        final RateLimits.Budget budget = new RateLimits.Budget(this.clock);
+        budget.update(
+            this.response(
+                200,
+                Map.of(
+                    "X-RateLimit-Limit", List.of("100"),
+                    "X-RateLimit-Remaining", List.of("5"),
+                    "X-RateLimit-Reset", List.of(String.valueOf(NOW + 60))
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            budget.delay(true),
+            Matchers.equalTo(60_000L)
+        );
+        MatcherAssert.assertThat(
+            budget.delay(false),
+            Matchers.lessThanOrEqualTo(0L)
+        );
+    }
+
+    /**
+     * When the budget is getting low, the requests are evenly
+     * spread until the reset.
+     * @throws InterruptedException If something goes wrong.
+     */
+    @Test
+    public void pacesRequestsBeforeExhaustion() throws InterruptedException {
+        final RateLimits.Budget budget = new RateLimits.Budget(this.clock);
+        budget.update(
+            this.response(
+                200,
+                Map.of(
+                    "X-RateLimit-Limit", List.of("100"),
+                    "X-RateLimit-Remaining", List.of("13"),
+                    "X-RateLimit-Reset", List.of(String.valueOf(NOW + 60))
+                )
+            )
+        );
+        budget.acquire(false);
+        MatcherAssert.assertThat(budget.remaining(), Matchers.equalTo(12));
+        MatcherAssert.assertThat(
+            budget.delay(false),
+            Matchers.equalTo(5_000L)
+        );
+        MatcherAssert.assertThat(
+            budget.delay(true),
+            Matchers.equalTo(30_000L)
+        );
+    }
+
+    /**
+     * Requests wait as long as indicated by the Retry-After header.
+     */
+    @Test
+    public void honoursRetryAfter() {
+        final RateLimits.Budget budget = new RateLimits.Budget(this.clock);
+        final Resource limited = this.response(
+            403, Map.of("Retry-After", List.of("30"))
+        );
+        MatcherAssert.assertThat(
+            RateLimits.Budget.limited(limited),
+            Matchers.is(Boolean.TRUE)
+        );
+        budget.update(limited);
+        MatcherAssert.assertThat(
+            budget.delay(false),
+            Matchers.equalTo(30_000L)
+        );
+    }
+
+    /**
+     * When the budget is exhausted, the requests wait until the reset.
+     */
+    @Test
+    public void waitsForResetWhenExhausted() {
+        final RateLimits.Budget budget = new RateLimits.Budget(this.clock);
+        final Resource limited = this.response(
+            403,
+            Map.of(
+                "X-RateLimit-Limit", List.of("5000"),
+                "X-RateLimit-Remaining", List.of("0"),
+                "X-RateLimit-Reset", List.of(String.valueOf(NOW + 120))
+            )
+        );
+        MatcherAssert.assertThat(
+            RateLimits.Budget.limited(limited),
+            Matchers.is(Boolean.TRUE)
+        );
+        budget.update(limited);
+        MatcherAssert.assertThat(
+            budget.delay(false),
+            Matchers.equalTo(120_000L)
+        );
+    }
+
+    /**
+     * A 403 Forbidden which has nothing to do with the rate limit
+     * is not considered rate-limited.
+     */
+    @Test
+    public void forbiddenIsNotLimited() {
+        MatcherAssert.assertThat(
+            RateLimits.Budget.limited(
+                this.response(
+                    403,
+                    Map.of("X-RateLimit-Remaining", List.of("4000"))
+                )
+            ),
+            Matchers.is(Boolean.FALSE)
+        );
+    }
+
+    /**
+     * Background work is marked as such only while it runs.
+     */
+    @Test
+    public void marksBackgroundWork() {
+        MatcherAssert.assertThat(
+            RateLimits.inBackground(),
+            Matchers.is(Boolean.FALSE)
+        );
+        final boolean[] background = new boolean[1];
+        RateLimits.background(
+            () -> background[0] = RateLimits.inBackground()
+        );
+        MatcherAssert.assertThat(background[0], Matchers.is(Boolean.TRUE));
+        MatcherAssert.assertThat(
+            RateLimits.inBackground(),
+            Matchers.is(Boolean.FALSE)
+        );
+    }
+
+    /**
+     * The budgets are keyed by the digest of the access token, not by
+     * the token itself.
+     */
+    @Test
+    public void keysBudgetsByDigest() {
+        final AccessToken token = new AccessToken.Github("123secret");
+        MatcherAssert.assertThat(
+            RateLimits.key(token), Matchers.equalTo(token.digest())
+        );
+        MatcherAssert.assertThat(
+            RateLimits.key(token),
+            Matchers.not(Matchers.containsString("123secret"))
+        );
+    }
+
+    /**
+     * Mock a response.
+     * @param status Status code.
+     * @param headers Headers.
+     * @return Resource.
+     */
+    private Resource response(
+        final int status,
+        final Map<String, List<String>> headers
+    ) {
+        return new MockResource(status, JsonValue.NULL, headers);
+    }
+}
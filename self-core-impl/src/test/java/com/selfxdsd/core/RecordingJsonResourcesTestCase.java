@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for {@link RecordingJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class RecordingJsonResourcesTestCase {
+
+    /**
+     * It records every request and response, one per line,
+     * without the access token.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void recordsInteractions() throws IOException {
+        final Path file = Files.createTempFile("cassette", ".jsonl");
+        file.toFile().deleteOnExit();
+        final JsonResources recording = new RecordingJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder().add("id", 1).build(),
+                    Map.of("ETag", List.of("\"abc\""))
+                )
+            ),
+            new Cassette(file)
+        ).authenticated(new AccessToken.Github("secret"));
+        final Resource resource = recording.get(
+            URI.create("https://api.github.com/repos/o/r/issues/1")
+        );
+        recording.post(
+            URI.create("https://api.github.com/repos/o/r/issues/1/comments"),
+            Json.createObjectBuilder().add("body", "hi").build()
+        );
+        MatcherAssert.assertThat(
+            resource.asJsonObject().getInt("id"), Matchers.equalTo(1)
+        );
+        final List<String> lines = Files.readAllLines(file);
+        MatcherAssert.assertThat(lines, Matchers.hasSize(2));
+        final JsonObject get = Json.createReader(
+            new StringReader(lines.get(0))
+        ).readObject();
+        MatcherAssert.assertThat(
+            get.getString("method"), Matchers.equalTo("GET")
+        );
+        MatcherAssert.assertThat(
+            get.getString("uri"),
+            Matchers.equalTo("https://api.github.com/repos/o/r/issues/1")
+        );
+        MatcherAssert.assertThat(get.getInt("status"), Matchers.equalTo(200));
+        MatcherAssert.assertThat(
+            get.getString("body"), Matchers.equalTo("{\"id\":1}")
+        );
+        MatcherAssert.assertThat(
+            get.getJsonObject("headers").getJsonArray("ETag").getString(0),
+            Matchers.equalTo("\"abc\"")
+        );
+        final JsonObject post = Json.createReader(
+            new StringReader(lines.get(1))
+        ).readObject();
+        MatcherAssert.assertThat(
+            post.getJsonObject("request").getString("body"),
+            Matchers.equalTo("hi")
+        );
+        MatcherAssert.assertThat(
+            String.join("\n", lines),
+            Matchers.not(Matchers.containsString("secret"))
+        );
+    }
+
+    /**
+     * Asynchronous requests are recorded when they complete.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void recordsAsyncInteractions() throws IOException {
+        final Path file = Files.createTempFile("cassette", ".jsonl");
+        file.toFile().deleteOnExit();
+        final JsonResources recording = new RecordingJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_NO_CONTENT,
+                    JsonObject.EMPTY_JSON_OBJECT
+                )
+            ),
+            new Cassette(file)
+        );
+        recording.deleteAsync(
+            URI.create("https://api.github.com/repos/o/r/hooks/1"),
+            JsonObject.EMPTY_JSON_OBJECT
+        ).join();
+        final List<String> lines = Files.readAllLines(file);
+        MatcherAssert.assertThat(lines, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            lines.get(0), Matchers.containsString("\"method\":\"DELETE\"")
+        );
+    }
+}
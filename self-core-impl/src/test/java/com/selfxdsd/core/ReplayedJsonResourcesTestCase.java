@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+import javax.json.Json;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link ReplayedJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class ReplayedJsonResourcesTestCase {
+
+    /**
+     * URI of the issue.
+     */
+    private static final URI ISSUE = URI.create(
+        "https://api.github.com/repos/o/r/issues/1"
+    );
+
+    /**
+     * It plays back what was recorded, in the recorded order,
+     * repeating the last response.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void replaysRecordedInteractions() throws IOException {
+        final Path file = Files.createTempFile("cassette", ".jsonl");
+        file.toFile().deleteOnExit();
+        final AtomicInteger count = new AtomicInteger();
+        final JsonResources recording = new RecordingJsonResources(
+            new MockJsonResources(
+                req -> new MockResource(
+                    HttpURLConnection.HTTP_OK,
+                    Json.createObjectBuilder()
+                        .add("version", count.incrementAndGet())
+                        .build(),
+                    Map.of("Link", List.of("<https://next>; rel=\"next\""))
+                )
+            ),
+            new Cassette(file)
+        );
+        recording.get(ISSUE);
+        recording.get(ISSUE);
+        final JsonResources replayed = new ReplayedJsonResources(
+            new Cassette(file)
+        ).authenticated(new AccessToken.Github("token"));
+        MatcherAssert.assertThat(
+            replayed.get(ISSUE).asJsonObject().getInt("version"),
+            Matchers.equalTo(1)
+        );
+        final Resource second = replayed.get(ISSUE);
+        MatcherAssert.assertThat(
+            second.asJsonObject().getInt("version"), Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            second.headers().get("link"),
+            Matchers.contains("<https://next>; rel=\"next\"")
+        );
+        MatcherAssert.assertThat(
+            replayed.getAsync(ISSUE).join().asJsonObject().getInt("version"),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * It replays the recorded latency, if asked to.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void replaysLatency() throws IOException {
+        final Path file = Files.createTempFile("cassette", ".jsonl");
+        file.toFile().deleteOnExit();
+        Files.writeString(
+            file,
+            "{\"method\":\"GET\",\"uri\":\"" + ISSUE + "\",\"status\":200,"
+            + "\"headers\":{},\"body\":\"{}\",\"millis\":100}\n",
+            StandardCharsets.UTF_8
+        );
+        final long start = System.currentTimeMillis();
+        new ReplayedJsonResources(new Cassette(file), true).get(ISSUE);
+        MatcherAssert.assertThat(
+            System.currentTimeMillis() - start,
+            Matchers.greaterThanOrEqualTo(100L)
+        );
+    }
+
+    /**
+     * A request which was not recorded fails.
+     * @throws IOException If something goes wrong.
+     */
+    @Test
+    public void failsOnUnknownRequest() throws IOException {
+        final Path file = Files.createTempFile("cassette", ".jsonl");
+        file.toFile().deleteOnExit();
+        final JsonResources replayed = new ReplayedJsonResources(
+            new Cassette(file)
+        );
+        try {
+            replayed.post(ISSUE, Json.createObjectBuilder().build());
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(),
+                Matchers.startsWith("No interaction recorded for POST")
+            );
+        }
+        try {
+            replayed.getAsync(ISSUE).join();
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final CompletionException ex) {
+            MatcherAssert.assertThat(
+                ex.getCause(),
+                Matchers.instanceOf(IllegalStateException.class)
+            );
+        }
+    }
+}
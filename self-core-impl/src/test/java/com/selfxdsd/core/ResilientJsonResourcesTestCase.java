@@ -0,0 +1,389 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core;
+
+import com.selfxdsd.core.mock.MockJsonResources;
+import com.selfxdsd.core.mock.MockJsonResources.MockResource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.json.Json;
+import javax.json.JsonValue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link ResilientJsonResources}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class ResilientJsonResourcesTestCase {
+
+    /**
+     * URI of the requests.
+     */
+    private static final URI GITHUB = URI.create(
+        "https://api.github.com/repos/o/r"
+    );
+
+    /**
+     * A GET which fails with 503 is retried and the retry is counted.
+     */
+    @Test
+    public void retriesUnavailableGet() {
+        final AtomicInteger count = new AtomicInteger();
+        final ResilientJsonResources.Breakers breakers =
+            new ResilientJsonResources.Breakers(
+                5, Duration.ofSeconds(30), Clock.systemUTC()
+            );
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> ResilientJsonResourcesTestCase.response(
+                    count.incrementAndGet() < 3
+                )
+            ),
+            breakers, 3, Duration.ZERO
+        );
+        MatcherAssert.assertThat(
+            resilient.get(GITHUB).statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(3));
+        MatcherAssert.assertThat(breakers.retries(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.CLOSED)
+        );
+    }
+
+    /**
+     * A GET which keeps failing with an exception is tried at most
+     * the given number of times, then the exception is thrown.
+     */
+    @Test
+    public void givesUpAfterMaxAttempts() {
+        final AtomicInteger count = new AtomicInteger();
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> {
+                    count.incrementAndGet();
+                    throw new IllegalStateException("Connection reset");
+                }
+            ),
+            new ResilientJsonResources.Breakers(
+                10, Duration.ofSeconds(30), Clock.systemUTC()
+            ),
+            3, Duration.ZERO
+        );
+        try {
+            resilient.get(GITHUB);
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                ex.getMessage(), Matchers.equalTo("Connection reset")
+            );
+        }
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(3));
+    }
+
+    /**
+     * A POST is not idempotent, so it is never retried.
+     */
+    @Test
+    public void doesNotRetryPost() {
+        final AtomicInteger count = new AtomicInteger();
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> {
+                    count.incrementAndGet();
+                    return ResilientJsonResourcesTestCase.response(true);
+                }
+            ),
+            new ResilientJsonResources.Breakers(
+                5, Duration.ofSeconds(30), Clock.systemUTC()
+            ),
+            3, Duration.ZERO
+        );
+        MatcherAssert.assertThat(
+            resilient.post(GITHUB, Json.createObjectBuilder().build())
+                .statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_UNAVAILABLE)
+        );
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * After the threshold of consecutive failures, the breaker opens
+     * and the following requests are rejected without reaching the origin.
+     * After the cooldown, one trial request goes through and, if it
+     * succeeds, the breaker closes.
+     */
+    @Test
+    public void opensAndClosesBreaker() {
+        final AtomicLong now = new AtomicLong();
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenAnswer(inv -> now.get());
+        final AtomicInteger count = new AtomicInteger();
+        final ResilientJsonResources.Breakers breakers =
+            new ResilientJsonResources.Breakers(
+                2, Duration.ofSeconds(30), clock
+            );
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> ResilientJsonResourcesTestCase.response(
+                    count.incrementAndGet() <= 2
+                )
+            ),
+            breakers, 1, Duration.ZERO
+        );
+        resilient.get(GITHUB);
+        resilient.get(GITHUB);
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.OPEN)
+        );
+        try {
+            resilient.get(GITHUB);
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(count.get(), Matchers.equalTo(2));
+            MatcherAssert.assertThat(
+                breakers.rejected(), Matchers.equalTo(1L)
+            );
+        }
+        now.set(Duration.ofSeconds(31).toMillis());
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.HALF_OPEN)
+        );
+        MatcherAssert.assertThat(
+            resilient.get(GITHUB).statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.CLOSED)
+        );
+    }
+
+    /**
+     * A failed trial request opens the breaker again.
+     */
+    @Test
+    public void failedTrialReopensBreaker() {
+        final AtomicLong now = new AtomicLong();
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenAnswer(inv -> now.get());
+        final ResilientJsonResources.Breakers breakers =
+            new ResilientJsonResources.Breakers(
+                1, Duration.ofSeconds(30), clock
+            );
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> ResilientJsonResourcesTestCase.response(true)
+            ),
+            breakers, 1, Duration.ZERO
+        );
+        resilient.get(GITHUB);
+        now.set(Duration.ofSeconds(31).toMillis());
+        resilient.get(GITHUB);
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.OPEN)
+        );
+    }
+
+    /**
+     * An asynchronous GET which fails with 503 is retried.
+     */
+    @Test
+    public void retriesUnavailableGetAsync() {
+        final AtomicInteger count = new AtomicInteger();
+        final ResilientJsonResources.Breakers breakers =
+            new ResilientJsonResources.Breakers(
+                5, Duration.ofSeconds(30), Clock.systemUTC()
+            );
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> ResilientJsonResourcesTestCase.response(
+                    count.incrementAndGet() < 2
+                )
+            ),
+            breakers, 3, Duration.ZERO
+        );
+        MatcherAssert.assertThat(
+            resilient.getAsync(GITHUB).join().statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(breakers.retries(), Matchers.equalTo(1L));
+    }
+
+    /**
+     * Breakers are per host: failures of one host do not affect another.
+     */
+    @Test
+    public void breakersArePerHost() {
+        final ResilientJsonResources.Breakers breakers =
+            new ResilientJsonResources.Breakers(
+                1, Duration.ofSeconds(30), Clock.systemUTC()
+            );
+        final JsonResources resilient = new ResilientJsonResources(
+            new MockJsonResources(
+                req -> ResilientJsonResourcesTestCase.response(
+                    "api.github.com".equals(req.getUri().getHost())
+                )
+            ),
+            breakers, 1, Duration.ZERO
+        );
+        resilient.get(GITHUB);
+        MatcherAssert.assertThat(
+            resilient.get(URI.create("https://gitlab.com/api/v4"))
+                .statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            breakers.state("gitlab.com"),
+            Matchers.equalTo(ResilientJsonResources.Breakers.CLOSED)
+        );
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.OPEN)
+        );
+    }
+
+    /**
+     * Mock response.
+     * @param unavailable Should it be 503 Service Unavailable?
+     * @return MockResource.
+     */
+    private static MockResource response(final boolean unavailable) {
+        final MockResource response;
+        if(unavailable) {
+            response = new MockResource(
+                HttpURLConnection.HTTP_UNAVAILABLE,
+                Json.createObjectBuilder().build()
+            );
+        } else {
+            response = new MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add("ok", true).build()
+            );
+        }
+        return response;
+    }
+
+    /**
+     * A trial request which fails with any RuntimeException, synchronously
+     * or asynchronously, opens the breaker again instead of leaving it
+     * stuck in the trial.
+     */
+    @Test
+    public void trialFailingWithAnyExceptionEnds() {
+        final AtomicLong now = new AtomicLong();
+        final Clock clock = Mockito.mock(Clock.class);
+        Mockito.when(clock.millis()).thenAnswer(inv -> now.get());
+        final ResilientJsonResources.Breakers breakers =
+            new ResilientJsonResources.Breakers(
+                1, Duration.ofSeconds(30), clock
+            );
+        final JsonResources origin = Mockito.mock(JsonResources.class);
+        Mockito.when(origin.get(GITHUB)).thenThrow(
+            new UncheckedIOException(new IOException("Connection reset."))
+        );
+        Mockito.when(origin.getAsync(GITHUB)).thenThrow(
+            new IllegalArgumentException("Bad request.")
+        );
+        final JsonResources resilient = new ResilientJsonResources(
+            origin, breakers, 1, Duration.ZERO
+        );
+        for(int trial = 1; trial <= 2; ++trial) {
+            now.set(Duration.ofSeconds(31 * trial).toMillis());
+            try {
+                resilient.get(GITHUB);
+                MatcherAssert.assertThat("Exception expected.", false);
+            } catch (final UncheckedIOException ex) {
+                MatcherAssert.assertThat(
+                    breakers.state(GITHUB.getHost()),
+                    Matchers.equalTo(ResilientJsonResources.Breakers.OPEN)
+                );
+            }
+        }
+        now.set(Duration.ofSeconds(93).toMillis());
+        MatcherAssert.assertThat(
+            resilient.getAsync(GITHUB).isCompletedExceptionally(),
+            Matchers.is(Boolean.TRUE)
+        );
+        now.set(Duration.ofSeconds(124).toMillis());
+        MatcherAssert.assertThat(
+            breakers.state(GITHUB.getHost()),
+            Matchers.equalTo(ResilientJsonResources.Breakers.HALF_OPEN)
+        );
+        MatcherAssert.assertThat(
+            resilient.getAsync(GITHUB).isCompletedExceptionally(),
+            Matchers.is(Boolean.TRUE)
+        );
+        Mockito.verify(origin, Mockito.times(2)).getAsync(GITHUB);
+    }
+
+    /**
+     * Two ResilientJsonResources built separately have their own
+     * breakers: one opening doesn't reject the requests of the other.
+     */
+    @Test
+    public void separateInstancesHaveTheirOwnBreakers() {
+        final MockJsonResources origin = new MockJsonResources(
+            req -> ResilientJsonResourcesTestCase.response(true)
+        );
+        final JsonResources first = new ResilientJsonResources(origin);
+        for(int idx = 0; idx < 5; ++idx) {
+            first.post(GITHUB, JsonValue.EMPTY_JSON_OBJECT);
+        }
+        try {
+            first.post(GITHUB, JsonValue.EMPTY_JSON_OBJECT);
+            MatcherAssert.assertThat("Exception expected.", false);
+        } catch (final IllegalStateException ex) {
+            MatcherAssert.assertThat(
+                origin.requests(), Matchers.iterableWithSize(5)
+            );
+        }
+        MatcherAssert.assertThat(
+            new ResilientJsonResources(origin)
+                .post(GITHUB, JsonValue.EMPTY_JSON_OBJECT)
+                .statusCode(),
+            Matchers.equalTo(HttpURLConnection.HTTP_UNAVAILABLE)
+        );
+        MatcherAssert.assertThat(
+            origin.requests(), Matchers.iterableWithSize(6)
+        );
+    }
+}
@@ -27,6 +27,7 @@ import com.selfxdsd.api.storage.Storage;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 /**
@@ -78,4 +79,80 @@ public final class SelfCoreTestCase {
         self.close();
         Mockito.verify(storage, Mockito.times(1)).close();
     }
+
+    /**
+     * SelfCore should drain its Events pipeline before closing the Storage.
+     *
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void drainsEventsOnClose() throws Exception {
+        final Storage storage = Mockito.mock(Storage.class);
+        final Events events = Mockito.mock(Events.class);
+
+        final Self self = new SelfCore(storage, events);
+        MatcherAssert.assertThat(self.events(), Matchers.is(events));
+        self.close();
+        final InOrder order = Mockito.inOrder(events, storage);
+        order.verify(events, Mockito.times(1)).close();
+        order.verify(storage, Mockito.times(1)).close();
+    }
+
+    /**
+     * SelfCore has its own Metrics, unless they are given.
+     */
+    @Test
+    public void hasItsOwnMetrics() {
+        final Storage storage = Mockito.mock(Storage.class);
+        final Metrics metrics = new InMemoryMetrics();
+
+        MatcherAssert.assertThat(
+            new SelfCore(storage).metrics(),
+            Matchers.allOf(
+                Matchers.notNullValue(),
+                Matchers.not(
+                    Matchers.sameInstance(new SelfCore(storage).metrics())
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new SelfCore(
+                storage, Mockito.mock(Events.class), metrics
+            ).metrics(),
+            Matchers.sameInstance(metrics)
+        );
+    }
+
+    /**
+     * SelfCore should start posting the comments from the Outbox only
+     * when it is started, not when it is created.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void postsOutboxOnStart() throws Exception {
+        final Storage storage = Mockito.mock(Storage.class);
+
+        final Self self = new SelfCore(storage);
+        Mockito.verify(storage, Mockito.never()).outbox();
+        self.start();
+        Mockito.verify(storage, Mockito.timeout(5000).atLeastOnce()).outbox();
+        self.close();
+    }
+
+    /**
+     * Two SelfCores don't post each other's Outboxes: closing one of them
+     * flushes only its own Storage.
+     * @throws Exception If something goes wrong.
+     */
+    @Test
+    public void flushesOnlyItsOwnOutbox() throws Exception {
+        final Storage storage = Mockito.mock(Storage.class);
+        final Storage other = Mockito.mock(Storage.class);
+
+        final Self self = new SelfCore(storage);
+        new SelfCore(other);
+        self.close();
+        Mockito.verify(storage, Mockito.times(1)).outbox();
+        Mockito.verify(other, Mockito.never()).outbox();
+    }
 }
@@ -30,6 +30,7 @@ import org.mockito.Mockito;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Unit tests for {@link WithContributorLabel}.
@@ -331,4 +332,48 @@ public final class WithContributorLabelTestCase {
         withLabel.reopen();
         Mockito.verify(decorated, Mockito.times(1)).reopen();
     }
+
+    /**
+     * WithContributorLabel adds the label if the async assignment
+     * is successful.
+     */
+    @Test
+    public void addsLabelOnAsyncAssignmentOk() {
+        final Labels labels = Mockito.mock(Labels.class);
+        Mockito.when(labels.addAsync("@mihai")).thenReturn(
+            CompletableFuture.completedFuture(true)
+        );
+        final Issue decorated = Mockito.mock(Issue.class);
+        Mockito.when(decorated.labels()).thenReturn(labels);
+        Mockito.when(decorated.assignAsync("mihai")).thenReturn(
+            CompletableFuture.completedFuture(true)
+        );
+        final Issue withLabel = new WithContributorLabel(decorated);
+        MatcherAssert.assertThat(
+            withLabel.assignAsync("mihai").join(),
+            Matchers.is(true)
+        );
+        Mockito.verify(labels, Mockito.times(1)).addAsync("@mihai");
+    }
+
+    /**
+     * WithContributorLabel does not remove the label if the async
+     * unassignment is unsuccessful.
+     */
+    @Test
+    public void doesNotRemoveLabelOnAsyncUnassignmentFailed() {
+        final Labels labels = Mockito.mock(Labels.class);
+        final Issue decorated = Mockito.mock(Issue.class);
+        Mockito.when(decorated.labels()).thenReturn(labels);
+        Mockito.when(decorated.unassignAsync("mihai")).thenReturn(
+            CompletableFuture.completedFuture(false)
+        );
+        final Issue withLabel = new WithContributorLabel(decorated);
+        MatcherAssert.assertThat(
+            withLabel.unassignAsync("mihai").join(),
+            Matchers.is(false)
+        );
+        Mockito.verify(labels, Mockito.times(0))
+            .removeAsync(Mockito.anyString());
+    }
 }
@@ -38,6 +38,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -1390,6 +1391,8 @@ public final class StoredProjectManagerTestCase {
             .post("@mihai Don't forget to close this ticket before the"
                 + " deadline (" + deadlineDate.toString() + "). "
                 + "You are past the first half of the allowed period.");
+        Mockito.verify(task, Mockito.times(1))
+            .notified(Task.Notices.REMINDER);
     }
 
     /**
@@ -1483,4 +1486,198 @@ public final class StoredProjectManagerTestCase {
         ).thenReturn(repo);
         return repo;
     }
+
+    /**
+     * StoredProjectManager.unassignedTasks(Event) reads all the Issues
+     * with one bulk call, instead of reading each Task's Issue.
+     */
+    @Test
+    public void handlesUnassignedTasksWithIssuesInBulk() {
+        final Contributor assignee = Mockito.mock(Contributor.class);
+        Mockito.when(assignee.username()).thenReturn("mihai");
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.issueId()).thenReturn("1");
+        Mockito.when(task.assign(assignee))
+            .thenReturn(Mockito.mock(Task.class));
+        Mockito.when(task.role()).thenReturn("DEV");
+        final Issue issue = Mockito.mock(Issue.class);
+        final Comments comments = Mockito.mock(Comments.class);
+        Mockito.when(issue.comments()).thenReturn(comments);
+
+        final Tasks unassigned = Mockito.mock(Tasks.class);
+        Mockito.when(unassigned.iterator())
+            .thenReturn(Arrays.asList(task).iterator());
+        final Tasks ofProject = Mockito.mock(Tasks.class);
+        Mockito.when(ofProject.unassigned()).thenReturn(unassigned);
+
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(issues.getByIds(List.of("1")))
+            .thenReturn(Map.of("1", issue));
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(repo.issues()).thenReturn(issues);
+        final Provider provider = Mockito.mock(Provider.class);
+        Mockito.when(provider.repo("mihai", "test")).thenReturn(repo);
+        final ProjectManager stored = Mockito.mock(ProjectManager.class);
+        Mockito.when(stored.provider()).thenReturn(provider);
+
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("mihai/test");
+        Mockito.when(project.projectManager()).thenReturn(stored);
+        Mockito.when(project.tasks()).thenReturn(ofProject);
+        Mockito.when(project.language()).thenReturn(new English());
+        final Contributors contributors = Mockito.mock(Contributors.class);
+        Mockito.when(contributors.elect(task)).thenReturn(assignee);
+        Mockito.when(project.contributors()).thenReturn(contributors);
+        final User owner = Mockito.mock(User.class);
+        Mockito.when(owner.username()).thenReturn("mihai");
+        Mockito.when(project.owner()).thenReturn(owner);
+
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+
+        new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            Mockito.mock(Storage.class)
+        ).unassignedTasks(event);
+
+        Mockito.verify(issues, Mockito.times(1)).getByIds(List.of("1"));
+        Mockito.verify(task, Mockito.never()).issue();
+        Mockito.verify(issue, Mockito.times(1)).assign("mihai");
+    }
+
+    /**
+     * PM does not remind the assignee of the deadline again, if the
+     * reminder was already posted.
+     */
+    @Test
+    public void handlesAssignedTasksEventAlreadyReminded() {
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.language()).thenReturn(new English());
+
+        final Task task = Mockito.mock(Task.class);
+        Mockito.when(task.isNotified(Task.Notices.REMINDER)).thenReturn(true);
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.iterator()).thenReturn(List.of(task).iterator());
+        Mockito.when(project.tasks()).thenReturn(tasks);
+
+        final Contributor assignee = Mockito.mock(Contributor.class);
+        Mockito.when(assignee.username()).thenReturn("mihai");
+        Mockito.when(task.assignee()).thenReturn(assignee);
+
+        final Issue issue = Mockito.mock(Issue.class);
+        Mockito.when(issue.isClosed()).thenReturn(Boolean.FALSE);
+        Mockito.when(task.issue()).thenReturn(issue);
+
+        final LocalDateTime assignmentDate = LocalDateTime.now();
+        final Supplier<LocalDateTime> now = ()-> assignmentDate.plusDays(6);
+        Mockito.when(task.assignmentDate()).thenReturn(assignmentDate);
+        Mockito.when(task.deadline()).thenReturn(assignmentDate.plusDays(10));
+
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+
+        new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            Mockito.mock(Storage.class),
+            now
+        ).assignedTasks(event);
+        Mockito.verify(issue, Mockito.never()).comments();
+        Mockito.verify(task, Mockito.never())
+            .notified(Mockito.anyString());
+    }
+
+    /**
+     * PM lists the closed Issues of the assigned Tasks and does not fetch
+     * the Issues of the Tasks which need nothing.
+     */
+    @Test
+    public void handlesAssignedTasksWithoutFetchingOpenIssues() {
+        final LocalDateTime assignmentDate = LocalDateTime.now();
+        final Contributor assignee = Mockito.mock(Contributor.class);
+        Mockito.when(assignee.username()).thenReturn("mihai");
+        final Task closedTask = Mockito.mock(Task.class);
+        Mockito.when(closedTask.issueId()).thenReturn("1");
+        Mockito.when(closedTask.assignee()).thenReturn(assignee);
+        Mockito.when(closedTask.assignmentDate())
+            .thenReturn(assignmentDate.minusDays(2));
+        Mockito.when(closedTask.value()).thenReturn(BigDecimal.valueOf(1000));
+        final Invoice active = Mockito.mock(Invoice.class);
+        Mockito.when(
+            active.register(
+                closedTask,
+                BigDecimal.valueOf(80.0).setScale(2, RoundingMode.HALF_UP)
+            )
+        ).thenReturn(Mockito.mock(InvoicedTask.class));
+        final Invoices invoices = Mockito.mock(Invoices.class);
+        Mockito.when(invoices.active()).thenReturn(active);
+        final Contract contract = Mockito.mock(Contract.class);
+        Mockito.when(contract.invoices()).thenReturn(invoices);
+        Mockito.when(closedTask.contract()).thenReturn(contract);
+        final Task remindedTask = Mockito.mock(Task.class);
+        Mockito.when(remindedTask.issueId()).thenReturn("2");
+        Mockito.when(remindedTask.assignee()).thenReturn(assignee);
+        Mockito.when(remindedTask.assignmentDate()).thenReturn(assignmentDate);
+        Mockito.when(remindedTask.deadline())
+            .thenReturn(assignmentDate.plusDays(10));
+        Mockito.when(remindedTask.isNotified(Task.Notices.REMINDER))
+            .thenReturn(true);
+
+        final Issue closed = Mockito.mock(Issue.class);
+        final Comments comments = Mockito.mock(Comments.class);
+        Mockito.when(closed.comments()).thenReturn(comments);
+        final Issues issues = Mockito.mock(Issues.class);
+        Mockito.when(
+            issues.closedSince(
+                List.of("1", "2"), assignmentDate.minusDays(3)
+            )
+        ).thenReturn(Map.of("1", closed));
+        final Repo repo = Mockito.mock(Repo.class);
+        Mockito.when(repo.issues()).thenReturn(issues);
+        final Provider provider = Mockito.mock(Provider.class);
+        Mockito.when(provider.repo("mihai", "test")).thenReturn(repo);
+        final ProjectManager stored = Mockito.mock(ProjectManager.class);
+        Mockito.when(stored.provider()).thenReturn(provider);
+
+        final Tasks tasks = Mockito.mock(Tasks.class);
+        Mockito.when(tasks.iterator())
+            .thenReturn(List.of(closedTask, remindedTask).iterator());
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("mihai/test");
+        Mockito.when(project.projectManager()).thenReturn(stored);
+        Mockito.when(project.tasks()).thenReturn(tasks);
+        Mockito.when(project.language()).thenReturn(new English());
+        final Event event = Mockito.mock(Event.class);
+        Mockito.when(event.project()).thenReturn(project);
+
+        final Tasks all = Mockito.mock(Tasks.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        Mockito.when(storage.tasks()).thenReturn(all);
+        new StoredProjectManager(
+            1,
+            "123",
+            "zoeself",
+            Provider.Names.GITHUB,
+            "123token",
+            8,
+            storage,
+            () -> assignmentDate.plusDays(6)
+        ).assignedTasks(event);
+
+        Mockito.verify(all, Mockito.times(1)).remove(closedTask);
+        Mockito.verify(comments, Mockito.times(1)).post(Mockito.anyString());
+        Mockito.verify(issues, Mockito.never())
+            .getByIds(Mockito.anyCollection());
+        Mockito.verify(closedTask, Mockito.never()).issue();
+        Mockito.verify(remindedTask, Mockito.never()).issue();
+    }
 }
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2020, Self XDSD Contributors
+ * All rights reserved.
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"),
+ * to read the Software only. Permission is hereby NOT GRANTED to use, copy,
+ * modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY,
+ * OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT
+ * OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.selfxdsd.core.managers;
+
+import com.selfxdsd.api.Event;
+import com.selfxdsd.api.Project;
+import com.selfxdsd.api.ProjectManager;
+import com.selfxdsd.api.Projects;
+import com.selfxdsd.api.storage.Paged;
+import com.selfxdsd.core.InMemoryMetrics;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Unit tests for {@link TasksSweep}.
+ * @author Mihai Andronache (amihaiemil@gmail.com)
+ * @version $Id$
+ * @since 0.0.42
+ */
+public final class TasksSweepTestCase {
+
+    /**
+     * Each Project resolves the unassigned and then the assigned tasks
+     * events and its duration is reported.
+     */
+    @Test
+    public void sweepsEachProject() {
+        final List<String> types = new ArrayList<>();
+        final Project project = TasksSweepTestCase.project(
+            "mihai/test",
+            event -> {
+                synchronized (types) {
+                    types.add(event.type());
+                }
+            }
+        );
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            final Map<String, Duration> durations = new TasksSweep(
+                workers, 2, 2, metrics
+            ).sweep(TasksSweepTestCase.manager(List.of(project)));
+            MatcherAssert.assertThat(
+                durations.keySet(), Matchers.contains("github/mihai/test")
+            );
+        } finally {
+            workers.shutdownNow();
+        }
+        MatcherAssert.assertThat(
+            types,
+            Matchers.contains(
+                Event.Type.UNASSIGNED_TASKS, Event.Type.ASSIGNED_TASKS
+            )
+        );
+        MatcherAssert.assertThat(
+            metrics.snapshot("SWEEP github").count(), Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * No more Projects than allowed per access token are swept at once,
+     * even if there are more workers.
+     */
+    @Test
+    public void respectsTokenLimit() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final List<Project> projects = new ArrayList<>();
+        for(int idx = 0; idx < 6; idx = idx + 1) {
+            projects.add(
+                TasksSweepTestCase.project(
+                    "mihai/test" + idx,
+                    event -> {
+                        max.accumulateAndGet(
+                            running.incrementAndGet(), Math::max
+                        );
+                        try {
+                            Thread.sleep(20);
+                        } catch (final InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        running.decrementAndGet();
+                    }
+                )
+            );
+        }
+        final ExecutorService workers = Executors.newFixedThreadPool(6);
+        try {
+            final Map<String, Duration> durations = new TasksSweep(
+                workers, 6, 2, new InMemoryMetrics()
+            ).sweep(TasksSweepTestCase.manager(projects));
+            MatcherAssert.assertThat(durations.size(), Matchers.equalTo(6));
+        } finally {
+            workers.shutdownNow();
+        }
+        MatcherAssert.assertThat(max.get(), Matchers.lessThanOrEqualTo(2));
+    }
+
+    /**
+     * The Projects of a Provider which is at its limit do not hold back
+     * the Projects of other Providers.
+     */
+    @Test
+    public void doesNotWaitBehindBusyProvider() {
+        final CountDownLatch gitlab = new CountDownLatch(1);
+        final AtomicBoolean overtaken = new AtomicBoolean();
+        final Consumer<Event> waits = event -> {
+            try {
+                if(gitlab.await(5, TimeUnit.SECONDS)) {
+                    overtaken.set(true);
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        final List<Project> projects = List.of(
+            TasksSweepTestCase.project("mihai/first", "github", waits),
+            TasksSweepTestCase.project("mihai/second", "github", waits),
+            TasksSweepTestCase.project(
+                "mihai/third", "gitlab", event -> gitlab.countDown()
+            )
+        );
+        final ExecutorService workers = Executors.newFixedThreadPool(3);
+        try {
+            final Map<String, Duration> durations = new TasksSweep(
+                workers, 1, 3, new InMemoryMetrics()
+            ).sweep(TasksSweepTestCase.manager(projects));
+            MatcherAssert.assertThat(durations.size(), Matchers.equalTo(3));
+        } finally {
+            workers.shutdownNow();
+        }
+        MatcherAssert.assertThat(overtaken.get(), Matchers.is(true));
+    }
+
+    /**
+     * A Project whose sweep fails does not stop the others.
+     */
+    @Test
+    public void continuesAfterFailedProject() {
+        final AtomicInteger resolved = new AtomicInteger();
+        final Project failing = TasksSweepTestCase.project(
+            "mihai/failing",
+            event -> {
+                throw new IllegalStateException("Github is down.");
+            }
+        );
+        final Project working = TasksSweepTestCase.project(
+            "mihai/working", event -> resolved.incrementAndGet()
+        );
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final ExecutorService workers = Executors.newSingleThreadExecutor();
+        try {
+            final Map<String, Duration> durations = new TasksSweep(
+                workers, 1, 1, metrics
+            ).sweep(TasksSweepTestCase.manager(List.of(failing, working)));
+            MatcherAssert.assertThat(durations.size(), Matchers.equalTo(2));
+        } finally {
+            workers.shutdownNow();
+        }
+        MatcherAssert.assertThat(resolved.get(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(
+            metrics.snapshot("SWEEP github").errors(), Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Mock a Github Project.
+     * @param name Full name of the repo.
+     * @param resolve What happens when an Event is resolved.
+     * @return Project.
+     */
+    private static Project project(
+        final String name,
+        final Consumer<Event> resolve
+    ) {
+        return TasksSweepTestCase.project(name, "github", resolve);
+    }
+
+    /**
+     * Mock a Project.
+     * @param name Full name of the repo.
+     * @param provider Provider.
+     * @param resolve What happens when an Event is resolved.
+     * @return Project.
+     */
+    private static Project project(
+        final String name,
+        final String provider,
+        final Consumer<Event> resolve
+    ) {
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn(name);
+        Mockito.when(project.provider()).thenReturn(provider);
+        Mockito.doAnswer(
+            invocation -> {
+                resolve.accept((Event) invocation.getArguments()[0]);
+                return null;
+            }
+        ).when(project).resolve(Mockito.any(Event.class));
+        return project;
+    }
+
+    /**
+     * Mock a ProjectManager with the given Projects, on one page.
+     * @param projects Projects.
+     * @return ProjectManager.
+     */
+    private static ProjectManager manager(final List<Project> projects) {
+        final Projects page = Mockito.mock(Projects.class);
+        Mockito.when(page.totalPages()).thenReturn(1);
+        Mockito.when(page.iterator()).thenAnswer(inv -> projects.iterator());
+        final Projects all = Mockito.mock(Projects.class);
+        Mockito.when(all.page(Mockito.any(Paged.Page.class))).thenReturn(page);
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        Mockito.when(manager.id()).thenReturn(1);
+        Mockito.when(manager.projects()).thenReturn(all);
+        return manager;
+    }
+}
@@ -24,6 +24,7 @@ package com.selfxdsd.core.mock;
 
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.InMemoryCommentsIndex;
 
 import javax.json.JsonValue;
 
@@ -91,6 +92,11 @@ public final class InMemory implements Storage {
      */
     private PayoutMethods payoutMethods = new InMemoryPayoutMethods(this);
 
+    /**
+     * In-memory comments index.
+     */
+    private CommentsIndex commentsIndex = new InMemoryCommentsIndex();
+
     @Override
     public Users users() {
         return this.users;
@@ -151,6 +157,16 @@ public final class InMemory implements Storage {
         throw new UnsupportedOperationException("Not implemented yet!");
     }
 
+    @Override
+    public CommentsIndex commentsIndex() {
+        return this.commentsIndex;
+    }
+
+    @Override
+    public Outbox outbox() {
+        return null;
+    }
+
     /**
      * Nothing to close, this is an in-memory storage.
      */
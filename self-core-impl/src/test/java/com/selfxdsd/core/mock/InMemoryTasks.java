@@ -29,9 +29,12 @@ import com.selfxdsd.core.tasks.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -149,6 +152,33 @@ public final class InMemoryTasks implements Tasks {
         return unassigned;
     }
 
+    @Override
+    public Task notified(final Task task, final String notice) {
+        final TaskKey key = new TaskKey(
+            task.issueId(),
+            task.project().repoFullName(),
+            task.project().provider()
+        );
+        final Set<String> notices = new HashSet<>();
+        notices.add(notice);
+        for(final String known : List.of(Task.Notices.REMINDER)) {
+            if(task.isNotified(known)) {
+                notices.add(known);
+            }
+        }
+        final Task notified = new StoredTask(
+            task.contract(),
+            key.issueId,
+            this.storage,
+            task.assignmentDate(),
+            task.deadline(),
+            task.estimation(),
+            notices
+        );
+        this.tasks.put(key, notified);
+        return notified;
+    }
+
     @Override
     public Tasks ofProject(final String repoFullName,
                            final String repoProvider) {
@@ -12,7 +12,11 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * A mock implementation of {@link JsonResources} used to unit test
@@ -121,11 +125,17 @@ public final class MockJsonResources implements JsonResources {
 
     @Override
     public Resource get(final URI uri) {
+        return this.get(uri, Map.of());
+    }
+
+    @Override
+    public Resource get(final URI uri, final Map<String, String> headers) {
         final MockRequest request = new MockRequest(
             "GET",
             uri,
             JsonValue.NULL,
-            accessToken
+            accessToken,
+            headers
         );
         return onRequest.apply(request);
     }
@@ -136,7 +146,8 @@ public final class MockJsonResources implements JsonResources {
             "POST",
             uri,
             body,
-            accessToken
+            accessToken,
+            Map.of()
         );
         return onRequest.apply(request);
     }
@@ -147,7 +158,8 @@ public final class MockJsonResources implements JsonResources {
             "PATCH",
             uri,
             body,
-            accessToken
+            accessToken,
+            Map.of()
         );
         return onRequest.apply(request);
     }
@@ -158,7 +170,8 @@ public final class MockJsonResources implements JsonResources {
             "PUT",
             uri,
             body,
-            this.accessToken
+            this.accessToken,
+            Map.of()
         );
         return this.onRequest.apply(request);
     }
@@ -169,11 +182,57 @@ public final class MockJsonResources implements JsonResources {
             "DELETE",
             uri,
             body,
-            this.accessToken
+            this.accessToken,
+            Map.of()
         );
         return this.onRequest.apply(request);
     }
 
+    @Override
+    public CompletableFuture<Resource> getAsync(final URI uri) {
+        return CompletableFuture.completedFuture(this.get(uri));
+    }
+
+    @Override
+    public CompletableFuture<Resource> getAsync(
+        final URI uri,
+        final Map<String, String> headers
+    ) {
+        return CompletableFuture.completedFuture(this.get(uri, headers));
+    }
+
+    @Override
+    public CompletableFuture<Resource> postAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.completedFuture(this.post(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> patchAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.completedFuture(this.patch(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> putAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.completedFuture(this.put(uri, body));
+    }
+
+    @Override
+    public CompletableFuture<Resource> deleteAsync(
+        final URI uri,
+        final JsonValue body
+    ) {
+        return CompletableFuture.completedFuture(this.delete(uri, body));
+    }
+
     /**
      * Get the requests history.
      * @return MockRequests.
@@ -203,6 +262,10 @@ public final class MockJsonResources implements JsonResources {
          * Access token for authenticated requests.
          */
         private final AccessToken accessToken;
+        /**
+         * Extra request headers.
+         */
+        private final Map<String, String> headers;
 
         /**
          * Ctor.
@@ -210,15 +273,18 @@ public final class MockJsonResources implements JsonResources {
          * @param uri Request URI.
          * @param body Request body.
          * @param accessToken Access token for authenticated requests.
+         * @param headers Extra request headers.
          */
         private MockRequest(final String method,
                             final URI uri,
                             final JsonValue body,
-                            final AccessToken accessToken) {
+                            final AccessToken accessToken,
+                            final Map<String, String> headers) {
             this.method = method;
             this.uri = uri;
             this.body = body;
             this.accessToken = accessToken;
+            this.headers = headers;
         }
 
         /**
@@ -252,6 +318,14 @@ public final class MockJsonResources implements JsonResources {
         public AccessToken getAccessToken() {
             return accessToken;
         }
+
+        /**
+         * Extra request headers.
+         * @return Map of header name to value.
+         */
+        public Map<String, String> getHeaders() {
+            return this.headers;
+        }
     }
 
     /**
@@ -325,6 +399,10 @@ public final class MockJsonResources implements JsonResources {
          * Response body.
          */
         private final JsonValue body;
+        /**
+         * Response headers.
+         */
+        private final Map<String, List<String>> headers;
 
         /**
          * Ctor.
@@ -332,8 +410,24 @@ public final class MockJsonResources implements JsonResources {
          * @param body Response body.
          */
         public MockResource(final int statusCode, final JsonValue body) {
+            this(statusCode, body, Map.of());
+        }
+
+        /**
+         * Ctor.
+         * @param statusCode Status code.
+         * @param body Response body.
+         * @param headers Response headers.
+         */
+        public MockResource(
+            final int statusCode,
+            final JsonValue body,
+            final Map<String, List<String>> headers
+        ) {
             this.statusCode = statusCode;
             this.body = body;
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.headers.putAll(headers);
         }
 
         @Override
@@ -362,5 +456,20 @@ public final class MockJsonResources implements JsonResources {
             }
             return jsonArray;
         }
+
+        @Override
+        public Stream<JsonValue> asJsonStream() {
+            return this.asJsonArray().stream();
+        }
+
+        @Override
+        public Map<String, List<String>> headers() {
+            return this.headers;
+        }
+
+        @Override
+        public String body() {
+            return this.body.toString();
+        }
     }
 }
@@ -24,13 +24,20 @@ package com.selfxdsd.core.tasks;
 import com.selfxdsd.api.*;
 import com.selfxdsd.api.exceptions.TasksException;
 import com.selfxdsd.api.storage.Storage;
+import com.selfxdsd.core.Github;
+import com.selfxdsd.core.mock.MockJsonResources;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import java.math.BigDecimal;
+import java.net.HttpURLConnection;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.json.Json;
 
 /**
  * Unit tests for {@link StoredTask}.
@@ -562,4 +569,88 @@ public final class StoredTaskTestCase {
 
         MatcherAssert.assertThat(task.resignations(), Matchers.equalTo(ofTask));
     }
+
+    /**
+     * StoredTask.equals(...) and StoredTask.hashCode() rely only on the
+     * stored fields, they never call the Provider's API.
+     */
+    @Test
+    public void comparesWithoutNetworkCalls() {
+        final MockJsonResources resources = new MockJsonResources(
+            req -> new MockJsonResources.MockResource(
+                HttpURLConnection.HTTP_OK,
+                Json.createObjectBuilder().add("number", 123).build()
+            )
+        );
+        final Provider provider = new Github(
+            Mockito.mock(User.class),
+            Mockito.mock(Storage.class),
+            resources
+        );
+        final ProjectManager manager = Mockito.mock(ProjectManager.class);
+        Mockito.when(manager.provider()).thenReturn(provider);
+        final Project project = Mockito.mock(Project.class);
+        Mockito.when(project.repoFullName()).thenReturn("john/test");
+        Mockito.when(project.provider()).thenReturn(Provider.Names.GITHUB);
+        Mockito.when(project.projectManager()).thenReturn(manager);
+        final Task task = new StoredTask(
+            project, "123", "DEV", 120, Mockito.mock(Storage.class)
+        );
+        final Task same = new StoredTask(
+            project, "123", "REV", 60, Mockito.mock(Storage.class)
+        );
+        final Task other = new StoredTask(
+            project, "124", "DEV", 120, Mockito.mock(Storage.class)
+        );
+        final Set<Task> tasks = new HashSet<>(List.of(task, other));
+        MatcherAssert.assertThat(task, Matchers.equalTo(same));
+        MatcherAssert.assertThat(task, Matchers.not(Matchers.equalTo(other)));
+        MatcherAssert.assertThat(
+            task.hashCode(), Matchers.equalTo(same.hashCode())
+        );
+        MatcherAssert.assertThat(tasks.contains(same), Matchers.is(true));
+        MatcherAssert.assertThat(tasks.remove(same), Matchers.is(true));
+        MatcherAssert.assertThat(
+            resources.requests(), Matchers.iterableWithSize(0)
+        );
+    }
+
+    /**
+     * StoredTask knows which notices were posted and remembers new
+     * ones in the Storage.
+     */
+    @Test
+    public void remembersNotices() {
+        final Contract contract = Mockito.mock(Contract.class);
+        final Storage storage = Mockito.mock(Storage.class);
+        final Tasks all = Mockito.mock(Tasks.class);
+        Mockito.when(storage.tasks()).thenReturn(all);
+        final Task task = new StoredTask(
+            contract,
+            "123",
+            storage,
+            LocalDateTime.now(),
+            LocalDateTime.now().plusDays(10),
+            120,
+            Set.of(Task.Notices.REMINDER)
+        );
+        final Task notified = Mockito.mock(Task.class);
+        Mockito.when(all.notified(task, "OTHER"))
+            .thenReturn(notified);
+        MatcherAssert.assertThat(
+            task.isNotified(Task.Notices.REMINDER), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            task.isNotified("OTHER"), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            task.notified(Task.Notices.REMINDER), Matchers.is(task)
+        );
+        MatcherAssert.assertThat(
+            task.notified("OTHER"),
+            Matchers.is(notified)
+        );
+        Mockito.verify(all, Mockito.times(1))
+            .notified(Mockito.any(Task.class), Mockito.anyString());
+    }
 }